@@ -0,0 +1,45 @@
+package com.nucleo.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Deixa passar uma fracao (taxa) dos statements que o Hibernate loga em org.hibernate.SQL, em DEBUG,
+ * sem ligar o logger inteiro. O sorteio acontece no isDebugEnabled, antes de o Hibernate formatar o SQL;
+ * a decisao fica na thread ate a chamada de log seguinte, ja que a ponte do jboss-logging pergunta de novo.
+ * Taxa 0 desliga e o logger segue o nivel configurado.
+ */
+public class AmostragemSqlTurboFilter extends TurboFilter {
+
+    static final String LOGGER_SQL = "org.hibernate.SQL";
+
+    private static final ThreadLocal<Boolean> SORTEADO = new ThreadLocal<>();
+
+    private double taxa;
+
+    public void setTaxa(double taxa) {
+        this.taxa = taxa;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (taxa <= 0 || level != Level.DEBUG || !LOGGER_SQL.equals(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        boolean sorteado = SORTEADO.get() != null;
+        if (format != null) {
+            SORTEADO.remove();
+            return sorteado ? FilterReply.ACCEPT : FilterReply.DENY;
+        }
+        if (!sorteado && ThreadLocalRandom.current().nextDouble() >= taxa) {
+            return FilterReply.DENY;
+        }
+        SORTEADO.set(Boolean.TRUE);
+        return FilterReply.ACCEPT;
+    }
+}
@@ -0,0 +1,160 @@
+package com.nucleo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executores da aplicacao. Com spring.threads.virtual.enabled=true (Java 21+, perfil "virtual")
+ * o Spring Boot ja poe Tomcat, @Async e @Scheduled em threads virtuais; aqui os executores
+ * proprios trocam o pool fixo por uma thread virtual por tarefa, mantendo o mesmo teto de
+ * concorrencia (que vira espera de quem submete, no lugar do CallerRunsPolicy). Todos levam o
+ * MDC da requisicao (PropagacaoMdc) para as tarefas.
+ */
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    // o padrao do Boot e uma thread so, e a drenagem (SMTP) ou a varredura seguravam a sincronizacao das
+    // revogacoes; com uma thread por tarefa agendada nenhuma espera a outra. Em threads virtuais o Boot ja
+    // roda cada execucao numa thread propria
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${agendamento.threads:8}") int threads) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(threads);
+        scheduler.setThreadNamePrefix("agendamento-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    // pool limitado: se a fila encher quem drena envia o lote na propria thread
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor notificacaoExecutor(
+            @Value("${notificacoes.workers:4}") int workers,
+            @Value("${notificacoes.fila:100}") int fila) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(fila);
+        executor.setThreadNamePrefix("notificacao-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(new PropagacaoMdc());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    // o teto continua sendo o numero de conexoes SMTP simultaneas, nao de threads
+    @Bean("notificacaoExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor notificacaoExecutorVirtual(@Value("${notificacoes.workers:4}") int workers) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("notificacao-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(workers);
+        executor.setTaskTerminationTimeout(30_000);
+        executor.setTaskDecorator(new PropagacaoMdc());
+        return executor;
+    }
+
+    // respostas em streaming (NDJSON) rodam aqui, e nao em uma thread nova por requisicao
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor respostasAssincronasExecutor(@Value("${web.async.workers:16}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(workers * 4);
+        executor.setThreadNamePrefix("mvc-async-");
+        executor.setTaskDecorator(new PropagacaoMdc());
+        executor.initialize();
+        return executor;
+    }
+
+    // cada stream segura uma conexao do Hikari ate o fim, entao o limite fica mesmo com threads virtuais
+    @Bean("respostasAssincronasExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor respostasAssincronasExecutorVirtual(@Value("${web.async.workers:16}") int workers) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("mvc-async-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(workers);
+        executor.setTaskDecorator(new PropagacaoMdc());
+        return executor;
+    }
+
+    // faixas da varredura de alertas; cada uma segura uma conexao enquanto roda as agregacoes
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor varreduraAlertasExecutor(@Value("${alertas.varredura.concorrencia:2}") int concorrencia) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concorrencia);
+        executor.setMaxPoolSize(concorrencia);
+        executor.setThreadNamePrefix("varredura-alertas-");
+        executor.setTaskDecorator(new PropagacaoMdc());
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean("varreduraAlertasExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor varreduraAlertasExecutorVirtual(@Value("${alertas.varredura.concorrencia:2}") int concorrencia) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("varredura-alertas-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concorrencia);
+        executor.setTaskDecorator(new PropagacaoMdc());
+        return executor;
+    }
+
+    // secoes do dashboard; com a fila cheia a propria requisicao le a secao, sem rejeitar
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor dashboardExecutor(@Value("${dashboard.workers:8}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(workers * 8);
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(new PropagacaoMdc());
+        executor.initialize();
+        return executor;
+    }
+
+    // hash de senhas (BCrypt) e so CPU: pool de plataforma nos dois modos, com poucas threads.
+    // A fila tem o tamanho das vagas do HashSenhas, que recusa antes de o executor precisar recusar
+    @Bean
+    public ThreadPoolTaskExecutor hashSenhasExecutor(
+            @Value("${auth.hash.workers:0}") int workers,
+            @Value("${auth.hash.max-pendentes:64}") int maxPendentes) {
+        int threads = workers > 0 ? workers : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(maxPendentes);
+        executor.setThreadNamePrefix("hash-senhas-");
+        executor.setTaskDecorator(new PropagacaoMdc());
+        executor.initialize();
+        return executor;
+    }
+
+    // cada secao segura uma conexao do Hikari enquanto le; o limite protege o pool
+    @Bean("dashboardExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor dashboardExecutorVirtual(@Value("${dashboard.workers:8}") int workers) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("dashboard-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(workers);
+        executor.setTaskDecorator(new PropagacaoMdc());
+        return executor;
+    }
+}
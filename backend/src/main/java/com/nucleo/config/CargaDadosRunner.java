@@ -0,0 +1,52 @@
+package com.nucleo.config;
+
+import com.nucleo.service.carga.GeradorCarga;
+import com.nucleo.service.carga.ParametrosCarga;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Popula o banco com massa sintetica em escala no lugar do DataLoader.
+ * Ativado com o perfil carga (application-carga.properties); o tamanho vem das
+ * propriedades carga.*, por exemplo --carga.usuarios=5000.
+ */
+@Component
+@Profile("carga")
+@RequiredArgsConstructor
+public class CargaDadosRunner implements CommandLineRunner {
+
+    private final GeradorCarga geradorCarga;
+
+    @Value("${carga.usuarios:1000}")
+    private int usuarios;
+
+    @Value("${carga.contas-por-usuario:2}")
+    private int contasPorUsuario;
+
+    @Value("${carga.transacoes-por-mes:40}")
+    private int transacoesPorMes;
+
+    @Value("${carga.anos:3}")
+    private int anos;
+
+    @Value("${carga.semente:42}")
+    private long semente;
+
+    @Value("${carga.lote:1000}")
+    private int lote;
+
+    // vazio = hoje; fixe (ex.: 2025-12-31) para reproduzir a mesma massa em outro dia
+    @Value("${carga.data-base:}")
+    private String dataBase;
+
+    @Override
+    public void run(String... args) {
+        geradorCarga.gerar(new ParametrosCarga(usuarios, contasPorUsuario, transacoesPorMes, anos, semente, lote,
+                dataBase.isBlank() ? null : LocalDate.parse(dataBase)));
+    }
+}
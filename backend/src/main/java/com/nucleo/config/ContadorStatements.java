@@ -0,0 +1,32 @@
+package com.nucleo.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Conta os statements que o Hibernate prepara na thread da requisicao corrente.
+ * Fora de uma requisicao (jobs, carga) nao ha contagem aberta e o custo e um ThreadLocal.get.
+ * Um lote JDBC conta uma vez, como o statement preparado que ele e.
+ */
+public class ContadorStatements implements StatementInspector {
+
+    private static final ThreadLocal<int[]> CONTAGEM = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] contagem = CONTAGEM.get();
+        if (contagem != null) {
+            contagem[0]++;
+        }
+        return sql;
+    }
+
+    static void iniciar() {
+        CONTAGEM.set(new int[1]);
+    }
+
+    static int encerrar() {
+        int[] contagem = CONTAGEM.get();
+        CONTAGEM.remove();
+        return contagem != null ? contagem[0] : 0;
+    }
+}
@@ -4,6 +4,7 @@ import com.nucleo.model.*;
 import com.nucleo.repository.*;
 import com.nucleo.service.TransacaoService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Profile;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -14,7 +15,10 @@ import java.time.LocalDate;
 import java.util.Optional;
 import java.util.Set;
 
+// no perfil carga a massa vem do CargaDadosRunner
+@Slf4j
 @Component
+@Profile("!carga")
 @RequiredArgsConstructor
 public class DataLoader implements CommandLineRunner {
 
@@ -49,7 +53,7 @@ public class DataLoader implements CommandLineRunner {
                     .ativo(true)
                     .build();
             usuarioRepository.save(joao);
-            System.out.println("[OK] Usuário USER criado: joao@nucleo.com / string");
+            log.info("Usuário USER criado: joao@nucleo.com / string");
         }
     }
 
@@ -118,7 +122,7 @@ public class DataLoader implements CommandLineRunner {
                     .isGlobal(true)
                     .build());
 
-            System.out.println("[OK] 9 Categorias padrão criadas!");
+            log.info("9 Categorias padrão criadas!");
         }
     }
 
@@ -126,7 +130,7 @@ public class DataLoader implements CommandLineRunner {
         if (contasBancariasRepository.count() == 0) {
             Optional<Usuario> usuarioOpt = usuarioRepository.findByEmailAndAtivoTrue("joao@nucleo.com");
             if (usuarioOpt.isEmpty()) {
-                System.out.println("[AVISO] Usuário João não encontrado, ignorando contas exemplo.");
+                log.warn("Usuário João não encontrado, ignorando contas exemplo.");
                 return;
             }
             Usuario joao = usuarioOpt.get();
@@ -166,7 +170,7 @@ public class DataLoader implements CommandLineRunner {
                     .usuario(joao)
                     .build());
 
-            System.out.println("[OK] 4 Contas bancárias exemplo criadas para João!");
+            log.info("4 Contas bancárias exemplo criadas para João!");
         }
     }
 
@@ -174,7 +178,7 @@ public class DataLoader implements CommandLineRunner {
         if (beneficioRepository.count() == 0) {
             Optional<Usuario> usuarioOpt = usuarioRepository.findByEmailAndAtivoTrue("joao@nucleo.com");
             if (usuarioOpt.isEmpty()) {
-                System.out.println("[AVISO] Usuário João não encontrado, ignorando contas exemplo.");
+                log.warn("Usuário João não encontrado, ignorando contas exemplo.");
                 return;
             }
             Usuario usuario = usuarioOpt.get();
@@ -202,7 +206,7 @@ public class DataLoader implements CommandLineRunner {
                     .usuario(usuario)
                     .build());
 
-            System.out.println("[OK] 3 Benefícios exemplo criados para João!");
+            log.info("3 Benefícios exemplo criados para João!");
         }
     }
 
@@ -210,7 +214,7 @@ public class DataLoader implements CommandLineRunner {
         if (transacaoRepository.count() == 0) {
             Optional<Usuario> usuarioOpt = usuarioRepository.findByEmailAndAtivoTrue("joao@nucleo.com");
             if (usuarioOpt.isEmpty()) {
-                System.out.println("[AVISO] Usuário João não encontrado, ignorando contas exemplo.");
+                log.warn("Usuário João não encontrado, ignorando contas exemplo.");
                 return;
             }
             Usuario joao = usuarioOpt.get();
@@ -302,7 +306,7 @@ public class DataLoader implements CommandLineRunner {
                             .build())
             );
 
-            System.out.println("[OK] 6 Transações exemplo criadas para João!");
+            log.info("6 Transações exemplo criadas para João!");
         }
     }
 
@@ -310,7 +314,7 @@ public class DataLoader implements CommandLineRunner {
         if (metaRepository.count() == 0) {
             Optional<Usuario> usuarioOpt = usuarioRepository.findByEmailAndAtivoTrue("joao@nucleo.com");
             if (usuarioOpt.isEmpty()) {
-                System.out.println("[AVISO] Usuário João não encontrado, ignorando contas exemplo.");
+                log.warn("Usuário João não encontrado, ignorando contas exemplo.");
                 return;
             }
             Usuario joao = usuarioOpt.get();
@@ -348,7 +352,7 @@ public class DataLoader implements CommandLineRunner {
                         .build());
             }
 
-            System.out.println("[OK] 3 Metas exemplo criadas para João!");
+            log.info("3 Metas exemplo criadas para João!");
         }
     }
 
@@ -364,9 +368,9 @@ public class DataLoader implements CommandLineRunner {
                     .build();
 
             usuarioRepository.save(admin);
-            System.out.println("✅ Usuário ADMIN criado: " + emailAdmin);
+            log.info("Usuário ADMIN criado: {}", emailAdmin);
         } else {
-            System.out.println("ℹ️ Usuário ADMIN já existe.");
+            log.info("Usuário ADMIN já existe.");
         }
     }
 
@@ -0,0 +1,50 @@
+package com.nucleo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JpaConfig {
+
+    // agrupamento de inserts/updates em lotes JDBC; valores em spring.jpa.properties.* continuam prevalecendo
+    @Bean
+    public HibernatePropertiesCustomizer loteJdbcCustomizer(@Value("${jpa.lote.tamanho:50}") int tamanhoLote) {
+        return propriedades -> {
+            propriedades.putIfAbsent("hibernate.jdbc.batch_size", tamanhoLote);
+            propriedades.putIfAbsent("hibernate.order_inserts", true);
+            propriedades.putIfAbsent("hibernate.order_updates", true);
+        };
+    }
+
+    // cache de segundo nivel para Usuario, Categoria e ContasBancarias (regioes em cache/caffeine.conf)
+    // e cache de consultas para as categorias globais; as estatisticas alimentam GET /api/cache/metricas
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivelCustomizer(@Value("${jpa.cache.habilitado:true}") boolean habilitado) {
+        return propriedades -> {
+            propriedades.putIfAbsent("hibernate.cache.use_second_level_cache", habilitado);
+            propriedades.putIfAbsent("hibernate.cache.use_query_cache", habilitado);
+            propriedades.putIfAbsent("hibernate.cache.region.factory_class", "jcache");
+            propriedades.putIfAbsent("hibernate.javax.cache.provider",
+                    "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider");
+            propriedades.putIfAbsent("hibernate.javax.cache.uri", "cache/caffeine.conf");
+            propriedades.putIfAbsent("hibernate.javax.cache.missing_cache_strategy", "create");
+            propriedades.putIfAbsent("hibernate.generate_statistics", true);
+            // sem o resumo de metricas no log ao fim de cada sessao
+            propriedades.putIfAbsent("hibernate.session.events.log", false);
+        };
+    }
+
+    // show-sql escreve cada statement com System.out, na thread da requisicao; o SQL passa a sair
+    // pelo logger org.hibernate.SQL, amostrado (logs.sql.amostragem no logback-spring.xml)
+    @Bean
+    public HibernatePropertiesCustomizer sqlSemStdoutCustomizer(@Value("${logs.sql.stdout:false}") boolean stdout) {
+        return propriedades -> {
+            if (!stdout) {
+                propriedades.put("hibernate.show_sql", false);
+                propriedades.put("hibernate.format_sql", false);
+            }
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package com.nucleo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.core.Ordered;
+
+/**
+ * Instrumentacao exportada em /actuator/prometheus. Hikari, Hibernate (inclusive o cache
+ * de segundo nivel), executores, JVM e http.server.requests vem da autoconfiguracao do
+ * Actuator; aqui ficam os timers dos servicos e a contagem de statements por requisicao.
+ * Alertas e e-mails registram os proprios medidores (AvaliadorAlertas, MetricasNotificacao).
+ * O id de correlacao e a linha de resumo por requisicao ficam no RegistroRequisicaoFilter.
+ */
+@Configuration
+@PropertySource("classpath:metricas.properties")
+public class MetricasConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "metricas.servicos.habilitado", havingValue = "true", matchIfMissing = true)
+    public MetricasServicosAspect metricasServicosAspect(MeterRegistry registry) {
+        return new MetricasServicosAspect(registry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer contadorStatementsCustomizer() {
+        return propriedades -> propriedades.putIfAbsent("hibernate.session_factory.statement_inspector",
+                new ContadorStatements());
+    }
+
+    // antes da seguranca, para contar tambem o que a autenticacao consultar
+    @Bean
+    public FilterRegistrationBean<MetricasRequisicaoFilter> metricasRequisicaoFilter(MeterRegistry registry) {
+        FilterRegistrationBean<MetricasRequisicaoFilter> registro =
+                new FilterRegistrationBean<>(new MetricasRequisicaoFilter(registry));
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registro;
+    }
+
+    // por fora das metricas: o MDC ja vale para o que elas e a seguranca logarem, e o resumo le a contagem delas
+    @Bean
+    public FilterRegistrationBean<RegistroRequisicaoFilter> registroRequisicaoFilter() {
+        FilterRegistrationBean<RegistroRequisicaoFilter> registro =
+                new FilterRegistrationBean<>(new RegistroRequisicaoFilter());
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registro;
+    }
+}
@@ -0,0 +1,45 @@
+package com.nucleo.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/** Registra quantos statements JDBC cada requisicao preparou, por rota (o padrao do mapeamento, nao a URI crua). */
+public class MetricasRequisicaoFilter extends OncePerRequestFilter {
+
+    static final String METRICA = "nucleo.http.jdbc.statements";
+    // lido pelo RegistroRequisicaoFilter, que fica por fora, para a linha de resumo
+    static final String ATRIBUTO_STATEMENTS = MetricasRequisicaoFilter.class.getName() + ".statements";
+
+    private final MeterRegistry registry;
+
+    public MetricasRequisicaoFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContadorStatements.iniciar();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int statements = ContadorStatements.encerrar();
+            request.setAttribute(ATRIBUTO_STATEMENTS, statements);
+            Object rota = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder(METRICA)
+                    .description("Statements JDBC preparados por requisicao")
+                    .tag("method", request.getMethod())
+                    .tag("uri", rota != null ? rota.toString() : "UNKNOWN")
+                    .register(registry)
+                    .record(statements);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.nucleo.config;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+@Configuration
+public class MigracoesConfig {
+
+    static final String LOCAL_MIGRACOES = "classpath:db/migration/";
+
+    // uma pasta de migracoes por banco (db/migration/h2, db/migration/mysql); H2 em MODE=MySQL usa as do MySQL,
+    // que e como os benchmarks de plano de consulta rodam o esquema de producao sem um servidor MySQL
+    @Bean
+    public FlywayConfigurationCustomizer migracoesPorBancoCustomizer(DataSource dataSource) {
+        return configuracao -> configuracao.locations(LOCAL_MIGRACOES + fornecedor(dataSource));
+    }
+
+    static String fornecedor(DataSource dataSource) {
+        try (Connection conexao = dataSource.getConnection()) {
+            DatabaseDriver driver = DatabaseDriver.fromJdbcUrl(conexao.getMetaData().getURL());
+            if (driver == DatabaseDriver.H2 && "MySQL".equalsIgnoreCase(modoH2(conexao))) {
+                return DatabaseDriver.MYSQL.getId();
+            }
+            return driver.getId();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Nao foi possivel identificar o banco para as migracoes", e);
+        }
+    }
+
+    // o H2 nao devolve o ;MODE= da URL em getURL()
+    private static String modoH2(Connection conexao) throws SQLException {
+        try (Statement statement = conexao.createStatement();
+             ResultSet resultado = statement.executeQuery(
+                     "SELECT SETTING_VALUE FROM INFORMATION_SCHEMA.SETTINGS WHERE SETTING_NAME = 'MODE'")) {
+            return resultado.next() ? resultado.getString(1) : null;
+        }
+    }
+}
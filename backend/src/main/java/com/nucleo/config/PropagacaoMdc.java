@@ -0,0 +1,35 @@
+package com.nucleo.config;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.Map;
+
+/**
+ * Leva o MDC de quem submete (correlacaoId, usuarioId) para a tarefa no executor e devolve o
+ * MDC anterior da thread ao fim, o que tambem vale quando a tarefa roda em quem submeteu.
+ */
+public class PropagacaoMdc implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable tarefa) {
+        Map<String, String> contexto = MDC.getCopyOfContextMap();
+        return () -> {
+            Map<String, String> anterior = MDC.getCopyOfContextMap();
+            definir(contexto);
+            try {
+                tarefa.run();
+            } finally {
+                definir(anterior);
+            }
+        };
+    }
+
+    private static void definir(Map<String, String> contexto) {
+        if (contexto != null) {
+            MDC.setContextMap(contexto);
+        } else {
+            MDC.clear();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.nucleo.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Abre o MDC da requisicao com o id de correlacao (o X-Correlation-Id recebido ou um novo,
+ * devolvido no mesmo cabecalho) e, no fim, grava uma linha de resumo com metodo, rota, status,
+ * duracao e statements JDBC. O MDC e limpo na saida, ja que a thread volta para o pool.
+ */
+@Slf4j
+public class RegistroRequisicaoFilter extends OncePerRequestFilter {
+
+    public static final String CABECALHO = "X-Correlation-Id";
+    public static final String MDC_CORRELACAO = "correlacaoId";
+    public static final String MDC_USUARIO = "usuarioId";
+
+    // o id vai para o log como veio: so aceita o que nao quebra a linha nem o JSON
+    private static final Pattern ID_VALIDO = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String correlacao = request.getHeader(CABECALHO);
+        if (correlacao == null || !ID_VALIDO.matcher(correlacao).matches()) {
+            correlacao = novoId();
+        }
+        MDC.put(MDC_CORRELACAO, correlacao);
+        response.setHeader(CABECALHO, correlacao);
+        long inicio = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (log.isInfoEnabled()) {
+                resumir(request, response, (System.nanoTime() - inicio) / 1_000_000);
+            }
+            MDC.clear();
+        }
+    }
+
+    private void resumir(HttpServletRequest request, HttpServletResponse response, long milissegundos) {
+        Object rota = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Object statements = request.getAttribute(MetricasRequisicaoFilter.ATRIBUTO_STATEMENTS);
+        // respostas assincronas (streaming) continuam depois daqui; o status ainda nao e o final
+        String status = request.isAsyncStarted() ? "assincrona" : String.valueOf(response.getStatus());
+        log.atInfo()
+                .addKeyValue("metodo", request.getMethod())
+                .addKeyValue("uri", request.getRequestURI())
+                .addKeyValue("rota", rota != null ? rota : "UNKNOWN")
+                .addKeyValue("status", status)
+                .addKeyValue("duracaoMs", milissegundos)
+                .addKeyValue("statements", statements != null ? statements : 0)
+                .log("{} {} {} em {} ms", request.getMethod(), request.getRequestURI(), status, milissegundos);
+    }
+
+    // UUID.randomUUID passa pelo SecureRandom compartilhado; para correlacao basta ThreadLocalRandom
+    private static String novoId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return String.format("%016x%016x", random.nextLong(), random.nextLong());
+    }
+}
@@ -1,5 +1,6 @@
 package com.nucleo.config;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationListener;
@@ -8,6 +9,7 @@ import org.springframework.stereotype.Component;
 import java.awt.Desktop;
 import java.net.URI;
 
+@Slf4j
 @Component
 public class SwaggerAutoOpenConfig implements ApplicationListener<ApplicationReadyEvent> {
 
@@ -22,8 +24,7 @@ public class SwaggerAutoOpenConfig implements ApplicationListener<ApplicationRea
         if (autoOpen) {
             try {
                 String url = "http://localhost:" + port + "/swagger-ui.html";
-                System.out.println("\n🚀 Abrindo o Swagger UI automaticamente...");
-                System.out.println("📄 URL: " + url + "\n");
+                log.info("Abrindo o Swagger UI automaticamente: {}", url);
 
                 if (Desktop.isDesktopSupported()) {
                     Desktop desktop = Desktop.getDesktop();
@@ -32,8 +33,8 @@ public class SwaggerAutoOpenConfig implements ApplicationListener<ApplicationRea
                     }
                 }
             } catch (Exception e) {
-                System.err.println("⚠️ Não foi possível abrir o navegador automaticamente: " + e.getMessage());
-                System.out.println("📄 Acesse manualmente: http://localhost:" + port + "/swagger-ui.html");
+                log.warn("Não foi possível abrir o navegador automaticamente ({}). Acesse manualmente: http://localhost:{}/swagger-ui.html",
+                        e.getMessage(), port);
             }
         }
     }
@@ -0,0 +1,22 @@
+package com.nucleo.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final AsyncTaskExecutor respostasAssincronasExecutor;
+
+    public WebConfig(@Qualifier("respostasAssincronasExecutor") AsyncTaskExecutor respostasAssincronasExecutor) {
+        this.respostasAssincronasExecutor = respostasAssincronasExecutor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(respostasAssincronasExecutor);
+    }
+}
@@ -2,9 +2,11 @@ package com.nucleo.controller;
 
 import com.nucleo.dto.AlertaRequest;
 import com.nucleo.dto.AlertaResponse;
+import com.nucleo.dto.ResultadoVarreduraDTO;
 import com.nucleo.model.Alerta;
 import com.nucleo.security.SecurityUtils;
 import com.nucleo.service.AlertaService;
+import com.nucleo.service.alerta.VarreduraAlertas;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -26,6 +28,7 @@ import java.util.stream.Collectors;
 public class AlertaController {
 
     private final AlertaService alertaService;
+    private final VarreduraAlertas varreduraAlertas;
 
     @PostMapping
     public ResponseEntity<AlertaResponse> criar(@Valid @RequestBody AlertaRequest request) {
@@ -81,4 +84,10 @@ public class AlertaController {
         alertaService.deletar(id);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/varredura")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResultadoVarreduraDTO> varrer() {
+        return ResponseEntity.ok(varreduraAlertas.varrer());
+    }
 }
@@ -2,6 +2,7 @@ package com.nucleo.controller;
 
 import com.nucleo.dto.AuthRequestDTO;
 import com.nucleo.dto.AuthResponseDTO;
+import com.nucleo.dto.RefreshTokenRequestDTO;
 import com.nucleo.exception.AuthenticationException;
 import com.nucleo.exception.EntityNotCreatedException;
 import com.nucleo.service.AuthService;
@@ -17,9 +18,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 @Tag(name = "Auth", description = "Gerenciamento de autorizações (login e cadastro).")
@@ -52,13 +56,13 @@ public class AuthController {
             responses = {
                     @ApiResponse(responseCode = "200", description = "Login realizado com sucesso"),
                     @ApiResponse(responseCode = "401", description = "Credenciais inválidas"),
-                    @ApiResponse(responseCode = "400",description = "Informacoes invalidas")
+                    @ApiResponse(responseCode = "400",description = "Informacoes invalidas"),
+                    @ApiResponse(responseCode = "503", description = "Fila de autenticacao cheia; tente de novo apos Retry-After")
             }
     )
     @PostMapping("/login")
-        public ResponseEntity<?> login(@Valid @RequestBody AuthRequestDTO request) {
-        AuthResponseDTO response = authService.autenticar(request);
-        return ResponseEntity.ok(response);
+        public CompletableFuture<ResponseEntity<AuthResponseDTO>> login(@Valid @RequestBody AuthRequestDTO request) {
+        return authService.autenticar(request).thenApply(ResponseEntity::ok);
     }
 
 
@@ -79,8 +83,29 @@ public class AuthController {
                     )
             }
     )))
-    public ResponseEntity<?> registrar(@Valid @RequestBody AuthRequestDTO request) {
-        AuthResponseDTO response = authService.registrar(request);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<AuthResponseDTO>> registrar(@Valid @RequestBody AuthRequestDTO request) {
+        return authService.registrar(request).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping("/refresh")
+    @Operation(
+            summary = "Renova o token de acesso",
+            description = "Troca o refresh token por um novo token de acesso e um novo refresh token. "
+                    + "Cada refresh token vale uma vez; reapresentar um ja usado encerra a sessao.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Tokens renovados"),
+                    @ApiResponse(responseCode = "401", description = "Refresh token invalido, vencido ou ja usado")
+            }
+    )
+    public ResponseEntity<AuthResponseDTO> renovar(@Valid @RequestBody RefreshTokenRequestDTO request) {
+        return ResponseEntity.ok(authService.renovar(request));
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Encerra a sessao", description = "Revoga o refresh token e, se enviado, o token de acesso atual.")
+    public ResponseEntity<Void> sair(@Valid @RequestBody RefreshTokenRequestDTO request,
+                                     @RequestHeader(value = "Authorization", required = false) String authorization) {
+        authService.sair(request, authorization);
+        return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+}
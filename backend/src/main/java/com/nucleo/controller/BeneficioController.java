@@ -1,8 +1,10 @@
 package com.nucleo.controller;
 
+import com.nucleo.dto.PaginaDTO;
 import com.nucleo.model.Beneficio;
 import com.nucleo.security.SecurityUtils;
 import com.nucleo.service.BeneficioService;
+import com.nucleo.service.listagem.ParametrosPagina;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -36,9 +38,11 @@ public class BeneficioController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Beneficio>> listar() {
-        List<Beneficio> beneficios = beneficioService.listarTodos();
-        return ResponseEntity.ok().body(beneficios);
+    public ResponseEntity<PaginaDTO<Beneficio>> listar(@RequestParam(required = false) Long usuarioId,
+                                                       @RequestParam(required = false) Beneficio.TipoBeneficio tipo,
+                                                       @RequestParam(required = false) String nome,
+                                                       ParametrosPagina pagina) {
+        return ResponseEntity.ok().body(beneficioService.listarPagina(usuarioId, tipo, nome, pagina));
     }
 
     @GetMapping("/{id}")
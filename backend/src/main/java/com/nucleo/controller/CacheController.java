@@ -0,0 +1,38 @@
+package com.nucleo.controller;
+
+import com.nucleo.dto.MetricasCacheDTO;
+import com.nucleo.service.CacheEntidadesService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+@Tag(name = "Cache", description = "Cache de segundo nível de usuários, categorias e contas")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class CacheController {
+
+    private final CacheEntidadesService cacheEntidadesService;
+
+    @GetMapping("/metricas")
+    @Operation(summary = "Acertos, faltas e taxa de acerto por região do cache")
+    public ResponseEntity<List<MetricasCacheDTO>> metricas() {
+        return ResponseEntity.ok(cacheEntidadesService.metricas());
+    }
+
+    @DeleteMapping
+    @Operation(summary = "Esvazia o cache (após alterações feitas direto no banco)")
+    public ResponseEntity<Void> limpar() {
+        cacheEntidadesService.limpar();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -4,6 +4,7 @@ import com.nucleo.dto.CategoriaRequestDTO;
 import com.nucleo.dto.CategoriaResponseDTO;
 import com.nucleo.model.Categoria;
 import com.nucleo.service.CategoriaService;
+import com.nucleo.service.listagem.ParametrosPagina;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -32,7 +33,12 @@ public class CategoriaController {
 
     @GetMapping
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public ResponseEntity<List<CategoriaResponseDTO>> listar() {
+    public ResponseEntity<?> listar(@RequestParam(required = false) Categoria.TipoCategoria tipo,
+                                    @RequestParam(required = false) String nome,
+                                    ParametrosPagina pagina) {
+        if (tipo != null || nome != null || pagina.pedida()) {
+            return ResponseEntity.ok(categoriaService.listarPagina(tipo, nome, pagina).mapear(CategoriaResponseDTO::fromEntity));
+        }
         List<CategoriaResponseDTO> categorias = categoriaService.listarPorUsuario().stream()
                 .map(CategoriaResponseDTO::fromEntity)
                 .collect(Collectors.toList());
@@ -1,8 +1,13 @@
 package com.nucleo.controller;
 
+import com.nucleo.dto.PaginaDTO;
+import com.nucleo.dto.SaldoDTO;
 import com.nucleo.model.ContasBancarias;
+import com.nucleo.model.TipoConta;
 import com.nucleo.security.SecurityUtils;
 import com.nucleo.service.ContasBancariasService;
+import com.nucleo.service.SaldoService;
+import com.nucleo.service.listagem.ParametrosPagina;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -19,6 +24,7 @@ import java.util.List;
 public class ContasBancariasController {
 
     private final ContasBancariasService contasService;
+    private final SaldoService saldoService;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
@@ -36,9 +42,12 @@ public class ContasBancariasController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<ContasBancarias>> listarTodas() {
-        List<ContasBancarias> contas = contasService.listarTodas();
-        return ResponseEntity.ok().body(contas);
+    public ResponseEntity<PaginaDTO<ContasBancarias>> listarTodas(@RequestParam(required = false) Long usuarioId,
+                                                                  @RequestParam(required = false) TipoConta tipo,
+                                                                  @RequestParam(required = false) String instituicao,
+                                                                  @RequestParam(required = false) Boolean ativo,
+                                                                  ParametrosPagina pagina) {
+        return ResponseEntity.ok().body(contasService.listarPagina(usuarioId, tipo, instituicao, ativo, pagina));
     }
 
     @GetMapping("/{id}")
@@ -50,6 +59,13 @@ public class ContasBancariasController {
         return ResponseEntity.ok().body(conta);
     }
 
+    @GetMapping("/{id}/saldo")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<SaldoDTO> buscarSaldo(@PathVariable Long id) {
+        ContasBancarias conta = contasService.buscarPorId(id);
+        return ResponseEntity.ok().body(saldoService.getSaldoConta(conta.getId()));
+    }
+
     @GetMapping("/usuario/{usuarioId}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<ContasBancarias>> listarPorUsuario(@PathVariable Long usuarioId) {
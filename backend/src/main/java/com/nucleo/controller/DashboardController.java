@@ -0,0 +1,33 @@
+package com.nucleo.controller;
+
+import com.nucleo.dto.DashboardDTO;
+import com.nucleo.security.SecurityUtils;
+import com.nucleo.service.dashboard.CampoDashboard;
+import com.nucleo.service.dashboard.DashboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@Tag(name = "Dashboard", description = "Usuário, contas, saldo, metas, benefícios e alertas em uma requisição")
+@RequiredArgsConstructor
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    @GetMapping
+    @Operation(summary = "Dashboard do usuario logado; ?campos=usuario,saldo,... limita as secoes")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<DashboardDTO> buscar(@RequestParam(required = false) List<String> campos) {
+        return ResponseEntity.ok(dashboardService.montar(SecurityUtils.getCurrentUserId(), CampoDashboard.de(campos)));
+    }
+}
@@ -1,8 +1,12 @@
 package com.nucleo.controller;
 
+import com.nucleo.dto.PaginaDTO;
+import com.nucleo.dto.ProgressoMetaDTO;
 import com.nucleo.model.Meta;
+import com.nucleo.model.StatusMeta;
 import com.nucleo.security.SecurityUtils;
 import com.nucleo.service.MetaService;
+import com.nucleo.service.listagem.ParametrosPagina;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jdk.jfr.Description;
 import lombok.RequiredArgsConstructor;
@@ -37,17 +41,30 @@ public class MetaController {
 
     @GetMapping("/me")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public ResponseEntity<List<Meta>> listarMinhas() {
+    public ResponseEntity<?> listarMinhas(@RequestParam(required = false) StatusMeta status, ParametrosPagina pagina) {
+        if (status != null || pagina.pedida()) {
+            return ResponseEntity.ok(metaService.listarPagina(SecurityUtils.getCurrentUserId(), status, null, null, pagina));
+        }
         List<Meta> metas = metaService.listarPorUsuario(SecurityUtils.getCurrentUserId());
         return ResponseEntity.ok(metas);
     }
 
-    @Description("buscar todas as metas, apenas para admins")
+    @Description("progresso, ritmo e data prevista de conclusao de cada meta do usuario logado")
+    @GetMapping("/me/progresso")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<ProgressoMetaDTO>> listarMeuProgresso() {
+        return ResponseEntity.ok(metaService.listarProgresso(SecurityUtils.getCurrentUserId()));
+    }
+
+    @Description("buscar todas as metas, paginadas por cursor, apenas para admins")
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Meta>> listarTodas() {
-        List<Meta> metas = metaService.listarTodas();
-        return ResponseEntity.ok().body(metas);
+    public ResponseEntity<PaginaDTO<Meta>> listarTodas(@RequestParam(required = false) Long usuarioId,
+                                                       @RequestParam(required = false) StatusMeta status,
+                                                       @RequestParam(required = false) Long categoriaId,
+                                                       @RequestParam(required = false) String titulo,
+                                                       ParametrosPagina pagina) {
+        return ResponseEntity.ok().body(metaService.listarPagina(usuarioId, status, categoriaId, titulo, pagina));
     }
 
     @GetMapping("/{id}")
@@ -57,6 +74,12 @@ public class MetaController {
         return ResponseEntity.ok().body(meta);
     }
 
+    @GetMapping("/{id}/progresso")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<ProgressoMetaDTO> progresso(@PathVariable Long id) {
+        return ResponseEntity.ok(metaService.progresso(id, SecurityUtils.getCurrentUserId()));
+    }
+
     @GetMapping("/{id}/usuario/{idUsuario}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Meta> buscarPorIdComoAdmin(@PathVariable Long id, @PathVariable Long idUsuario) {
@@ -0,0 +1,28 @@
+package com.nucleo.controller;
+
+import com.nucleo.dto.MetricasNotificacaoDTO;
+import com.nucleo.service.notificacao.NotificacaoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/notificacoes")
+@Tag(name = "Notificações", description = "Fila de e-mails de alerta")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class NotificacaoController {
+
+    private final NotificacaoService notificacaoService;
+
+    @GetMapping("/metricas")
+    @Operation(summary = "Profundidade da fila e latência de envio dos e-mails")
+    public ResponseEntity<MetricasNotificacaoDTO> metricas() {
+        return ResponseEntity.ok(notificacaoService.metricas());
+    }
+}
@@ -0,0 +1,47 @@
+package com.nucleo.controller;
+
+import com.nucleo.dto.AgregadoRelatorioDTO;
+import com.nucleo.model.Transacao;
+import com.nucleo.security.SecurityUtils;
+import com.nucleo.service.relatorio.AgregadorRelatorios;
+import com.nucleo.service.relatorio.Granularidade;
+import com.nucleo.service.relatorio.RelatorioService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/relatorios")
+@Tag(name = "Relatórios", description = "Totais por período, categoria, conta e tipo")
+@RequiredArgsConstructor
+public class RelatorioController {
+
+    private final RelatorioService relatorioService;
+    private final AgregadorRelatorios agregadorRelatorios;
+
+    @GetMapping
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<AgregadoRelatorioDTO>> consultar(
+            @RequestParam("dataInicio") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam("dataFim") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @RequestParam(defaultValue = "MES") Granularidade granularidade,
+            @RequestParam(required = false) Long categoriaId,
+            @RequestParam(required = false) Long contaId,
+            @RequestParam(required = false) Transacao.TipoTransacao tipo) {
+        return ResponseEntity.ok(relatorioService.consultar(SecurityUtils.getCurrentUserId(), dataInicio, dataFim,
+                granularidade, categoriaId, contaId, tipo));
+    }
+
+    @PostMapping("/reconstruir")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Integer>> reconstruir() {
+        return ResponseEntity.ok(Map.of("linhasDiarias", agregadorRelatorios.reconstruir()));
+    }
+}
@@ -1,22 +1,38 @@
 package com.nucleo.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nucleo.dto.ReconciliacaoSaldosDTO;
+import com.nucleo.dto.ResultadoImportacaoDTO;
+import com.nucleo.dto.SaldoDTO;
 import com.nucleo.dto.TransacaoRequestDTO;
 import com.nucleo.dto.TransacaoResponseDTO;
 import com.nucleo.exception.AuthenticationException;
 import com.nucleo.model.Transacao;
 import com.nucleo.security.SecurityUtils;
+import com.nucleo.service.ImportacaoTransacaoService;
+import com.nucleo.service.SaldoService;
 import com.nucleo.service.TransacaoService;
+import com.nucleo.service.importacao.LeitorCsv;
+import com.nucleo.service.importacao.LeitorOfx;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 
 @RestController
@@ -27,6 +43,9 @@ import java.util.stream.Collectors;
 public class TransacaoController {
 
     private final TransacaoService transacaoService;
+    private final SaldoService saldoService;
+    private final ImportacaoTransacaoService importacaoService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<?> criar(@RequestBody TransacaoRequestDTO request) {
@@ -34,24 +53,58 @@ public class TransacaoController {
         return ResponseEntity.ok().body(transacao);
     }
 
+    @PostMapping(value = "/importacao", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ResultadoImportacaoDTO> importar(@RequestBody List<TransacaoRequestDTO> transacoes) {
+        return ResponseEntity.ok(importacaoService.importar(transacoes));
+    }
+
+    // o corpo e lido em streaming, sem passar por multipart nem carregar o arquivo em memoria
+    @PostMapping(value = "/importacao", consumes = "text/csv")
+    public ResponseEntity<ResultadoImportacaoDTO> importarCsv(
+            HttpServletRequest request,
+            @RequestParam(required = false) Long contaId,
+            @RequestParam(required = false) Long categoriaId) throws IOException {
+        try (BufferedReader leitor = leitor(request)) {
+            return ResponseEntity.ok(importacaoService.importar(new LeitorCsv(leitor, categoriaId, contaId)));
+        }
+    }
+
+    @PostMapping(value = "/importacao", consumes = {"application/x-ofx", "application/ofx"})
+    public ResponseEntity<ResultadoImportacaoDTO> importarOfx(
+            HttpServletRequest request,
+            @RequestParam Long contaId,
+            @RequestParam(required = false) Long categoriaId) throws IOException {
+        try (BufferedReader leitor = leitor(request)) {
+            return ResponseEntity.ok(importacaoService.importar(new LeitorOfx(leitor, categoriaId, contaId)));
+        }
+    }
+
     @GetMapping({"/user/{id}","/user"})
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
-    public ResponseEntity<List<TransacaoResponseDTO>> listarTodas(@RequestParam(required = false) Long id) {
-        List<Transacao> transacoes;
+    public ResponseEntity<?> listarTodas(@RequestParam(required = false) Long id,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limite) {
+        if (cursor != null || limite != null) {
+            return ResponseEntity.ok(transacaoService.listarPagina(usuarioAlvo(id), null, cursor, limite));
+        }
+
+        List<TransacaoResponseDTO> response;
         if(SecurityUtils.isAdmin()){
-            transacoes= transacaoService.listarTodas(id);
+            response = transacaoService.listarTodas(id);
         }else if (id != null){
             throw new AuthenticationException("erros.authentication");
         }else{
-            transacoes = transacaoService.listarTodas();
+            response = transacaoService.listarTodas();
         }
-
-        List<TransacaoResponseDTO> response = transacoes.stream()
-                .map(TransacaoResponseDTO::fromEntity)
-                .collect(Collectors.toList());
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/user/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportarTodas(@RequestParam(required = false) Long id) {
+        return ndjson(usuarioAlvo(id), null);
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN')")
     public ResponseEntity<TransacaoResponseDTO> buscarPorId(@PathVariable Long id) {
@@ -77,38 +130,44 @@ public class TransacaoController {
     }
 
     @GetMapping("/me")
-    public ResponseEntity<List<TransacaoResponseDTO>> listarMinhas() {
-        List<Transacao> transacoes = transacaoService.listarTodas();
-        List<TransacaoResponseDTO> response = transacoes.stream()
-                .map(TransacaoResponseDTO::fromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<?> listarMinhas(@RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limite) {
+        if (cursor != null || limite != null) {
+            return ResponseEntity.ok(transacaoService.listarPagina(SecurityUtils.getCurrentUserId(), null, cursor, limite));
+        }
+        return ResponseEntity.ok(transacaoService.listarTodas());
+    }
+
+    @GetMapping(value = "/me/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarMinhas() {
+        return ndjson(SecurityUtils.getCurrentUserId(), null);
     }
 
     @GetMapping("/me/periodo")
-    public ResponseEntity<List<Transacao>> buscarMinhasPorPeriodo(
+    public ResponseEntity<List<TransacaoResponseDTO>> buscarMinhasPorPeriodo(
             @RequestParam("dataInicio") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
             @RequestParam("dataFim") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim) {
-        List<Transacao> transacoes = transacaoService.buscarPorPeriodo(dataInicio, dataFim);
-        return ResponseEntity.ok(transacoes);
+        return ResponseEntity.ok(transacaoService.buscarPorPeriodo(dataInicio, dataFim));
     }
 
     @GetMapping("/me/categoria/{categoriaId}")
     public ResponseEntity<List<TransacaoResponseDTO>> buscarMinhasPorCategoria(@PathVariable Long categoriaId) {
-        List<Transacao> transacoes = transacaoService.encontraPorCategoria(categoriaId);
-        List<TransacaoResponseDTO> response = transacoes.stream()
-                .map(TransacaoResponseDTO::fromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(transacaoService.encontraPorCategoria(categoriaId));
     }
 
     @GetMapping("/me/tipo/{tipo}")
-    public ResponseEntity<List<TransacaoResponseDTO>> buscarMinhasPorTipo(@PathVariable Transacao.TipoTransacao tipo) {
-        List<Transacao> transacoes = transacaoService.encontraPorTipo(tipo);
-        List<TransacaoResponseDTO> response = transacoes.stream()
-                .map(TransacaoResponseDTO::fromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<?> buscarMinhasPorTipo(@PathVariable Transacao.TipoTransacao tipo,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer limite) {
+        if (cursor != null || limite != null) {
+            return ResponseEntity.ok(transacaoService.listarPagina(SecurityUtils.getCurrentUserId(), tipo, cursor, limite));
+        }
+        return ResponseEntity.ok(transacaoService.encontraPorTipo(tipo));
+    }
+
+    @GetMapping(value = "/me/tipo/{tipo}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarMinhasPorTipo(@PathVariable Transacao.TipoTransacao tipo) {
+        return ndjson(SecurityUtils.getCurrentUserId(), tipo);
     }
 
     @GetMapping("/me/saldo")
@@ -120,16 +179,7 @@ public class TransacaoController {
     @GetMapping("/me/resumo")
     public ResponseEntity<String> getMeuResumo() {
         Long usuarioId = SecurityUtils.getCurrentUserId();
-        BigDecimal entradas = transacaoService.getTotalEntradas(usuarioId);
-        BigDecimal saidas = transacaoService.getTotalSaidas(usuarioId);
-        BigDecimal saldo = transacaoService.getSaldo(usuarioId);
-
-        String resumo = String.format(
-                "Entradas: R$ %.2f | Saídas: R$ %.2f | Saldo: R$ %.2f",
-                entradas, saidas, saldo
-        );
-
-        return ResponseEntity.ok(resumo);
+        return ResponseEntity.ok(formatarResumo(transacaoService.getResumo(usuarioId)));
     }
 
     @GetMapping("/saldo/{usuarioId}")
@@ -141,15 +191,49 @@ public class TransacaoController {
     @GetMapping("/resumo/{usuarioId}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<String> getResumo(@PathVariable Long usuarioId) {
-        BigDecimal entradas = transacaoService.getTotalEntradas(usuarioId);
-        BigDecimal saidas = transacaoService.getTotalSaidas(usuarioId);
-        BigDecimal saldo = transacaoService.getSaldo(usuarioId);
+        return ResponseEntity.ok(formatarResumo(transacaoService.getResumo(usuarioId)));
+    }
+
+    @PostMapping("/saldos/reconciliar")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReconciliacaoSaldosDTO> reconciliarSaldos() {
+        return ResponseEntity.ok(saldoService.reconciliar());
+    }
 
-        String resumo = String.format(
+    private Long usuarioAlvo(Long id) {
+        if (id == null) {
+            return SecurityUtils.getCurrentUserId();
+        }
+        if (!SecurityUtils.isAdmin()) {
+            throw new AuthenticationException("erros.authentication");
+        }
+        return id;
+    }
+
+    // uma transacao por linha, escrita conforme as janelas sao lidas do banco
+    private ResponseEntity<StreamingResponseBody> ndjson(Long usuarioId, Transacao.TipoTransacao tipo) {
+        StreamingResponseBody corpo = saida -> transacaoService.percorrer(usuarioId, tipo, transacao -> {
+            try {
+                saida.write(objectMapper.writeValueAsBytes(transacao));
+                saida.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(corpo);
+    }
+
+    private BufferedReader leitor(HttpServletRequest request) throws IOException {
+        Charset charset = request.getCharacterEncoding() != null
+                ? Charset.forName(request.getCharacterEncoding())
+                : StandardCharsets.UTF_8;
+        return new BufferedReader(new InputStreamReader(request.getInputStream(), charset));
+    }
+
+    private String formatarResumo(SaldoDTO resumo) {
+        return String.format(
                 "Entradas: R$ %.2f | Saídas: R$ %.2f | Saldo: R$ %.2f",
-                entradas, saidas, saldo
+                resumo.entradas(), resumo.saidas(), resumo.saldo()
         );
-
-        return ResponseEntity.ok(resumo);
     }
 }
\ No newline at end of file
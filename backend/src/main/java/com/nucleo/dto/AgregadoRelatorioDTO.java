@@ -0,0 +1,18 @@
+package com.nucleo.dto;
+
+import com.nucleo.model.Transacao;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** Uma linha do relatorio: total do balde que comeca em {@code periodo}. */
+public record AgregadoRelatorioDTO(
+        LocalDate periodo,
+        Long categoriaId,
+        String categoriaNome,
+        Long contaId,
+        Transacao.TipoTransacao tipo,
+        BigDecimal total,
+        long quantidade
+) {
+}
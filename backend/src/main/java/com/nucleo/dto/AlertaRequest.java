@@ -27,6 +27,9 @@ public class AlertaRequest {
     @Max(value = 365, message = "Janela de dias não pode exceder 365")
     private Integer janelaDias;
 
+    @Min(value = 0, message = "Intervalo entre notificações não pode ser negativo")
+    private Integer cooldownMinutos;
+
     private Boolean ativo;
     private Boolean notificarEmail;
 }
@@ -20,6 +20,7 @@ public class AlertaResponse {
     private String contaApelido;
     private BigDecimal limiteValor;
     private Integer janelaDias;
+    private Integer cooldownMinutos;
     private Boolean ativo;
     private Boolean notificarEmail;
     private LocalDateTime dataCriacao;
@@ -38,6 +39,7 @@ public class AlertaResponse {
         response.setContaApelido(alerta.getConta() != null ? alerta.getConta().getApelido() : null);
         response.setLimiteValor(alerta.getLimiteValor());
         response.setJanelaDias(alerta.getJanelaDias());
+        response.setCooldownMinutos(alerta.getCooldownMinutos());
         response.setAtivo(alerta.getAtivo());
         response.setNotificarEmail(alerta.getNotificarEmail());
         response.setDataCriacao(alerta.getDataCriacao());
@@ -15,4 +15,7 @@ import java.util.Set;
 public class AuthResponseDTO {
     private String token;
     private String email;
+    private String refreshToken;
+    // validade do token de acesso, em segundos
+    private Long expiresIn;
 }
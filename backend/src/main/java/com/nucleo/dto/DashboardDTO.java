@@ -0,0 +1,22 @@
+package com.nucleo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.nucleo.model.Beneficio;
+import com.nucleo.model.ContasBancarias;
+import com.nucleo.model.Meta;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// secoes nao pedidas ficam nulas e saem do JSON
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DashboardDTO(
+        UsuarioResponseDTO usuario,
+        List<ContasBancarias> contas,
+        BigDecimal saldo,
+        SaldoDTO resumo,
+        List<Meta> metas,
+        List<Beneficio> beneficios,
+        List<AlertaResponse> alertas
+) {
+}
@@ -0,0 +1,7 @@
+package com.nucleo.dto;
+
+public record ErroImportacaoDTO(
+        long linha,
+        String mensagem
+) {
+}
@@ -0,0 +1,11 @@
+package com.nucleo.dto;
+
+public record MetricasCacheDTO(
+        String regiao,
+        long acertos,
+        long faltas,
+        long insercoes,
+        long elementosEmMemoria,
+        double taxaAcerto
+) {
+}
@@ -0,0 +1,12 @@
+package com.nucleo.dto;
+
+public record MetricasNotificacaoDTO(
+        long pendentes,
+        long enviadas,
+        long coalescidas,
+        long falhas,
+        long lotes,
+        double latenciaMediaLoteMs,
+        double latenciaMaximaLoteMs
+) {
+}
@@ -0,0 +1,14 @@
+package com.nucleo.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record PaginaDTO<T>(
+        List<T> itens,
+        String proximoCursor
+) {
+
+    public <R> PaginaDTO<R> mapear(Function<T, R> conversor) {
+        return new PaginaDTO<>(itens.stream().map(conversor).toList(), proximoCursor);
+    }
+}
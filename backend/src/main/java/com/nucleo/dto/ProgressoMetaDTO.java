@@ -0,0 +1,80 @@
+package com.nucleo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.nucleo.model.Meta;
+import com.nucleo.model.ProgressoMeta;
+import com.nucleo.model.StatusMeta;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Progresso de uma meta calculado so a partir da linha de progressos_meta: percentual, ritmo diario
+ * desde o inicio, ritmo necessario ate a data limite e data prevista de conclusao mantido o ritmo.
+ * Metas sem categoria nao acumulam e saem so com os dados da meta.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProgressoMetaDTO(
+        Long metaId,
+        String titulo,
+        StatusMeta status,
+        BigDecimal valorAlvo,
+        LocalDate dataLimite,
+        LocalDate dataInicio,
+        BigDecimal valorAcumulado,
+        BigDecimal valorRestante,
+        BigDecimal percentual,
+        Long aportes,
+        BigDecimal ritmoDiario,
+        BigDecimal ritmoNecessario,
+        LocalDate dataPrevista,
+        Boolean noPrazo,
+        LocalDate concluidaEm
+) {
+
+    private static final BigDecimal CEM = BigDecimal.valueOf(100);
+
+    public static ProgressoMetaDTO de(Meta meta, ProgressoMeta progresso, LocalDate hoje) {
+        if (progresso == null) {
+            return new ProgressoMetaDTO(meta.getId(), meta.getTitulo(), meta.getStatus(), meta.getValorAlvo(),
+                    meta.getDataLimite(), null, null, null, null, null, null, null, null, null, null);
+        }
+        BigDecimal alvo = meta.getValorAlvo();
+        BigDecimal acumulado = progresso.getValorAcumulado();
+        BigDecimal restante = alvo.subtract(acumulado).max(BigDecimal.ZERO);
+        BigDecimal percentual = alvo.signum() > 0
+                ? acumulado.multiply(CEM).divide(alvo, 2, RoundingMode.HALF_UP)
+                : CEM.setScale(2);
+
+        long diasDecorridos = Math.max(1, ChronoUnit.DAYS.between(progresso.getDataInicio(), hoje) + 1);
+        BigDecimal ritmoDiario = acumulado.divide(BigDecimal.valueOf(diasDecorridos), 2, RoundingMode.HALF_UP);
+
+        BigDecimal ritmoNecessario = null;
+        LocalDate dataPrevista = null;
+        Boolean noPrazo = null;
+        if (meta.getStatus() == StatusMeta.concluida) {
+            dataPrevista = progresso.getConcluidaEm();
+            noPrazo = dataPrevista == null || !dataPrevista.isAfter(meta.getDataLimite());
+        } else if (meta.getStatus() == StatusMeta.ativa) {
+            if (!hoje.isAfter(meta.getDataLimite())) {
+                long diasRestantes = ChronoUnit.DAYS.between(hoje, meta.getDataLimite()) + 1;
+                ritmoNecessario = restante.divide(BigDecimal.valueOf(diasRestantes), 2, RoundingMode.CEILING);
+            }
+            if (restante.signum() == 0) {
+                dataPrevista = hoje;
+            } else if (acumulado.signum() > 0) {
+                // dias ate cobrir o restante no ritmo medio: restante / (acumulado / decorridos)
+                long diasAteConcluir = restante.multiply(BigDecimal.valueOf(diasDecorridos))
+                        .divide(acumulado, 0, RoundingMode.CEILING).longValueExact();
+                dataPrevista = hoje.plusDays(diasAteConcluir);
+            }
+            noPrazo = dataPrevista != null && !dataPrevista.isAfter(meta.getDataLimite());
+        }
+
+        return new ProgressoMetaDTO(meta.getId(), meta.getTitulo(), meta.getStatus(), alvo, meta.getDataLimite(),
+                progresso.getDataInicio(), acumulado, restante, percentual, progresso.getAportes(), ritmoDiario,
+                ritmoNecessario, dataPrevista, noPrazo, progresso.getConcluidaEm());
+    }
+}
@@ -0,0 +1,9 @@
+package com.nucleo.dto;
+
+public record ReconciliacaoSaldosDTO(
+        int contasVerificadas,
+        int contasCorrigidas,
+        int usuariosVerificados,
+        int usuariosCorrigidos
+) {
+}
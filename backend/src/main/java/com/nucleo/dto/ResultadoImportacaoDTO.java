@@ -0,0 +1,11 @@
+package com.nucleo.dto;
+
+import java.util.List;
+
+public record ResultadoImportacaoDTO(
+        long linhasLidas,
+        long importadas,
+        long rejeitadas,
+        List<ErroImportacaoDTO> erros
+) {
+}
@@ -0,0 +1,11 @@
+package com.nucleo.dto;
+
+public record ResultadoVarreduraDTO(
+        int faixas,
+        int faixasComErro,
+        long alertasAvaliados,
+        int alertasEstourados,
+        int notificados,
+        long milissegundos
+) {
+}
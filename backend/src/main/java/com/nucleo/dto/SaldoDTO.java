@@ -0,0 +1,10 @@
+package com.nucleo.dto;
+
+import java.math.BigDecimal;
+
+public record SaldoDTO(
+        BigDecimal entradas,
+        BigDecimal saidas,
+        BigDecimal saldo
+) {
+}
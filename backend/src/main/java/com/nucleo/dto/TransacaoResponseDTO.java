@@ -1,13 +1,18 @@
 package com.nucleo.dto;
 
 import com.nucleo.model.Transacao;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+// o construtor completo e usado pelas consultas de projecao do TransacaoRepository (SELECT new ...)
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class TransacaoResponseDTO {
     private Long id;
     private String descricao;
@@ -0,0 +1,19 @@
+package com.nucleo.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Pedido recusado na entrada porque um recurso limitado (o hash de senhas, por exemplo) ja esta
+ * com a fila cheia. Sai como 503 com Retry-After.
+ */
+public class ServicoSobrecarregadoException extends BaseException {
+
+    @Getter
+    private final long repetirEmSegundos;
+
+    public ServicoSobrecarregadoException(String messageKey, long repetirEmSegundos) {
+        super(messageKey, null, HttpStatus.SERVICE_UNAVAILABLE.value());
+        this.repetirEmSegundos = repetirEmSegundos;
+    }
+}
@@ -43,6 +43,9 @@ public class Alerta extends BaseEntity {
     @Column(name = "janela_dias")
     private Integer janelaDias;
 
+    @Column(name = "cooldown_minutos")
+    private Integer cooldownMinutos;
+
     @Column(name = "notificar_email", nullable = false)
     @Builder.Default
     private Boolean notificarEmail = true;
@@ -2,11 +2,15 @@ package com.nucleo.model;
 
 import com.nucleo.model.base.BaseEntity;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 
 @Entity
 @Table(name = "categorias")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "categorias")
 @Getter
 @Setter
 @SuperBuilder      // ✅ herda builder para as filhas
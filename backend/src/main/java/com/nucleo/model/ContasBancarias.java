@@ -4,6 +4,8 @@ import com.nucleo.model.TipoConta;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.nucleo.model.base.BaseEntity;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 
@@ -12,6 +14,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "contas_bancarias")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contas_bancarias")
 @Getter
 @Setter
 @SuperBuilder
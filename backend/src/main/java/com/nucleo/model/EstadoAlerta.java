@@ -0,0 +1,35 @@
+package com.nucleo.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/** Estado de disparo de uma regra de alerta, gravado a cada notificacao e rearmado quando a regra volta ao normal. */
+@Entity
+@Table(name = "estados_alerta")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EstadoAlerta {
+
+    @Id
+    @Column(name = "alerta_id")
+    private Long alertaId;
+
+    @Column(name = "em_disparo", nullable = false)
+    private Boolean emDisparo;
+
+    @Column(name = "ultimo_disparo", nullable = false)
+    private LocalDateTime ultimoDisparo;
+
+    @Column(name = "ultimo_valor", precision = 16, scale = 2)
+    private BigDecimal ultimoValor;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long disparos = 1L;
+}
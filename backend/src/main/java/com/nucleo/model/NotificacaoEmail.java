@@ -0,0 +1,68 @@
+package com.nucleo.model;
+
+import com.nucleo.model.base.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "notificacoes_email")
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificacaoEmail extends BaseEntity {
+
+    @Column(name = "usuario_id", nullable = false)
+    private Long usuarioId;
+
+    @Column(name = "alerta_id")
+    private Long alertaId;
+
+    @Column(nullable = false)
+    private String destinatario;
+
+    @Column(nullable = false)
+    private String assunto;
+
+    @Column(nullable = false, length = 2000)
+    private String corpo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private StatusNotificacao status = StatusNotificacao.PENDENTE;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer tentativas = 0;
+
+    @Column(name = "proxima_tentativa", nullable = false)
+    private LocalDateTime proximaTentativa;
+
+    @Column(name = "enviada_em")
+    private LocalDateTime enviadaEm;
+
+    @Column(name = "ultimo_erro", length = 500)
+    private String ultimoErro;
+
+    // drenagem que reivindicou a notificacao; so ela grava o resultado do envio
+    @Column(name = "lote_envio", length = 36)
+    private String loteEnvio;
+
+    public enum StatusNotificacao {
+        PENDENTE,
+        EM_ENVIO,
+        ENVIADA,
+        COALESCIDA,
+        FALHA
+    }
+
+    /** Notificacoes com a mesma chave sao repetidas: so a mais recente e enviada. */
+    public String chaveDeduplicacao() {
+        return alertaId != null ? usuarioId + ":" + alertaId : usuarioId + ":" + assunto + ":" + corpo;
+    }
+}
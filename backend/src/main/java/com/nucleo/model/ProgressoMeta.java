@@ -0,0 +1,42 @@
+package com.nucleo.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** Valor acumulado de uma meta na sua categoria desde a data de inicio, mantido a cada escrita de transacao. */
+@Entity
+@Table(name = "progressos_meta")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProgressoMeta {
+
+    @Id
+    @Column(name = "meta_id")
+    private Long metaId;
+
+    @Column(name = "usuario_id", nullable = false)
+    private Long usuarioId;
+
+    @Column(name = "categoria_id", nullable = false)
+    private Long categoriaId;
+
+    @Column(name = "data_inicio", nullable = false)
+    private LocalDate dataInicio;
+
+    @Column(name = "valor_acumulado", nullable = false, precision = 14, scale = 2)
+    @Builder.Default
+    private BigDecimal valorAcumulado = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long aportes = 0L;
+
+    @Column(name = "concluida_em")
+    private LocalDate concluidaEm;
+}
@@ -0,0 +1,61 @@
+package com.nucleo.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Rollup diario das transacoes por usuario, categoria, conta e tipo.
+ * Transacoes sem categoria ficam com categoria_id = 0.
+ */
+@Entity
+@Table(name = "resumos_diarios")
+@IdClass(ResumoDiario.Chave.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResumoDiario {
+
+    @Id
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
+    @Id
+    private LocalDate data;
+
+    @Id
+    @Column(name = "categoria_id")
+    private Long categoriaId;
+
+    @Id
+    @Column(name = "conta_id")
+    private Long contaId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private Transacao.TipoTransacao tipo;
+
+    @Column(nullable = false, precision = 16, scale = 2)
+    private BigDecimal total;
+
+    @Column(nullable = false)
+    private Long quantidade;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Chave implements Serializable {
+        private Long usuarioId;
+        private LocalDate data;
+        private Long categoriaId;
+        private Long contaId;
+        private Transacao.TipoTransacao tipo;
+    }
+}
@@ -0,0 +1,61 @@
+package com.nucleo.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/** Rollup mensal, com as mesmas dimensoes do {@link ResumoDiario}. */
+@Entity
+@Table(name = "resumos_mensais")
+@IdClass(ResumoMensal.Chave.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResumoMensal {
+
+    @Id
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
+    @Id
+    private Integer ano;
+
+    @Id
+    private Integer mes;
+
+    @Id
+    @Column(name = "categoria_id")
+    private Long categoriaId;
+
+    @Id
+    @Column(name = "conta_id")
+    private Long contaId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private Transacao.TipoTransacao tipo;
+
+    @Column(nullable = false, precision = 16, scale = 2)
+    private BigDecimal total;
+
+    @Column(nullable = false)
+    private Long quantidade;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Chave implements Serializable {
+        private Long usuarioId;
+        private Integer ano;
+        private Integer mes;
+        private Long categoriaId;
+        private Long contaId;
+        private Transacao.TipoTransacao tipo;
+    }
+}
@@ -0,0 +1,30 @@
+package com.nucleo.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/** Entrada da lista de revogacao dos tokens de acesso: um jti ou todos os tokens de um usuario ate revogadoEm. */
+@Entity
+@Table(name = "revogacoes_token")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevogacaoToken {
+
+    @Id
+    @Column(length = 80)
+    private String chave;
+
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
+    @Column(name = "revogado_em", nullable = false)
+    private LocalDateTime revogadoEm;
+
+    @Column(name = "expira_em", nullable = false)
+    private LocalDateTime expiraEm;
+}
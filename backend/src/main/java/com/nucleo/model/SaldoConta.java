@@ -0,0 +1,36 @@
+package com.nucleo.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/** Projecao do saldo de uma conta, mantida a cada escrita de transacao. */
+@Entity
+@Table(name = "saldos_conta")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SaldoConta {
+
+    @Id
+    @Column(name = "conta_id")
+    private Long contaId;
+
+    @Column(name = "usuario_id", nullable = false)
+    private Long usuarioId;
+
+    @Column(name = "saldo_inicial", nullable = false, precision = 14, scale = 2)
+    @Builder.Default
+    private BigDecimal saldoInicial = BigDecimal.ZERO;
+
+    @Column(name = "total_entradas", nullable = false, precision = 14, scale = 2)
+    @Builder.Default
+    private BigDecimal totalEntradas = BigDecimal.ZERO;
+
+    @Column(name = "total_saidas", nullable = false, precision = 14, scale = 2)
+    @Builder.Default
+    private BigDecimal totalSaidas = BigDecimal.ZERO;
+}
@@ -0,0 +1,29 @@
+package com.nucleo.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/** Projecao dos totais de um usuario, mantida a cada escrita de transacao. */
+@Entity
+@Table(name = "saldos_usuario")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SaldoUsuario {
+
+    @Id
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
+    @Column(name = "total_entradas", nullable = false, precision = 14, scale = 2)
+    @Builder.Default
+    private BigDecimal totalEntradas = BigDecimal.ZERO;
+
+    @Column(name = "total_saidas", nullable = false, precision = 14, scale = 2)
+    @Builder.Default
+    private BigDecimal totalSaidas = BigDecimal.ZERO;
+}
@@ -11,6 +11,7 @@ import java.time.LocalDate;
 
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Entity
+// indices em db/migration/*/V2__indices_consultas.sql
 @Table(name = "transacoes")
 @Getter
 @Setter
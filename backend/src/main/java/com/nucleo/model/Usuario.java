@@ -2,6 +2,8 @@ package com.nucleo.model;
 
 import com.nucleo.model.base.BaseEntity;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 
@@ -9,6 +11,8 @@ import java.util.Set;
 
 @Entity
 @Table(name = "usuarios")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuarios")
 @Getter
 @Setter
 @SuperBuilder
@@ -27,6 +31,7 @@ public class Usuario extends BaseEntity {
 
     @Enumerated(EnumType.STRING)
     @ElementCollection(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuarios_roles")
     @Builder.Default
     private Set<Role> roles = Set.of(Role.ROLE_USER);
 
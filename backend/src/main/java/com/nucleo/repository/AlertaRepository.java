@@ -5,8 +5,14 @@ import com.nucleo.model.Usuario;
 import com.nucleo.repository.generic.BaseRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,4 +28,42 @@ public interface AlertaRepository extends BaseRepository<Alerta, Long> {
     List<Alerta> findByUsuarioAndTipoAndAtivoTrue(Usuario usuario, Alerta.TipoAlerta tipo);
 
     boolean existsByIdAndUsuarioAndAtivoTrue(Long id, Usuario usuario);
+
+    // consultas da varredura: faixa de usuarios com regras ativas e, por faixa, so as regras estouradas
+
+    @Query("SELECT MIN(a.usuario.id), MAX(a.usuario.id), COUNT(a) FROM Alerta a WHERE a.ativo = true AND a.tipo IN :tipos")
+    List<Object[]> faixaUsuarios(@Param("tipos") Collection<Alerta.TipoAlerta> tipos);
+
+    @Query("SELECT DISTINCT COALESCE(a.janelaDias, :padrao) FROM Alerta a " +
+            "WHERE a.ativo = true AND a.tipo = com.nucleo.model.Alerta.TipoAlerta.LIMITE_CATEGORIA")
+    List<Integer> janelasLimiteCategoria(@Param("padrao") int padrao);
+
+    @Query("SELECT a.id, s.saldoInicial + s.totalEntradas - s.totalSaidas FROM Alerta a JOIN SaldoConta s ON s.contaId = a.conta.id " +
+            "WHERE a.ativo = true AND a.tipo = com.nucleo.model.Alerta.TipoAlerta.SALDO_MINIMO " +
+            "AND a.usuario.id BETWEEN :de AND :ate AND s.saldoInicial + s.totalEntradas - s.totalSaidas <= a.limiteValor")
+    List<Object[]> saldosAbaixoDoLimite(@Param("de") Long de, @Param("ate") Long ate);
+
+    @Query("SELECT a.id, SUM(r.total) FROM Alerta a JOIN ResumoDiario r " +
+            "ON r.usuarioId = a.usuario.id AND r.categoriaId = a.categoria.id " +
+            "WHERE a.ativo = true AND a.tipo = com.nucleo.model.Alerta.TipoAlerta.LIMITE_CATEGORIA " +
+            "AND a.usuario.id BETWEEN :de AND :ate AND COALESCE(a.janelaDias, :padrao) = :janelaDias " +
+            "AND r.tipo = com.nucleo.model.Transacao.TipoTransacao.SAIDA AND r.data BETWEEN :inicio AND :hoje " +
+            "GROUP BY a.id, a.limiteValor HAVING SUM(r.total) > a.limiteValor")
+    List<Object[]> gastosAcimaDoLimite(@Param("de") Long de,
+                                       @Param("ate") Long ate,
+                                       @Param("padrao") int padrao,
+                                       @Param("janelaDias") int janelaDias,
+                                       @Param("inicio") LocalDate inicio,
+                                       @Param("hoje") LocalDate hoje);
+
+    @Query("SELECT a FROM Alerta a JOIN FETCH a.usuario WHERE a.id IN :ids")
+    List<Alerta> buscarComUsuario(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Alerta a SET a.ativo = false, a.dataAtualizacao = :agora WHERE a.usuario.id = :usuarioId AND a.ativo = true")
+    int desativarPorUsuario(@Param("usuarioId") Long usuarioId, @Param("agora") LocalDateTime agora);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Alerta a SET a.ativo = false, a.dataAtualizacao = :agora WHERE a.conta.id = :contaId AND a.ativo = true")
+    int desativarPorConta(@Param("contaId") Long contaId, @Param("agora") LocalDateTime agora);
 }
@@ -2,8 +2,12 @@ package com.nucleo.repository;
 
 import com.nucleo.model.Beneficio;
 import com.nucleo.repository.generic.BaseRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -14,5 +18,8 @@ public interface BeneficioRepository extends BaseRepository<Beneficio, Long> {
     List<Beneficio> findByTipoAndAtivoTrue(Beneficio.TipoBeneficio tipo);
 
     List<Beneficio> findByUsuarioIdAndTipoAndAtivoTrue(Long usuarioId, Beneficio.TipoBeneficio tipo);
-}
 
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Beneficio b SET b.ativo = false, b.dataAtualizacao = :agora WHERE b.usuario.id = :usuarioId AND b.ativo = true")
+    int desativarPorUsuario(@Param("usuarioId") Long usuarioId, @Param("agora") LocalDateTime agora);
+}
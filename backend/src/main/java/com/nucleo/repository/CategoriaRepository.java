@@ -2,10 +2,18 @@ package com.nucleo.repository;
 
 import com.nucleo.model.Categoria;
 import com.nucleo.repository.generic.BaseRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CategoriaRepository extends BaseRepository<Categoria, Long> {
@@ -14,11 +22,40 @@ public interface CategoriaRepository extends BaseRepository<Categoria, Long> {
 
     Optional<Categoria> findByNome(String nome);
 
-    List<Categoria> findByIsGlobalTrueOrUsuarioIdAndAtivoTrue(Long usuarioId);
-
     List<Categoria> findByUsuarioIdAndAtivoTrue(Long usuarioId);
 
+    List<Categoria> findByUsuarioIdAndTipoAndAtivoTrue(Long usuarioId, Categoria.TipoCategoria tipo);
+
+    // categorias globais quase nunca mudam: o resultado fica no cache de consultas ate a proxima escrita em categorias
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Categoria> findByIsGlobalTrueAndAtivoTrue();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Categoria> findByIsGlobalTrueAndTipoAndAtivoTrue(Categoria.TipoCategoria tipo);
 
-    List<Categoria> findByIsGlobalTrueOrUsuarioIdAndTipoAndAtivoTrue(Long usuarioId, Categoria.TipoCategoria tipo);
-}
\ No newline at end of file
+    /** Globais (do cache de consultas) seguidas das categorias ativas do usuario. */
+    default List<Categoria> findByIsGlobalTrueOrUsuarioIdAndAtivoTrue(Long usuarioId) {
+        return unir(findByIsGlobalTrueAndAtivoTrue(), findByUsuarioIdAndAtivoTrue(usuarioId));
+    }
+
+    default List<Categoria> findByIsGlobalTrueOrUsuarioIdAndTipoAndAtivoTrue(Long usuarioId, Categoria.TipoCategoria tipo) {
+        return unir(findByIsGlobalTrueAndTipoAndAtivoTrue(tipo), findByUsuarioIdAndTipoAndAtivoTrue(usuarioId, tipo));
+    }
+
+    // pela chave primaria a categoria sai do cache de segundo nivel; a consulta derivada iria ao banco
+    @Override
+    default Optional<Categoria> findByIdAndAtivoTrue(Long id) {
+        return id == null ? Optional.empty() : findById(id).filter(categoria -> Boolean.TRUE.equals(categoria.getAtivo()));
+    }
+
+    private static List<Categoria> unir(List<Categoria> globais, List<Categoria> doUsuario) {
+        return Stream.concat(globais.stream(), doUsuario.stream().filter(categoria -> !Boolean.TRUE.equals(categoria.getIsGlobal())))
+                .toList();
+    }
+
+    // so as categorias do usuario; as globais sao compartilhadas
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Categoria c SET c.ativo = false, c.dataAtualizacao = :agora " +
+            "WHERE c.usuario.id = :usuarioId AND c.isGlobal = false AND c.ativo = true")
+    int desativarPorUsuario(@Param("usuarioId") Long usuarioId, @Param("agora") LocalDateTime agora);
+}
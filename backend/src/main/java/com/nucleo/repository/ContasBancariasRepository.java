@@ -1,22 +1,41 @@
 package com.nucleo.repository;
 
 import com.nucleo.model.ContasBancarias;
-import org.springframework.data.jpa.repository.JpaRepository;
+import com.nucleo.repository.generic.BaseRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ContasBancariasRepository extends JpaRepository<ContasBancarias, Long> {
+public interface ContasBancariasRepository extends BaseRepository<ContasBancarias, Long> {
 
     List<ContasBancarias> findByUsuarioIdAndAtivoTrue(Long usuarioId);
 
-    Optional<ContasBancarias> findByIdAndUsuarioIdAndAtivoTrue(Long id, Long usuarioId);
+    // pela chave primaria a conta sai do cache de segundo nivel; o dono e conferido pelo id do proxy, sem carregar o usuario
+    default Optional<ContasBancarias> findByIdAndUsuarioIdAndAtivoTrue(Long id, Long usuarioId) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return findById(id).filter(conta -> Boolean.TRUE.equals(conta.getAtivo())
+                && conta.getUsuario() != null && conta.getUsuario().getId().equals(usuarioId));
+    }
 
     Optional<ContasBancarias> findByIdAndUsuarioId(Long id, Long usuarioId);
 
     Optional<ContasBancarias> findByApelidoAndUsuarioId(String apelido, Long usuarioId);
 
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ContasBancarias c SET c.ativo = false, c.deletadoEm = :agora, c.dataAtualizacao = :agora " +
+            "WHERE c.id = :contaId AND c.ativo = true")
+    int desativar(@Param("contaId") Long contaId, @Param("agora") LocalDateTime agora);
 
-}
\ No newline at end of file
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ContasBancarias c SET c.ativo = false, c.deletadoEm = :agora, c.dataAtualizacao = :agora " +
+            "WHERE c.usuario.id = :usuarioId AND c.ativo = true")
+    int desativarPorUsuario(@Param("usuarioId") Long usuarioId, @Param("agora") LocalDateTime agora);
+}
@@ -0,0 +1,43 @@
+package com.nucleo.repository;
+
+import com.nucleo.model.Alerta;
+import com.nucleo.model.EstadoAlerta;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EstadoAlertaRepository extends JpaRepository<EstadoAlerta, Long> {
+
+    // so quem muda a linha notifica: regra rearmada ou com o intervalo minimo ja vencido
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE EstadoAlerta e SET e.emDisparo = true, e.ultimoDisparo = :agora, e.ultimoValor = :valor, " +
+            "e.disparos = e.disparos + 1 WHERE e.alertaId = :alertaId AND (e.emDisparo = false OR e.ultimoDisparo <= :liberadoAte)")
+    int disparar(@Param("alertaId") Long alertaId,
+                 @Param("agora") LocalDateTime agora,
+                 @Param("valor") BigDecimal valor,
+                 @Param("liberadoAte") LocalDateTime liberadoAte);
+
+    // primeira vez da regra: cria a linha rearmada, que o disparar seguinte pode tomar; concorrentes nao colidem
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO EstadoAlerta (alertaId, emDisparo, ultimoDisparo, disparos) " +
+            "VALUES (:alertaId, false, :agora, 0) ON CONFLICT DO NOTHING")
+    int semear(@Param("alertaId") Long alertaId, @Param("agora") LocalDateTime agora);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE EstadoAlerta e SET e.emDisparo = false WHERE e.emDisparo = true AND e.alertaId IN :alertaIds")
+    int rearmar(@Param("alertaIds") Collection<Long> alertaIds);
+
+    @Query("SELECT e.alertaId FROM EstadoAlerta e, Alerta a WHERE a.id = e.alertaId AND e.emDisparo = true " +
+            "AND a.usuario.id BETWEEN :de AND :ate AND a.tipo IN :tipos")
+    List<Long> emDisparoNaFaixa(@Param("de") Long de,
+                                @Param("ate") Long ate,
+                                @Param("tipos") Collection<Alerta.TipoAlerta> tipos);
+}
@@ -2,15 +2,31 @@ package com.nucleo.repository;
 
 import com.nucleo.model.Meta;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
-public interface MetaRepository extends JpaRepository<Meta, Long> {
+public interface MetaRepository extends JpaRepository<Meta, Long>, JpaSpecificationExecutor<Meta> {
 
 
     List<Meta> findByUsuarioId(Long usuarioId);
     Meta findByUsuarioIdAndId(Long usuarioId,Long Id);
 
-}
\ No newline at end of file
+    // transicao ativa -> concluida das metas (da categoria, ou de todas sem ela) cujo progresso alcancou o alvo
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Meta m SET m.status = com.nucleo.model.StatusMeta.concluida " +
+            "WHERE m.usuarioId = :usuarioId AND (:categoriaId IS NULL OR m.categoriaId = :categoriaId) " +
+            "AND m.status = com.nucleo.model.StatusMeta.ativa " +
+            "AND EXISTS (SELECT 1 FROM ProgressoMeta p WHERE p.metaId = m.id AND p.valorAcumulado >= m.valorAlvo)")
+    int concluirAtingidas(@Param("usuarioId") Long usuarioId, @Param("categoriaId") Long categoriaId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Meta m SET m.status = com.nucleo.model.StatusMeta.cancelada " +
+            "WHERE m.usuarioId = :usuarioId AND m.status = com.nucleo.model.StatusMeta.ativa")
+    int cancelarAtivas(@Param("usuarioId") Long usuarioId);
+}
@@ -0,0 +1,79 @@
+package com.nucleo.repository;
+
+import com.nucleo.model.NotificacaoEmail;
+import com.nucleo.repository.generic.BaseRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificacaoEmailRepository extends BaseRepository<NotificacaoEmail, Long> {
+
+    // pendentes vencidas e reivindicacoes cuja concessao expirou (instancia que caiu no meio do envio)
+    @Query("SELECT n.id FROM NotificacaoEmail n WHERE n.status IN (com.nucleo.model.NotificacaoEmail.StatusNotificacao.PENDENTE, " +
+            "com.nucleo.model.NotificacaoEmail.StatusNotificacao.EM_ENVIO) AND n.proximaTentativa <= :agora AND n.ativo = true ORDER BY n.id")
+    List<Long> findIdsProntosParaEnvio(@Param("agora") LocalDateTime agora, Pageable pageable);
+
+    // so uma drenagem ganha cada linha: a condicao e refeita no UPDATE e o lote identifica quem ganhou
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE NotificacaoEmail n SET n.status = com.nucleo.model.NotificacaoEmail.StatusNotificacao.EM_ENVIO, " +
+            "n.loteEnvio = :lote, n.proximaTentativa = :concessao, n.dataAtualizacao = :agora WHERE n.id IN :ids " +
+            "AND n.status IN (com.nucleo.model.NotificacaoEmail.StatusNotificacao.PENDENTE, " +
+            "com.nucleo.model.NotificacaoEmail.StatusNotificacao.EM_ENVIO) AND n.proximaTentativa <= :agora AND n.ativo = true")
+    int reivindicar(@Param("ids") List<Long> ids, @Param("lote") String lote,
+                    @Param("agora") LocalDateTime agora, @Param("concessao") LocalDateTime concessao);
+
+    @Query("SELECT n FROM NotificacaoEmail n WHERE n.loteEnvio = :lote " +
+            "AND n.status = com.nucleo.model.NotificacaoEmail.StatusNotificacao.EM_ENVIO ORDER BY n.id")
+    List<NotificacaoEmail> findReivindicadas(@Param("lote") String lote);
+
+    // renovada antes de cada envio SMTP: um lote parado na fila do executor nao envia o que outra instancia ja tomou
+    @Transactional
+    @Modifying
+    @Query("UPDATE NotificacaoEmail n SET n.proximaTentativa = :concessao, n.dataAtualizacao = :agora " +
+            "WHERE n.id IN :ids AND n.loteEnvio = :lote " +
+            "AND n.status = com.nucleo.model.NotificacaoEmail.StatusNotificacao.EM_ENVIO AND n.ativo = true")
+    int renovar(@Param("ids") List<Long> ids, @Param("lote") String lote,
+                @Param("agora") LocalDateTime agora, @Param("concessao") LocalDateTime concessao);
+
+    @Query("SELECT n.id FROM NotificacaoEmail n WHERE n.id IN :ids AND n.loteEnvio = :lote " +
+            "AND n.status = com.nucleo.model.NotificacaoEmail.StatusNotificacao.EM_ENVIO AND n.ativo = true")
+    List<Long> findIdsDoLote(@Param("ids") List<Long> ids, @Param("lote") String lote);
+
+    // ENVIADA ou COALESCIDA; nao toca em ativo, que pode ter sido desligado durante o envio
+    @Transactional
+    @Modifying
+    @Query("UPDATE NotificacaoEmail n SET n.status = :status, n.enviadaEm = :enviadaEm, n.dataAtualizacao = :agora " +
+            "WHERE n.id IN :ids AND n.loteEnvio = :lote " +
+            "AND n.status = com.nucleo.model.NotificacaoEmail.StatusNotificacao.EM_ENVIO")
+    int concluir(@Param("ids") List<Long> ids, @Param("lote") String lote,
+                 @Param("status") NotificacaoEmail.StatusNotificacao status,
+                 @Param("enviadaEm") LocalDateTime enviadaEm, @Param("agora") LocalDateTime agora);
+
+    // volta a PENDENTE com backoff, ou FALHA quando esgota as tentativas
+    @Transactional
+    @Modifying
+    @Query("UPDATE NotificacaoEmail n SET n.status = :status, n.tentativas = :tentativas, n.ultimoErro = :erro, " +
+            "n.proximaTentativa = :proximaTentativa, n.dataAtualizacao = :agora WHERE n.id = :id AND n.loteEnvio = :lote " +
+            "AND n.status = com.nucleo.model.NotificacaoEmail.StatusNotificacao.EM_ENVIO")
+    int reagendar(@Param("id") Long id, @Param("lote") String lote,
+                  @Param("status") NotificacaoEmail.StatusNotificacao status, @Param("tentativas") int tentativas,
+                  @Param("erro") String erro, @Param("proximaTentativa") LocalDateTime proximaTentativa,
+                  @Param("agora") LocalDateTime agora);
+
+    long countByStatusAndAtivoTrue(NotificacaoEmail.StatusNotificacao status);
+
+    // pendentes de um usuario desativado nao saem mais (as em envio nao sao repetidas); as ja enviadas ficam como historico
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE NotificacaoEmail n SET n.ativo = false, n.dataAtualizacao = :agora WHERE n.usuarioId = :usuarioId " +
+            "AND n.status IN (com.nucleo.model.NotificacaoEmail.StatusNotificacao.PENDENTE, " +
+            "com.nucleo.model.NotificacaoEmail.StatusNotificacao.EM_ENVIO) AND n.ativo = true")
+    int descartarPendentes(@Param("usuarioId") Long usuarioId, @Param("agora") LocalDateTime agora);
+}
@@ -0,0 +1,99 @@
+package com.nucleo.repository;
+
+import com.nucleo.model.Categoria;
+import com.nucleo.model.ProgressoMeta;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProgressoMetaRepository extends JpaRepository<ProgressoMeta, Long> {
+
+    List<ProgressoMeta> findByUsuarioId(Long usuarioId);
+
+    @Query("SELECT p.dataInicio FROM ProgressoMeta p WHERE p.metaId = :metaId")
+    Optional<LocalDate> dataInicio(@Param("metaId") Long metaId);
+
+    /*
+     * So metas ativas acumulam: concluidas e canceladas ficam com o valor em que pararam. A meta conta as
+     * transacoes do tipo da sua categoria (todas, se a categoria nao tem tipo), aqui e nas sementes.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ProgressoMeta p SET p.valorAcumulado = p.valorAcumulado + :valor, p.aportes = p.aportes + :aportes " +
+            "WHERE p.usuarioId = :usuarioId AND p.categoriaId = :categoriaId AND p.dataInicio <= :data " +
+            "AND NOT EXISTS (SELECT 1 FROM Categoria c WHERE c.id = p.categoriaId AND c.tipo <> :tipo) " +
+            "AND EXISTS (SELECT 1 FROM Meta m WHERE m.id = p.metaId AND m.status = com.nucleo.model.StatusMeta.ativa)")
+    int acumular(@Param("usuarioId") Long usuarioId,
+                 @Param("categoriaId") Long categoriaId,
+                 @Param("tipo") Categoria.TipoCategoria tipo,
+                 @Param("data") LocalDate data,
+                 @Param("valor") BigDecimal valor,
+                 @Param("aportes") long aportes);
+
+    // semeia a partir do livro, que ja contem as escritas anteriores a criacao da linha
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO ProgressoMeta (metaId, usuarioId, categoriaId, dataInicio, valorAcumulado, aportes) " +
+            "SELECT m.id, m.usuarioId, m.categoriaId, CAST(:inicio AS LocalDate), COALESCE(SUM(t.valor), 0), COUNT(t) " +
+            "FROM Meta m LEFT JOIN Categoria c ON c.id = m.categoriaId " +
+            "LEFT JOIN Transacao t ON t.usuario.id = m.usuarioId AND t.categoria.id = m.categoriaId " +
+            "AND t.ativo = true AND t.data >= :inicio AND (c.tipo IS NULL OR CAST(t.tipo AS String) = CAST(c.tipo AS String)) " +
+            "WHERE m.id = :metaId AND m.categoriaId IS NOT NULL " +
+            "GROUP BY m.id, m.usuarioId, m.categoriaId")
+    int semear(@Param("metaId") Long metaId, @Param("inicio") LocalDate inicio);
+
+    @Query("SELECT m.id FROM Meta m WHERE m.usuarioId = :usuarioId AND m.categoriaId IS NOT NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM ProgressoMeta p WHERE p.metaId = m.id) ORDER BY m.id")
+    List<Long> findMetasSemProgresso(@Param("usuarioId") Long usuarioId);
+
+    /*
+     * Meta gravada antes da projecao (ou fora do MetaService) nao tem data de inicio: conta o livro inteiro.
+     * Roda numa leitura, entao duas leituras concorrentes da mesma meta podem semea-la juntas; a segunda
+     * nao faz nada. Uma meta por vez porque o Hibernate so emula o ON CONFLICT no H2 com LIMIT 1.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO ProgressoMeta (metaId, usuarioId, categoriaId, dataInicio, valorAcumulado, aportes) " +
+            "SELECT m.id, m.usuarioId, m.categoriaId, COALESCE(MIN(t.data), CAST(:hoje AS LocalDate)), " +
+            "COALESCE(SUM(t.valor), 0), COUNT(t) " +
+            "FROM Meta m LEFT JOIN Categoria c ON c.id = m.categoriaId " +
+            "LEFT JOIN Transacao t ON t.usuario.id = m.usuarioId AND t.categoria.id = m.categoriaId " +
+            "AND t.ativo = true AND (c.tipo IS NULL OR CAST(t.tipo AS String) = CAST(c.tipo AS String)) " +
+            "WHERE m.id = :metaId AND m.categoriaId IS NOT NULL " +
+            "GROUP BY m.id, m.usuarioId, m.categoriaId " +
+            "ORDER BY m.id LIMIT 1 ON CONFLICT DO NOTHING")
+    int semearAntiga(@Param("metaId") Long metaId, @Param("hoje") LocalDate hoje);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ProgressoMeta p SET p.concluidaEm = :hoje " +
+            "WHERE p.usuarioId = :usuarioId AND (:categoriaId IS NULL OR p.categoriaId = :categoriaId) AND p.concluidaEm IS NULL " +
+            "AND EXISTS (SELECT 1 FROM Meta m WHERE m.id = p.metaId " +
+            "AND m.status = com.nucleo.model.StatusMeta.ativa AND m.valorAlvo <= p.valorAcumulado)")
+    int marcarConcluidas(@Param("usuarioId") Long usuarioId,
+                         @Param("categoriaId") Long categoriaId,
+                         @Param("hoje") LocalDate hoje);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM ProgressoMeta p WHERE p.metaId = :metaId")
+    int apagar(@Param("metaId") Long metaId);
+
+    // refaz o acumulado das metas ativas a partir do livro, depois que transacoes sairam dele em conjunto
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ProgressoMeta p SET " +
+            "p.valorAcumulado = (SELECT COALESCE(SUM(t.valor), 0) FROM Transacao t WHERE t.usuario.id = p.usuarioId " +
+            "AND t.categoria.id = p.categoriaId AND t.ativo = true AND t.data >= p.dataInicio " +
+            "AND NOT EXISTS (SELECT 1 FROM Categoria c WHERE c.id = p.categoriaId " +
+            "AND CAST(c.tipo AS String) <> CAST(t.tipo AS String))), " +
+            "p.aportes = (SELECT COUNT(t) FROM Transacao t WHERE t.usuario.id = p.usuarioId " +
+            "AND t.categoria.id = p.categoriaId AND t.ativo = true AND t.data >= p.dataInicio " +
+            "AND NOT EXISTS (SELECT 1 FROM Categoria c WHERE c.id = p.categoriaId " +
+            "AND CAST(c.tipo AS String) <> CAST(t.tipo AS String))) " +
+            "WHERE p.usuarioId = :usuarioId " +
+            "AND EXISTS (SELECT 1 FROM Meta m WHERE m.id = p.metaId AND m.status = com.nucleo.model.StatusMeta.ativa)")
+    int recalcular(@Param("usuarioId") Long usuarioId);
+}
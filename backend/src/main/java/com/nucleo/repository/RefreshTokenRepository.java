@@ -0,0 +1,36 @@
+package com.nucleo.repository;
+
+import com.nucleo.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    // so uma renovacao concorrente consegue marcar o token como usado
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE RefreshToken r SET r.usadoEm = :agora
+            WHERE r.hash = :hash AND r.usadoEm IS NULL AND r.revogadoEm IS NULL AND r.expiraEm > :agora
+            """)
+    int usar(@Param("hash") String hash, @Param("agora") LocalDateTime agora);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE RefreshToken r SET r.revogadoEm = :agora WHERE r.familia = :familia AND r.revogadoEm IS NULL")
+    int revogarFamilia(@Param("familia") String familia, @Param("agora") LocalDateTime agora);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE RefreshToken r SET r.revogadoEm = :agora WHERE r.usuarioId = :usuarioId AND r.revogadoEm IS NULL")
+    int revogarUsuario(@Param("usuarioId") Long usuarioId, @Param("agora") LocalDateTime agora);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken r WHERE r.expiraEm < :limite")
+    int apagarExpirados(@Param("limite") LocalDateTime limite);
+}
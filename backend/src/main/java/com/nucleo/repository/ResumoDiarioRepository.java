@@ -0,0 +1,82 @@
+package com.nucleo.repository;
+
+import com.nucleo.model.ResumoDiario;
+import com.nucleo.model.Transacao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ResumoDiarioRepository extends JpaRepository<ResumoDiario, ResumoDiario.Chave> {
+
+    @Query("SELECT r FROM ResumoDiario r WHERE r.usuarioId = :usuarioId AND r.data BETWEEN :inicio AND :fim " +
+            "AND (:categoriaId IS NULL OR r.categoriaId = :categoriaId) " +
+            "AND (:contaId IS NULL OR r.contaId = :contaId) " +
+            "AND (:tipo IS NULL OR r.tipo = :tipo)")
+    List<ResumoDiario> buscarPorPeriodo(
+            @Param("usuarioId") Long usuarioId,
+            @Param("inicio") LocalDate inicio,
+            @Param("fim") LocalDate fim,
+            @Param("categoriaId") Long categoriaId,
+            @Param("contaId") Long contaId,
+            @Param("tipo") Transacao.TipoTransacao tipo
+    );
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ResumoDiario r SET r.total = r.total + :total, r.quantidade = r.quantidade + :quantidade " +
+            "WHERE r.usuarioId = :usuarioId AND r.data = :data AND r.categoriaId = :categoriaId " +
+            "AND r.contaId = :contaId AND r.tipo = :tipo")
+    int acumular(@Param("usuarioId") Long usuarioId,
+                 @Param("data") LocalDate data,
+                 @Param("categoriaId") Long categoriaId,
+                 @Param("contaId") Long contaId,
+                 @Param("tipo") Transacao.TipoTransacao tipo,
+                 @Param("total") BigDecimal total,
+                 @Param("quantidade") long quantidade);
+
+    /*
+     * Linha ausente: semeia a partir do livro, que ja contem a escrita corrente, descontando o delta
+     * dela para que o acumular seguinte o aplique. Se outra transacao semeou a mesma chave, o INSERT
+     * nao faz nada e o acumular soma o delta sobre a linha dela. O SELECT ja devolve uma linha so; o
+     * LIMIT 1 explicito e o que deixa o Hibernate emular o ON CONFLICT no H2.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO ResumoDiario (usuarioId, data, categoriaId, contaId, tipo, total, quantidade) " +
+            "SELECT t.usuario.id, t.data, COALESCE(c.id, 0), t.conta.id, t.tipo, SUM(t.valor) - :total, COUNT(t) - :quantidade " +
+            "FROM Transacao t LEFT JOIN t.categoria c WHERE t.ativo = true AND t.usuario.id = :usuarioId " +
+            "AND t.data = :data AND COALESCE(c.id, 0) = :categoriaId AND t.conta.id = :contaId AND t.tipo = :tipo " +
+            "GROUP BY t.usuario.id, t.data, COALESCE(c.id, 0), t.conta.id, t.tipo " +
+            "ORDER BY t.conta.id LIMIT 1 ON CONFLICT DO NOTHING")
+    int semear(@Param("usuarioId") Long usuarioId,
+               @Param("data") LocalDate data,
+               @Param("categoriaId") Long categoriaId,
+               @Param("contaId") Long contaId,
+               @Param("tipo") Transacao.TipoTransacao tipo,
+               @Param("total") BigDecimal total,
+               @Param("quantidade") long quantidade);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM ResumoDiario r")
+    int apagarTodos();
+
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO ResumoDiario (usuarioId, data, categoriaId, contaId, tipo, total, quantidade) " +
+            "SELECT t.usuario.id, t.data, COALESCE(c.id, 0), t.conta.id, t.tipo, SUM(t.valor), COUNT(t) " +
+            "FROM Transacao t LEFT JOIN t.categoria c WHERE t.ativo = true " +
+            "GROUP BY t.usuario.id, t.data, COALESCE(c.id, 0), t.conta.id, t.tipo")
+    int reconstruir();
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM ResumoDiario r WHERE r.contaId = :contaId")
+    int apagarPorConta(@Param("contaId") Long contaId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM ResumoDiario r WHERE r.usuarioId = :usuarioId")
+    int apagarPorUsuario(@Param("usuarioId") Long usuarioId);
+}
@@ -0,0 +1,83 @@
+package com.nucleo.repository;
+
+import com.nucleo.model.ResumoMensal;
+import com.nucleo.model.Transacao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ResumoMensalRepository extends JpaRepository<ResumoMensal, ResumoMensal.Chave> {
+
+    // meses cheios entre (anoInicio, mesInicio) e (anoFim, mesFim), inclusive
+    @Query("SELECT r FROM ResumoMensal r WHERE r.usuarioId = :usuarioId " +
+            "AND (r.ano * 12 + r.mes) BETWEEN :inicio AND :fim " +
+            "AND (:categoriaId IS NULL OR r.categoriaId = :categoriaId) " +
+            "AND (:contaId IS NULL OR r.contaId = :contaId) " +
+            "AND (:tipo IS NULL OR r.tipo = :tipo)")
+    List<ResumoMensal> buscarPorPeriodo(
+            @Param("usuarioId") Long usuarioId,
+            @Param("inicio") int inicio,
+            @Param("fim") int fim,
+            @Param("categoriaId") Long categoriaId,
+            @Param("contaId") Long contaId,
+            @Param("tipo") Transacao.TipoTransacao tipo
+    );
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ResumoMensal r SET r.total = r.total + :total, r.quantidade = r.quantidade + :quantidade " +
+            "WHERE r.usuarioId = :usuarioId AND r.ano = :ano AND r.mes = :mes AND r.categoriaId = :categoriaId " +
+            "AND r.contaId = :contaId AND r.tipo = :tipo")
+    int acumular(@Param("usuarioId") Long usuarioId,
+                 @Param("ano") int ano,
+                 @Param("mes") int mes,
+                 @Param("categoriaId") Long categoriaId,
+                 @Param("contaId") Long contaId,
+                 @Param("tipo") Transacao.TipoTransacao tipo,
+                 @Param("total") BigDecimal total,
+                 @Param("quantidade") long quantidade);
+
+    // como ResumoDiarioRepository.semear: livro menos o delta corrente, sem efeito se a chave ja existe
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO ResumoMensal (usuarioId, ano, mes, categoriaId, contaId, tipo, total, quantidade) " +
+            "SELECT t.usuario.id, YEAR(t.data), MONTH(t.data), COALESCE(c.id, 0), t.conta.id, t.tipo, " +
+            "SUM(t.valor) - :total, COUNT(t) - :quantidade " +
+            "FROM Transacao t LEFT JOIN t.categoria c WHERE t.ativo = true AND t.usuario.id = :usuarioId " +
+            "AND t.data BETWEEN :inicio AND :fim AND COALESCE(c.id, 0) = :categoriaId AND t.conta.id = :contaId " +
+            "AND t.tipo = :tipo " +
+            "GROUP BY t.usuario.id, YEAR(t.data), MONTH(t.data), COALESCE(c.id, 0), t.conta.id, t.tipo " +
+            "ORDER BY t.conta.id LIMIT 1 ON CONFLICT DO NOTHING")
+    int semear(@Param("usuarioId") Long usuarioId,
+               @Param("inicio") LocalDate inicio,
+               @Param("fim") LocalDate fim,
+               @Param("categoriaId") Long categoriaId,
+               @Param("contaId") Long contaId,
+               @Param("tipo") Transacao.TipoTransacao tipo,
+               @Param("total") BigDecimal total,
+               @Param("quantidade") long quantidade);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM ResumoMensal r")
+    int apagarTodos();
+
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO ResumoMensal (usuarioId, ano, mes, categoriaId, contaId, tipo, total, quantidade) " +
+            "SELECT t.usuario.id, YEAR(t.data), MONTH(t.data), COALESCE(c.id, 0), t.conta.id, t.tipo, SUM(t.valor), COUNT(t) " +
+            "FROM Transacao t LEFT JOIN t.categoria c WHERE t.ativo = true " +
+            "GROUP BY t.usuario.id, YEAR(t.data), MONTH(t.data), COALESCE(c.id, 0), t.conta.id, t.tipo")
+    int reconstruir();
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM ResumoMensal r WHERE r.contaId = :contaId")
+    int apagarPorConta(@Param("contaId") Long contaId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM ResumoMensal r WHERE r.usuarioId = :usuarioId")
+    int apagarPorUsuario(@Param("usuarioId") Long usuarioId);
+}
@@ -0,0 +1,25 @@
+package com.nucleo.repository;
+
+import com.nucleo.model.RevogacaoToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevogacaoTokenRepository extends JpaRepository<RevogacaoToken, String> {
+
+    // so as chaves: o filtro de Bloom nao guarda mais nada
+    @Query("SELECT r.chave FROM RevogacaoToken r WHERE r.expiraEm > :agora")
+    List<String> chavesVigentes(@Param("agora") LocalDateTime agora);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevogacaoToken r WHERE r.expiraEm <= :agora")
+    int apagarExpiradas(@Param("agora") LocalDateTime agora);
+}
@@ -0,0 +1,80 @@
+package com.nucleo.repository;
+
+import com.nucleo.dto.SaldoDTO;
+import com.nucleo.model.SaldoConta;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SaldoContaRepository extends JpaRepository<SaldoConta, Long> {
+
+    @Query("SELECT new com.nucleo.dto.SaldoDTO(s.totalEntradas, s.totalSaidas, s.saldoInicial + s.totalEntradas - s.totalSaidas) " +
+            "FROM SaldoConta s WHERE s.contaId = :contaId")
+    Optional<SaldoDTO> buscarSaldo(@Param("contaId") Long contaId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE SaldoConta s SET s.totalEntradas = s.totalEntradas + :entradas, s.totalSaidas = s.totalSaidas + :saidas " +
+            "WHERE s.contaId = :contaId")
+    int acumular(@Param("contaId") Long contaId, @Param("entradas") BigDecimal entradas, @Param("saidas") BigDecimal saidas);
+
+    // reconciliacao: [chave, entradas, saidas] pela chave, com as linhas travadas (FOR UPDATE) ate o fim da
+    // transacao; colunas em vez da entidade para nao ler uma instancia ja gerenciada com totais antigos
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s.contaId, s.totalEntradas, s.totalSaidas FROM SaldoConta s WHERE s.contaId > :depoisDe ORDER BY s.contaId")
+    List<Object[]> travarPagina(@Param("depoisDe") Long depoisDe, Limit limite);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE SaldoConta s SET s.totalEntradas = :entradas, s.totalSaidas = :saidas WHERE s.contaId = :contaId")
+    int corrigir(@Param("contaId") Long contaId, @Param("entradas") BigDecimal entradas, @Param("saidas") BigDecimal saidas);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE SaldoConta s SET s.saldoInicial = :saldoInicial WHERE s.contaId = :contaId")
+    int atualizarSaldoInicial(@Param("contaId") Long contaId, @Param("saldoInicial") BigDecimal saldoInicial);
+
+    /*
+     * Semeia a conta a partir do livro descontando o delta da escrita corrente (zero numa leitura),
+     * que o acumular seguinte aplica. Com a linha ja semeada por outra transacao, nao faz nada. O
+     * LIMIT 1, como em ResumoDiarioRepository.semear, e o que permite o ON CONFLICT no H2.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO SaldoConta (contaId, usuarioId, saldoInicial, totalEntradas, totalSaidas) " +
+            "SELECT c.id, c.usuario.id, COALESCE(c.saldoInicial, 0), " +
+            "COALESCE(SUM(CASE WHEN t.tipo = com.nucleo.model.Transacao.TipoTransacao.ENTRADA THEN t.valor ELSE 0 END), 0) - :entradas, " +
+            "COALESCE(SUM(CASE WHEN t.tipo = com.nucleo.model.Transacao.TipoTransacao.SAIDA THEN t.valor ELSE 0 END), 0) - :saidas " +
+            "FROM ContasBancarias c LEFT JOIN Transacao t ON t.conta = c AND t.ativo = true " +
+            "WHERE c.id = :contaId GROUP BY c.id, c.usuario.id, c.saldoInicial " +
+            "ORDER BY c.id LIMIT 1 ON CONFLICT DO NOTHING")
+    int semear(@Param("contaId") Long contaId, @Param("entradas") BigDecimal entradas, @Param("saidas") BigDecimal saidas);
+
+    // semeia de uma vez as contas da faixa que tem regra SALDO_MINIMO ativa e ainda nao tem linha
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO SaldoConta (contaId, usuarioId, saldoInicial, totalEntradas, totalSaidas) " +
+            "SELECT c.id, c.usuario.id, COALESCE(c.saldoInicial, 0), " +
+            "COALESCE(SUM(CASE WHEN t.tipo = com.nucleo.model.Transacao.TipoTransacao.ENTRADA THEN t.valor ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN t.tipo = com.nucleo.model.Transacao.TipoTransacao.SAIDA THEN t.valor ELSE 0 END), 0) " +
+            "FROM ContasBancarias c LEFT JOIN Transacao t ON t.conta = c AND t.ativo = true " +
+            "WHERE c.usuario.id BETWEEN :de AND :ate " +
+            "AND EXISTS (SELECT 1 FROM Alerta a WHERE a.conta = c AND a.ativo = true " +
+            "AND a.tipo = com.nucleo.model.Alerta.TipoAlerta.SALDO_MINIMO) " +
+            "AND NOT EXISTS (SELECT 1 FROM SaldoConta s WHERE s.contaId = c.id) " +
+            "GROUP BY c.id, c.usuario.id, c.saldoInicial")
+    int semearFaltantes(@Param("de") Long de, @Param("ate") Long ate);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM SaldoConta s WHERE s.contaId = :contaId")
+    int apagar(@Param("contaId") Long contaId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM SaldoConta s WHERE s.usuarioId = :usuarioId")
+    int apagarPorUsuario(@Param("usuarioId") Long usuarioId);
+}
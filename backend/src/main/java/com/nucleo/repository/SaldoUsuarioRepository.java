@@ -0,0 +1,54 @@
+package com.nucleo.repository;
+
+import com.nucleo.dto.SaldoDTO;
+import com.nucleo.model.SaldoUsuario;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SaldoUsuarioRepository extends JpaRepository<SaldoUsuario, Long> {
+
+    @Query("SELECT new com.nucleo.dto.SaldoDTO(s.totalEntradas, s.totalSaidas, s.totalEntradas - s.totalSaidas) " +
+            "FROM SaldoUsuario s WHERE s.usuarioId = :usuarioId")
+    Optional<SaldoDTO> buscarSaldo(@Param("usuarioId") Long usuarioId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE SaldoUsuario s SET s.totalEntradas = s.totalEntradas + :entradas, s.totalSaidas = s.totalSaidas + :saidas " +
+            "WHERE s.usuarioId = :usuarioId")
+    int acumular(@Param("usuarioId") Long usuarioId, @Param("entradas") BigDecimal entradas, @Param("saidas") BigDecimal saidas);
+
+    // reconciliacao: [chave, entradas, saidas] pela chave, com as linhas travadas (FOR UPDATE) ate o fim da
+    // transacao; colunas em vez da entidade para nao ler uma instancia ja gerenciada com totais antigos
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s.usuarioId, s.totalEntradas, s.totalSaidas FROM SaldoUsuario s WHERE s.usuarioId > :depoisDe ORDER BY s.usuarioId")
+    List<Object[]> travarPagina(@Param("depoisDe") Long depoisDe, Limit limite);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE SaldoUsuario s SET s.totalEntradas = :entradas, s.totalSaidas = :saidas WHERE s.usuarioId = :usuarioId")
+    int corrigir(@Param("usuarioId") Long usuarioId, @Param("entradas") BigDecimal entradas, @Param("saidas") BigDecimal saidas);
+
+    // como SaldoContaRepository.semear; sem GROUP BY a soma sempre devolve uma linha, mesmo sem transacoes
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO SaldoUsuario (usuarioId, totalEntradas, totalSaidas) " +
+            "SELECT CAST(:usuarioId AS Long), " +
+            "COALESCE(SUM(CASE WHEN t.tipo = com.nucleo.model.Transacao.TipoTransacao.ENTRADA THEN t.valor ELSE 0 END), 0) - :entradas, " +
+            "COALESCE(SUM(CASE WHEN t.tipo = com.nucleo.model.Transacao.TipoTransacao.SAIDA THEN t.valor ELSE 0 END), 0) - :saidas " +
+            "FROM Transacao t WHERE t.usuario.id = :usuarioId AND t.ativo = true " +
+            "ORDER BY 1 LIMIT 1 ON CONFLICT DO NOTHING")
+    int semear(@Param("usuarioId") Long usuarioId, @Param("entradas") BigDecimal entradas, @Param("saidas") BigDecimal saidas);
+
+    // sem a linha, o proximo acesso semeia o saldo a partir do livro
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM SaldoUsuario s WHERE s.usuarioId = :usuarioId")
+    int apagar(@Param("usuarioId") Long usuarioId);
+}
@@ -0,0 +1,24 @@
+package com.nucleo.repository;
+
+import com.nucleo.model.TransacaoArquivada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface TransacaoArquivadaRepository extends JpaRepository<TransacaoArquivada, Long> {
+
+    // copia as linhas com um INSERT ... SELECT; o DELETE na origem vem em seguida, na mesma transacao
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO TransacaoArquivada (id, usuarioId, contaId, categoriaId, descricao, valor, data, tipo, " +
+            "dataCriacao, dataAtualizacao, arquivadaEm) " +
+            "SELECT t.id, t.usuario.id, t.conta.id, c.id, t.descricao, t.valor, t.data, t.tipo, " +
+            "t.dataCriacao, t.dataAtualizacao, CAST(:agora AS LocalDateTime) " +
+            "FROM Transacao t LEFT JOIN t.categoria c WHERE t.id IN :ids AND t.ativo = false")
+    int copiar(@Param("ids") Collection<Long> ids, @Param("agora") LocalDateTime agora);
+}
@@ -1,15 +1,20 @@
 package com.nucleo.repository;
 
+import com.nucleo.dto.TransacaoResponseDTO;
 import com.nucleo.model.Transacao;
 import com.nucleo.repository.generic.BaseRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +38,27 @@ public interface TransacaoRepository extends BaseRepository<Transacao, Long> {
     @Query("SELECT COALESCE(SUM(t.valor), 0) FROM Transacao t WHERE t.usuario.id = :usuarioId AND t.tipo = :tipo AND t.ativo = true")
     BigDecimal sumValorByUsuarioIdAndTipo(@Param("usuarioId") Long usuarioId, @Param("tipo") Transacao.TipoTransacao tipo);
 
+    @Query("SELECT COALESCE(SUM(t.valor), 0) FROM Transacao t WHERE t.conta.id = :contaId AND t.tipo = :tipo AND t.ativo = true")
+    BigDecimal sumValorByContaIdAndTipo(@Param("contaId") Long contaId, @Param("tipo") Transacao.TipoTransacao tipo);
+
+    // reconciliacao: o livro so das chaves da pagina de saldos travada
+    @Query("SELECT t.conta.id, t.tipo, SUM(t.valor) FROM Transacao t WHERE t.conta.id IN :contas AND t.ativo = true " +
+            "GROUP BY t.conta.id, t.tipo")
+    List<Object[]> somarPorContaETipo(@Param("contas") Collection<Long> contas);
+
+    @Query("SELECT t.usuario.id, t.tipo, SUM(t.valor) FROM Transacao t WHERE t.usuario.id IN :usuarios AND t.ativo = true " +
+            "GROUP BY t.usuario.id, t.tipo")
+    List<Object[]> somarPorUsuarioETipo(@Param("usuarios") Collection<Long> usuarios);
+
+    @Query("SELECT c.id, t.data, SUM(t.valor), COUNT(t) FROM Transacao t LEFT JOIN t.categoria c " +
+            "WHERE t.usuario.id = :usuarioId AND t.tipo = :tipo AND t.data >= :inicio AND t.ativo = true " +
+            "GROUP BY c.id, t.data")
+    List<Object[]> somarPorCategoriaEDia(
+            @Param("usuarioId") Long usuarioId,
+            @Param("tipo") Transacao.TipoTransacao tipo,
+            @Param("inicio") LocalDate inicio
+    );
+
     @Query("SELECT t FROM Transacao t WHERE t.usuario.id = :usuarioId AND t.data BETWEEN :inicio AND :fim AND t.ativo = true")
     List<Transacao> findByUsuarioAndPeriodo(
             @Param("usuarioId") Long usuarioId,
@@ -42,5 +68,73 @@ public interface TransacaoRepository extends BaseRepository<Transacao, Long> {
 
     List<Transacao> findByUsuarioId(Long id);
 
+    // read model das listagens: o DTO sai pronto de um unico SELECT com os joins, sem carregar entidades
+    String PROJECAO_RESPOSTA = "SELECT new com.nucleo.dto.TransacaoResponseDTO(t.id, t.descricao, t.valor, t.data, t.tipo, " +
+            "c.id, c.nome, t.dataCriacao, t.dataAtualizacao, u.id, u.nome, t.conta.id) " +
+            "FROM Transacao t JOIN t.usuario u LEFT JOIN t.categoria c ";
+
+    String ORDEM_RECENTES = " ORDER BY t.data DESC, t.id DESC";
+
+    @Query(PROJECAO_RESPOSTA + "WHERE u.id = :usuarioId AND t.ativo = true" + ORDEM_RECENTES)
+    List<TransacaoResponseDTO> listarPorUsuario(@Param("usuarioId") Long usuarioId);
+
+    @Query(PROJECAO_RESPOSTA + "WHERE u.id = :usuarioId AND t.tipo = :tipo AND t.ativo = true" + ORDEM_RECENTES)
+    List<TransacaoResponseDTO> listarPorUsuarioETipo(
+            @Param("usuarioId") Long usuarioId,
+            @Param("tipo") Transacao.TipoTransacao tipo
+    );
+
+    @Query(PROJECAO_RESPOSTA + "WHERE u.id = :usuarioId AND c.id = :categoriaId AND t.ativo = true" + ORDEM_RECENTES)
+    List<TransacaoResponseDTO> listarPorUsuarioECategoria(
+            @Param("usuarioId") Long usuarioId,
+            @Param("categoriaId") Long categoriaId
+    );
+
+    @Query(PROJECAO_RESPOSTA + "WHERE u.id = :usuarioId AND t.data BETWEEN :inicio AND :fim AND t.ativo = true" + ORDEM_RECENTES)
+    List<TransacaoResponseDTO> listarPorUsuarioEPeriodo(
+            @Param("usuarioId") Long usuarioId,
+            @Param("inicio") LocalDate inicio,
+            @Param("fim") LocalDate fim
+    );
+
+    // paginacao por chave (data, id) decrescente: custo constante em qualquer pagina, ao contrario de OFFSET
+    @Query(PROJECAO_RESPOSTA + "WHERE u.id = :usuarioId AND t.ativo = true AND (:tipo IS NULL OR t.tipo = :tipo)" +
+            ORDEM_RECENTES)
+    List<TransacaoResponseDTO> buscarPrimeiraPagina(
+            @Param("usuarioId") Long usuarioId,
+            @Param("tipo") Transacao.TipoTransacao tipo,
+            Limit limite
+    );
+
+    @Query(PROJECAO_RESPOSTA + "WHERE u.id = :usuarioId AND t.ativo = true AND (:tipo IS NULL OR t.tipo = :tipo) " +
+            "AND (t.data < :data OR (t.data = :data AND t.id < :id))" + ORDEM_RECENTES)
+    List<TransacaoResponseDTO> buscarPaginaApos(
+            @Param("usuarioId") Long usuarioId,
+            @Param("tipo") Transacao.TipoTransacao tipo,
+            @Param("data") LocalDate data,
+            @Param("id") Long id,
+            Limit limite
+    );
+
     Transacao findTransacaoByIdAndUsuario_Id(Long id, Long usuarioId);
-}
\ No newline at end of file
+
+    // desativacao em cascata: uma instrucao por conjunto, pelos indices (usuario_id, ativo, ...) e (conta_id, ativo, ...)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Transacao t SET t.ativo = false, t.dataAtualizacao = :agora WHERE t.usuario.id = :usuarioId AND t.ativo = true")
+    int desativarPorUsuario(@Param("usuarioId") Long usuarioId, @Param("agora") LocalDateTime agora);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Transacao t SET t.ativo = false, t.dataAtualizacao = :agora WHERE t.conta.id = :contaId AND t.ativo = true")
+    int desativarPorConta(@Param("contaId") Long contaId, @Param("agora") LocalDateTime agora);
+
+    // arquivamento: percorre a chave primaria a partir do ultimo id visto, uma passada pela tabela por execucao
+    @Query("SELECT t.id FROM Transacao t WHERE t.id > :depoisDe AND t.ativo = false AND t.dataAtualizacao < :desativadaAntes " +
+            "ORDER BY t.id")
+    List<Long> idsArquivaveis(@Param("depoisDe") Long depoisDe,
+                              @Param("desativadaAntes") LocalDateTime desativadaAntes,
+                              Limit limite);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Transacao t WHERE t.id IN :ids AND t.ativo = false")
+    int apagarDesativadas(@Param("ids") Collection<Long> ids);
+}
@@ -2,11 +2,27 @@ package com.nucleo.repository;
 
 import com.nucleo.model.Usuario;
 import com.nucleo.repository.generic.BaseRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 @Repository
 public interface UsuarioRepository extends BaseRepository<Usuario, Long> {
     Optional<Usuario> findByEmailAndAtivoTrue(String email);
-}
\ No newline at end of file
+
+    // rehash no login: troca so o hash, sem carregar a entidade
+    @Query("UPDATE Usuario u SET u.senha = :senha WHERE u.email = :email AND u.ativo = true")
+    @Modifying
+    @Transactional
+    int atualizarSenha(@Param("email") String email, @Param("senha") String senha);
+
+    // pela chave primaria o Usuario (e seus papeis) sai do cache de segundo nivel; a consulta derivada iria ao banco
+    @Override
+    default Optional<Usuario> findByIdAndAtivoTrue(Long id) {
+        return id == null ? Optional.empty() : findById(id).filter(usuario -> Boolean.TRUE.equals(usuario.getAtivo()));
+    }
+}
@@ -0,0 +1,141 @@
+package com.nucleo.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolve o principal de um token JWT sem ir ao banco a cada requisicao.
+ * O token e lido uma unica vez e o {@link UserDetailsImpl} sai das claims; o
+ * resultado fica em um cache LRU limitado, chaveado por subject + jti, com TTL.
+ * Quando um usuario e alterado, tokens emitidos antes disso voltam a ser conferidos
+ * no banco na proxima requisicao. Tokens revogados (logout, usuario desativado) sao
+ * recusados pela {@link RevogacaoTokens}, conferida em toda requisicao sem ir ao banco.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CachePrincipais {
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final RevogacaoTokens revogacaoTokens;
+
+    @Value("${jwt.cache.max-entradas:10000}")
+    private int maxEntradas = 10000;
+
+    @Value("${jwt.cache.ttl-segundos:300}")
+    private long ttlSegundos = 300;
+
+    @Value("${jwt.expiration:900000}")
+    private long jwtExpiration = 900000;
+
+    private final Map<String, Entrada> entradas = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entrada> eldest) {
+                    return size() > maxEntradas;
+                }
+            });
+
+    // usuarioId -> instante da ultima alteracao; tokens e entradas anteriores sao reconferidos
+    private final Map<Long, Long> invalidacoes = new ConcurrentHashMap<>();
+
+    /** Principal autenticado pelo token, ou null se o token for invalido ou o usuario nao estiver mais ativo. */
+    public UserDetailsImpl resolver(String token) {
+        long agora = System.currentTimeMillis();
+        Entrada entrada = entradas.get(token);
+        if (entrada != null && entrada.expiraEm > agora && !invalidadoDepois(entrada.principal.getId(), entrada.criadaEm)) {
+            if (revogacaoTokens.revogado(entrada.principal.getId(), entrada.jti, entrada.emitidoEm)) {
+                entradas.remove(token);
+                return null;
+            }
+            return entrada.principal;
+        }
+
+        ClaimsToken claims = jwtTokenProvider.extrairClaims(token).orElse(null);
+        if (claims == null || claims.subject() == null
+                || revogacaoTokens.revogado(claims.usuarioId(), claims.id(), claims.emitidoEm())) {
+            entradas.remove(token);
+            return null;
+        }
+
+        UserDetailsImpl principal = deClaims(claims);
+        if (principal == null || claims.emitidoEm() == null
+                || invalidadoDepois(principal.getId(), claims.emitidoEm().toEpochMilli())) {
+            principal = doBanco(claims.subject());
+            if (principal == null) {
+                entradas.remove(token);
+                return null;
+            }
+        }
+
+        long expiraEm = agora + ttlSegundos * 1000;
+        if (claims.expiraEm() != null) {
+            expiraEm = Math.min(expiraEm, claims.expiraEm().toEpochMilli());
+        }
+        entradas.put(token, new Entrada(principal, claims.id(), claims.emitidoEm(), agora, expiraEm));
+        return principal;
+    }
+
+    /** Chamado quando os dados, papeis ou o status de um usuario mudam. */
+    public void invalidarUsuario(Long usuarioId) {
+        if (usuarioId == null) {
+            return;
+        }
+        long agora = System.currentTimeMillis();
+        invalidacoes.put(usuarioId, agora);
+        // marcas mais velhas que a validade de um token ja nao afetam ninguem
+        invalidacoes.values().removeIf(instante -> instante < agora - jwtExpiration);
+    }
+
+    public void limpar() {
+        entradas.clear();
+        invalidacoes.clear();
+    }
+
+    public int tamanho() {
+        return entradas.size();
+    }
+
+    private boolean invalidadoDepois(Long usuarioId, long instante) {
+        Long invalidadoEm = usuarioId != null ? invalidacoes.get(usuarioId) : null;
+        // iat tem precisao de segundos: um token emitido no mesmo segundo tambem e reconferido
+        return invalidadoEm != null && invalidadoEm >= instante;
+    }
+
+    // tokens emitidos antes do claim uid nao tem dados suficientes e caem no banco
+    private static UserDetailsImpl deClaims(ClaimsToken claims) {
+        if (claims.usuarioId() == null) {
+            return null;
+        }
+        List<SimpleGrantedAuthority> authorities = claims.roles().stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+        return new UserDetailsImpl(claims.usuarioId(), claims.subject(), null, authorities);
+    }
+
+    private UserDetailsImpl doBanco(String email) {
+        try {
+            UserDetails usuario = userDetailsService.loadUserByUsername(email);
+            if (usuario instanceof UserDetailsImpl detalhes) {
+                return new UserDetailsImpl(detalhes.getId(), detalhes.getEmail(), null, detalhes.getAuthorities());
+            }
+            return null;
+        } catch (UsernameNotFoundException e) {
+            log.debug("Token de usuario inexistente ou inativo: {}", email);
+            return null;
+        }
+    }
+
+    private record Entrada(UserDetailsImpl principal, String jti, Instant emitidoEm, long criadaEm, long expiraEm) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.nucleo.security;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Claims de um token ja validado, lidas em um unico parse.
+ * usuarioId e null em tokens emitidos antes do claim uid.
+ */
+public record ClaimsToken(
+        String subject,
+        String id,
+        Long usuarioId,
+        List<String> roles,
+        Instant emitidoEm,
+        Instant expiraEm
+) {
+}
@@ -0,0 +1,71 @@
+package com.nucleo.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de chaves texto. "Nao contem" e sempre exato; "talvez contenha" erra na taxa
+ * escolhida. Os k indices saem de um unico hash de 64 bits (h1 + i*h2). Leituras e insercoes
+ * podem ser concorrentes.
+ */
+public final class FiltroBloom {
+
+    private final AtomicLongArray palavras;
+    private final int bits;
+    private final int funcoes;
+
+    public FiltroBloom(int capacidade, double taxaFalsosPositivos) {
+        int n = Math.max(1, capacidade);
+        long m = (long) Math.ceil(-n * Math.log(taxaFalsosPositivos) / (Math.log(2) * Math.log(2)));
+        this.bits = (int) Math.max(64, Math.min(m, Integer.MAX_VALUE - 63L));
+        this.funcoes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+        this.palavras = new AtomicLongArray((bits + 63) >>> 6);
+    }
+
+    public void adicionar(String chave) {
+        long hash = hash(chave);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < funcoes; i++) {
+            int bit = indice(h1 + i * h2);
+            long mascara = 1L << bit;
+            palavras.getAndUpdate(bit >>> 6, palavra -> palavra | mascara);
+        }
+    }
+
+    public boolean talvezContenha(String chave) {
+        long hash = hash(chave);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < funcoes; i++) {
+            int bit = indice(h1 + i * h2);
+            if ((palavras.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int tamanhoBytes() {
+        return palavras.length() * Long.BYTES;
+    }
+
+    private int indice(int combinado) {
+        return (combinado < 0 ? ~combinado : combinado) % bits;
+    }
+
+    // FNV-1a sobre os bytes e a mistura final do MurmurHash3 para espalhar os 64 bits
+    private static long hash(String chave) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : chave.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,89 @@
+package com.nucleo.security;
+
+import com.nucleo.exception.ServicoSobrecarregadoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead do hash de senhas. Login e cadastro rodam o BCrypt no executor hashSenhasExecutor, com
+ * poucas threads, e nao na thread da requisicao: num pico de logins a CPU usada pelo hash fica
+ * limitada e o resto da API continua atendendo. A entrada e controlada em dois pontos:
+ * <ul>
+ *     <li>no maximo auth.hash.max-pendentes tarefas entre fila e execucao; acima disso o pedido e
+ *     recusado na hora com 503;</li>
+ *     <li>uma tarefa que esperou na fila mais que auth.hash.espera-maxima-ms e descartada sem calcular
+ *     o hash, porque o cliente provavelmente ja desistiu.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class HashSenhas {
+
+    private final Executor executor;
+    private final Semaphore vagas;
+    private final long esperaMaximaNanos;
+    private final Timer espera;
+    private final Counter recusadasLotado;
+    private final Counter recusadasEspera;
+
+    public HashSenhas(@Qualifier("hashSenhasExecutor") Executor executor, MeterRegistry meterRegistry,
+                      @Value("${auth.hash.max-pendentes:64}") int maxPendentes,
+                      @Value("${auth.hash.espera-maxima-ms:2000}") long esperaMaximaMs) {
+        this.executor = executor;
+        this.vagas = new Semaphore(maxPendentes);
+        this.esperaMaximaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMaximaMs);
+        this.espera = Timer.builder("nucleo.auth.hash.espera")
+                .description("Tempo na fila do hash de senhas").register(meterRegistry);
+        this.recusadasLotado = Counter.builder("nucleo.auth.hash.recusadas").tag("motivo", "lotado")
+                .description("Pedidos de login/cadastro recusados na entrada").register(meterRegistry);
+        this.recusadasEspera = Counter.builder("nucleo.auth.hash.recusadas").tag("motivo", "espera")
+                .description("Pedidos de login/cadastro recusados na entrada").register(meterRegistry);
+        Gauge.builder("nucleo.auth.hash.pendentes", vagas, semaforo -> maxPendentes - semaforo.availablePermits())
+                .description("Tarefas de hash na fila ou em execucao").register(meterRegistry);
+    }
+
+    /**
+     * Agenda a tarefa (autenticacao ou cadastro, que fazem o hash) no executor proprio. Sem vaga,
+     * lanca ServicoSobrecarregadoException aqui mesmo, antes de qualquer trabalho.
+     */
+    public <T> CompletableFuture<T> executar(Supplier<T> tarefa) {
+        if (!vagas.tryAcquire()) {
+            recusadasLotado.increment();
+            throw new ServicoSobrecarregadoException("auth.sobrecarga", 1);
+        }
+        long enfileiradaEm = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    long esperou = System.nanoTime() - enfileiradaEm;
+                    espera.record(esperou, TimeUnit.NANOSECONDS);
+                    if (esperou > esperaMaximaNanos) {
+                        recusadasEspera.increment();
+                        throw new ServicoSobrecarregadoException("auth.sobrecarga", 1);
+                    }
+                    return tarefa.get();
+                } finally {
+                    vagas.release();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            vagas.release();
+            recusadasLotado.increment();
+            log.warn("Executor de hash recusou a tarefa: {}", e.getMessage());
+            throw new ServicoSobrecarregadoException("auth.sobrecarga", 1);
+        }
+    }
+}
@@ -1,32 +1,39 @@
 package com.nucleo.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Emite e valida os tokens JWT. A chave HMAC e o parser sao montados uma vez na
+ * inicializacao; ambos sao imutaveis e seguros para uso concorrente.
+ */
 @Component
-@RequiredArgsConstructor
 public class JwtTokenProvider {
 
-    @Value("${jwt.secret:mySuperSecretKeyThatIsVeryLongAndSecureForJWTTokenGeneration12345}")
-    private String jwtSecret;
+    public static final String CLAIM_USUARIO_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
 
-    @Value("${jwt.expiration:86400000}")
-    private Long jwtExpiration;
+    private final SecretKey chaveAssinatura;
+    private final JwtParser parser;
+    private final long jwtExpiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    public JwtTokenProvider(
+            @Value("${jwt.secret:mySuperSecretKeyThatIsVeryLongAndSecureForJWTTokenGeneration12345}") String jwtSecret,
+            @Value("${jwt.expiration:900000}") long jwtExpiration) {
+        this.chaveAssinatura = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(chaveAssinatura).build();
+        this.jwtExpiration = jwtExpiration;
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -37,37 +44,61 @@ public class JwtTokenProvider {
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList());
 
-        claims.put("roles", authorities);
+        claims.put(CLAIM_ROLES, authorities);
+        if (userDetails instanceof UserDetailsImpl usuario) {
+            claims.put(CLAIM_USUARIO_ID, usuario.getId());
+        }
 
         return Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey())
+                .signWith(chaveAssinatura)
                 .compact();
     }
 
+    public long getValidadeSegundos() {
+        return jwtExpiration / 1000;
+    }
+
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+        return extrairClaims(token).isPresent();
+    }
+
+    /** Valida assinatura e expiracao e devolve subject, id, roles e datas do mesmo parse. */
+    public Optional<ClaimsToken> extrairClaims(String token) {
+        Claims claims = lerClaims(token);
+        if (claims == null) {
+            return Optional.empty();
         }
+        return Optional.of(new ClaimsToken(
+                claims.getSubject(),
+                claims.getId(),
+                claims.get(CLAIM_USUARIO_ID) instanceof Number id ? id.longValue() : null,
+                roles(claims.get(CLAIM_ROLES)),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        ));
     }
 
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload().getSubject();
+    }
 
-        return claims.getSubject();
+    private Claims lerClaims(String token) {
+        try {
+            return parser.parseSignedClaims(token).getPayload();
+        } catch (Exception e) {
+            return null;
+        }
     }
 
-}
\ No newline at end of file
+    private static List<String> roles(Object valor) {
+        if (!(valor instanceof Collection<?> papeis)) {
+            return List.of();
+        }
+        return papeis.stream().map(Object::toString).toList();
+    }
+}
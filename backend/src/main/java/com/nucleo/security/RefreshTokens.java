@@ -0,0 +1,112 @@
+package com.nucleo.security;
+
+import com.nucleo.exception.AuthenticationException;
+import com.nucleo.model.RefreshToken;
+import com.nucleo.repository.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Refresh tokens rotativos. O valor e aleatorio (256 bits) e so o SHA-256 vai para o banco. Cada uso
+ * marca o token como usado e emite o proximo da mesma familia. Se um token ja usado ou revogado
+ * aparece de novo, alguem guardou uma copia: a familia inteira e revogada e o dono precisa entrar
+ * de novo. Os tokens valem jwt.refresh.validade-dias.
+ */
+@Slf4j
+@Component
+public class RefreshTokens {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final SecureRandom aleatorio = new SecureRandom();
+    private final long validadeDias;
+
+    public RefreshTokens(RefreshTokenRepository refreshTokenRepository,
+                         @Value("${jwt.refresh.validade-dias:30}") long validadeDias) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.validadeDias = validadeDias;
+    }
+
+    /** Abre uma familia nova (login ou cadastro) e devolve o valor a entregar ao cliente. */
+    @Transactional
+    public String emitir(Long usuarioId) {
+        return emitir(usuarioId, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Consome o token e emite o proximo da familia. Token desconhecido, vencido, usado ou revogado
+     * lanca AuthenticationException; nos dois ultimos casos a revogacao da familia e gravada mesmo assim.
+     */
+    @Transactional(noRollbackFor = AuthenticationException.class)
+    public Renovacao girar(String valor) {
+        String hash = hash(valor);
+        LocalDateTime agora = LocalDateTime.now();
+        if (refreshTokenRepository.usar(hash, agora) == 0) {
+            refreshTokenRepository.findById(hash)
+                    .filter(token -> token.getUsadoEm() != null || token.getRevogadoEm() != null)
+                    .ifPresent(token -> {
+                        log.warn("Refresh token reapresentado; familia do usuario {} revogada", token.getUsuarioId());
+                        refreshTokenRepository.revogarFamilia(token.getFamilia(), agora);
+                    });
+            throw new AuthenticationException("auth.refresh-invalido");
+        }
+        RefreshToken atual = refreshTokenRepository.findById(hash).orElseThrow();
+        return new Renovacao(atual.getUsuarioId(), emitir(atual.getUsuarioId(), atual.getFamilia()));
+    }
+
+    /** Logout: encerra a familia do token apresentado. Token desconhecido e ignorado. */
+    @Transactional
+    public void revogar(String valor) {
+        refreshTokenRepository.findById(hash(valor))
+                .ifPresent(token -> refreshTokenRepository.revogarFamilia(token.getFamilia(), LocalDateTime.now()));
+    }
+
+    @Transactional
+    public void revogarUsuario(Long usuarioId) {
+        refreshTokenRepository.revogarUsuario(usuarioId, LocalDateTime.now());
+    }
+
+    // linhas vencidas ja nao servem nem para detectar reuso
+    @Scheduled(cron = "${jwt.refresh.limpeza.cron:0 30 3 * * *}")
+    public void limpar() {
+        refreshTokenRepository.apagarExpirados(LocalDateTime.now());
+    }
+
+    private String emitir(Long usuarioId, String familia) {
+        byte[] bytes = new byte[32];
+        aleatorio.nextBytes(bytes);
+        String valor = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        LocalDateTime agora = LocalDateTime.now();
+        refreshTokenRepository.save(RefreshToken.builder()
+                .hash(hash(valor))
+                .usuarioId(usuarioId)
+                .familia(familia)
+                .criadoEm(agora)
+                .expiraEm(agora.plusDays(validadeDias))
+                .build());
+        return valor;
+    }
+
+    private static String hash(String valor) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(valor.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Renovacao(Long usuarioId, String refreshToken) {
+    }
+}
@@ -0,0 +1,198 @@
+package com.nucleo.security;
+
+import com.nucleo.model.RevogacaoToken;
+import com.nucleo.repository.RevogacaoTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Lista de revogacao dos tokens de acesso. A lista fica gravada em revogacoes_token e, em memoria,
+ * so um filtro de Bloom das chaves. Quase todo token responde "nao revogado" pelo filtro, sem banco.
+ * Um "talvez" vai ao banco pela chave, e o resultado fica num mapa pequeno ate a proxima sincronizacao.
+ * Revogacoes desta instancia valem no commit. As de outras instancias entram na sincronizacao
+ * periodica (jwt.revogacao.sincronizacao-ms), que tambem refaz o filtro sem as linhas vencidas.
+ */
+@Slf4j
+@Component
+public class RevogacaoTokens {
+
+    private static final String PREFIXO_TOKEN = "jti:";
+    private static final String PREFIXO_USUARIO = "usuario:";
+    private static final double TAXA_FALSOS_POSITIVOS = 0.01;
+    private static final Optional<Instant> NAO_REVOGADA = Optional.empty();
+
+    private final RevogacaoTokenRepository revogacaoTokenRepository;
+    private final long validadeAcessoMs;
+    private final int capacidade;
+    private final Map<String, Optional<Instant>> conferidas;
+    private final Counter consultasBanco;
+
+    private volatile FiltroBloom filtro;
+    // chaves revogadas aqui enquanto uma sincronizacao le a tabela; entram no filtro novo antes da troca
+    private List<String> gravadasNaSincronizacao;
+    // muda a cada revogacao registrada e a cada troca de filtro; uma consulta ao banco feita antes disso nao e memorizada
+    private long versao;
+
+    public RevogacaoTokens(RevogacaoTokenRepository revogacaoTokenRepository, MeterRegistry meterRegistry,
+                           @Value("${jwt.expiration:900000}") long validadeAcessoMs,
+                           @Value("${jwt.revogacao.capacidade:100000}") int capacidade,
+                           @Value("${jwt.revogacao.max-conferidas:10000}") int maxConferidas) {
+        this.revogacaoTokenRepository = revogacaoTokenRepository;
+        this.validadeAcessoMs = validadeAcessoMs;
+        this.capacidade = capacidade;
+        this.filtro = new FiltroBloom(capacidade, TAXA_FALSOS_POSITIVOS);
+        this.conferidas = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Optional<Instant>> eldest) {
+                return size() > maxConferidas;
+            }
+        });
+        this.consultasBanco = Counter.builder("nucleo.auth.revogacao.consultas")
+                .description("Conferencias no banco depois de um talvez do filtro de Bloom").register(meterRegistry);
+        Gauge.builder("nucleo.auth.revogacao.filtro.bytes", this, revogacao -> revogacao.filtro.tamanhoBytes())
+                .description("Tamanho do filtro de Bloom da lista de revogacao").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void carregar() {
+        sincronizar();
+    }
+
+    /**
+     * Token revogado individualmente (jti) ou emitido ate a revogacao de todos os tokens do usuario.
+     * O iat tem precisao de segundos: um token emitido no mesmo segundo da revogacao tambem cai.
+     */
+    public boolean revogado(Long usuarioId, String jti, Instant emitidoEm) {
+        if (jti != null && revogadaEm(PREFIXO_TOKEN + jti).isPresent()) {
+            return true;
+        }
+        if (usuarioId == null) {
+            return false;
+        }
+        Optional<Instant> usuarioRevogadoEm = revogadaEm(PREFIXO_USUARIO + usuarioId);
+        return usuarioRevogadoEm.isPresent() && (emitidoEm == null || !emitidoEm.isAfter(usuarioRevogadoEm.get()));
+    }
+
+    /** Revoga um token de acesso ate a sua expiracao (logout). */
+    @Transactional
+    public void revogarToken(String jti, Long usuarioId, Instant expiraEm) {
+        if (jti == null) {
+            return;
+        }
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime expira = expiraEm != null ? LocalDateTime.ofInstant(expiraEm, ZoneId.systemDefault())
+                : agora.plusNanos(validadeAcessoMs * 1_000_000);
+        gravar(new RevogacaoToken(PREFIXO_TOKEN + jti, usuarioId, agora, expira));
+    }
+
+    /** Revoga todos os tokens de acesso ja emitidos para o usuario; os emitidos depois seguem validos. */
+    @Transactional
+    public void revogarUsuario(Long usuarioId) {
+        if (usuarioId == null) {
+            return;
+        }
+        LocalDateTime agora = LocalDateTime.now();
+        gravar(new RevogacaoToken(PREFIXO_USUARIO + usuarioId, usuarioId, agora,
+                agora.plusNanos(validadeAcessoMs * 1_000_000)));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revogacao.sincronizacao-ms:30000}",
+            initialDelayString = "${jwt.revogacao.sincronizacao-ms:30000}")
+    public void sincronizar() {
+        // publicado antes da leitura: o que for revogado depois dela nao se perde na troca do filtro
+        List<String> gravadas = new ArrayList<>();
+        synchronized (this) {
+            gravadasNaSincronizacao = gravadas;
+        }
+        List<String> chaves;
+        try {
+            LocalDateTime agora = LocalDateTime.now();
+            revogacaoTokenRepository.apagarExpiradas(agora);
+            chaves = revogacaoTokenRepository.chavesVigentes(agora);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                gravadasNaSincronizacao = null;
+            }
+            throw e;
+        }
+        FiltroBloom novo = new FiltroBloom(Math.max(capacidade, chaves.size() * 2), TAXA_FALSOS_POSITIVOS);
+        chaves.forEach(novo::adicionar);
+        synchronized (this) {
+            gravadas.forEach(novo::adicionar);
+            filtro = novo;
+            gravadasNaSincronizacao = null;
+            conferidas.clear();
+            versao++;
+        }
+        log.debug("Lista de revogacao sincronizada: {} chaves", chaves.size());
+    }
+
+    private Optional<Instant> revogadaEm(String chave) {
+        if (!filtro.talvezContenha(chave)) {
+            return NAO_REVOGADA;
+        }
+        Optional<Instant> conferida = conferidas.get(chave);
+        if (conferida != null) {
+            return conferida;
+        }
+        long versaoLida;
+        synchronized (this) {
+            versaoLida = versao;
+        }
+        consultasBanco.increment();
+        LocalDateTime agora = LocalDateTime.now();
+        Optional<Instant> revogadaEm = revogacaoTokenRepository.findById(chave)
+                .filter(revogacao -> revogacao.getExpiraEm().isAfter(agora))
+                .map(revogacao -> revogacao.getRevogadoEm().atZone(ZoneId.systemDefault()).toInstant());
+        synchronized (this) {
+            if (versao == versaoLida) {
+                conferidas.put(chave, revogadaEm);
+            }
+        }
+        return revogadaEm;
+    }
+
+    // a memoria so muda depois do commit: um rollback nao deixa revogacao fantasma no filtro
+    private void gravar(RevogacaoToken revogacao) {
+        revogacaoTokenRepository.save(revogacao);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            registrar(revogacao);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                registrar(revogacao);
+            }
+        });
+    }
+
+    private synchronized void registrar(RevogacaoToken revogacao) {
+        versao++;
+        filtro.adicionar(revogacao.getChave());
+        if (gravadasNaSincronizacao != null) {
+            gravadasNaSincronizacao.add(revogacao.getChave());
+        }
+        conferidas.put(revogacao.getChave(),
+                Optional.of(revogacao.getRevogadoEm().atZone(ZoneId.systemDefault()).toInstant()));
+    }
+}
@@ -10,6 +10,7 @@ import com.nucleo.model.ContasBancarias;
 import com.nucleo.model.Usuario;
 import com.nucleo.repository.AlertaRepository;
 import com.nucleo.security.SecurityUtils;
+import com.nucleo.service.alerta.EstadoAlertas;
 import com.nucleo.service.generic.BaseService;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.data.domain.Page;
@@ -28,14 +29,17 @@ public class AlertaService extends BaseService<Alerta, Long, AlertaRepository> {
     private final UsuarioService usuarioService;
     private final CategoriaService categoriaService;
     private final ContasBancariasService contasService;
+    private final EstadoAlertas estadoAlertas;
 
     public AlertaService(AlertaRepository alertaRepository, UsuarioService usuarioService,
-                        CategoriaService categoriaService, ContasBancariasService contasService) {
+                        CategoriaService categoriaService, ContasBancariasService contasService,
+                        EstadoAlertas estadoAlertas) {
         super(alertaRepository);
         this.alertaRepository = alertaRepository;
         this.usuarioService = usuarioService;
         this.categoriaService = categoriaService;
         this.contasService = contasService;
+        this.estadoAlertas = estadoAlertas;
     }
 
     public Alerta criar(AlertaRequest dto) throws EntityNotCreatedException {
@@ -58,6 +62,7 @@ public class AlertaService extends BaseService<Alerta, Long, AlertaRepository> {
                     .conta(conta)
                     .limiteValor(dto.getLimiteValor())
                     .janelaDias(dto.getJanelaDias())
+                    .cooldownMinutos(dto.getCooldownMinutos())
                     .notificarEmail(dto.getNotificarEmail() != null ? dto.getNotificarEmail() : true)
                     .build();
 
@@ -89,10 +94,14 @@ public class AlertaService extends BaseService<Alerta, Long, AlertaRepository> {
 
             atualizarSeDiferente(existente::setLimiteValor, dto.getLimiteValor(), existente.getLimiteValor());
             atualizarSeDiferente(existente::setJanelaDias, dto.getJanelaDias(), existente.getJanelaDias());
+            atualizarSeDiferente(existente::setCooldownMinutos, dto.getCooldownMinutos(), existente.getCooldownMinutos());
             atualizarSeDiferente(existente::setNotificarEmail, dto.getNotificarEmail(), existente.getNotificarEmail());
 
             validarAlerta(existente);
-            return alertaRepository.save(existente);
+            Alerta salvo = alertaRepository.save(existente);
+            // regra nova na pratica: o proximo estouro notifica sem esperar o intervalo
+            estadoAlertas.rearmar(List.of(id));
+            return salvo;
         } catch (EntityNotFoundException e) {
             throw new EntityNotUpdatedException("alerta.not-found");
         } catch (Exception e) {
@@ -2,21 +2,28 @@ package com.nucleo.service;
 
 import com.nucleo.dto.AuthRequestDTO;
 import com.nucleo.dto.AuthResponseDTO;
+import com.nucleo.dto.RefreshTokenRequestDTO;
 import com.nucleo.exception.AuthenticationException;
 import com.nucleo.exception.EntityNotCreatedException;
 import com.nucleo.exception.ResourceNotFoundException;
 import com.nucleo.model.Usuario;
 import com.nucleo.repository.UsuarioRepository;
+import com.nucleo.security.HashSenhas;
 import com.nucleo.security.JwtTokenProvider;
+import com.nucleo.security.RefreshTokens;
+import com.nucleo.security.RevogacaoTokens;
 import com.nucleo.security.UserDetailsImpl;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthService {
@@ -25,8 +32,24 @@ public class AuthService {
     private final JwtTokenProvider jwtTokenProvider;
     private final AuthenticationManager authenticationManager;
     private final PasswordEncoder passwordEncoder;
+    private final HashSenhas hashSenhas;
+    private final RefreshTokens refreshTokens;
+    private final RevogacaoTokens revogacaoTokens;
+
+    /**
+     * Login fora da thread da requisicao: a autenticacao (BCrypt e eventual rehash) roda no executor
+     * do HashSenhas. Sem vaga na fila, lanca ServicoSobrecarregadoException (503) na hora.
+     */
+    public CompletableFuture<AuthResponseDTO> autenticar(AuthRequestDTO request) {
+        return hashSenhas.executar(() -> autenticarAgora(request));
+    }
+
+    /** Cadastro pelo mesmo executor do login, porque o hash da senha nova custa o mesmo. */
+    public CompletableFuture<AuthResponseDTO> registrar(AuthRequestDTO request) {
+        return hashSenhas.executar(() -> registrarAgora(request));
+    }
 
-    public AuthResponseDTO autenticar(AuthRequestDTO request) throws AuthenticationException {
+    private AuthResponseDTO autenticarAgora(AuthRequestDTO request) throws AuthenticationException {
         try {
             authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
@@ -38,60 +61,64 @@ public class AuthService {
             var usuario = usuarioRepository.findByEmailAndAtivoTrue(request.getEmail())
                     .orElseThrow(() -> new ResourceNotFoundException("usuario.not-found"));
 
-            var jwtToken = jwtTokenProvider.generateToken(UserDetailsImpl.build(usuario));
-
-            return AuthResponseDTO.builder()
-                    .token("Bearer " + jwtToken)
-                    .email(usuario.getEmail())
-                    .build();
+            return resposta(usuario, refreshTokens.emitir(usuario.getId()));
 
         } catch (AuthenticationException e) {
             throw new ResourceNotFoundException("login.login-failed");
         }
     }
 
-    public AuthResponseDTO registrar(AuthRequestDTO request) throws EntityNotCreatedException {
+    private AuthResponseDTO registrarAgora(AuthRequestDTO request) throws EntityNotCreatedException {
         try {
-
-
-
-            System.out.println("entrando no registrar");
             if (usuarioRepository.findByEmailAndAtivoTrue(request.getEmail()).isPresent()) {
                 throw new EntityNotCreatedException("register.user_exists");
-            }else if(request.getSenha().length() < 6) {}
-            System.out.println("passou0");
+            }
             Usuario novoUsuario = new Usuario();
-
-            System.out.println("criou usuario");
             novoUsuario.setNome(request.getEmail().split("@")[0]);
-            System.out.println("criou novo usuario nome");
             novoUsuario.setEmail(request.getEmail());
-            System.out.println("criou novo usuario email");
 
             novoUsuario.setSenha(passwordEncoder.encode(request.getSenha()));
-            System.out.println("criou novo usuario sem=nha");
 
             novoUsuario.setRoles(Set.of(Usuario.Role.ROLE_USER));
-            System.out.println("criou novo usuario role");
 
             novoUsuario.setAtivo(true);
-            System.out.println("criou novo usuario ativo");
-
-            System.out.println("passou");
 
             Usuario usuarioSalvo = usuarioRepository.save(novoUsuario);
-
-            System.out.println("passou 2");
-            var jwtToken = jwtTokenProvider.generateToken(UserDetailsImpl.build(usuarioSalvo));
-
-            System.out.println("passou 3");
-            return AuthResponseDTO.builder()
-                    .token("Bearer " + jwtToken)
-                    .email(usuarioSalvo.getEmail())
-                    .build();
+            log.info("Usuario {} registrado", usuarioSalvo.getId());
+            return resposta(usuarioSalvo, refreshTokens.emitir(usuarioSalvo.getId()));
 
         } catch (Exception e) {
             throw new EntityNotCreatedException("register.user_Creation-failed");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Troca um refresh token valido por um novo token de acesso e o proximo refresh token da familia.
+     * Nao passa pelo hash de senhas: a conferencia e um SHA-256 e um UPDATE condicional.
+     */
+    public AuthResponseDTO renovar(RefreshTokenRequestDTO request) throws AuthenticationException {
+        RefreshTokens.Renovacao renovacao = refreshTokens.girar(request.getRefreshToken());
+        Usuario usuario = usuarioRepository.findByIdAndAtivoTrue(renovacao.usuarioId())
+                .orElseThrow(() -> new AuthenticationException("auth.refresh-invalido"));
+        return resposta(usuario, renovacao.refreshToken());
+    }
+
+    /** Encerra a sessao: revoga a familia do refresh token e, se veio junto, o token de acesso atual. */
+    public void sair(RefreshTokenRequestDTO request, String authorization) {
+        refreshTokens.revogar(request.getRefreshToken());
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            jwtTokenProvider.extrairClaims(authorization.substring(7)).ifPresent(claims ->
+                    revogacaoTokens.revogarToken(claims.id(), claims.usuarioId(), claims.expiraEm()));
+        }
+    }
+
+    private AuthResponseDTO resposta(Usuario usuario, String refreshToken) {
+        var jwtToken = jwtTokenProvider.generateToken(UserDetailsImpl.build(usuario));
+        return AuthResponseDTO.builder()
+                .token("Bearer " + jwtToken)
+                .email(usuario.getEmail())
+                .refreshToken(refreshToken)
+                .expiresIn(jwtTokenProvider.getValidadeSegundos())
+                .build();
+    }
+}
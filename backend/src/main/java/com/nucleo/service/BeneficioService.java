@@ -1,5 +1,6 @@
 package com.nucleo.service;
 
+import com.nucleo.dto.PaginaDTO;
 import com.nucleo.exception.EntityNotCreatedException;
 import com.nucleo.exception.EntityNotDeletedException;
 import com.nucleo.exception.EntityNotFoundException;
@@ -8,11 +9,17 @@ import com.nucleo.model.Beneficio;
 import com.nucleo.model.Usuario;
 import com.nucleo.repository.BeneficioRepository;
 import com.nucleo.security.SecurityUtils;
+import com.nucleo.service.listagem.ListagemPaginada;
+import com.nucleo.service.listagem.ParametrosPagina;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
+import static com.nucleo.service.listagem.Especificacoes.ativos;
+import static com.nucleo.service.listagem.Especificacoes.contem;
+import static com.nucleo.service.listagem.Especificacoes.igual;
 import static com.nucleo.utils.EntityUtils.atualizarSeDiferente;
 
 @Service
@@ -41,12 +48,15 @@ public class BeneficioService {
         }
     }
 
-    public List<Beneficio> listarTodos() throws EntityNotFoundException {
-        try {
-            return beneficioRepository.findAllByAtivoTrue();
-        } catch (Exception e) {
-            throw new EntityNotFoundException("beneficio.not-found");
-        }
+    /** Pagina por id dos beneficios ativos que passam nos filtros (nulos nao restringem). */
+    public PaginaDTO<Beneficio> listarPagina(Long usuarioId, Beneficio.TipoBeneficio tipo, String nome,
+                                             ParametrosPagina pagina) {
+        Specification<Beneficio> filtro = Specification.allOf(
+                ativos(),
+                igual("usuario.id", usuarioId),
+                igual("tipo", tipo),
+                contem("nome", nome));
+        return ListagemPaginada.paginar(beneficioRepository, filtro, pagina, Beneficio::getId);
     }
 
     public Beneficio buscarPorId(Long id) throws EntityNotFoundException {
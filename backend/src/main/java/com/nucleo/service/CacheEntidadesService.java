@@ -0,0 +1,50 @@
+package com.nucleo.service;
+
+import com.nucleo.dto.MetricasCacheDTO;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Acertos e faltas por regiao do cache de segundo nivel (entidades e consultas),
+ * a partir das estatisticas do Hibernate.
+ */
+@Service
+@RequiredArgsConstructor
+public class CacheEntidadesService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public List<MetricasCacheDTO> metricas() {
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return Arrays.stream(estatisticas.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(regiao -> {
+                    CacheRegionStatistics regiaoEstatisticas = estatisticas.getCacheRegionStatistics(regiao);
+                    return regiaoEstatisticas == null ? null : paraDTO(regiao, regiaoEstatisticas);
+                })
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /** Esvazia todas as regioes, para quando o banco foi alterado por fora da aplicacao. */
+    public void limpar() {
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+
+    private static MetricasCacheDTO paraDTO(String regiao, CacheRegionStatistics estatisticas) {
+        long acertos = estatisticas.getHitCount();
+        long faltas = estatisticas.getMissCount();
+        double taxa = acertos + faltas == 0 ? 0 : (double) acertos / (acertos + faltas);
+        return new MetricasCacheDTO(regiao, acertos, faltas, estatisticas.getPutCount(),
+                estatisticas.getElementCountInMemory(), taxa);
+    }
+}
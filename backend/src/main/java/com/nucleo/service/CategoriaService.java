@@ -1,6 +1,7 @@
 package com.nucleo.service;
 
 import com.nucleo.dto.CategoriaRequestDTO;
+import com.nucleo.dto.PaginaDTO;
 import com.nucleo.exception.EntityNotCreatedException;
 import com.nucleo.exception.EntityNotDeletedException;
 import com.nucleo.exception.EntityNotFoundException;
@@ -9,11 +10,18 @@ import com.nucleo.model.Categoria;
 import com.nucleo.model.Usuario;
 import com.nucleo.repository.CategoriaRepository;
 import com.nucleo.security.SecurityUtils;
+import com.nucleo.service.listagem.ListagemPaginada;
+import com.nucleo.service.listagem.ParametrosPagina;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
+import static com.nucleo.service.listagem.Especificacoes.ativos;
+import static com.nucleo.service.listagem.Especificacoes.buscarJunto;
+import static com.nucleo.service.listagem.Especificacoes.contem;
+import static com.nucleo.service.listagem.Especificacoes.igual;
 import static com.nucleo.utils.EntityUtils.atualizarSeDiferente;
 
 @Service
@@ -46,6 +54,19 @@ public class CategoriaService {
         return categoriaRepository.findByIsGlobalTrueOrUsuarioIdAndAtivoTrue(usuarioId);
     }
 
+    /** Pagina por id das categorias globais e do usuario logado, com o dono no mesmo SELECT. */
+    public PaginaDTO<Categoria> listarPagina(Categoria.TipoCategoria tipo, String nome, ParametrosPagina pagina) {
+        Long usuarioId = SecurityUtils.getCurrentUserId();
+        Specification<Categoria> visiveis = Specification.anyOf(igual("isGlobal", true), igual("usuario.id", usuarioId));
+        Specification<Categoria> filtro = Specification.allOf(
+                ativos(),
+                visiveis,
+                igual("tipo", tipo),
+                contem("nome", nome),
+                buscarJunto("usuario"));
+        return ListagemPaginada.paginar(categoriaRepository, filtro, pagina, Categoria::getId);
+    }
+
     public Categoria buscarPorId(Long id) throws EntityNotFoundException {
         return categoriaRepository.findByIdAndAtivoTrue(id)
                 .orElseThrow(() -> new EntityNotFoundException("categoria.not-found"));
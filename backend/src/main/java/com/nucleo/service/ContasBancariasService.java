@@ -1,25 +1,35 @@
 package com.nucleo.service;
 
+import com.nucleo.dto.PaginaDTO;
 import com.nucleo.exception.EntityNotCreatedException;
 import com.nucleo.exception.EntityNotDeletedException;
 import com.nucleo.exception.EntityNotUpdatedException;
 import com.nucleo.model.ContasBancarias;
+import com.nucleo.model.TipoConta;
 import com.nucleo.model.Usuario;
 import com.nucleo.repository.ContasBancariasRepository;
 import com.nucleo.security.SecurityUtils;
+import com.nucleo.service.desativacao.DesativacaoCascata;
+import com.nucleo.service.listagem.ListagemPaginada;
+import com.nucleo.service.listagem.ParametrosPagina;
 import com.nucleo.exception.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
 import java.util.List;
 
+import static com.nucleo.service.listagem.Especificacoes.contem;
+import static com.nucleo.service.listagem.Especificacoes.igual;
+
 @Service
 @RequiredArgsConstructor
 public class ContasBancariasService {
 
     private final ContasBancariasRepository contasRepository;
     private final UsuarioService usuarioService;
+    private final SaldoService saldoService;
+    private final DesativacaoCascata desativacaoCascata;
 
     public ContasBancarias criar(ContasBancarias conta) throws Exception, EntityNotCreatedException,EntityNotFoundException {
         try{
@@ -30,7 +40,9 @@ public class ContasBancariasService {
         }
         conta.setUsuario(usuario);
         conta.setAtivo(true);
-        return contasRepository.save(conta);
+        ContasBancarias salva = contasRepository.save(conta);
+        saldoService.inicializarConta(salva);
+        return salva;
         }catch(Exception e){
             throw new EntityNotCreatedException("conta.not-created");
         }
@@ -45,13 +57,15 @@ public class ContasBancariasService {
         }
     }
 
-    public List<ContasBancarias> listarTodas() {
-        try {
-
-        return contasRepository.findAll();
-        }catch (Exception e) {
-            throw new EntityNotFoundException("conta.not-found");
-        }
+    /** Pagina por id das contas que passam nos filtros (nulos nao restringem); ativo nulo inclui as desativadas. */
+    public PaginaDTO<ContasBancarias> listarPagina(Long usuarioId, TipoConta tipo, String instituicao, Boolean ativo,
+                                                   ParametrosPagina pagina) {
+        Specification<ContasBancarias> filtro = Specification.allOf(
+                igual("usuario.id", usuarioId),
+                igual("tipo", tipo),
+                contem("instituicao", instituicao),
+                igual("ativo", ativo));
+        return ListagemPaginada.paginar(contasRepository, filtro, pagina, ContasBancarias::getId);
     }
 
     public ContasBancarias buscarPorId(Long id) {
@@ -73,7 +87,9 @@ public class ContasBancariasService {
             contaExistente.setMoeda(contaAtualizada.getMoeda());
             contaExistente.setSaldoInicial(contaAtualizada.getSaldoInicial());
 
-            return contasRepository.save(contaExistente);
+            ContasBancarias salva = contasRepository.save(contaExistente);
+            saldoService.atualizarSaldoInicial(salva.getId(), salva.getSaldoInicial());
+            return salva;
 
         }catch (EntityNotFoundException e){
             throw e;
@@ -93,9 +109,7 @@ public class ContasBancariasService {
                         .orElseThrow(() -> new EntityNotFoundException("conta.not-found"));
             }
 
-            conta.setAtivo(false);
-            conta.setDeletadoEm(LocalDateTime.now());
-            contasRepository.save(conta);
+            desativacaoCascata.desativarConta(conta.getId(), conta.getUsuario().getId());
         }catch (EntityNotFoundException e){
             throw e;
         }catch (Exception e){
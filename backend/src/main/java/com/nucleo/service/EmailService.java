@@ -4,6 +4,8 @@ import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public class EmailService {
 
@@ -14,10 +16,19 @@ public class EmailService {
     }
 
     public void enviarEmail(String destinatario, String assunto, String corpo) {
+        mailSender.send(criarMensagem(destinatario, assunto, corpo));
+    }
+
+    // todas as mensagens vao pela mesma conexao SMTP
+    public void enviarLote(List<SimpleMailMessage> mensagens) {
+        mailSender.send(mensagens.toArray(new SimpleMailMessage[0]));
+    }
+
+    public SimpleMailMessage criarMensagem(String destinatario, String assunto, String corpo) {
         SimpleMailMessage mensagem = new SimpleMailMessage();
         mensagem.setTo(destinatario);
         mensagem.setSubject(assunto);
         mensagem.setText(corpo);
-        mailSender.send(mensagem);
+        return mensagem;
     }
 }
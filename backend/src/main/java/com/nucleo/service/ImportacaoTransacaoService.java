@@ -0,0 +1,186 @@
+package com.nucleo.service;
+
+import com.nucleo.dto.ErroImportacaoDTO;
+import com.nucleo.dto.ResultadoImportacaoDTO;
+import com.nucleo.dto.TransacaoRequestDTO;
+import com.nucleo.model.Categoria;
+import com.nucleo.model.ContasBancarias;
+import com.nucleo.model.Transacao;
+import com.nucleo.model.Usuario;
+import com.nucleo.repository.CategoriaRepository;
+import com.nucleo.repository.ContasBancariasRepository;
+import com.nucleo.repository.TransacaoRepository;
+import com.nucleo.service.alerta.AvaliadorAlertas;
+import com.nucleo.service.alerta.DisparoAlerta;
+import com.nucleo.service.importacao.LinhaImportacao;
+import com.nucleo.service.listener.LancamentoTransacao;
+import com.nucleo.service.listener.TransacaoListener;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.nucleo.security.SecurityUtils.getCurrentUserId;
+
+/**
+ * Importacao em massa de transacoes. Categorias e contas do usuario sao carregadas
+ * uma vez; as linhas validas sao gravadas em lotes, cada um na sua transacao, com
+ * inserts agrupados pelo JDBC, listeners e alertas executados uma vez por lote.
+ * Linhas invalidas (ou de um lote que falhou) voltam no resultado com o numero da linha.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImportacaoTransacaoService {
+
+    private final TransacaoRepository transacaoRepository;
+    private final CategoriaRepository categoriaRepository;
+    private final ContasBancariasRepository contasBancariasRepository;
+    private final UsuarioService usuarioService;
+    private final TransacaoService transacaoService;
+    private final AvaliadorAlertas avaliadorAlertas;
+    private final List<TransacaoListener> transacaoListeners;
+    private final TransactionTemplate transactionTemplate;
+    private final MessageSource messageSource;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${importacao.lote.tamanho:1000}")
+    private int tamanhoLote = 1000;
+
+    @Value("${importacao.max-erros:1000}")
+    private int maxErros = 1000;
+
+    public ResultadoImportacaoDTO importar(List<TransacaoRequestDTO> transacoes) {
+        List<LinhaImportacao> linhas = new ArrayList<>(transacoes.size());
+        for (int i = 0; i < transacoes.size(); i++) {
+            linhas.add(LinhaImportacao.valida(i + 1, transacoes.get(i)));
+        }
+        return importar(linhas.iterator());
+    }
+
+    public ResultadoImportacaoDTO importar(Iterator<LinhaImportacao> linhas) {
+        Long usuarioId = getCurrentUserId();
+        Usuario usuario = usuarioService.buscarEntidadePorId(usuarioId);
+        Map<Long, Categoria> categorias = categoriaRepository.findByIsGlobalTrueOrUsuarioIdAndAtivoTrue(usuarioId).stream()
+                .filter(categoria -> Boolean.TRUE.equals(categoria.getAtivo()))
+                .collect(Collectors.toMap(Categoria::getId, Function.identity()));
+        Map<Long, ContasBancarias> contas = contasBancariasRepository.findByUsuarioIdAndAtivoTrue(usuarioId).stream()
+                .collect(Collectors.toMap(ContasBancarias::getId, Function.identity()));
+
+        Resultado resultado = new Resultado();
+        List<LinhaImportacao> lote = new ArrayList<>(tamanhoLote);
+        while (linhas.hasNext()) {
+            LinhaImportacao linha = linhas.next();
+            resultado.lidas++;
+
+            String erro = linha.erro() != null ? linha.erro() : validar(linha.transacao(), categorias, contas);
+            if (erro != null) {
+                resultado.rejeitar(linha.numero(), erro);
+                continue;
+            }
+            lote.add(linha);
+            if (lote.size() >= tamanhoLote) {
+                gravar(usuario, lote, categorias, contas, resultado);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            gravar(usuario, lote, categorias, contas, resultado);
+        }
+
+        log.info("Importacao do usuario {}: {} linhas, {} importadas, {} rejeitadas",
+                usuarioId, resultado.lidas, resultado.importadas, resultado.rejeitadas);
+        return new ResultadoImportacaoDTO(resultado.lidas, resultado.importadas, resultado.rejeitadas, resultado.erros);
+    }
+
+    private String validar(TransacaoRequestDTO transacao, Map<Long, Categoria> categorias, Map<Long, ContasBancarias> contas) {
+        if (transacao == null) {
+            return "importacao.linha-invalida";
+        }
+        if (transacao.descricao() == null || transacao.descricao().isBlank()) {
+            return "importacao.descricao-obrigatoria";
+        }
+        if (transacao.valor() == null || transacao.valor().compareTo(BigDecimal.ZERO) <= 0) {
+            return "importacao.valor-invalido";
+        }
+        if (transacao.data() == null) {
+            return "importacao.data-invalida";
+        }
+        if (transacao.tipo() == null) {
+            return "importacao.tipo-invalido";
+        }
+        if (transacao.categoriaId() != null && !categorias.containsKey(transacao.categoriaId())) {
+            return "categoria.not-found";
+        }
+        if (transacao.contaId() == null || !contas.containsKey(transacao.contaId())) {
+            return "conta.acesso-negado";
+        }
+        return null;
+    }
+
+    private void gravar(Usuario usuario, List<LinhaImportacao> lote, Map<Long, Categoria> categorias,
+                        Map<Long, ContasBancarias> contas, Resultado resultado) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Transacao> novas = new ArrayList<>(lote.size());
+                for (LinhaImportacao linha : lote) {
+                    TransacaoRequestDTO dto = linha.transacao();
+                    novas.add(Transacao.builder()
+                            .descricao(dto.descricao())
+                            .valor(dto.valor())
+                            .data(dto.data())
+                            .tipo(dto.tipo())
+                            .categoria(dto.categoriaId() != null ? categorias.get(dto.categoriaId()) : null)
+                            .conta(contas.get(dto.contaId()))
+                            .usuario(usuario)
+                            .build());
+                }
+                transacaoRepository.saveAll(novas);
+                entityManager.flush();
+
+                List<LancamentoTransacao> lancamentos = novas.stream().map(LancamentoTransacao::fromEntity).toList();
+                transacaoListeners.forEach(listener -> listener.aoIncluirLote(lancamentos));
+                for (DisparoAlerta disparo : avaliadorAlertas.avaliarLote(usuario.getId(), lancamentos)) {
+                    transacaoService.notificar(usuario, disparo);
+                }
+
+                entityManager.flush();
+                entityManager.clear();
+            });
+            resultado.importadas += lote.size();
+        } catch (RuntimeException e) {
+            log.warn("Lote de importacao com {} linhas falhou: {}", lote.size(), e.getMessage());
+            lote.forEach(linha -> resultado.rejeitar(linha.numero(), "transacao.not-created"));
+        }
+    }
+
+    private final class Resultado {
+        private long lidas;
+        private long importadas;
+        private long rejeitadas;
+        private final List<ErroImportacaoDTO> erros = new ArrayList<>();
+
+        private void rejeitar(long numero, String chave) {
+            rejeitadas++;
+            if (erros.size() < maxErros) {
+                erros.add(new ErroImportacaoDTO(numero,
+                        messageSource.getMessage(chave, null, chave, LocaleContextHolder.getLocale())));
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.nucleo.service;
 
+import com.nucleo.dto.PaginaDTO;
+import com.nucleo.dto.ProgressoMetaDTO;
 import com.nucleo.exception.EntityNotCreatedException;
 import com.nucleo.exception.EntityNotDeletedException;
 import com.nucleo.exception.EntityNotFoundException;
@@ -8,12 +10,18 @@ import com.nucleo.model.Meta;
 import com.nucleo.model.StatusMeta;
 import com.nucleo.repository.MetaRepository;
 import com.nucleo.security.SecurityUtils;
+import com.nucleo.service.listagem.ListagemPaginada;
+import com.nucleo.service.listagem.ParametrosPagina;
+import com.nucleo.service.meta.ProgressoMetas;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
 import static com.nucleo.security.SecurityUtils.getCurrentUserId;
+import static com.nucleo.service.listagem.Especificacoes.contem;
+import static com.nucleo.service.listagem.Especificacoes.igual;
 import static com.nucleo.utils.EntityUtils.atualizarSeDiferente;
 
 
@@ -22,6 +30,7 @@ import static com.nucleo.utils.EntityUtils.atualizarSeDiferente;
 public class MetaService {
 
     private final MetaRepository metaRepository;
+    private final ProgressoMetas progressoMetas;
 
 
 
@@ -30,7 +39,9 @@ public class MetaService {
             if (meta.getStatus() == null) {
                 meta.setStatus(StatusMeta.ativa);
             }
-            return metaRepository.save(meta);
+            Meta salva = metaRepository.save(meta);
+            progressoMetas.iniciar(salva);
+            return salva;
         } catch (Exception e) {
             throw new EntityNotCreatedException("meta.not-created");
         }
@@ -44,12 +55,15 @@ public class MetaService {
         }
     }
 
-    public List<Meta> listarTodas() throws EntityNotFoundException {
-        try {
-            return metaRepository.findAll();
-        } catch (Exception e) {
-            throw new EntityNotFoundException("meta.not-found");
-        }
+    /** Pagina por id das metas que passam nos filtros (nulos nao restringem); usuarioId nulo lista de todos. */
+    public PaginaDTO<Meta> listarPagina(Long usuarioId, StatusMeta status, Long categoriaId, String titulo,
+                                        ParametrosPagina pagina) {
+        Specification<Meta> filtro = Specification.allOf(
+                igual("usuarioId", usuarioId),
+                igual("status", status),
+                igual("categoriaId", categoriaId),
+                contem("titulo", titulo));
+        return ListagemPaginada.paginar(metaRepository, filtro, pagina, Meta::getId);
     }
 
 
@@ -76,11 +90,21 @@ public class MetaService {
         return meta;
     }
 
+    public ProgressoMetaDTO progresso(Long id, Long usuarioId) {
+        return progressoMetas.progresso(buscarPorId(id, usuarioId));
+    }
+
+    public List<ProgressoMetaDTO> listarProgresso(Long usuarioId) {
+        return progressoMetas.listar(usuarioId);
+    }
+
     public Meta atualizar(Long id, Meta metaAtualizada, Long usuarioId) {
 
         try {
 
             Meta metaExistente = buscarPorId(id, usuarioId);
+            Long categoriaAnterior = metaExistente.getCategoriaId();
+            StatusMeta statusAnterior = metaExistente.getStatus();
 
             atualizarSeDiferente(metaExistente::setTitulo, metaAtualizada.getTitulo(), metaExistente.getTitulo());
             atualizarSeDiferente(metaExistente::setValorAlvo, metaAtualizada.getValorAlvo(), metaExistente.getValorAlvo());
@@ -88,7 +112,9 @@ public class MetaService {
             atualizarSeDiferente(metaExistente::setCategoriaId, metaAtualizada.getCategoriaId(), metaExistente.getCategoriaId());
             atualizarSeDiferente(metaExistente::setStatus, metaAtualizada.getStatus(), metaExistente.getStatus());
 
-            return metaRepository.save(metaExistente);
+            Meta salva = metaRepository.save(metaExistente);
+            progressoMetas.aoAtualizarMeta(salva, categoriaAnterior, statusAnterior);
+            return salva;
         } catch (Exception e) {
             throw new EntityNotUpdatedException("meta.not-updated");
         }
@@ -0,0 +1,23 @@
+package com.nucleo.service;
+
+import com.nucleo.dto.ReconciliacaoSaldosDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "saldos.reconciliacao.habilitada", havingValue = "true", matchIfMissing = true)
+public class ReconciliadorSaldos {
+
+    private final SaldoService saldoService;
+
+    @Scheduled(cron = "${saldos.reconciliacao.cron:0 0 3 * * *}")
+    public void reconciliar() {
+        ReconciliacaoSaldosDTO resultado = saldoService.reconciliar();
+        log.info("Reconciliacao de saldos: {}", resultado);
+    }
+}
@@ -0,0 +1,245 @@
+package com.nucleo.service;
+
+import com.nucleo.dto.ReconciliacaoSaldosDTO;
+import com.nucleo.dto.SaldoDTO;
+import com.nucleo.exception.EntityNotFoundException;
+import com.nucleo.model.ContasBancarias;
+import com.nucleo.model.SaldoConta;
+import com.nucleo.model.Transacao;
+import com.nucleo.repository.SaldoContaRepository;
+import com.nucleo.repository.SaldoUsuarioRepository;
+import com.nucleo.repository.TransacaoRepository;
+import com.nucleo.service.listener.LancamentoTransacao;
+import com.nucleo.service.listener.TransacaoListener;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mantem as tabelas saldos_conta e saldos_usuario em dia com o livro de transacoes,
+ * para que saldo e resumo sejam a leitura de uma linha em vez de SUMs sobre o historico.
+ * Linhas que ainda nao existem sao semeadas a partir do livro na primeira escrita ou leitura,
+ * com um INSERT que nao faz nada se outra transacao semeou a mesma linha antes.
+ */
+@Slf4j
+@Service
+@Order(0)
+@RequiredArgsConstructor
+public class SaldoService implements TransacaoListener {
+
+    private final SaldoContaRepository saldoContaRepository;
+    private final SaldoUsuarioRepository saldoUsuarioRepository;
+    private final TransacaoRepository transacaoRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${saldos.reconciliacao.lote:500}")
+    private int tamanhoPagina = 500;
+
+    @Override
+    @Transactional
+    public void aoIncluir(LancamentoTransacao lancamento) {
+        acumular(List.of(lancamento), 1);
+    }
+
+    @Override
+    @Transactional
+    public void aoRemover(LancamentoTransacao lancamento) {
+        acumular(List.of(lancamento), -1);
+    }
+
+    @Override
+    @Transactional
+    public void aoIncluirLote(List<LancamentoTransacao> lote) {
+        acumular(lote, 1);
+    }
+
+    @Transactional
+    public void inicializarConta(ContasBancarias conta) {
+        saldoContaRepository.save(SaldoConta.builder()
+                .contaId(conta.getId())
+                .usuarioId(conta.getUsuario().getId())
+                .saldoInicial(valorOuZero(conta.getSaldoInicial()))
+                .build());
+    }
+
+    @Transactional
+    public void atualizarSaldoInicial(Long contaId, BigDecimal saldoInicial) {
+        if (saldoContaRepository.atualizarSaldoInicial(contaId, valorOuZero(saldoInicial)) == 0) {
+            saldoContaRepository.semear(contaId, BigDecimal.ZERO, BigDecimal.ZERO);
+            saldoContaRepository.atualizarSaldoInicial(contaId, valorOuZero(saldoInicial));
+        }
+    }
+
+    @Transactional
+    public SaldoDTO getSaldoConta(Long contaId) {
+        return saldoContaRepository.buscarSaldo(contaId)
+                .orElseGet(() -> {
+                    saldoContaRepository.semear(contaId, BigDecimal.ZERO, BigDecimal.ZERO);
+                    return saldoContaRepository.buscarSaldo(contaId)
+                            .orElseThrow(() -> new EntityNotFoundException("conta.not-found"));
+                });
+    }
+
+    @Transactional
+    public SaldoDTO getSaldoUsuario(Long usuarioId) {
+        return saldoUsuarioRepository.buscarSaldo(usuarioId)
+                .orElseGet(() -> {
+                    saldoUsuarioRepository.semear(usuarioId, BigDecimal.ZERO, BigDecimal.ZERO);
+                    return saldoUsuarioRepository.buscarSaldo(usuarioId).orElseThrow();
+                });
+    }
+
+    /**
+     * Confere a projecao contra o livro e corrige as linhas divergentes. As linhas sao lidas pela chave em
+     * paginas de saldos.reconciliacao.lote, cada uma numa transacao propria que as trava antes de somar o
+     * livro das mesmas chaves: um acumular concorrente ou ja esta na soma ou espera a correcao e soma por cima.
+     */
+    public ReconciliacaoSaldosDTO reconciliar() {
+        int contasVerificadas = 0;
+        int contasCorrigidas = 0;
+        long ultimaConta = 0;
+        while (true) {
+            long depoisDe = ultimaConta;
+            Pagina pagina = transactionTemplate.execute(status -> reconciliarContas(depoisDe));
+            contasVerificadas += pagina.verificadas();
+            contasCorrigidas += pagina.corrigidas();
+            if (pagina.verificadas() < tamanhoPagina) {
+                break;
+            }
+            ultimaConta = pagina.ultimaChave();
+        }
+
+        int usuariosVerificados = 0;
+        int usuariosCorrigidos = 0;
+        long ultimoUsuario = 0;
+        while (true) {
+            long depoisDe = ultimoUsuario;
+            Pagina pagina = transactionTemplate.execute(status -> reconciliarUsuarios(depoisDe));
+            usuariosVerificados += pagina.verificadas();
+            usuariosCorrigidos += pagina.corrigidas();
+            if (pagina.verificadas() < tamanhoPagina) {
+                break;
+            }
+            ultimoUsuario = pagina.ultimaChave();
+        }
+
+        return new ReconciliacaoSaldosDTO(contasVerificadas, contasCorrigidas, usuariosVerificados, usuariosCorrigidos);
+    }
+
+    // linhas [contaId, entradas, saidas] travadas; o livro so dessas contas e lido depois da trava
+    private Pagina reconciliarContas(long depoisDe) {
+        List<Object[]> saldos = saldoContaRepository.travarPagina(depoisDe, Limit.of(tamanhoPagina));
+        if (saldos.isEmpty()) {
+            return new Pagina(0, 0, depoisDe);
+        }
+        Map<Long, BigDecimal[]> livroContas = agrupar(transacaoRepository.somarPorContaETipo(chaves(saldos)));
+        int corrigidas = 0;
+        for (Object[] saldo : saldos) {
+            Long contaId = (Long) saldo[0];
+            BigDecimal[] livro = livroContas.getOrDefault(contaId, zeros());
+            if (diverge((BigDecimal) saldo[1], (BigDecimal) saldo[2], livro)) {
+                log.warn("Saldo da conta {} divergente: projecao {}/{} livro {}/{}", contaId,
+                        saldo[1], saldo[2], livro[0], livro[1]);
+                saldoContaRepository.corrigir(contaId, livro[0], livro[1]);
+                corrigidas++;
+            }
+        }
+        return new Pagina(saldos.size(), corrigidas, (Long) saldos.get(saldos.size() - 1)[0]);
+    }
+
+    private Pagina reconciliarUsuarios(long depoisDe) {
+        List<Object[]> saldos = saldoUsuarioRepository.travarPagina(depoisDe, Limit.of(tamanhoPagina));
+        if (saldos.isEmpty()) {
+            return new Pagina(0, 0, depoisDe);
+        }
+        Map<Long, BigDecimal[]> livroUsuarios = agrupar(transacaoRepository.somarPorUsuarioETipo(chaves(saldos)));
+        int corrigidos = 0;
+        for (Object[] saldo : saldos) {
+            Long usuarioId = (Long) saldo[0];
+            BigDecimal[] livro = livroUsuarios.getOrDefault(usuarioId, zeros());
+            if (diverge((BigDecimal) saldo[1], (BigDecimal) saldo[2], livro)) {
+                log.warn("Saldo do usuario {} divergente: projecao {}/{} livro {}/{}", usuarioId,
+                        saldo[1], saldo[2], livro[0], livro[1]);
+                saldoUsuarioRepository.corrigir(usuarioId, livro[0], livro[1]);
+                corrigidos++;
+            }
+        }
+        return new Pagina(saldos.size(), corrigidos, (Long) saldos.get(saldos.size() - 1)[0]);
+    }
+
+    private static List<Long> chaves(List<Object[]> linhas) {
+        return linhas.stream().map(linha -> (Long) linha[0]).toList();
+    }
+
+    private record Pagina(int verificadas, int corrigidas, long ultimaChave) {
+    }
+
+    // um UPDATE por conta e por usuario do lote, com os totais ja agregados, na ordem de chave da reconciliacao
+    private void acumular(List<LancamentoTransacao> lote, int sinal) {
+        Map<Long, BigDecimal[]> porConta = new TreeMap<>();
+        Map<Long, BigDecimal[]> porUsuario = new TreeMap<>();
+        for (LancamentoTransacao lancamento : lote) {
+            if (lancamento.valor() == null) {
+                continue;
+            }
+            BigDecimal valor = sinal < 0 ? lancamento.valor().negate() : lancamento.valor();
+            int posicao = lancamento.isSaida() ? 1 : 0;
+            if (lancamento.contaId() != null) {
+                BigDecimal[] totais = porConta.computeIfAbsent(lancamento.contaId(), id -> zeros());
+                totais[posicao] = totais[posicao].add(valor);
+            }
+            if (lancamento.usuarioId() != null) {
+                BigDecimal[] totais = porUsuario.computeIfAbsent(lancamento.usuarioId(), id -> zeros());
+                totais[posicao] = totais[posicao].add(valor);
+            }
+        }
+
+        // sem linha ainda: a semente e o livro sem estas escritas (ou nada, se outra transacao semeou) e o UPDATE e refeito
+        porConta.forEach((contaId, totais) -> {
+            if (saldoContaRepository.acumular(contaId, totais[0], totais[1]) == 0) {
+                saldoContaRepository.semear(contaId, totais[0], totais[1]);
+                saldoContaRepository.acumular(contaId, totais[0], totais[1]);
+            }
+        });
+        porUsuario.forEach((usuarioId, totais) -> {
+            if (saldoUsuarioRepository.acumular(usuarioId, totais[0], totais[1]) == 0) {
+                saldoUsuarioRepository.semear(usuarioId, totais[0], totais[1]);
+                saldoUsuarioRepository.acumular(usuarioId, totais[0], totais[1]);
+            }
+        });
+    }
+
+    // id -> [entradas, saidas]
+    private static Map<Long, BigDecimal[]> agrupar(List<Object[]> linhas) {
+        Map<Long, BigDecimal[]> totais = new HashMap<>();
+        for (Object[] linha : linhas) {
+            BigDecimal[] valores = totais.computeIfAbsent((Long) linha[0], id -> zeros());
+            int posicao = linha[1] == Transacao.TipoTransacao.ENTRADA ? 0 : 1;
+            valores[posicao] = valorOuZero((BigDecimal) linha[2]);
+        }
+        return totais;
+    }
+
+    private static boolean diverge(BigDecimal entradas, BigDecimal saidas, BigDecimal[] livro) {
+        return entradas.compareTo(livro[0]) != 0 || saidas.compareTo(livro[1]) != 0;
+    }
+
+    private static BigDecimal[] zeros() {
+        return new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO};
+    }
+
+    private static BigDecimal valorOuZero(BigDecimal valor) {
+        return valor != null ? valor : BigDecimal.ZERO;
+    }
+}
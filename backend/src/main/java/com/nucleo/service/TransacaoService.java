@@ -1,5 +1,7 @@
 package com.nucleo.service;
 
+import com.nucleo.dto.PaginaDTO;
+import com.nucleo.dto.SaldoDTO;
 import com.nucleo.dto.TransacaoRequestDTO;
 import com.nucleo.dto.TransacaoResponseDTO;
 import com.nucleo.dto.UsuarioResponseDTO;
@@ -11,20 +13,27 @@ import com.nucleo.model.*;
 import com.nucleo.repository.ContasBancariasRepository;
 import com.nucleo.repository.TransacaoRepository;
 import com.nucleo.security.SecurityUtils;
+import com.nucleo.service.alerta.AvaliadorAlertas;
+import com.nucleo.service.alerta.DisparoAlerta;
+import com.nucleo.service.alerta.NotificadorAlertas;
+import com.nucleo.service.listagem.CursorTransacao;
+import com.nucleo.service.listener.LancamentoTransacao;
+import com.nucleo.service.listener.TransacaoListener;
 import com.nucleo.utils.EntityUtils;
 import com.nucleo.exception.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
-import static com.nucleo.security.SecurityUtils.getCurrentUserId;    import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
+import static com.nucleo.security.SecurityUtils.getCurrentUserId;
 
 
 @Slf4j
@@ -32,12 +41,18 @@ import jakarta.persistence.PersistenceContext;
 @RequiredArgsConstructor
 public class TransacaoService {
 
+    public static final int LIMITE_PADRAO = 50;
+    public static final int LIMITE_MAXIMO = 500;
+    private static final int JANELA_EXPORTACAO = 500;
+
     private final TransacaoRepository transacaoRepository;
     private final UsuarioService usuarioService;
     private final CategoriaService categoriaService;
-    private final AlertaService alertaService;
-    private final EmailService emailService; // ✅ injetado
+    private final NotificadorAlertas notificadorAlertas;
     private final ContasBancariasRepository contasBancariasRepository;
+    private final AvaliadorAlertas avaliadorAlertas;
+    private final SaldoService saldoService;
+    private final List<TransacaoListener> transacaoListeners;
 
 
 
@@ -51,7 +66,6 @@ public class TransacaoService {
             ContasBancarias c = contasBancariasRepository.findByIdAndUsuarioIdAndAtivoTrue(transacao.contaId(),usuarioId)
                     .orElseThrow(() -> new EntityNotFoundException("Conta não encontrada"));
 
-            System.out.println("passou 1");
             Transacao transacaoNova = Transacao.builder()
                     .descricao(transacao.descricao())
                     .valor(transacao.valor())
@@ -62,102 +76,99 @@ public class TransacaoService {
                     .usuario(usuario)
                     .build();
 
-            System.out.println("valor");
-            System.out.println(transacaoNova.getValor());
+            Transacao salva = transacaoRepository.save(transacaoNova);
+            LancamentoTransacao lancamento = LancamentoTransacao.fromEntity(salva);
+            transacaoListeners.forEach(listener -> listener.aoIncluir(lancamento));
 
-            System.out.println("passou 2");
-            List<Transacao> transacoesUltimoMes =
-                    transacaoRepository.findByUsuarioAndPeriodo(usuarioId, LocalDate.now().minusDays(30), LocalDate.now()).stream().filter(t -> t.getTipo() == Transacao.TipoTransacao.SAIDA).toList();
+            for (DisparoAlerta disparo : avaliadorAlertas.avaliar(lancamento)) {
+                notificar(usuario, disparo);
+            }
 
-            List<Transacao> transacaosCategoria = transacoesUltimoMes.stream()
-                    .filter(t -> t.getCategoria().equals(categoria))
-                    .toList();
+            return salva;
 
+        } catch (Exception e) {
+            throw new EntityNotCreatedException("transacao.not-created");
+        }
+    }
 
-            BigDecimal gastosUltimoMes = transacaosCategoria.stream()
-                    .map(Transacao::getValor)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
 
+    void notificar(Usuario usuario, DisparoAlerta disparo) {
+        notificadorAlertas.notificar(usuario, disparo);
+    }
 
 
-            System.out.println("passou 4");
-            List<Alerta> alertas = alertaService.listarPorUsuario(usuarioId);
-            for (Alerta alert : alertas) {
+    public List<TransacaoResponseDTO> listarTodas() {
+        return transacaoRepository.listarPorUsuario(getCurrentUserId());
+    }
 
-                if(alert.getTipo() == Alerta.TipoAlerta.LIMITE_CATEGORIA) {
-                    System.out.println(gastosUltimoMes);
-                        if (gastosUltimoMes.compareTo(alert.getLimiteValor()) > 0) {
-                            emailService.enviarEmail(
-                                    usuario.getEmail(),
-                                    "⚠️ Alerta de Gastos - Núcleo Financeiro",
-                                    "Olá, " + usuario.getNome() +
-                                            "! Você ultrapassou seu limite de gastos de R$" + alert.getLimiteValor() +
-                                            " no último mês. Revise suas despesas para manter o equilíbrio financeiro 💰"
-                            );
 
-                            System.out.println("enviou email");
-                        }
+    /** Uma pagina em ordem (data, id) decrescente, continuando depois do cursor recebido. */
+    public PaginaDTO<TransacaoResponseDTO> listarPagina(Long usuarioId, Transacao.TipoTransacao tipo,
+                                                        String cursor, Integer limite) {
+        int tamanho = limite == null ? LIMITE_PADRAO : Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+        CursorTransacao posicao = cursor != null && !cursor.isBlank() ? CursorTransacao.decodificar(cursor) : null;
 
-                } else if (alert.getTipo() == Alerta.TipoAlerta.SALDO_MINIMO) {
+        // um registro a mais so para saber se existe proxima pagina
+        List<TransacaoResponseDTO> transacoes = buscarPagina(usuarioId, tipo, posicao, tamanho + 1);
+        boolean temMais = transacoes.size() > tamanho;
+        List<TransacaoResponseDTO> pagina = temMais ? transacoes.subList(0, tamanho) : transacoes;
 
-                    if(getSaldo(getCurrentUserId()).compareTo(alert.getLimiteValor())<=0) {
-                        emailService.enviarEmail(
-                                usuario.getEmail(),
-                                "⚠️ Alerta de Gastos - Núcleo Financeiro",
-                                "Olá, " + usuario.getNome() +
-                                        "! Você esta abaixo do limite de saldo de R$" + alert.getLimiteValor() +". " +
-                                        " Revise suas despesas para manter o equilíbrio financeiro 💰"
-                        );
+        String proximoCursor = temMais ? CursorTransacao.de(pagina.get(pagina.size() - 1)).codificar() : null;
+        return new PaginaDTO<>(List.copyOf(pagina), proximoCursor);
+    }
 
-                        System.out.println("enviou email");
-                    }
-                }
+    /**
+     * Entrega todas as transacoes do usuario, uma a uma, lendo o banco em janelas por chave.
+     * As janelas sao projecoes (nada fica no contexto de persistencia), entao a memoria
+     * nao cresce com o tamanho do historico.
+     */
+    public void percorrer(Long usuarioId, Transacao.TipoTransacao tipo, Consumer<TransacaoResponseDTO> consumidor) {
+        CursorTransacao posicao = null;
+        List<TransacaoResponseDTO> janela;
+        do {
+            janela = buscarPagina(usuarioId, tipo, posicao, JANELA_EXPORTACAO);
+            janela.forEach(consumidor);
+            if (!janela.isEmpty()) {
+                posicao = CursorTransacao.de(janela.get(janela.size() - 1));
             }
-
-            return transacaoRepository.save(transacaoNova);
-
-        } catch (Exception e) {
-            throw new EntityNotCreatedException("transacao.not-created");
-        }
+        } while (janela.size() == JANELA_EXPORTACAO);
     }
 
-
-    public List<Transacao> listarTodas() {
-        return transacaoRepository.findByUsuarioId(getCurrentUserId());
+    private List<TransacaoResponseDTO> buscarPagina(Long usuarioId, Transacao.TipoTransacao tipo, CursorTransacao posicao, int tamanho) {
+        if (posicao == null) {
+            return transacaoRepository.buscarPrimeiraPagina(usuarioId, tipo, Limit.of(tamanho));
+        }
+        return transacaoRepository.buscarPaginaApos(usuarioId, tipo, posicao.data(), posicao.id(), Limit.of(tamanho));
     }
 
-
-    public List<Transacao> listarTodas(Long id) throws EntityNotFoundException {
+    public List<TransacaoResponseDTO> listarTodas(Long id) throws EntityNotFoundException {
         UsuarioResponseDTO u = usuarioService.buscarPorId(id);
         if(u == null){
             throw new EntityNotFoundException("usuario.not-found");
         }
-        return transacaoRepository.findByUsuarioId(id);
+        return transacaoRepository.listarPorUsuario(id);
     }
 
     public BigDecimal getTotalEntradas(Long usuarioId) throws EntityNotFoundException {
-        try {
-            return transacaoRepository.sumValorByUsuarioIdAndTipo(usuarioId, Transacao.TipoTransacao.ENTRADA);
-        } catch (Exception e) {
-            throw new EntityNotFoundException("transacao.not-found");
-        }
-
+        return getResumo(usuarioId).entradas();
     }
 
     public BigDecimal getTotalSaidas(Long usuarioId) throws EntityNotFoundException {
+        return getResumo(usuarioId).saidas();
+    }
+
+    public BigDecimal getSaldo(Long usuarioId) {
+        return getResumo(usuarioId).saldo();
+    }
+
+    public SaldoDTO getResumo(Long usuarioId) throws EntityNotFoundException {
         try {
-            return transacaoRepository.sumValorByUsuarioIdAndTipo(usuarioId, Transacao.TipoTransacao.SAIDA);
+            return saldoService.getSaldoUsuario(usuarioId);
         } catch (Exception e) {
             throw new EntityNotFoundException("transacao.not-found");
         }
     }
 
-    public BigDecimal getSaldo(Long usuarioId) {
-        BigDecimal entradas = getTotalEntradas(usuarioId);
-        BigDecimal saidas = getTotalSaidas(usuarioId);
-        return entradas.subtract(saidas);
-    }
-
     public Transacao encontraPorId(Long id) throws EntityNotFoundException{
             return transacaoRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("transacao.not-found"));
     }
@@ -174,6 +185,7 @@ public class TransacaoService {
     }
 
 
+    @Transactional
     public TransacaoResponseDTO  atualizar(Long id, TransacaoRequestDTO transacao) throws EntityNotUpdatedException {
         try {
             Long usuarioId = getCurrentUserId();
@@ -192,6 +204,8 @@ public class TransacaoService {
                 throw new EntityNotFoundException("categoria.not-found");
             }
 
+            LancamentoTransacao anterior = LancamentoTransacao.fromEntity(transacaoExistente);
+
             EntityUtils.atualizarSeDiferente(transacaoExistente::setDescricao,transacao.descricao(),transacaoExistente.getDescricao());
             EntityUtils.atualizarSeDiferente(transacaoExistente::setValor,transacao.valor(),transacaoExistente.getValor());
             EntityUtils.atualizarSeDiferente(transacaoExistente::setData,transacao.data(),transacaoExistente.getData());
@@ -199,51 +213,55 @@ public class TransacaoService {
             EntityUtils.atualizarSeDiferente(transacaoExistente::setCategoria,categoria,transacaoExistente.getCategoria());
             EntityUtils.atualizarSeDiferente(transacaoExistente::setUsuario,usuario,transacaoExistente.getUsuario());
 
-            return TransacaoResponseDTO.fromEntity(transacaoRepository.save(transacaoExistente));
+            Transacao salva = transacaoRepository.save(transacaoExistente);
+            LancamentoTransacao atual = LancamentoTransacao.fromEntity(salva);
+            transacaoListeners.forEach(listener -> listener.aoAtualizar(anterior, atual));
+
+            return TransacaoResponseDTO.fromEntity(salva);
         } catch (Exception e) {
            throw new EntityNotUpdatedException("transacao.not-updated");
         }
     }
 
+    @Transactional
     public void excluir(Long id) throws EntityNotFoundException, EntityNotDeletedException {
         try {
-            TransacaoResponseDTO t = buscarPorIdEUsuario(id);
+            Transacao t = encontraPorId(id);
 
-            if(t == null) {
-                throw new EntityNotFoundException("transacao.not-found");
-            }
-            if(!t.getUsuarioId().equals(getCurrentUserId()) && !SecurityUtils.isAdmin()) {
+            if(!t.getUsuario().getId().equals(getCurrentUserId()) && !SecurityUtils.isAdmin()) {
                 throw new AuthenticationException("transacao.not-deleted");
             }
+            LancamentoTransacao lancamento = LancamentoTransacao.fromEntity(t);
             transacaoRepository.deleteById(t.getId());
+            transacaoListeners.forEach(listener -> listener.aoRemover(lancamento));
         }catch(Exception e){
             throw new EntityNotDeletedException("transacao.not-deleted");
         }
 
     }
 
-    public List<Transacao> buscarPorPeriodo(LocalDate dataInicio, LocalDate dataFim) {
+    public List<TransacaoResponseDTO> buscarPorPeriodo(LocalDate dataInicio, LocalDate dataFim) {
         Long usuarioId = getCurrentUserId();
-        return transacaoRepository.findByUsuarioAndPeriodo(usuarioId, dataInicio, dataFim);
+        return transacaoRepository.listarPorUsuarioEPeriodo(usuarioId, dataInicio, dataFim);
     }
 
 
-    public List<Transacao> encontraPorTipo(Transacao.TipoTransacao tipo) throws EntityNotFoundException {
+    public List<TransacaoResponseDTO> encontraPorTipo(Transacao.TipoTransacao tipo) throws EntityNotFoundException {
         try {
             Long usuarioId = getCurrentUserId();
-            return transacaoRepository.findAllByUsuarioIdAndTipoAndAtivoTrue(usuarioId, tipo);
+            return transacaoRepository.listarPorUsuarioETipo(usuarioId, tipo);
         } catch (Exception e) {
             throw new EntityNotFoundException("transacao.not-found");
         }
     }
 
-    public List<Transacao> encontraPorCategoria( Long categoriaId) throws EntityNotFoundException {
+    public List<TransacaoResponseDTO> encontraPorCategoria( Long categoriaId) throws EntityNotFoundException {
         try{
             Categoria cat = categoriaService.buscarPorId(categoriaId);
             if(cat == null){
                 throw new EntityNotFoundException("categoria.not-found");
             }
-            return transacaoRepository.findAllByUsuarioIdAndCategoriaIdAndAtivoTrue(getCurrentUserId(),cat.getId());
+            return transacaoRepository.listarPorUsuarioECategoria(getCurrentUserId(),cat.getId());
         }catch(Exception e){
             throw new EntityNotFoundException("transacao.not-found");
         }
@@ -6,12 +6,16 @@ import com.nucleo.exception.EntityNotDeletedException;
 import com.nucleo.exception.EntityNotUpdatedException;
 import com.nucleo.model.Usuario;
 import com.nucleo.repository.UsuarioRepository;
+import com.nucleo.security.CachePrincipais;
+import com.nucleo.service.desativacao.DesativacaoCascata;
 import com.nucleo.utils.EntityUtils;
 import com.nucleo.exception.EntityNotFoundException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.RequestBody;
 
 import java.util.List;
@@ -20,11 +24,14 @@ import java.util.Optional;
 import static com.nucleo.security.SecurityUtils.getCurrentUserId;
 
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class UsuarioService  {
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CachePrincipais cachePrincipais;
+    private final DesativacaoCascata desativacaoCascata;
 
     public List<UsuarioResponseDTO> encontraTodosDTO() throws EntityNotFoundException {
         try {
@@ -65,37 +72,40 @@ public class UsuarioService  {
 
 
 
+    @Transactional
     public void deletaUsuario() throws EntityNotDeletedException {
 
         try{
-            usuarioRepository.softDelete(getCurrentUserId());
+            Long usuarioId = getCurrentUserId();
+            desativacaoCascata.desativarUsuario(usuarioId);
+            cachePrincipais.invalidarUsuario(usuarioId);
         }catch(Exception e){
+            log.warn("Falha ao desativar usuario", e);
             throw new EntityNotDeletedException("usuario.not-found");
         }
     }
 
+    @Transactional
     public void deletaUsuario(Long usuarioId) throws EntityNotDeletedException {
         try{
             Optional<Usuario> usuario = usuarioRepository.findByIdAndAtivoTrue(usuarioId);
             if (usuario.isPresent()) {
-                usuarioRepository.softDelete(usuarioId);
+                desativacaoCascata.desativarUsuario(usuarioId);
+                cachePrincipais.invalidarUsuario(usuarioId);
             }else{
                 throw new EntityNotFoundException("usuario.not-found");
             }
         }catch(Exception e){
+            log.warn("Falha ao desativar usuario {}", usuarioId, e);
             throw new EntityNotDeletedException("usuario.not-deleted");
         }
     }
 
+    @Transactional
     public UsuarioResponseDTO atualizaUsuario(UsuarioRequestDTO usuarioDetails) throws EntityNotUpdatedException {
 
         try{
-            System.out.println(usuarioDetails);
-
-            System.out.println("usuariodetailssss");
-            System.out.println(usuarioDetails.ativo());
             Optional<Usuario> usuarioOptional = usuarioRepository.findByIdAndAtivoTrue(getCurrentUserId());
-            System.out.println(usuarioOptional.isPresent());
             if (usuarioOptional.isEmpty()) {
                 throw new EntityNotUpdatedException("usuario.not-found");
             }
@@ -111,16 +121,22 @@ public class UsuarioService  {
             if (usuarioDetails.senha() != null && !usuarioDetails.senha().isBlank()) {
                 usuario.setSenha(passwordEncoder.encode(usuarioDetails.senha()));
             }
-            return UsuarioResponseDTO.fromEntity(usuarioRepository.save(usuario));
+            Usuario salvo = usuarioRepository.save(usuario);
+            cachePrincipais.invalidarUsuario(salvo.getId());
+            if (Boolean.FALSE.equals(salvo.getAtivo())) {
+                desativacaoCascata.desativarUsuario(salvo.getId());
+            }
+            return UsuarioResponseDTO.fromEntity(salvo);
 
         }catch (Exception e){
-            e.printStackTrace();
+            log.warn("Falha ao atualizar usuario", e);
             throw new  EntityNotUpdatedException("usuario.not-updated");
         }
 
     }
 
 
+    @Transactional
     public UsuarioResponseDTO atualizaUsuario(@RequestBody UsuarioRequestDTO usuarioDetails, Long id) throws EntityNotUpdatedException {
 
         try{
@@ -136,15 +152,17 @@ public class UsuarioService  {
             EntityUtils.atualizarSeDiferente(usuario::setNome,usuarioDetails.nome(),usuario.getNome());
             EntityUtils.atualizarSeDiferente(usuario::setAtivo,usuarioDetails.ativo(),usuario.getAtivo());
 
-            return UsuarioResponseDTO.fromEntity(usuarioRepository.save(usuario));
+            Usuario salvo = usuarioRepository.save(usuario);
+            cachePrincipais.invalidarUsuario(salvo.getId());
+            if (Boolean.FALSE.equals(salvo.getAtivo())) {
+                desativacaoCascata.desativarUsuario(salvo.getId());
+            }
+            return UsuarioResponseDTO.fromEntity(salvo);
 
         }catch (Exception e){
-            e.printStackTrace();
+            log.warn("Falha ao atualizar usuario", e);
             throw new  EntityNotUpdatedException("usuario.not-updated");
         }
 
     }
-
-
-
 }
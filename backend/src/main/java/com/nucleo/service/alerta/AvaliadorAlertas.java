@@ -0,0 +1,450 @@
+package com.nucleo.service.alerta;
+
+import com.nucleo.model.Alerta;
+import com.nucleo.model.Transacao;
+import com.nucleo.repository.TransacaoRepository;
+import com.nucleo.service.AlertaService;
+import com.nucleo.service.SaldoService;
+import com.nucleo.service.desativacao.GrafoDesativado;
+import com.nucleo.service.listener.LancamentoTransacao;
+import com.nucleo.service.listener.TransacaoListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Avalia as regras de alerta de um usuario sobre agregados mantidos em memoria.
+ * A janela de cada usuario e carregada do banco (uma consulta agrupada por categoria
+ * e dia) e depois atualizada a cada inclusao, alteracao ou exclusao de transacao,
+ * sem reler o historico. A janela compartilhada so tem o que ja foi commitado: as
+ * escritas de uma transacao ficam pendentes e entram nela no afterCommit, e a propria
+ * transacao avalia sobre uma copia com as suas pendencias. GASTO_ATIPICO compara o gasto
+ * com a media e a variancia moveis exponenciais (de log do valor) da categoria,
+ * com tau = janelaDias, mantidas em O(1) por lancamento. SALDO_MINIMO le a projecao
+ * de saldo da conta do alerta. Regras ja notificadas e dentro do intervalo minimo
+ * (EstadoAlertas) sao puladas sem avaliar. Publica nucleo.alertas.disparos e
+ * nucleo.alertas.suprimidos (por tipo), as cargas de janela do banco e quantas
+ * janelas estao em memoria.
+ */
+@Service
+public class AvaliadorAlertas implements TransacaoListener {
+
+    static final int JANELA_PADRAO_DIAS = 30;
+    // gasto atipico: log(valor) acima da media movel por mais de DESVIOS_ATIPICO desvios padrao, com o
+    // desvio de no minimo 0,25 (~28% do valor), ja que gastos recorrentes de valor fixo tem desvio ~0
+    static final double DESVIOS_ATIPICO = 3;
+    static final double DESVIO_MINIMO = 0.25;
+    // peso efetivo minimo, cerca de tres gastos recentes (com tau = 30, um gasto de uma semana atras pesa ~0,8)
+    static final double MINIMO_AMOSTRAS_ATIPICO = 2.5;
+    // commits e cargas se encontram por faixa de usuarios; uma colisao so faz uma carga nao ir para o cache
+    private static final int FAIXAS = 256;
+
+    private final TransacaoRepository transacaoRepository;
+    private final AlertaService alertaService;
+    private final SaldoService saldoService;
+    private final EstadoAlertas estadoAlertas;
+    private final MeterRegistry meterRegistry;
+    // a carga le so o que ja foi commitado, fora da transacao de quem escreve
+    private final TransactionTemplate leitura;
+
+    @Value("${alertas.janela.max-usuarios:10000}")
+    private int maxUsuarios = 10000;
+
+    // janela mais antiga que isso e refeita do banco: corrige o que escapou dos listeners e traz
+    // os gastos com data futura quando o dia chega
+    @Value("${alertas.janela.validade-segundos:900}")
+    private long validadeSegundos = 900;
+
+    private final Map<Long, JanelaGastos> janelas = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, JanelaGastos> eldest) {
+                    return size() > maxUsuarios;
+                }
+            });
+
+    // carga em andamento por usuario: quem chega durante a carga espera por ela em vez de consultar de novo
+    private final Map<Long, CompletableFuture<JanelaGastos>> carregando = new ConcurrentHashMap<>();
+
+    // por faixa: transacoes entre o beforeCommit e o fim, e quantas vezes uma entrou ou saiu dessa fase
+    private final AtomicIntegerArray emCommit = new AtomicIntegerArray(FAIXAS);
+    private final AtomicLongArray geracao = new AtomicLongArray(FAIXAS);
+
+    public AvaliadorAlertas(TransacaoRepository transacaoRepository, AlertaService alertaService,
+                            SaldoService saldoService, EstadoAlertas estadoAlertas, MeterRegistry meterRegistry,
+                            PlatformTransactionManager transactionManager) {
+        this.transacaoRepository = transacaoRepository;
+        this.alertaService = alertaService;
+        this.saldoService = saldoService;
+        this.estadoAlertas = estadoAlertas;
+        this.meterRegistry = meterRegistry;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.leitura.setReadOnly(true);
+    }
+
+    @PostConstruct
+    void registrarMetricas() {
+        Gauge.builder("nucleo.alertas.janelas", janelas, Map::size)
+                .description("Usuarios com janela de gastos em memoria").register(meterRegistry);
+    }
+
+    @Override
+    public void aoIncluir(LancamentoTransacao lancamento) {
+        aplicar(lancamento, 1);
+    }
+
+    @Override
+    public void aoRemover(LancamentoTransacao lancamento) {
+        aplicar(lancamento, -1);
+    }
+
+    public List<DisparoAlerta> avaliar(LancamentoTransacao lancamento) {
+        return avaliarLote(lancamento.usuarioId(), List.of(lancamento));
+    }
+
+    /**
+     * Avalia cada regra do usuario uma unica vez para um lote de lancamentos ja aplicados.
+     * Limite e saldo olham o estado apos o lote; gasto atipico usa a maior saida do lote.
+     */
+    public List<DisparoAlerta> avaliarLote(Long usuarioId, List<LancamentoTransacao> lote) {
+        List<Alerta> alertas = alertaService.listarPorUsuario(usuarioId);
+        if (alertas.isEmpty() || lote.isEmpty()) {
+            return List.of();
+        }
+
+        JanelaGastos janela = visao(usuarioId);
+        LocalDate hoje = LocalDate.now();
+        LocalDateTime agora = LocalDateTime.now();
+        estadoAlertas.carregar(alertas);
+        List<DisparoAlerta> disparos = new ArrayList<>();
+        List<Long> normalizadas = new ArrayList<>();
+
+        for (Alerta alerta : alertas) {
+            LancamentoTransacao lancamento = representante(alerta, lote);
+            if (lancamento == null) {
+                continue;
+            }
+            // ja notificada e dentro do intervalo minimo: nem avalia
+            if (estadoAlertas.emEspera(alerta, agora)) {
+                meterRegistry.counter("nucleo.alertas.suprimidos", "tipo", alerta.getTipo().name()).increment();
+                continue;
+            }
+            DisparoAlerta disparo = switch (alerta.getTipo()) {
+                case LIMITE_CATEGORIA -> {
+                    BigDecimal gasto = janela.somar(lancamento.categoriaId(), hoje, janelaDias(alerta));
+                    yield gasto.compareTo(alerta.getLimiteValor()) > 0 ? new DisparoAlerta(alerta, gasto) : null;
+                }
+                case SALDO_MINIMO -> {
+                    BigDecimal saldo = saldoService.getSaldoConta(lancamento.contaId()).saldo();
+                    yield saldo.compareTo(alerta.getLimiteValor()) <= 0 ? new DisparoAlerta(alerta, saldo) : null;
+                }
+                case GASTO_ATIPICO -> isAtipico(janela, lancamento, janelaDias(alerta))
+                        ? new DisparoAlerta(alerta, lancamento.valor()) : null;
+            };
+            if (disparo != null) {
+                disparos.add(disparo);
+            } else if (estadoAlertas.emDisparo(alerta.getId())) {
+                normalizadas.add(alerta.getId());
+            }
+        }
+        estadoAlertas.rearmar(normalizadas);
+        disparos.forEach(disparo ->
+                meterRegistry.counter("nucleo.alertas.disparos", "tipo", disparo.alerta().getTipo().name()).increment());
+        return disparos;
+    }
+
+    @Override
+    public void aoIncluirLote(List<LancamentoTransacao> lote) {
+        Map<Long, List<LancamentoTransacao>> porUsuario = new LinkedHashMap<>();
+        for (LancamentoTransacao lancamento : lote) {
+            if (lancamento.usuarioId() != null) {
+                porUsuario.computeIfAbsent(lancamento.usuarioId(), id -> new ArrayList<>()).add(lancamento);
+            }
+        }
+        porUsuario.forEach((usuarioId, lancamentos) -> registrar(usuarioId, lancamentos, 1));
+    }
+
+    public void invalidar(Long usuarioId) {
+        janelas.remove(usuarioId);
+    }
+
+    // transacoes desativadas em conjunto nao passam por aoRemover: a janela e refeita do livro depois do commit
+    @EventListener
+    public void aoDesativar(GrafoDesativado evento) {
+        Pendentes pendentes = pendentes();
+        if (pendentes == null) {
+            invalidar(evento.usuarioId());
+        } else {
+            pendentes.descartar(evento.usuarioId());
+        }
+    }
+
+    // primeiro lancamento do lote a que a regra se aplica; no gasto atipico, o de maior valor
+    private LancamentoTransacao representante(Alerta alerta, List<LancamentoTransacao> lote) {
+        LancamentoTransacao escolhido = null;
+        for (LancamentoTransacao lancamento : lote) {
+            boolean aplica = switch (alerta.getTipo()) {
+                case LIMITE_CATEGORIA -> lancamento.isSaida() && alerta.getCategoria() != null
+                        && alerta.getCategoria().getId().equals(lancamento.categoriaId());
+                case SALDO_MINIMO -> alerta.getConta() != null && alerta.getConta().getId().equals(lancamento.contaId());
+                case GASTO_ATIPICO -> lancamento.isSaida() && mesmaCategoria(alerta, lancamento);
+            };
+            if (!aplica) {
+                continue;
+            }
+            if (escolhido == null) {
+                escolhido = lancamento;
+            } else if (alerta.getTipo() == Alerta.TipoAlerta.GASTO_ATIPICO
+                    && lancamento.valor().compareTo(escolhido.valor()) > 0) {
+                escolhido = lancamento;
+            }
+            if (alerta.getTipo() != Alerta.TipoAlerta.GASTO_ATIPICO) {
+                break;
+            }
+        }
+        return escolhido;
+    }
+
+    private boolean mesmaCategoria(Alerta alerta, LancamentoTransacao lancamento) {
+        return alerta.getCategoria() == null || alerta.getCategoria().getId().equals(lancamento.categoriaId());
+    }
+
+    // contra a media movel sem o proprio lancamento (que ja foi registrado); o peso efetivo
+    // decai com o tempo, entao uma categoria parada ha muito volta a precisar de amostras
+    private boolean isAtipico(JanelaGastos janela, LancamentoTransacao lancamento, int dias) {
+        if (lancamento.valor() == null || lancamento.data() == null) {
+            return false;
+        }
+        EstatisticaGasto estatistica = janela.estatisticaSemGasto(lancamento.categoriaId(), dias,
+                lancamento.data(), lancamento.valor());
+        return estatistica.peso() >= MINIMO_AMOSTRAS_ATIPICO
+                && estatistica.desvios(JanelaGastos.escala(lancamento.valor().doubleValue()), DESVIO_MINIMO) > DESVIOS_ATIPICO;
+    }
+
+    private int janelaDias(Alerta alerta) {
+        return alerta.getJanelaDias() != null ? alerta.getJanelaDias() : JANELA_PADRAO_DIAS;
+    }
+
+    private void aplicar(LancamentoTransacao lancamento, int sinal) {
+        Long usuarioId = lancamento.usuarioId();
+        if (usuarioId == null) {
+            return;
+        }
+        registrar(usuarioId, List.of(lancamento), sinal);
+    }
+
+    /*
+     * Dentro de uma transacao a escrita so fica pendente; nada na janela compartilhada a desfazer se houver
+     * rollback. Sem transacao a escrita ja esta no banco: sem janela em memoria, a propria carga a reflete;
+     * se outra thread esta carregando, a consulta dela pode nao enxergar esta escrita, entao espera a carga
+     * e soma por cima.
+     */
+    private void registrar(Long usuarioId, List<LancamentoTransacao> lancamentos, int sinal) {
+        Pendentes pendentes = pendentes();
+        if (pendentes != null) {
+            pendentes.adicionar(usuarioId, lancamentos, sinal);
+            return;
+        }
+        JanelaGastos janela = vigente(usuarioId);
+        if (janela == null) {
+            Carga carga = obterJanela(usuarioId);
+            if (carga.refleteEscrita()) {
+                return;
+            }
+            janela = carga.janela();
+        }
+        for (LancamentoTransacao lancamento : lancamentos) {
+            janela.registrar(lancamento, sinal);
+        }
+    }
+
+    // o commitado mais o que esta transacao ainda nao commitou, numa copia que ninguem mais ve
+    private JanelaGastos visao(Long usuarioId) {
+        JanelaGastos confirmada = vigente(usuarioId);
+        if (confirmada == null) {
+            confirmada = obterJanela(usuarioId).janela();
+        }
+        Pendentes pendentes = pendentes();
+        List<Escrita> escritas = pendentes != null ? pendentes.de(usuarioId) : List.of();
+        if (escritas.isEmpty()) {
+            return confirmada;
+        }
+        JanelaGastos propria = confirmada.copia();
+        escritas.forEach(escrita -> propria.registrar(escrita.lancamento(), escrita.sinal()));
+        return propria;
+    }
+
+    private JanelaGastos vigente(Long usuarioId) {
+        JanelaGastos janela = janelas.get(usuarioId);
+        if (janela != null && janela.idadeNanos() > TimeUnit.SECONDS.toNanos(validadeSegundos)) {
+            janelas.remove(usuarioId, janela);
+            return null;
+        }
+        return janela;
+    }
+
+    // uma carga por usuario de cada vez; refleteEscrita diz se foi esta thread que consultou o banco
+    private Carga obterJanela(Long usuarioId) {
+        while (true) {
+            CompletableFuture<JanelaGastos> nova = new CompletableFuture<>();
+            CompletableFuture<JanelaGastos> emAndamento = carregando.putIfAbsent(usuarioId, nova);
+            if (emAndamento != null) {
+                try {
+                    return new Carga(emAndamento.join(), false);
+                } catch (CompletionException | CancellationException e) {
+                    // a carga da outra thread falhou: tenta carregar de novo
+                    continue;
+                }
+            }
+            try {
+                // a carga anterior pode ter terminado entre a leitura do mapa e o putIfAbsent
+                JanelaGastos existente = vigente(usuarioId);
+                if (existente != null) {
+                    nova.complete(existente);
+                    return new Carga(existente, false);
+                }
+                JanelaGastos janela = carregarConfirmada(usuarioId);
+                nova.complete(janela);
+                return new Carga(janela, true);
+            } catch (RuntimeException e) {
+                nova.completeExceptionally(e);
+                throw e;
+            } finally {
+                carregando.remove(usuarioId, nova);
+            }
+        }
+    }
+
+    private record Carga(JanelaGastos janela, boolean refleteEscrita) {
+    }
+
+    /*
+     * Uma transacao que commita enquanto a carga roda pode ter entrado na consulta e ainda assim somar no
+     * afterCommit, ou ter ficado de fora e nao achar janela para somar. Por isso a janela so fica no cache se
+     * nenhuma transacao da faixa esteve em commit durante a carga; senao serve so a esta avaliacao.
+     */
+    private JanelaGastos carregarConfirmada(Long usuarioId) {
+        int faixa = faixa(usuarioId);
+        long antes = geracao.get(faixa);
+        boolean livre = emCommit.get(faixa) == 0;
+        JanelaGastos janela = leitura.execute(status -> carregar(usuarioId));
+        meterRegistry.counter("nucleo.alertas.janelas.carregadas").increment();
+        if (livre) {
+            janelas.put(usuarioId, janela);
+            if (emCommit.get(faixa) != 0 || geracao.get(faixa) != antes) {
+                janelas.remove(usuarioId, janela);
+            }
+        }
+        return janela;
+    }
+
+    private JanelaGastos carregar(Long usuarioId) {
+        JanelaGastos janela = new JanelaGastos();
+        LocalDate inicio = LocalDate.now().minusDays(JanelaGastos.CAPACIDADE_DIAS - 1L);
+
+        for (Object[] linha : transacaoRepository.somarPorCategoriaEDia(usuarioId, Transacao.TipoTransacao.SAIDA, inicio)) {
+            janela.carregarDia((Long) linha[0], (LocalDate) linha[1], (BigDecimal) linha[2], (Long) linha[3]);
+        }
+        return janela;
+    }
+
+    private static int faixa(Long usuarioId) {
+        return Math.floorMod(Long.hashCode(usuarioId), FAIXAS);
+    }
+
+    private Pendentes pendentes() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Pendentes pendentes = (Pendentes) TransactionSynchronizationManager.getResource(this);
+        if (pendentes == null) {
+            pendentes = new Pendentes();
+            TransactionSynchronizationManager.bindResource(this, pendentes);
+            TransactionSynchronizationManager.registerSynchronization(pendentes);
+        }
+        return pendentes;
+    }
+
+    private record Escrita(LancamentoTransacao lancamento, int sinal) {
+    }
+
+    // escritas da transacao corrente por usuario; so chegam a janela compartilhada depois do commit
+    private final class Pendentes implements TransactionSynchronization {
+        private final Map<Long, List<Escrita>> porUsuario = new LinkedHashMap<>();
+        private final Set<Long> descartadas = new HashSet<>();
+        private Set<Integer> faixas = Set.of();
+
+        void adicionar(Long usuarioId, List<LancamentoTransacao> lancamentos, int sinal) {
+            List<Escrita> escritas = porUsuario.computeIfAbsent(usuarioId, id -> new ArrayList<>());
+            lancamentos.forEach(lancamento -> escritas.add(new Escrita(lancamento, sinal)));
+        }
+
+        void descartar(Long usuarioId) {
+            descartadas.add(usuarioId);
+        }
+
+        List<Escrita> de(Long usuarioId) {
+            return porUsuario.getOrDefault(usuarioId, List.of());
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            Set<Integer> tocadas = new TreeSet<>();
+            porUsuario.keySet().forEach(usuarioId -> tocadas.add(faixa(usuarioId)));
+            descartadas.forEach(usuarioId -> tocadas.add(faixa(usuarioId)));
+            for (int faixa : tocadas) {
+                emCommit.incrementAndGet(faixa);
+                geracao.incrementAndGet(faixa);
+            }
+            faixas = tocadas;
+        }
+
+        @Override
+        public void afterCommit() {
+            porUsuario.forEach((usuarioId, escritas) -> {
+                JanelaGastos janela = descartadas.contains(usuarioId) ? null : janelas.get(usuarioId);
+                if (janela != null) {
+                    escritas.forEach(escrita -> janela.registrar(escrita.lancamento(), escrita.sinal()));
+                }
+            });
+            descartadas.forEach(AvaliadorAlertas.this::invalidar);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(AvaliadorAlertas.this);
+            for (int faixa : faixas) {
+                geracao.incrementAndGet(faixa);
+                emCommit.decrementAndGet(faixa);
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.nucleo.service.alerta;
+
+import com.nucleo.model.Alerta;
+
+import java.math.BigDecimal;
+
+/** Regra que estourou na avaliacao, junto com o valor apurado que a fez disparar. */
+public record DisparoAlerta(Alerta alerta, BigDecimal valorApurado) {
+}
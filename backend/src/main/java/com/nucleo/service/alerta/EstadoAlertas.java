@@ -0,0 +1,162 @@
+package com.nucleo.service.alerta;
+
+import com.nucleo.model.Alerta;
+import com.nucleo.model.EstadoAlerta;
+import com.nucleo.repository.EstadoAlertaRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estado de disparo das regras (estados_alerta) com um cache quente na frente. Uma regra notificada
+ * fica "em disparo" e so volta a notificar depois do intervalo minimo (Alerta.cooldownMinutos, padrao
+ * alertas.cooldown-minutos) ou depois de ser rearmada, quando a avaliacao ou a varredura a encontra
+ * de novo dentro do limite. GASTO_ATIPICO e um evento por lancamento e, sem intervalo proprio na
+ * regra, notifica sempre. O cache so muda depois do commit; a decisao final e o UPDATE condicional
+ * em disparar, entao um cache desatualizado (outra instancia, por exemplo) nao duplica notificacao.
+ */
+@Service
+public class EstadoAlertas {
+
+    private static final Estado SEM_ESTADO = new Estado(false, null);
+
+    private final EstadoAlertaRepository estadoAlertaRepository;
+    private final MeterRegistry meterRegistry;
+    private final Duration cooldownPadrao;
+    private final Map<Long, Estado> estados;
+
+    public EstadoAlertas(EstadoAlertaRepository estadoAlertaRepository, MeterRegistry meterRegistry,
+                         @Value("${alertas.cooldown-minutos:1440}") long cooldownPadraoMinutos,
+                         @Value("${alertas.estado.max-regras:100000}") int maxRegras) {
+        this.estadoAlertaRepository = estadoAlertaRepository;
+        this.meterRegistry = meterRegistry;
+        this.cooldownPadrao = Duration.ofMinutes(cooldownPadraoMinutos);
+        this.estados = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Estado> eldest) {
+                return size() > maxRegras;
+            }
+        });
+        Gauge.builder("nucleo.alertas.estados", estados, Map::size)
+                .description("Regras com estado de disparo em memoria").register(meterRegistry);
+    }
+
+    /** Traz para o cache, em uma unica consulta, o estado das regras que ainda nao estao nele. */
+    public void carregar(Collection<Alerta> alertas) {
+        List<Long> faltantes = new ArrayList<>();
+        for (Alerta alerta : alertas) {
+            if (alerta.getId() != null && !estados.containsKey(alerta.getId())) {
+                faltantes.add(alerta.getId());
+            }
+        }
+        if (faltantes.isEmpty()) {
+            return;
+        }
+        Map<Long, Estado> carregados = new LinkedHashMap<>();
+        faltantes.forEach(id -> carregados.put(id, SEM_ESTADO));
+        estadoAlertaRepository.findAllById(faltantes)
+                .forEach(estado -> carregados.put(estado.getAlertaId(), Estado.de(estado)));
+        estados.putAll(carregados);
+    }
+
+    /** Regra ja notificada e ainda dentro do intervalo minimo: a avaliacao pode pula-la. */
+    public boolean emEspera(Alerta alerta, LocalDateTime agora) {
+        Estado estado = estado(alerta.getId());
+        return estado.emDisparo() && estado.ultimoDisparo().isAfter(agora.minus(cooldown(alerta)));
+    }
+
+    public boolean emDisparo(Long alertaId) {
+        return estado(alertaId).emDisparo();
+    }
+
+    public List<Long> emDisparoNaFaixa(long de, long ate, Collection<Alerta.TipoAlerta> tipos) {
+        return estadoAlertaRepository.emDisparoNaFaixa(de, ate, tipos);
+    }
+
+    /**
+     * Registra o disparo na transacao de quem chama. Devolve false quando outra notificacao da
+     * mesma regra saiu dentro do intervalo minimo e esta deve ser descartada.
+     */
+    @Transactional
+    public boolean registrar(DisparoAlerta disparo, LocalDateTime agora) {
+        Alerta alerta = disparo.alerta();
+        LocalDateTime liberadoAte = agora.minus(cooldown(alerta));
+        if (estadoAlertaRepository.disparar(alerta.getId(), agora, disparo.valorApurado(), liberadoAte) == 0) {
+            // sem linha, semeia rearmada e tenta de novo; se outra transacao semeou ou disparou antes, ela decide
+            estadoAlertaRepository.semear(alerta.getId(), agora);
+            if (estadoAlertaRepository.disparar(alerta.getId(), agora, disparo.valorApurado(), liberadoAte) == 0) {
+                meterRegistry.counter("nucleo.alertas.suprimidos", "tipo", alerta.getTipo().name()).increment();
+                estados.remove(alerta.getId());
+                return false;
+            }
+        }
+        aposCommit(() -> estados.put(alerta.getId(), new Estado(true, agora)));
+        return true;
+    }
+
+    /** Regras que voltaram ao normal: o proximo estouro notifica sem esperar o intervalo. */
+    @Transactional
+    public void rearmar(Collection<Long> alertaIds) {
+        if (alertaIds.isEmpty()) {
+            return;
+        }
+        estadoAlertaRepository.rearmar(alertaIds);
+        aposCommit(() -> alertaIds.forEach(id -> estados.put(id, SEM_ESTADO)));
+    }
+
+    public void esquecer(Long alertaId) {
+        estados.remove(alertaId);
+    }
+
+    Duration cooldown(Alerta alerta) {
+        if (alerta.getCooldownMinutos() != null) {
+            return Duration.ofMinutes(alerta.getCooldownMinutos());
+        }
+        return alerta.getTipo() == Alerta.TipoAlerta.GASTO_ATIPICO ? Duration.ZERO : cooldownPadrao;
+    }
+
+    private Estado estado(Long alertaId) {
+        if (alertaId == null) {
+            return SEM_ESTADO;
+        }
+        Estado estado = estados.get(alertaId);
+        if (estado == null) {
+            estado = estadoAlertaRepository.findById(alertaId).map(Estado::de).orElse(SEM_ESTADO);
+            estados.put(alertaId, estado);
+        }
+        return estado;
+    }
+
+    private void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+
+    private record Estado(boolean emDisparo, LocalDateTime ultimoDisparo) {
+
+        static Estado de(EstadoAlerta estado) {
+            return new Estado(Boolean.TRUE.equals(estado.getEmDisparo()), estado.getUltimoDisparo());
+        }
+    }
+}
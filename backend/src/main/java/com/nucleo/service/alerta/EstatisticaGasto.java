@@ -0,0 +1,14 @@
+package com.nucleo.service.alerta;
+
+/**
+ * Retrato da media movel de uma categoria em um dia: o peso efetivo (quantos gastos
+ * recentes sustentam a media), a media e o desvio padrao, na escala em que foram medidos.
+ */
+record EstatisticaGasto(double peso, double media, double desvio) {
+
+    /** Quantos desvios o valor fica acima da media, com o desvio limitado por baixo a desvioMinimo. */
+    double desvios(double valor, double desvioMinimo) {
+        double desvioUsado = Math.max(desvio, desvioMinimo);
+        return desvioUsado > 0 ? (valor - media) / desvioUsado : 0;
+    }
+}
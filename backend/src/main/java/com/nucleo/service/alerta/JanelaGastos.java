@@ -0,0 +1,168 @@
+package com.nucleo.service.alerta;
+
+import com.nucleo.service.listener.LancamentoTransacao;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Agregados em memoria de um usuario: por categoria, os gastos diarios do
+ * ultimo ano em um buffer circular. Somar uma janela de N dias custa
+ * O(N), independente de quantas transacoes o usuario tenha. Cada categoria
+ * guarda tambem uma media movel exponencial por janelaDias pedida pelos alertas
+ * de gasto atipico, atualizada em O(1) a cada lancamento. Essa media e sobre o
+ * logaritmo do valor: gastos tem cauda longa e, na escala linear, o desvio
+ * padrao de uma categoria com valores bem espalhados marcaria gastos comuns.
+ * So entram dias do ultimo ano ate hoje: um gasto com data futura cairia no
+ * slot de um dia recente e o apagaria.
+ */
+final class JanelaGastos {
+
+    static final int CAPACIDADE_DIAS = 366;
+
+    private final Map<Long, Serie> series = new HashMap<>();
+    private final long carregadaEm = System.nanoTime();
+
+    synchronized void registrar(LancamentoTransacao lancamento, int sinal) {
+        if (lancamento.valor() == null || lancamento.data() == null || !lancamento.isSaida()
+                || foraDaJanela(lancamento.data())) {
+            return;
+        }
+        series.computeIfAbsent(lancamento.categoriaId(), c -> new Serie())
+                .registrar(lancamento.data().toEpochDay(), lancamento.valor(), sinal);
+    }
+
+    synchronized void carregarDia(Long categoriaId, LocalDate data, BigDecimal soma, long quantidade) {
+        if (foraDaJanela(data)) {
+            return;
+        }
+        series.computeIfAbsent(categoriaId, c -> new Serie())
+                .adicionar(data.toEpochDay(), soma, (int) quantidade);
+    }
+
+    synchronized BigDecimal somar(Long categoriaId, LocalDate ate, int dias) {
+        Serie serie = series.get(categoriaId);
+        return serie == null ? BigDecimal.ZERO : serie.somar(ate.toEpochDay(), dias);
+    }
+
+    /**
+     * Media movel de log(valor) da categoria (tau = dias) na data do gasto, sem o proprio gasto, que ja
+     * foi registrado. Na primeira consulta de uma janela a media e montada a partir dos totais diarios do buffer.
+     */
+    synchronized EstatisticaGasto estatisticaSemGasto(Long categoriaId, int dias, LocalDate data, BigDecimal valor) {
+        Serie serie = series.get(categoriaId);
+        if (serie == null) {
+            return new EstatisticaGasto(0, 0, 0);
+        }
+        return serie.media(dias).semGasto(data.toEpochDay(), escala(valor.doubleValue()));
+    }
+
+    /** Copia independente, para somar escritas ainda nao commitadas sem mexer nesta. */
+    synchronized JanelaGastos copia() {
+        JanelaGastos copia = new JanelaGastos();
+        series.forEach((categoriaId, serie) -> copia.series.put(categoriaId, serie.copia()));
+        return copia;
+    }
+
+    long idadeNanos() {
+        return System.nanoTime() - carregadaEm;
+    }
+
+    private static boolean foraDaJanela(LocalDate data) {
+        LocalDate hoje = LocalDate.now();
+        return data.isAfter(hoje) || data.isBefore(hoje.minusDays(CAPACIDADE_DIAS - 1L));
+    }
+
+    static double escala(double valor) {
+        return Math.log(Math.max(valor, 0.01));
+    }
+
+    private static final class Serie {
+        private final long[] dias = new long[CAPACIDADE_DIAS];
+        private final BigDecimal[] somas = new BigDecimal[CAPACIDADE_DIAS];
+        private final int[] quantidades = new int[CAPACIDADE_DIAS];
+        private final Map<Integer, MediaMovelExponencial> medias = new HashMap<>(2);
+
+        Serie() {
+            Arrays.fill(dias, Long.MIN_VALUE);
+        }
+
+        Serie copia() {
+            Serie copia = new Serie();
+            System.arraycopy(dias, 0, copia.dias, 0, CAPACIDADE_DIAS);
+            System.arraycopy(somas, 0, copia.somas, 0, CAPACIDADE_DIAS);
+            System.arraycopy(quantidades, 0, copia.quantidades, 0, CAPACIDADE_DIAS);
+            medias.forEach((janela, media) -> copia.medias.put(janela, media.copia()));
+            return copia;
+        }
+
+        void registrar(long dia, BigDecimal valor, int sinal) {
+            adicionar(dia, sinal < 0 ? valor.negate() : valor, sinal);
+            double gasto = escala(valor.doubleValue());
+            for (MediaMovelExponencial media : medias.values()) {
+                if (sinal < 0) {
+                    media.remover(dia, gasto, 1);
+                } else {
+                    media.adicionar(dia, gasto, 1);
+                }
+            }
+        }
+
+        MediaMovelExponencial media(int janela) {
+            return medias.computeIfAbsent(janela, this::montar);
+        }
+
+        // cada dia do buffer entra como 'quantidade' gastos do valor medio do dia, em ordem cronologica
+        private MediaMovelExponencial montar(int janela) {
+            MediaMovelExponencial media = new MediaMovelExponencial(janela);
+            Integer[] ordem = new Integer[CAPACIDADE_DIAS];
+            for (int i = 0; i < CAPACIDADE_DIAS; i++) {
+                ordem[i] = i;
+            }
+            Arrays.sort(ordem, (a, b) -> Long.compare(dias[a], dias[b]));
+            for (int i : ordem) {
+                if (dias[i] != Long.MIN_VALUE && quantidades[i] > 0) {
+                    media.adicionar(dias[i], escala(somas[i].doubleValue() / quantidades[i]), quantidades[i]);
+                }
+            }
+            return media;
+        }
+
+        void adicionar(long dia, BigDecimal valor, int quantidade) {
+            int i = indice(dia);
+            if (dias[i] != dia) {
+                if (dias[i] > dia) {
+                    // o slot ja guarda um dia mais recente; este ficou fora da janela
+                    return;
+                }
+                dias[i] = dia;
+                somas[i] = BigDecimal.ZERO;
+                quantidades[i] = 0;
+            }
+            somas[i] = somas[i].add(valor);
+            quantidades[i] += quantidade;
+        }
+
+        BigDecimal somar(long ate, int janela) {
+            BigDecimal total = BigDecimal.ZERO;
+            for (long dia = ate - limitar(janela) + 1; dia <= ate; dia++) {
+                int i = indice(dia);
+                if (dias[i] == dia) {
+                    total = total.add(somas[i]);
+                }
+            }
+            return total;
+        }
+
+        private static int limitar(int janela) {
+            return Math.max(1, Math.min(janela, CAPACIDADE_DIAS));
+        }
+
+        private static int indice(long dia) {
+            return (int) Math.floorMod(dia, (long) CAPACIDADE_DIAS);
+        }
+    }
+}
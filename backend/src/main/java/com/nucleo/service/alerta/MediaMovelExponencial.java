@@ -0,0 +1,84 @@
+package com.nucleo.service.alerta;
+
+/**
+ * Media e variancia com decaimento exponencial no tempo (EWMA) dos gastos de uma categoria:
+ * um gasto de N dias atras pesa e^(-N/tau), com tau igual a janelaDias do alerta. Incluir e
+ * remover custam O(1) (Welford ponderado, a remocao e o passo inverso com peso negativo) e o
+ * estado sao quatro numeros, sem releitura do historico.
+ */
+final class MediaMovelExponencial {
+
+    private static final double PESO_MINIMO = 1e-9;
+
+    private final double tau;
+    // dia a que peso e m2 estao referidos; gastos mais antigos entram ja decaidos
+    private long referencia = Long.MIN_VALUE;
+    private double peso;
+    private double media;
+    private double m2;
+
+    MediaMovelExponencial(int dias) {
+        this.tau = Math.max(1, dias);
+    }
+
+    private MediaMovelExponencial(MediaMovelExponencial origem) {
+        this.tau = origem.tau;
+        this.referencia = origem.referencia;
+        this.peso = origem.peso;
+        this.media = origem.media;
+        this.m2 = origem.m2;
+    }
+
+    MediaMovelExponencial copia() {
+        return new MediaMovelExponencial(this);
+    }
+
+    void adicionar(long dia, double valor, double quantidade) {
+        acumular(valor, quantidade * fator(dia));
+    }
+
+    void remover(long dia, double valor, double quantidade) {
+        acumular(valor, -quantidade * fator(dia));
+    }
+
+    /** Estado em 'dia' como se um gasto desse dia (ja incluido) nao tivesse entrado; nao altera este. */
+    EstatisticaGasto semGasto(long dia, double valor) {
+        MediaMovelExponencial copia = copia();
+        copia.remover(dia, valor, 1);
+        double pesoNoDia = copia.referencia == Long.MIN_VALUE || dia <= copia.referencia
+                ? copia.peso
+                : copia.peso * Math.exp(-(dia - copia.referencia) / tau);
+        double variancia = copia.peso > PESO_MINIMO ? copia.m2 / copia.peso : 0;
+        return new EstatisticaGasto(pesoNoDia, copia.media, Math.sqrt(variancia));
+    }
+
+    // leva o estado para o dia mais recente visto e devolve o peso de um gasto em 'dia'
+    private double fator(long dia) {
+        if (referencia == Long.MIN_VALUE) {
+            referencia = dia;
+            return 1;
+        }
+        if (dia > referencia) {
+            double decaimento = Math.exp(-(dia - referencia) / tau);
+            peso *= decaimento;
+            m2 *= decaimento;
+            referencia = dia;
+            return 1;
+        }
+        return Math.exp(-(referencia - dia) / tau);
+    }
+
+    private void acumular(double valor, double w) {
+        double novoPeso = peso + w;
+        if (novoPeso <= PESO_MINIMO) {
+            peso = 0;
+            media = 0;
+            m2 = 0;
+            return;
+        }
+        double delta = valor - media;
+        media += w * delta / novoPeso;
+        m2 = Math.max(0, m2 + w * delta * (valor - media));
+        peso = novoPeso;
+    }
+}
@@ -0,0 +1,50 @@
+package com.nucleo.service.alerta;
+
+import com.nucleo.model.Alerta;
+import com.nucleo.model.Usuario;
+import com.nucleo.service.notificacao.NotificacaoService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registra o disparo no estado da regra e, se ele nao foi suprimido pelo intervalo minimo, monta a
+ * mensagem e grava no outbox. Usado pela avaliacao por lancamento e pela varredura.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificadorAlertas {
+
+    private final NotificacaoService notificacaoService;
+    private final EstadoAlertas estadoAlertas;
+
+    /** Devolve se a notificacao foi para o outbox. */
+    public boolean notificar(Usuario usuario, DisparoAlerta disparo) {
+        Alerta alerta = disparo.alerta();
+        // outra notificacao da regra ja saiu dentro do intervalo minimo
+        if (!estadoAlertas.registrar(disparo, LocalDateTime.now())) {
+            return false;
+        }
+        if (!Boolean.TRUE.equals(alerta.getNotificarEmail())) {
+            return false;
+        }
+
+        String mensagem = switch (alerta.getTipo()) {
+            case LIMITE_CATEGORIA -> "Olá, " + usuario.getNome() +
+                    "! Você ultrapassou seu limite de gastos de R$" + alerta.getLimiteValor() +
+                    " no último mês. Revise suas despesas para manter o equilíbrio financeiro 💰";
+            case SALDO_MINIMO -> "Olá, " + usuario.getNome() +
+                    "! Você esta abaixo do limite de saldo de R$" + alerta.getLimiteValor() + ". " +
+                    " Revise suas despesas para manter o equilíbrio financeiro 💰";
+            case GASTO_ATIPICO -> "Olá, " + usuario.getNome() +
+                    "! Identificamos um gasto atípico de R$" + disparo.valorApurado() +
+                    ". Confira se você reconhece essa despesa 💰";
+        };
+
+        // gravado no outbox na transacao de quem chama; o envio acontece fora dela
+        notificacaoService.enfileirar(usuario.getId(), alerta.getId(), usuario.getEmail(),
+                "⚠️ Alerta de Gastos - Núcleo Financeiro", mensagem);
+        return true;
+    }
+}
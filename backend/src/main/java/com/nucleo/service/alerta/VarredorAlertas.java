@@ -0,0 +1,24 @@
+package com.nucleo.service.alerta;
+
+import com.nucleo.dto.ResultadoVarreduraDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "alertas.varredura.habilitada", havingValue = "true", matchIfMissing = true)
+public class VarredorAlertas {
+
+    private final VarreduraAlertas varreduraAlertas;
+
+    @Scheduled(fixedDelayString = "${alertas.varredura.intervalo-ms:900000}",
+            initialDelayString = "${alertas.varredura.intervalo-ms:900000}")
+    public void varrer() {
+        ResultadoVarreduraDTO resultado = varreduraAlertas.varrer();
+        log.info("Varredura de alertas: {}", resultado);
+    }
+}
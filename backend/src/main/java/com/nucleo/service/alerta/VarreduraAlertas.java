@@ -0,0 +1,170 @@
+package com.nucleo.service.alerta;
+
+import com.nucleo.dto.ResultadoVarreduraDTO;
+import com.nucleo.model.Alerta;
+import com.nucleo.repository.AlertaRepository;
+import com.nucleo.repository.SaldoContaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Avalia as regras que dependem do tempo e nao so do lancamento corrente: LIMITE_CATEGORIA
+ * (a janela anda sozinha) e SALDO_MINIMO (o saldo tambem cai por edicao e exclusao, que nao
+ * passam pela avaliacao por lancamento). A faixa de ids dos usuarios com regra ativa e dividida
+ * em faixas de alertas.varredura.tamanho-faixa avaliadas em paralelo no varreduraAlertasExecutor,
+ * cada uma em uma transacao com poucas consultas agregadas (saldos_conta e resumos_diarios),
+ * que devolvem so as regras estouradas. GASTO_ATIPICO continua so na avaliacao por lancamento.
+ * O EstadoAlertas decide quem notifica: regras ja notificadas dentro do intervalo minimo sao
+ * puladas, e as que estavam em disparo e voltaram ao limite sao rearmadas na propria faixa.
+ */
+@Slf4j
+@Service
+public class VarreduraAlertas {
+
+    private static final List<Alerta.TipoAlerta> TIPOS = List.of(Alerta.TipoAlerta.LIMITE_CATEGORIA,
+            Alerta.TipoAlerta.SALDO_MINIMO);
+    private static final int LOTE_NOTIFICACAO = 500;
+
+    private final AlertaRepository alertaRepository;
+    private final SaldoContaRepository saldoContaRepository;
+    private final NotificadorAlertas notificadorAlertas;
+    private final EstadoAlertas estadoAlertas;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+    private final Timer duracao;
+    private final long tamanhoFaixa;
+
+    public VarreduraAlertas(AlertaRepository alertaRepository, SaldoContaRepository saldoContaRepository,
+                            NotificadorAlertas notificadorAlertas, EstadoAlertas estadoAlertas,
+                            TransactionTemplate transactionTemplate,
+                            @Qualifier("varreduraAlertasExecutor") Executor executor, MeterRegistry meterRegistry,
+                            @Value("${alertas.varredura.tamanho-faixa:1000}") long tamanhoFaixa) {
+        this.alertaRepository = alertaRepository;
+        this.saldoContaRepository = saldoContaRepository;
+        this.notificadorAlertas = notificadorAlertas;
+        this.estadoAlertas = estadoAlertas;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.tamanhoFaixa = Math.max(1, tamanhoFaixa);
+        this.duracao = Timer.builder("nucleo.alertas.varredura")
+                .description("Duracao da varredura de alertas").register(meterRegistry);
+    }
+
+    public synchronized ResultadoVarreduraDTO varrer() {
+        long inicio = System.nanoTime();
+        LocalDate hoje = LocalDate.now();
+        Object[] faixa = alertaRepository.faixaUsuarios(TIPOS).get(0);
+        if (faixa[0] == null) {
+            return new ResultadoVarreduraDTO(0, 0, 0, 0, 0, 0);
+        }
+        long primeiro = (Long) faixa[0];
+        long ultimo = (Long) faixa[1];
+        long alertas = (Long) faixa[2];
+        List<Integer> janelas = alertaRepository.janelasLimiteCategoria(AvaliadorAlertas.JANELA_PADRAO_DIAS);
+
+        List<CompletableFuture<Map<Long, BigDecimal>>> faixas = new ArrayList<>();
+        for (long de = primeiro; de <= ultimo; de += tamanhoFaixa) {
+            long inicioFaixa = de;
+            long fimFaixa = Math.min(ultimo, de + tamanhoFaixa - 1);
+            faixas.add(CompletableFuture.supplyAsync(() -> avaliarFaixa(inicioFaixa, fimFaixa, janelas, hoje), executor));
+        }
+
+        Map<Long, BigDecimal> apurados = new HashMap<>();
+        int comErro = 0;
+        for (CompletableFuture<Map<Long, BigDecimal>> tarefa : faixas) {
+            try {
+                apurados.putAll(tarefa.join());
+            } catch (CompletionException e) {
+                comErro++;
+                log.error("Falha ao varrer uma faixa de alertas", e.getCause());
+            }
+        }
+        meterRegistry.counter("nucleo.alertas.varredura.faixas", "resultado", "ok").increment(faixas.size() - comErro);
+        meterRegistry.counter("nucleo.alertas.varredura.faixas", "resultado", "erro").increment(comErro);
+        meterRegistry.counter("nucleo.alertas.varredura.avaliados").increment(alertas);
+
+        int notificados = notificar(apurados, LocalDateTime.now());
+
+        long nanos = System.nanoTime() - inicio;
+        duracao.record(nanos, TimeUnit.NANOSECONDS);
+        return new ResultadoVarreduraDTO(faixas.size(), comErro, alertas, apurados.size(), notificados,
+                TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    /*
+     * A faixa semeia antes as linhas de saldos_conta que faltam; uma semente concorrente da
+     * avaliacao por lancamento na mesma conta derruba o INSERT por chave duplicada, e a faixa
+     * e repetida uma vez, ja com a linha confirmada.
+     */
+    private Map<Long, BigDecimal> avaliarFaixa(long de, long ate, List<Integer> janelas, LocalDate hoje) {
+        try {
+            return transactionTemplate.execute(status -> apurarFaixa(de, ate, janelas, hoje));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Semente de saldo concorrente na faixa {}-{}, repetindo", de, ate);
+            return transactionTemplate.execute(status -> apurarFaixa(de, ate, janelas, hoje));
+        }
+    }
+
+    private Map<Long, BigDecimal> apurarFaixa(long de, long ate, List<Integer> janelas, LocalDate hoje) {
+        saldoContaRepository.semearFaltantes(de, ate);
+        Map<Long, BigDecimal> apurados = new HashMap<>();
+        for (Object[] linha : alertaRepository.saldosAbaixoDoLimite(de, ate)) {
+            apurados.put((Long) linha[0], (BigDecimal) linha[1]);
+        }
+        for (Integer janela : janelas) {
+            int dias = Math.max(1, Math.min(janela, JanelaGastos.CAPACIDADE_DIAS));
+            for (Object[] linha : alertaRepository.gastosAcimaDoLimite(de, ate, AvaliadorAlertas.JANELA_PADRAO_DIAS,
+                    janela, hoje.minusDays(dias - 1L), hoje)) {
+                apurados.put((Long) linha[0], (BigDecimal) linha[1]);
+            }
+        }
+        List<Long> normalizadas = new ArrayList<>(estadoAlertas.emDisparoNaFaixa(de, ate, TIPOS));
+        normalizadas.removeAll(apurados.keySet());
+        estadoAlertas.rearmar(normalizadas);
+        return apurados;
+    }
+
+    private int notificar(Map<Long, BigDecimal> apurados, LocalDateTime agora) {
+        List<Long> ids = new ArrayList<>(apurados.keySet());
+        int notificados = 0;
+        for (int i = 0; i < ids.size(); i += LOTE_NOTIFICACAO) {
+            List<Long> lote = ids.subList(i, Math.min(ids.size(), i + LOTE_NOTIFICACAO));
+            notificados += transactionTemplate.execute(status -> {
+                List<Alerta> alertas = alertaRepository.buscarComUsuario(lote);
+                estadoAlertas.carregar(alertas);
+                int enfileiradas = 0;
+                for (Alerta alerta : alertas) {
+                    if (estadoAlertas.emEspera(alerta, agora)) {
+                        continue;
+                    }
+                    meterRegistry.counter("nucleo.alertas.varredura.disparos", "tipo", alerta.getTipo().name()).increment();
+                    if (notificadorAlertas.notificar(alerta.getUsuario(), new DisparoAlerta(alerta, apurados.get(alerta.getId())))) {
+                        enfileiradas++;
+                    }
+                }
+                return enfileiradas;
+            });
+        }
+        return notificados;
+    }
+}
@@ -0,0 +1,253 @@
+package com.nucleo.service.carga;
+
+import com.nucleo.model.Categoria;
+import com.nucleo.model.ContasBancarias;
+import com.nucleo.model.ResumoDiario;
+import com.nucleo.model.ResumoMensal;
+import com.nucleo.model.TipoConta;
+import com.nucleo.model.Transacao;
+import com.nucleo.model.Usuario;
+import com.nucleo.repository.CategoriaRepository;
+import com.nucleo.repository.UsuarioRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Gera massa sintetica reproduzivel (mesma semente, mesmos dados) para medir
+ * indices, caches e paginacao em escala. As linhas entram por uma StatelessSession
+ * com inserts em lote, sem passar pelos listeners. Os rollups de relatorio de
+ * cada usuario sao somados em memoria e gravados junto (reconstrui-los depois com
+ * INSERT ... SELECT nao escala no H2); os saldos se semeiam na primeira leitura.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GeradorCarga {
+
+    // categorias globais usadas pela carga: peso entre as saidas, mediana e dispersao (lognormal) do valor
+    private static final List<PerfilCategoria> SAIDAS = List.of(
+            new PerfilCategoria("Alimentação", 35, 45, 0.8),
+            new PerfilCategoria("Transporte", 20, 25, 0.7),
+            new PerfilCategoria("Lazer", 15, 80, 0.9),
+            new PerfilCategoria("Saúde", 10, 120, 1.0),
+            new PerfilCategoria("Educação", 8, 300, 0.6),
+            new PerfilCategoria("Moradia", 12, 900, 0.4)
+    );
+    private static final PerfilCategoria SALARIO = new PerfilCategoria("Salário", 0, 5000, 0.5);
+    private static final PerfilCategoria FREELANCE = new PerfilCategoria("Freelance", 0, 800, 0.9);
+    private static final PerfilCategoria INVESTIMENTOS = new PerfilCategoria("Investimentos", 0, 150, 1.2);
+
+    private static final TipoConta[] TIPOS_CONTA = {TipoConta.CORRENTE, TipoConta.POUPANCA, TipoConta.CARTAO};
+    private static final String[] INSTITUICOES = {"Nubank", "Banco Inter", "Itaú", "Bradesco", "Caixa", "Santander"};
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final CategoriaRepository categoriaRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final PasswordEncoder passwordEncoder;
+
+    public ResultadoCarga gerar(ParametrosCarga parametros) {
+        if (usuarioRepository.findByEmailAndAtivoTrue(email(parametros.semente(), 0)).isPresent()) {
+            log.info("Carga com semente {} ja existe, nada a gerar", parametros.semente());
+            return new ResultadoCarga(0, 0, 0, 0);
+        }
+
+        long inicio = System.currentTimeMillis();
+        Random random = new Random(parametros.semente());
+        Map<String, Categoria> categorias = categoriasGlobais();
+        int pesoTotal = SAIDAS.stream().mapToInt(PerfilCategoria::peso).sum();
+        // uma unica senha codificada: BCrypt por usuario dominaria o tempo da carga
+        String senha = passwordEncoder.encode("carga");
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDate hoje = parametros.dataBase() != null ? parametros.dataBase() : agora.toLocalDate();
+        YearMonth primeiroMes = YearMonth.from(hoje).minusYears(parametros.anos()).plusMonths(1);
+
+        int contas = 0;
+        long transacoes = 0;
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        try (StatelessSession sessao = sessionFactory.openStatelessSession()) {
+            sessao.setJdbcBatchSize(parametros.loteTamanho());
+            sessao.beginTransaction();
+            for (int u = 0; u < parametros.usuarios(); u++) {
+                Usuario usuario = Usuario.builder()
+                        .nome("Carga " + u)
+                        .email(email(parametros.semente(), u))
+                        .senha(senha)
+                        .roles(Set.of(Usuario.Role.ROLE_USER))
+                        .dataCriacao(agora)
+                        .build();
+                sessao.insert(usuario);
+
+                List<ContasBancarias> contasUsuario = new ArrayList<>(parametros.contasPorUsuario());
+                for (int c = 0; c < parametros.contasPorUsuario(); c++) {
+                    ContasBancarias conta = ContasBancarias.builder()
+                            .usuario(usuario)
+                            .instituicao(INSTITUICOES[random.nextInt(INSTITUICOES.length)])
+                            .tipo(TIPOS_CONTA[c % TIPOS_CONTA.length])
+                            .apelido("Conta " + (c + 1))
+                            .saldoInicial(BigDecimal.valueOf(random.nextInt(5000)))
+                            .dataCriacao(agora)
+                            .build();
+                    sessao.insert(conta);
+                    contasUsuario.add(conta);
+                    contas++;
+                }
+
+                RollupsUsuario rollups = new RollupsUsuario(usuario.getId());
+                BigDecimal salario = SALARIO.valor(random);
+                for (int m = 0; m < parametros.anos() * 12; m++) {
+                    YearMonth mes = primeiroMes.plusMonths(m);
+                    // o mes da data base so vai ate ela: nada de transacoes futuras
+                    int ultimoDia = mes.equals(YearMonth.from(hoje)) ? hoje.getDayOfMonth() : mes.lengthOfMonth();
+                    for (int t = 0; t < parametros.transacoesPorMes(); t++) {
+                        Transacao transacao;
+                        if (t == 0) {
+                            // salario fixo do usuario, todo dia 5, na conta principal
+                            transacao = nova(usuario, contasUsuario.get(0), categorias.get(SALARIO.nome()),
+                                    Transacao.TipoTransacao.ENTRADA, salario, mes.atDay(Math.min(5, ultimoDia)), agora);
+                        } else if (random.nextInt(20) == 0) {
+                            PerfilCategoria perfil = random.nextBoolean() ? FREELANCE : INVESTIMENTOS;
+                            transacao = nova(usuario, conta(contasUsuario, random), categorias.get(perfil.nome()),
+                                    Transacao.TipoTransacao.ENTRADA, perfil.valor(random), mes.atDay(1 + random.nextInt(ultimoDia)), agora);
+                        } else {
+                            PerfilCategoria perfil = sortear(random, pesoTotal);
+                            transacao = nova(usuario, conta(contasUsuario, random), categorias.get(perfil.nome()),
+                                    Transacao.TipoTransacao.SAIDA, perfil.valor(random), mes.atDay(1 + random.nextInt(ultimoDia)), agora);
+                        }
+                        sessao.insert(transacao);
+                        rollups.somar(transacao);
+                        if (++transacoes % (parametros.loteTamanho() * 20L) == 0) {
+                            sessao.getTransaction().commit();
+                            sessao.beginTransaction();
+                        }
+                    }
+                }
+                rollups.inserir(sessao);
+            }
+            // a StatelessSession ignora colecoes: os papeis entram em um unico insert ... select
+            sessao.createNativeMutationQuery("INSERT INTO usuario_roles (usuario_id, roles) " +
+                            "SELECT id, 'ROLE_USER' FROM usuarios WHERE email LIKE :prefixo")
+                    .setParameter("prefixo", "carga-" + parametros.semente() + "-%")
+                    .executeUpdate();
+            sessao.getTransaction().commit();
+        }
+
+        ResultadoCarga resultado = new ResultadoCarga(parametros.usuarios(), contas, transacoes,
+                System.currentTimeMillis() - inicio);
+        log.info("Carga sintetica: {} usuarios, {} contas, {} transacoes em {} ms ({} linhas/s)",
+                resultado.usuarios(), resultado.contas(), resultado.transacoes(), resultado.duracaoMillis(),
+                Math.round(resultado.linhasPorSegundo()));
+        return resultado;
+    }
+
+    public static String email(long semente, int indice) {
+        return "carga-" + semente + "-" + indice + "@nucleo.com";
+    }
+
+    private Map<String, Categoria> categoriasGlobais() {
+        Map<String, Categoria> porNome = new HashMap<>();
+        for (Categoria categoria : categoriaRepository.findAll()) {
+            if (Boolean.TRUE.equals(categoria.getIsGlobal())) {
+                porNome.put(categoria.getNome(), categoria);
+            }
+        }
+        List<PerfilCategoria> perfis = new ArrayList<>(SAIDAS);
+        perfis.addAll(List.of(SALARIO, FREELANCE, INVESTIMENTOS));
+        for (PerfilCategoria perfil : perfis) {
+            porNome.computeIfAbsent(perfil.nome(), nome -> categoriaRepository.save(Categoria.builder()
+                    .nome(nome)
+                    .tipo(SAIDAS.contains(perfil) ? Categoria.TipoCategoria.SAIDA : Categoria.TipoCategoria.ENTRADA)
+                    .isGlobal(true)
+                    .build()));
+        }
+        return porNome;
+    }
+
+    private static Transacao nova(Usuario usuario, ContasBancarias conta, Categoria categoria,
+                                  Transacao.TipoTransacao tipo, BigDecimal valor, LocalDate data, LocalDateTime agora) {
+        return Transacao.builder()
+                .descricao(categoria.getNome())
+                .valor(valor)
+                .data(data)
+                .tipo(tipo)
+                .usuario(usuario)
+                .conta(conta)
+                .categoria(categoria)
+                .dataCriacao(agora)
+                .build();
+    }
+
+    // a conta principal concentra a maior parte do movimento
+    private static ContasBancarias conta(List<ContasBancarias> contas, Random random) {
+        if (contas.size() == 1 || random.nextInt(10) < 7) {
+            return contas.get(0);
+        }
+        return contas.get(1 + random.nextInt(contas.size() - 1));
+    }
+
+    private static PerfilCategoria sortear(Random random, int pesoTotal) {
+        int sorteio = random.nextInt(pesoTotal);
+        for (PerfilCategoria perfil : SAIDAS) {
+            sorteio -= perfil.peso();
+            if (sorteio < 0) {
+                return perfil;
+            }
+        }
+        return SAIDAS.get(0);
+    }
+
+    // rollups diario e mensal de um usuario, acumulados enquanto as transacoes dele sao geradas
+    private static final class RollupsUsuario {
+        private final Long usuarioId;
+        private final Map<ResumoDiario.Chave, ResumoDiario> diarios = new HashMap<>();
+        private final Map<ResumoMensal.Chave, ResumoMensal> mensais = new HashMap<>();
+
+        private RollupsUsuario(Long usuarioId) {
+            this.usuarioId = usuarioId;
+        }
+
+        private void somar(Transacao transacao) {
+            Long categoriaId = transacao.getCategoria().getId();
+            Long contaId = transacao.getConta().getId();
+            Transacao.TipoTransacao tipo = transacao.getTipo();
+            LocalDate data = transacao.getData();
+
+            ResumoDiario diario = diarios.computeIfAbsent(
+                    new ResumoDiario.Chave(usuarioId, data, categoriaId, contaId, tipo),
+                    chave -> new ResumoDiario(usuarioId, data, categoriaId, contaId, tipo, BigDecimal.ZERO, 0L));
+            diario.setTotal(diario.getTotal().add(transacao.getValor()));
+            diario.setQuantidade(diario.getQuantidade() + 1);
+
+            ResumoMensal mensal = mensais.computeIfAbsent(
+                    new ResumoMensal.Chave(usuarioId, data.getYear(), data.getMonthValue(), categoriaId, contaId, tipo),
+                    chave -> new ResumoMensal(usuarioId, data.getYear(), data.getMonthValue(), categoriaId, contaId,
+                            tipo, BigDecimal.ZERO, 0L));
+            mensal.setTotal(mensal.getTotal().add(transacao.getValor()));
+            mensal.setQuantidade(mensal.getQuantidade() + 1);
+        }
+
+        private void inserir(StatelessSession sessao) {
+            diarios.values().forEach(sessao::insert);
+            mensais.values().forEach(sessao::insert);
+        }
+    }
+
+    private record PerfilCategoria(String nome, int peso, double mediana, double dispersao) {
+
+        BigDecimal valor(Random random) {
+            double valor = mediana * Math.exp(dispersao * random.nextGaussian());
+            return BigDecimal.valueOf(Math.max(1, valor)).setScale(2, RoundingMode.HALF_UP);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.nucleo.service.carga;
+
+import java.time.LocalDate;
+
+/**
+ * Tamanho da massa sintetica: usuarios x contas x transacoes por mes x anos.
+ * A mesma semente e a mesma data base (ultimo dia com transacoes; null = hoje)
+ * geram exatamente os mesmos dados.
+ */
+public record ParametrosCarga(
+        int usuarios,
+        int contasPorUsuario,
+        int transacoesPorMes,
+        int anos,
+        long semente,
+        int loteTamanho,
+        LocalDate dataBase
+) {
+
+    public ParametrosCarga {
+        if (usuarios < 1 || contasPorUsuario < 1 || transacoesPorMes < 1 || anos < 1 || loteTamanho < 1) {
+            throw new IllegalArgumentException("Parametros de carga devem ser positivos");
+        }
+    }
+
+    public long transacoesPrevistas() {
+        return (long) usuarios * transacoesPorMes * anos * 12;
+    }
+}
@@ -0,0 +1,13 @@
+package com.nucleo.service.carga;
+
+public record ResultadoCarga(
+        int usuarios,
+        int contas,
+        long transacoes,
+        long duracaoMillis
+) {
+
+    public double linhasPorSegundo() {
+        return duracaoMillis == 0 ? transacoes : transacoes * 1000.0 / duracaoMillis;
+    }
+}
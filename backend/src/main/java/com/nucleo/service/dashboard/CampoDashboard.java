@@ -0,0 +1,44 @@
+package com.nucleo.service.dashboard;
+
+import com.nucleo.exception.BusinessException;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/** Secoes do dashboard, pedidas por nome em ?campos= (sem o parametro, vem tudo). */
+public enum CampoDashboard {
+    USUARIO,
+    CONTAS,
+    SALDO,
+    RESUMO,
+    METAS,
+    BENEFICIOS,
+    ALERTAS;
+
+    public static Set<CampoDashboard> de(Collection<String> nomes) {
+        if (nomes == null || nomes.isEmpty()) {
+            return EnumSet.allOf(CampoDashboard.class);
+        }
+        Set<CampoDashboard> campos = EnumSet.noneOf(CampoDashboard.class);
+        for (String nome : nomes) {
+            String normalizado = nome.trim().toUpperCase(Locale.ROOT);
+            if (normalizado.isEmpty()) {
+                continue;
+            }
+            try {
+                campos.add(valueOf(normalizado));
+            } catch (IllegalArgumentException e) {
+                throw new BusinessException("dashboard.campo-invalido", new Object[]{nome, disponiveis()});
+            }
+        }
+        return campos.isEmpty() ? EnumSet.allOf(CampoDashboard.class) : campos;
+    }
+
+    private static String disponiveis() {
+        return Arrays.stream(values()).map(campo -> campo.name().toLowerCase(Locale.ROOT)).collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,101 @@
+package com.nucleo.service.dashboard;
+
+import com.nucleo.dto.AlertaResponse;
+import com.nucleo.dto.DashboardDTO;
+import com.nucleo.dto.SaldoDTO;
+import com.nucleo.service.AlertaService;
+import com.nucleo.service.BeneficioService;
+import com.nucleo.service.ContasBancariasService;
+import com.nucleo.service.MetaService;
+import com.nucleo.service.TransacaoService;
+import com.nucleo.service.UsuarioService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Monta o dashboard do usuario com as mesmas leituras dos endpoints /me, em paralelo no
+ * dashboardExecutor. O usuario vem resolvido de quem chama (uma autenticacao so) e cada
+ * secao roda na propria transacao, ja que a sessao da requisicao nao acompanha a thread.
+ * Saldo e resumo saem da mesma leitura da projecao de saldos, que pode semear a linha do
+ * usuario e por isso nao e somente leitura.
+ */
+@Service
+public class DashboardService {
+
+    private final UsuarioService usuarioService;
+    private final ContasBancariasService contasService;
+    private final TransacaoService transacaoService;
+    private final MetaService metaService;
+    private final BeneficioService beneficioService;
+    private final AlertaService alertaService;
+    private final Executor executor;
+    private final TransactionTemplate leitura;
+    private final TransactionTemplate escrita;
+
+    public DashboardService(UsuarioService usuarioService, ContasBancariasService contasService,
+                            TransacaoService transacaoService, MetaService metaService,
+                            BeneficioService beneficioService, AlertaService alertaService,
+                            @Qualifier("dashboardExecutor") Executor executor,
+                            PlatformTransactionManager transactionManager) {
+        this.usuarioService = usuarioService;
+        this.contasService = contasService;
+        this.transacaoService = transacaoService;
+        this.metaService = metaService;
+        this.beneficioService = beneficioService;
+        this.alertaService = alertaService;
+        this.executor = executor;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        this.escrita = new TransactionTemplate(transactionManager);
+    }
+
+    public DashboardDTO montar(Long usuarioId, Set<CampoDashboard> campos) {
+        var usuario = secao(campos.contains(CampoDashboard.USUARIO), leitura, () -> usuarioService.buscarPorId(usuarioId));
+        var contas = secao(campos.contains(CampoDashboard.CONTAS), leitura, () -> contasService.listarPorUsuario(usuarioId));
+        CompletableFuture<SaldoDTO> resumo = secao(campos.contains(CampoDashboard.SALDO) || campos.contains(CampoDashboard.RESUMO),
+                escrita, () -> transacaoService.getResumo(usuarioId));
+        var metas = secao(campos.contains(CampoDashboard.METAS), leitura, () -> metaService.listarPorUsuario(usuarioId));
+        var beneficios = secao(campos.contains(CampoDashboard.BENEFICIOS), leitura,
+                () -> beneficioService.buscarPorUsuario(usuarioId));
+        // categoria e conta sao carregadas sob demanda: o mapeamento fica dentro da transacao
+        var alertas = secao(campos.contains(CampoDashboard.ALERTAS), leitura, () -> alertaService.listarPorUsuario(usuarioId)
+                .stream().map(AlertaResponse::fromEntity).toList());
+
+        SaldoDTO saldoDTO = aguardar(resumo);
+        return new DashboardDTO(
+                aguardar(usuario),
+                aguardar(contas),
+                campos.contains(CampoDashboard.SALDO) && saldoDTO != null ? saldoDTO.saldo() : null,
+                campos.contains(CampoDashboard.RESUMO) ? saldoDTO : null,
+                aguardar(metas),
+                aguardar(beneficios),
+                aguardar(alertas));
+    }
+
+    private <T> CompletableFuture<T> secao(boolean pedida, TransactionTemplate transacao, Supplier<T> leitor) {
+        if (!pedida) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.supplyAsync(() -> transacao.execute(status -> leitor.get()), executor);
+    }
+
+    // devolve o erro da secao como se a leitura tivesse sido feita na thread da requisicao
+    private static <T> T aguardar(CompletableFuture<T> secao) {
+        try {
+            return secao.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+}
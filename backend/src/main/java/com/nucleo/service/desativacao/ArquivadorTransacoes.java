@@ -0,0 +1,19 @@
+package com.nucleo.service.desativacao;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "arquivamento.transacoes.habilitado", havingValue = "true", matchIfMissing = true)
+public class ArquivadorTransacoes {
+
+    private final ArquivamentoTransacoes arquivamentoTransacoes;
+
+    @Scheduled(cron = "${arquivamento.transacoes.cron:0 0 4 * * *}")
+    public void arquivar() {
+        arquivamentoTransacoes.arquivar();
+    }
+}
@@ -0,0 +1,71 @@
+package com.nucleo.service.desativacao;
+
+import com.nucleo.repository.TransacaoArquivadaRepository;
+import com.nucleo.repository.TransacaoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Move para transacoes_arquivo as transacoes desativadas ha mais de arquivamento.transacoes.dias.
+ * Cada lote de arquivamento.transacoes.lote ids e copiado (INSERT ... SELECT) e apagado da origem
+ * numa transacao propria, entao uma falha no meio deixa os lotes anteriores ja movidos e nenhum
+ * pela metade. A busca anda pela chave primaria a partir do ultimo id do lote anterior.
+ */
+@Slf4j
+@Service
+public class ArquivamentoTransacoes {
+
+    private final TransacaoRepository transacaoRepository;
+    private final TransacaoArquivadaRepository transacaoArquivadaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int dias;
+    private final int lote;
+
+    public ArquivamentoTransacoes(TransacaoRepository transacaoRepository,
+                                  TransacaoArquivadaRepository transacaoArquivadaRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${arquivamento.transacoes.dias:30}") int dias,
+                                  @Value("${arquivamento.transacoes.lote:1000}") int lote) {
+        this.transacaoRepository = transacaoRepository;
+        this.transacaoArquivadaRepository = transacaoArquivadaRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.dias = dias;
+        this.lote = Math.max(1, lote);
+    }
+
+    /** Devolve quantas transacoes foram movidas. */
+    public int arquivar() {
+        return arquivar(LocalDateTime.now().minusDays(dias));
+    }
+
+    public int arquivar(LocalDateTime desativadaAntes) {
+        int movidas = 0;
+        long ultimoId = 0;
+        while (true) {
+            List<Long> ids = transacaoRepository.idsArquivaveis(ultimoId, desativadaAntes, Limit.of(lote));
+            if (ids.isEmpty()) {
+                break;
+            }
+            Integer copiadas = transactionTemplate.execute(status -> {
+                int n = transacaoArquivadaRepository.copiar(ids, LocalDateTime.now());
+                transacaoRepository.apagarDesativadas(ids);
+                return n;
+            });
+            movidas += copiadas == null ? 0 : copiadas;
+            ultimoId = ids.get(ids.size() - 1);
+            if (ids.size() < lote) {
+                break;
+            }
+        }
+        if (movidas > 0) {
+            log.info("{} transacoes desativadas antes de {} movidas para o arquivo", movidas, desativadaAntes);
+        }
+        return movidas;
+    }
+}
@@ -0,0 +1,107 @@
+package com.nucleo.service.desativacao;
+
+import com.nucleo.repository.AlertaRepository;
+import com.nucleo.repository.BeneficioRepository;
+import com.nucleo.repository.CategoriaRepository;
+import com.nucleo.repository.ContasBancariasRepository;
+import com.nucleo.repository.MetaRepository;
+import com.nucleo.repository.NotificacaoEmailRepository;
+import com.nucleo.repository.ProgressoMetaRepository;
+import com.nucleo.repository.ResumoDiarioRepository;
+import com.nucleo.repository.ResumoMensalRepository;
+import com.nucleo.repository.SaldoContaRepository;
+import com.nucleo.repository.SaldoUsuarioRepository;
+import com.nucleo.repository.TransacaoRepository;
+import com.nucleo.repository.UsuarioRepository;
+import com.nucleo.security.RefreshTokens;
+import com.nucleo.security.RevogacaoTokens;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Desativa o grafo de um usuario, ou de uma conta, com um UPDATE por tabela na mesma transacao,
+ * em vez de carregar e salvar linha a linha. Transacoes desativadas saem do livro sem passar pelos
+ * TransacaoListener, entao as projecoes sao acertadas tambem em conjunto: saldos e rollups da conta
+ * ou do usuario sao apagados (os saldos voltam a ser semeados do livro no proximo acesso) e o
+ * progresso das metas ativas e recalculado. As linhas desativadas vao para transacoes_arquivo
+ * depois de arquivamento.transacoes.dias (veja ArquivamentoTransacoes).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DesativacaoCascata {
+
+    private final UsuarioRepository usuarioRepository;
+    private final ContasBancariasRepository contasRepository;
+    private final TransacaoRepository transacaoRepository;
+    private final AlertaRepository alertaRepository;
+    private final BeneficioRepository beneficioRepository;
+    private final CategoriaRepository categoriaRepository;
+    private final MetaRepository metaRepository;
+    private final NotificacaoEmailRepository notificacaoEmailRepository;
+    private final SaldoContaRepository saldoContaRepository;
+    private final SaldoUsuarioRepository saldoUsuarioRepository;
+    private final ResumoDiarioRepository resumoDiarioRepository;
+    private final ResumoMensalRepository resumoMensalRepository;
+    private final ProgressoMetaRepository progressoMetaRepository;
+    private final RefreshTokens refreshTokens;
+    private final RevogacaoTokens revogacaoTokens;
+    private final ApplicationEventPublisher eventos;
+
+    /**
+     * Usuario e tudo o que e dele; metas ativas viram canceladas e ficam com o progresso em que pararam.
+     * As sessoes caem na mesma transacao: refresh tokens deixam de renovar e os tokens de acesso ja
+     * emitidos entram na lista de revogacao.
+     */
+    @Transactional
+    public ResultadoDesativacao desativarUsuario(Long usuarioId) {
+        LocalDateTime agora = LocalDateTime.now();
+        usuarioRepository.softDelete(usuarioId);
+        ResultadoDesativacao resultado = new ResultadoDesativacao(
+                contasRepository.desativarPorUsuario(usuarioId, agora),
+                transacaoRepository.desativarPorUsuario(usuarioId, agora),
+                alertaRepository.desativarPorUsuario(usuarioId, agora),
+                beneficioRepository.desativarPorUsuario(usuarioId, agora),
+                categoriaRepository.desativarPorUsuario(usuarioId, agora),
+                metaRepository.cancelarAtivas(usuarioId),
+                notificacaoEmailRepository.descartarPendentes(usuarioId, agora));
+
+        saldoContaRepository.apagarPorUsuario(usuarioId);
+        saldoUsuarioRepository.apagar(usuarioId);
+        resumoDiarioRepository.apagarPorUsuario(usuarioId);
+        resumoMensalRepository.apagarPorUsuario(usuarioId);
+        refreshTokens.revogarUsuario(usuarioId);
+        revogacaoTokens.revogarUsuario(usuarioId);
+        eventos.publishEvent(new GrafoDesativado(usuarioId, null));
+        log.info("Usuario {} desativado em cascata: {}", usuarioId, resultado);
+        return resultado;
+    }
+
+    /** Conta, as suas transacoes e os alertas presos a ela; o restante do usuario segue ativo. */
+    @Transactional
+    public ResultadoDesativacao desativarConta(Long contaId, Long usuarioId) {
+        LocalDateTime agora = LocalDateTime.now();
+        ResultadoDesativacao resultado = new ResultadoDesativacao(
+                contasRepository.desativar(contaId, agora),
+                transacaoRepository.desativarPorConta(contaId, agora),
+                alertaRepository.desativarPorConta(contaId, agora),
+                0, 0, 0, 0);
+
+        // o saldo do usuario tambem contava a conta: sem a linha, e semeado de novo do livro
+        saldoContaRepository.apagar(contaId);
+        saldoUsuarioRepository.apagar(usuarioId);
+        resumoDiarioRepository.apagarPorConta(contaId);
+        resumoMensalRepository.apagarPorConta(contaId);
+        if (resultado.transacoes() > 0) {
+            progressoMetaRepository.recalcular(usuarioId);
+        }
+        eventos.publishEvent(new GrafoDesativado(usuarioId, contaId));
+        log.info("Conta {} desativada em cascata: {}", contaId, resultado);
+        return resultado;
+    }
+}
@@ -0,0 +1,9 @@
+package com.nucleo.service.desativacao;
+
+/**
+ * Publicado pela DesativacaoCascata quando as transacoes de um usuario (ou de uma conta dele, com
+ * contaId preenchido) saem do livro em conjunto, sem passar pelos TransacaoListener. Serve para
+ * quem guarda estado em memoria por usuario descartar esse estado depois do commit.
+ */
+public record GrafoDesativado(Long usuarioId, Long contaId) {
+}
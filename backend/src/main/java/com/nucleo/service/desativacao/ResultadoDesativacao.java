@@ -0,0 +1,13 @@
+package com.nucleo.service.desativacao;
+
+/** Linhas afetadas por uma desativacao em cascata, por tabela. */
+public record ResultadoDesativacao(
+        int contas,
+        int transacoes,
+        int alertas,
+        int beneficios,
+        int categorias,
+        int metas,
+        int notificacoes
+) {
+}
@@ -0,0 +1,196 @@
+package com.nucleo.service.importacao;
+
+import com.nucleo.dto.TransacaoRequestDTO;
+import com.nucleo.model.Transacao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Le um extrato CSV linha a linha, sem carregar o arquivo inteiro.
+ * A primeira linha e o cabecalho: data, descricao e valor sao obrigatorias; tipo,
+ * categoriaId e contaId sao opcionais e, na falta, vem dos valores padrao.
+ * Aceita ',' ou ';' como separador; campos entre aspas podem conter o separador ("" vira aspas).
+ * No valor, com ponto e virgula juntos o ultimo e o decimal; sozinho, o ponto ou a virgula
+ * e decimal, exceto quando seguido de exatamente tres digitos ("1.234"), que e ambiguo e rejeitado.
+ * Sem coluna tipo, valores negativos viram SAIDA.
+ */
+public class LeitorCsv implements Iterator<LinhaImportacao> {
+
+    private static final DateTimeFormatter DATA_BR = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final BufferedReader leitor;
+    private final Long categoriaPadrao;
+    private final Long contaPadrao;
+    private final Map<String, Integer> colunas = new HashMap<>();
+    private char separador;
+    private long numeroLinha;
+    private String proxima;
+
+    public LeitorCsv(BufferedReader leitor, Long categoriaPadrao, Long contaPadrao) {
+        this.leitor = leitor;
+        this.categoriaPadrao = categoriaPadrao;
+        this.contaPadrao = contaPadrao;
+        lerCabecalho();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (proxima == null) {
+            proxima = lerLinhaNaoVazia();
+        }
+        return proxima != null;
+    }
+
+    @Override
+    public LinhaImportacao next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String linha = proxima;
+        proxima = null;
+        return converter(numeroLinha, linha);
+    }
+
+    private void lerCabecalho() {
+        String cabecalho = lerLinhaNaoVazia();
+        if (cabecalho == null) {
+            return;
+        }
+        if (cabecalho.startsWith("\uFEFF")) {
+            cabecalho = cabecalho.substring(1);
+        }
+        separador = cabecalho.indexOf(';') >= 0 ? ';' : ',';
+        List<String> nomes = dividir(cabecalho);
+        for (int i = 0; i < nomes.size(); i++) {
+            colunas.put(nomes.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+    }
+
+    private LinhaImportacao converter(long numero, String linha) {
+        List<String> campos = dividir(linha);
+        try {
+            BigDecimal valor = valor(campo(campos, "valor"));
+            LocalDate data = data(campo(campos, "data"));
+            if (valor == null) {
+                return LinhaImportacao.invalida(numero, "importacao.valor-invalido");
+            }
+            if (data == null) {
+                return LinhaImportacao.invalida(numero, "importacao.data-invalida");
+            }
+
+            String tipoTexto = campo(campos, "tipo");
+            Transacao.TipoTransacao tipo;
+            if (tipoTexto != null) {
+                tipo = Transacao.TipoTransacao.valueOf(tipoTexto.toUpperCase(Locale.ROOT));
+            } else {
+                tipo = valor.signum() < 0 ? Transacao.TipoTransacao.SAIDA : Transacao.TipoTransacao.ENTRADA;
+            }
+
+            return LinhaImportacao.valida(numero, new TransacaoRequestDTO(
+                    campo(campos, "descricao"),
+                    valor.abs(),
+                    data,
+                    tipo,
+                    id(campo(campos, "categoriaid"), categoriaPadrao),
+                    id(campo(campos, "contaid"), contaPadrao)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return LinhaImportacao.invalida(numero, "importacao.linha-invalida");
+        }
+    }
+
+    // separa pelo separador fora das aspas; as aspas delimitadoras saem e "" dentro delas vira "
+    private List<String> dividir(String linha) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (c == '"') {
+                if (entreAspas && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else {
+                    entreAspas = !entreAspas;
+                }
+            } else if (c == separador && !entreAspas) {
+                campos.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        campos.add(atual.toString());
+        return campos;
+    }
+
+    private String campo(List<String> campos, String nome) {
+        Integer indice = colunas.get(nome);
+        if (indice == null || indice >= campos.size()) {
+            return null;
+        }
+        String valor = campos.get(indice).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    // null quando o valor e ambiguo, para a linha sair como valor invalido
+    private static BigDecimal valor(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        int ponto = texto.lastIndexOf('.');
+        int virgula = texto.lastIndexOf(',');
+        if (ponto >= 0 && virgula >= 0) {
+            char milhar = ponto > virgula ? ',' : '.';
+            texto = texto.replace(String.valueOf(milhar), "").replace(',', '.');
+        } else if (ponto >= 0 || virgula >= 0) {
+            char marca = ponto >= 0 ? '.' : ',';
+            int ultima = Math.max(ponto, virgula);
+            if (texto.indexOf(marca) != ultima) {
+                // a marca repetida so pode ser de milhar: 1.234.567
+                texto = texto.replace(String.valueOf(marca), "");
+            } else if (texto.length() - ultima - 1 == 3) {
+                return null;
+            } else {
+                texto = texto.replace(marca, '.');
+            }
+        }
+        return new BigDecimal(texto);
+    }
+
+    private static LocalDate data(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        return texto.contains("/") ? LocalDate.parse(texto, DATA_BR) : LocalDate.parse(texto);
+    }
+
+    private static Long id(String texto, Long padrao) {
+        return texto != null ? Long.valueOf(texto) : padrao;
+    }
+
+    private String lerLinhaNaoVazia() {
+        try {
+            String linha;
+            do {
+                linha = leitor.readLine();
+                numeroLinha++;
+            } while (linha != null && linha.isBlank());
+            return linha;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
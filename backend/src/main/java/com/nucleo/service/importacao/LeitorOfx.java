@@ -0,0 +1,106 @@
+package com.nucleo.service.importacao;
+
+import com.nucleo.dto.TransacaoRequestDTO;
+import com.nucleo.model.Transacao;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+/**
+ * Le os blocos STMTTRN de um extrato OFX (SGML 1.x ou XML 2.x) em streaming.
+ * O sinal de TRNAMT define o tipo; MEMO (ou NAME) vira a descricao.
+ * Conta e categoria nao existem no OFX e vem dos parametros da importacao.
+ */
+public class LeitorOfx implements Iterator<LinhaImportacao> {
+
+    private final Scanner scanner;
+    private final Long categoriaId;
+    private final Long contaId;
+    private long numero;
+    private LinhaImportacao proxima;
+
+    public LeitorOfx(Reader leitor, Long categoriaId, Long contaId) {
+        this.scanner = new Scanner(leitor).useDelimiter("<");
+        this.categoriaId = categoriaId;
+        this.contaId = contaId;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (proxima == null) {
+            proxima = lerTransacao();
+        }
+        return proxima != null;
+    }
+
+    @Override
+    public LinhaImportacao next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        LinhaImportacao linha = proxima;
+        proxima = null;
+        return linha;
+    }
+
+    private LinhaImportacao lerTransacao() {
+        Map<String, String> campos = null;
+        while (scanner.hasNext()) {
+            String token = scanner.next();
+            int fim = token.indexOf('>');
+            if (fim < 0) {
+                continue;
+            }
+            String tag = token.substring(0, fim).trim().toUpperCase(Locale.ROOT);
+            String valor = token.substring(fim + 1).trim();
+
+            if (tag.equals("STMTTRN")) {
+                campos = new HashMap<>();
+            } else if (tag.equals("/STMTTRN") && campos != null) {
+                return converter(++numero, campos);
+            } else if (campos != null && !tag.startsWith("/")) {
+                campos.put(tag, valor);
+            }
+        }
+        return null;
+    }
+
+    private LinhaImportacao converter(long numero, Map<String, String> campos) {
+        try {
+            String montante = campos.get("TRNAMT");
+            if (montante == null || montante.isEmpty()) {
+                return LinhaImportacao.invalida(numero, "importacao.valor-invalido");
+            }
+            BigDecimal valor = new BigDecimal(montante.replace(',', '.'));
+
+            String postagem = campos.get("DTPOSTED");
+            if (postagem == null || postagem.length() < 8) {
+                return LinhaImportacao.invalida(numero, "importacao.data-invalida");
+            }
+            LocalDate data = LocalDate.parse(postagem.substring(0, 8), DateTimeFormatter.BASIC_ISO_DATE);
+
+            String descricao = campos.get("MEMO");
+            if (descricao == null || descricao.isEmpty()) {
+                descricao = campos.get("NAME");
+            }
+            return LinhaImportacao.valida(numero, new TransacaoRequestDTO(
+                    descricao,
+                    valor.abs(),
+                    data,
+                    valor.signum() < 0 ? Transacao.TipoTransacao.SAIDA : Transacao.TipoTransacao.ENTRADA,
+                    categoriaId,
+                    contaId));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return LinhaImportacao.invalida(numero, "importacao.linha-invalida");
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.nucleo.service.importacao;
+
+import com.nucleo.dto.TransacaoRequestDTO;
+
+/**
+ * Uma linha lida do arquivo ou do array JSON. Quando a leitura falha, {@code erro}
+ * traz a chave da mensagem e {@code transacao} fica nula.
+ */
+public record LinhaImportacao(
+        long numero,
+        TransacaoRequestDTO transacao,
+        String erro
+) {
+
+    public static LinhaImportacao valida(long numero, TransacaoRequestDTO transacao) {
+        return new LinhaImportacao(numero, transacao, null);
+    }
+
+    public static LinhaImportacao invalida(long numero, String erro) {
+        return new LinhaImportacao(numero, null, erro);
+    }
+}
@@ -0,0 +1,25 @@
+package com.nucleo.service.listagem;
+
+import com.nucleo.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posicao do ultimo registro entregue numa listagem ordenada por id.
+ * Vai para o cliente como texto opaco (base64 do id), como o CursorTransacao.
+ */
+public record CursorId(Long id) {
+
+    public String codificar() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorId decodificar(String cursor) {
+        try {
+            return new CursorId(Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("listagem.cursor-invalido", null);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.nucleo.service.listagem;
+
+import com.nucleo.dto.TransacaoResponseDTO;
+import com.nucleo.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posicao da ultima transacao entregue, na ordem (data, id) decrescente.
+ * Vai para o cliente como texto opaco (base64 de "data:id").
+ */
+public record CursorTransacao(LocalDate data, Long id) {
+
+    public static CursorTransacao de(TransacaoResponseDTO transacao) {
+        return new CursorTransacao(transacao.getData(), transacao.getId());
+    }
+
+    public String codificar() {
+        String texto = data + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorTransacao decodificar(String cursor) {
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = texto.indexOf(':');
+            return new CursorTransacao(LocalDate.parse(texto.substring(0, separador)),
+                    Long.valueOf(texto.substring(separador + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new BusinessException("transacao.cursor-invalido", null);
+        }
+    }
+}
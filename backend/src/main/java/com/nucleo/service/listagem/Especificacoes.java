@@ -0,0 +1,68 @@
+package com.nucleo.service.listagem;
+
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Locale;
+
+/**
+ * Filtros reutilizados pelas listagens paginadas. Valor nulo ou em branco nao restringe, entao
+ * cada servico compoe os filtros recebidos do controller com and() sem testar um a um.
+ */
+public final class Especificacoes {
+
+    private Especificacoes() {
+    }
+
+    public static <T> Specification<T> igual(String campo, Object valor) {
+        return (root, query, cb) -> valor == null ? null : cb.equal(caminho(root, campo), valor);
+    }
+
+    // o texto do usuario e literal: %, _ e a propria barra sao escapados antes de virar padrao do LIKE
+    public static <T> Specification<T> contem(String campo, String texto) {
+        return (root, query, cb) -> texto == null || texto.isBlank() ? null
+                : cb.like(cb.lower(caminho(root, campo)), "%" + literal(texto.trim().toLowerCase(Locale.ROOT)) + "%", '\\');
+    }
+
+    public static <T> Specification<T> ativos() {
+        return igual("ativo", true);
+    }
+
+    /** Registros depois do cursor na direcao pedida: a condicao de chave que substitui o OFFSET. */
+    public static <T> Specification<T> depoisDe(CursorId posicao, Sort.Direction direcao) {
+        return (root, query, cb) -> {
+            if (posicao == null) {
+                return null;
+            }
+            Path<Long> id = root.get("id");
+            return direcao.isAscending() ? cb.greaterThan(id, posicao.id()) : cb.lessThan(id, posicao.id());
+        };
+    }
+
+    // associacao lida por cada item da resposta: vem no mesmo SELECT em vez de uma consulta por linha
+    public static <T> Specification<T> buscarJunto(String associacao) {
+        return (root, query, cb) -> {
+            if (query != null && !Long.class.equals(query.getResultType())) {
+                root.fetch(associacao, JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+
+    private static String literal(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static <Y> Path<Y> caminho(From<?, ?> root, String campo) {
+        Path<?> caminho = root;
+        for (String parte : campo.split("\\.")) {
+            caminho = caminho.get(parte);
+        }
+        @SuppressWarnings("unchecked")
+        Path<Y> tipado = (Path<Y>) caminho;
+        return tipado;
+    }
+}
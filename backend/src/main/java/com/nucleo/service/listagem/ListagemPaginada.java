@@ -0,0 +1,35 @@
+package com.nucleo.service.listagem;
+
+import com.nucleo.dto.PaginaDTO;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Paginacao por chave (id) sobre qualquer repositorio com JpaSpecificationExecutor: o filtro recebe
+ * a condicao "depois do cursor" e o banco devolve no maximo limite + 1 linhas, pelo indice da PK.
+ * Nenhuma pagina conta ou pula linhas, entao o custo nao cresce com a posicao na tabela.
+ */
+public final class ListagemPaginada {
+
+    private ListagemPaginada() {
+    }
+
+    public static <T> PaginaDTO<T> paginar(JpaSpecificationExecutor<T> repositorio, Specification<T> filtro,
+                                           ParametrosPagina parametros, Function<T, Long> id) {
+        int tamanho = parametros.tamanho();
+        Sort.Direction direcao = parametros.direcao();
+        Specification<T> consulta = filtro.and(Especificacoes.depoisDe(parametros.posicao(), direcao));
+
+        // um registro a mais so para saber se existe proxima pagina
+        List<T> registros = repositorio.findBy(consulta, q -> q.sortBy(Sort.by(direcao, "id")).limit(tamanho + 1).all());
+        boolean temMais = registros.size() > tamanho;
+        List<T> pagina = temMais ? registros.subList(0, tamanho) : registros;
+
+        String proximoCursor = temMais ? new CursorId(id.apply(pagina.get(pagina.size() - 1))).codificar() : null;
+        return new PaginaDTO<>(List.copyOf(pagina), proximoCursor);
+    }
+}
@@ -0,0 +1,30 @@
+package com.nucleo.service.listagem;
+
+import org.springframework.data.domain.Sort;
+
+/** Cursor, tamanho e direcao (por id) de uma pagina pedida pelo cliente; todos opcionais. */
+public record ParametrosPagina(String cursor, Integer limite, Sort.Direction ordem) {
+
+    public static final int LIMITE_PADRAO = 50;
+    public static final int LIMITE_MAXIMO = 500;
+
+    public static ParametrosPagina primeira() {
+        return new ParametrosPagina(null, null, null);
+    }
+
+    public boolean pedida() {
+        return cursor != null || limite != null || ordem != null;
+    }
+
+    public int tamanho() {
+        return limite == null ? LIMITE_PADRAO : Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+    }
+
+    public Sort.Direction direcao() {
+        return ordem == null ? Sort.Direction.ASC : ordem;
+    }
+
+    public CursorId posicao() {
+        return cursor != null && !cursor.isBlank() ? CursorId.decodificar(cursor) : null;
+    }
+}
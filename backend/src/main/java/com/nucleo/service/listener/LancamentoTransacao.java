@@ -0,0 +1,43 @@
+package com.nucleo.service.listener;
+
+import com.nucleo.model.Transacao;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Copia imutavel dos campos de uma transacao que interessam as projecoes
+ * (saldos, janelas de alerta, relatorios). Tirada antes de qualquer alteracao
+ * para que o valor antigo possa ser desfeito.
+ */
+public record LancamentoTransacao(
+        Long transacaoId,
+        Long usuarioId,
+        Long contaId,
+        Long categoriaId,
+        Transacao.TipoTransacao tipo,
+        BigDecimal valor,
+        LocalDate data
+) {
+
+    public static LancamentoTransacao fromEntity(Transacao transacao) {
+        return new LancamentoTransacao(
+                transacao.getId(),
+                transacao.getUsuario() != null ? transacao.getUsuario().getId() : null,
+                transacao.getConta() != null ? transacao.getConta().getId() : null,
+                transacao.getCategoria() != null ? transacao.getCategoria().getId() : null,
+                transacao.getTipo(),
+                transacao.getValor(),
+                transacao.getData()
+        );
+    }
+
+    public boolean isSaida() {
+        return tipo == Transacao.TipoTransacao.SAIDA;
+    }
+
+    /** Valor com sinal: positivo para entradas, negativo para saidas. */
+    public BigDecimal valorComSinal() {
+        return isSaida() ? valor.negate() : valor;
+    }
+}
@@ -0,0 +1,25 @@
+package com.nucleo.service.listener;
+
+import java.util.List;
+
+/**
+ * Ponto de extensao chamado pelo TransacaoService a cada escrita de transacao,
+ * dentro da mesma transacao de banco. Uma atualizacao e tratada como a remocao
+ * do lancamento antigo seguida da inclusao do novo. Importacoes em massa chamam
+ * {@link #aoIncluirLote} uma vez por lote, depois do flush dos inserts.
+ */
+public interface TransacaoListener {
+
+    void aoIncluir(LancamentoTransacao lancamento);
+
+    void aoRemover(LancamentoTransacao lancamento);
+
+    default void aoAtualizar(LancamentoTransacao anterior, LancamentoTransacao atual) {
+        aoRemover(anterior);
+        aoIncluir(atual);
+    }
+
+    default void aoIncluirLote(List<LancamentoTransacao> lote) {
+        lote.forEach(this::aoIncluir);
+    }
+}
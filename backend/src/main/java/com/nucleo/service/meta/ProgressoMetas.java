@@ -0,0 +1,208 @@
+package com.nucleo.service.meta;
+
+import com.nucleo.dto.ProgressoMetaDTO;
+import com.nucleo.model.Categoria;
+import com.nucleo.model.Meta;
+import com.nucleo.model.ProgressoMeta;
+import com.nucleo.model.StatusMeta;
+import com.nucleo.model.Transacao;
+import com.nucleo.repository.MetaRepository;
+import com.nucleo.repository.ProgressoMetaRepository;
+import com.nucleo.service.listener.LancamentoTransacao;
+import com.nucleo.service.listener.TransacaoListener;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Mantem progressos_meta a cada escrita de transacao: toda transacao na categoria de uma meta ativa,
+ * do tipo da categoria e com data a partir do inicio da meta, conta como aporte. Cada (usuario, categoria, data) afetada
+ * recebe um UPDATE com o delta agregado; quando ha aporte, as metas que alcancaram o alvo passam de
+ * ativa para concluida na mesma transacao. A leitura do progresso usa so a linha gravada.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProgressoMetas implements TransacaoListener {
+
+    private final ProgressoMetaRepository progressoMetaRepository;
+    private final MetaRepository metaRepository;
+
+    @Override
+    @Transactional
+    public void aoIncluir(LancamentoTransacao lancamento) {
+        aplicar(List.of(lancamento), List.of());
+    }
+
+    @Override
+    @Transactional
+    public void aoRemover(LancamentoTransacao lancamento) {
+        aplicar(List.of(), List.of(lancamento));
+    }
+
+    @Override
+    @Transactional
+    public void aoAtualizar(LancamentoTransacao anterior, LancamentoTransacao atual) {
+        aplicar(List.of(atual), List.of(anterior));
+    }
+
+    @Override
+    @Transactional
+    public void aoIncluirLote(List<LancamentoTransacao> lote) {
+        aplicar(lote, List.of());
+    }
+
+    /** Cria a linha de progresso de uma meta nova, contando as transacoes da categoria a partir de hoje. */
+    @Transactional
+    public void iniciar(Meta meta) {
+        if (meta.getId() == null || meta.getCategoriaId() == null) {
+            return;
+        }
+        progressoMetaRepository.semear(meta.getId(), LocalDate.now());
+        concluir(meta);
+    }
+
+    /**
+     * Reaplicado quando a meta muda: outra categoria ou reabertura (de volta a ativa) recalculam o
+     * acumulado a partir do livro, mantendo a data de inicio; um alvo menor pode concluir a meta.
+     */
+    @Transactional
+    public void aoAtualizarMeta(Meta meta, Long categoriaAnterior, StatusMeta statusAnterior) {
+        if (meta.getId() == null) {
+            return;
+        }
+        boolean reaberta = meta.getStatus() == StatusMeta.ativa && statusAnterior != StatusMeta.ativa;
+        if (!Objects.equals(meta.getCategoriaId(), categoriaAnterior) || reaberta) {
+            LocalDate inicio = progressoMetaRepository.dataInicio(meta.getId()).orElse(LocalDate.now());
+            progressoMetaRepository.apagar(meta.getId());
+            if (meta.getCategoriaId() != null) {
+                progressoMetaRepository.semear(meta.getId(), inicio);
+            }
+        }
+        if (meta.getCategoriaId() != null) {
+            concluir(meta);
+        }
+    }
+
+    @Transactional
+    public ProgressoMetaDTO progresso(Meta meta) {
+        if (meta.getCategoriaId() == null) {
+            return ProgressoMetaDTO.de(meta, null, LocalDate.now());
+        }
+        ProgressoMeta progresso = progressoMetaRepository.findById(meta.getId()).orElse(null);
+        if (progresso == null) {
+            semearFaltantes(meta.getUsuarioId());
+            progresso = progressoMetaRepository.findById(meta.getId()).orElse(null);
+            sincronizar(meta, progresso);
+        }
+        return ProgressoMetaDTO.de(meta, progresso, LocalDate.now());
+    }
+
+    @Transactional
+    public List<ProgressoMetaDTO> listar(Long usuarioId) {
+        List<Meta> metas = metaRepository.findByUsuarioId(usuarioId);
+        Map<Long, ProgressoMeta> progressos = porMeta(usuarioId);
+        boolean faltantes = metas.stream()
+                .anyMatch(meta -> meta.getCategoriaId() != null && !progressos.containsKey(meta.getId()));
+        if (faltantes) {
+            semearFaltantes(usuarioId);
+            progressos.putAll(porMeta(usuarioId));
+            metas.forEach(meta -> sincronizar(meta, progressos.get(meta.getId())));
+        }
+        LocalDate hoje = LocalDate.now();
+        return metas.stream()
+                .map(meta -> ProgressoMetaDTO.de(meta, progressos.get(meta.getId()), hoje))
+                .toList();
+    }
+
+    private void aplicar(List<LancamentoTransacao> inclusoes, List<LancamentoTransacao> remocoes) {
+        Map<Chave, Delta> deltas = new HashMap<>();
+        acumular(inclusoes, 1, deltas);
+        acumular(remocoes, -1, deltas);
+
+        Set<Chave> aportadas = new HashSet<>();
+        deltas.forEach((chave, delta) -> {
+            if (delta.valor.signum() == 0 && delta.aportes == 0) {
+                return;
+            }
+            int atualizadas = progressoMetaRepository.acumular(chave.usuarioId(), chave.categoriaId(),
+                    Categoria.TipoCategoria.valueOf(chave.tipo().name()), chave.data(), delta.valor, delta.aportes);
+            if (atualizadas > 0 && delta.valor.signum() > 0) {
+                aportadas.add(new Chave(chave.usuarioId(), chave.categoriaId(), null, null));
+            }
+        });
+        aportadas.forEach(chave -> concluir(chave.usuarioId(), chave.categoriaId()));
+    }
+
+    private static void acumular(List<LancamentoTransacao> lancamentos, int sinal, Map<Chave, Delta> deltas) {
+        for (LancamentoTransacao lancamento : lancamentos) {
+            if (lancamento.valor() == null || lancamento.data() == null || lancamento.usuarioId() == null
+                    || lancamento.categoriaId() == null || lancamento.tipo() == null) {
+                continue;
+            }
+            BigDecimal valor = sinal < 0 ? lancamento.valor().negate() : lancamento.valor();
+            deltas.computeIfAbsent(new Chave(lancamento.usuarioId(), lancamento.categoriaId(), lancamento.tipo(),
+                    lancamento.data()), chave -> new Delta()).somar(valor, sinal);
+        }
+    }
+
+    private int concluir(Long usuarioId, Long categoriaId) {
+        if (progressoMetaRepository.marcarConcluidas(usuarioId, categoriaId, LocalDate.now()) == 0) {
+            return 0;
+        }
+        return metaRepository.concluirAtingidas(usuarioId, categoriaId);
+    }
+
+    // o UPDATE em lote nao passa pela entidade ja carregada; ela e alinhada ao que foi gravado
+    private void concluir(Meta meta) {
+        if (concluir(meta.getUsuarioId(), meta.getCategoriaId()) > 0) {
+            sincronizar(meta, progressoMetaRepository.findById(meta.getId()).orElse(null));
+        }
+    }
+
+    private void semearFaltantes(Long usuarioId) {
+        LocalDate hoje = LocalDate.now();
+        int semeadas = 0;
+        for (Long metaId : progressoMetaRepository.findMetasSemProgresso(usuarioId)) {
+            semeadas += progressoMetaRepository.semearAntiga(metaId, hoje);
+        }
+        if (semeadas > 0) {
+            concluir(usuarioId, null);
+        }
+    }
+
+    private Map<Long, ProgressoMeta> porMeta(Long usuarioId) {
+        return progressoMetaRepository.findByUsuarioId(usuarioId).stream()
+                .collect(Collectors.toMap(ProgressoMeta::getMetaId, Function.identity(), (a, b) -> a, HashMap::new));
+    }
+
+    private static void sincronizar(Meta meta, ProgressoMeta progresso) {
+        if (progresso != null && meta.getStatus() == StatusMeta.ativa
+                && progresso.getValorAcumulado().compareTo(meta.getValorAlvo()) >= 0) {
+            meta.setStatus(StatusMeta.concluida);
+        }
+    }
+
+    private record Chave(Long usuarioId, Long categoriaId, Transacao.TipoTransacao tipo, LocalDate data) {
+    }
+
+    private static final class Delta {
+        private BigDecimal valor = BigDecimal.ZERO;
+        private long aportes;
+
+        private void somar(BigDecimal valor, int sinal) {
+            this.valor = this.valor.add(valor);
+            aportes += sinal;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.nucleo.service.notificacao;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "notificacoes.drenagem.habilitada", havingValue = "true", matchIfMissing = true)
+public class DrenadorNotificacoes {
+
+    private final NotificacaoService notificacaoService;
+
+    @Scheduled(fixedDelayString = "${notificacoes.drenagem.intervalo-ms:5000}")
+    public void drenar() {
+        notificacaoService.drenar();
+    }
+}
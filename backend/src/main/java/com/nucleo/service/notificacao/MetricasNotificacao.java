@@ -0,0 +1,84 @@
+package com.nucleo.service.notificacao;
+
+import com.nucleo.model.NotificacaoEmail.StatusNotificacao;
+import com.nucleo.repository.NotificacaoEmailRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores do pipeline de e-mail. A profundidade da fila vem do proprio outbox.
+ * Tambem publicados no Micrometer como nucleo.notificacoes.*; os contadores sao lidos
+ * so no scrape, sem custo no envio.
+ */
+@Component
+@RequiredArgsConstructor
+public class MetricasNotificacao implements MeterBinder {
+
+    private final NotificacaoEmailRepository notificacaoRepository;
+
+    private final LongAdder enviadas = new LongAdder();
+    private final LongAdder coalescidas = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder lotes = new LongAdder();
+    private final LongAdder latenciaTotalNanos = new LongAdder();
+    private final AtomicLong latenciaMaximaNanos = new AtomicLong();
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("nucleo.notificacoes.enviadas", enviadas, LongAdder::sum).register(registry);
+        FunctionCounter.builder("nucleo.notificacoes.coalescidas", coalescidas, LongAdder::sum).register(registry);
+        FunctionCounter.builder("nucleo.notificacoes.falhas", falhas, LongAdder::sum).register(registry);
+        FunctionCounter.builder("nucleo.notificacoes.lotes", lotes, LongAdder::sum).register(registry);
+        Gauge.builder("nucleo.notificacoes.lote.latencia.media", this, MetricasNotificacao::getLatenciaMediaLoteMs)
+                .baseUnit("milliseconds").register(registry);
+        Gauge.builder("nucleo.notificacoes.lote.latencia.maxima", this, MetricasNotificacao::getLatenciaMaximaLoteMs)
+                .baseUnit("milliseconds").register(registry);
+        Gauge.builder("nucleo.notificacoes.pendentes", notificacaoRepository,
+                        repositorio -> repositorio.countByStatusAndAtivoTrue(StatusNotificacao.PENDENTE))
+                .description("Notificacoes aguardando envio no outbox").register(registry);
+    }
+
+    void registrarLote(long nanos, int enviadasNoLote, int falhasNoLote) {
+        lotes.increment();
+        enviadas.add(enviadasNoLote);
+        falhas.add(falhasNoLote);
+        latenciaTotalNanos.add(nanos);
+        latenciaMaximaNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    void registrarCoalescidas(int quantidade) {
+        coalescidas.add(quantidade);
+    }
+
+    public long getEnviadas() {
+        return enviadas.sum();
+    }
+
+    public long getCoalescidas() {
+        return coalescidas.sum();
+    }
+
+    public long getFalhas() {
+        return falhas.sum();
+    }
+
+    public long getLotes() {
+        return lotes.sum();
+    }
+
+    public double getLatenciaMediaLoteMs() {
+        long quantidade = lotes.sum();
+        return quantidade == 0 ? 0 : latenciaTotalNanos.sum() / 1e6 / quantidade;
+    }
+
+    public double getLatenciaMaximaLoteMs() {
+        return latenciaMaximaNanos.get() / 1e6;
+    }
+}
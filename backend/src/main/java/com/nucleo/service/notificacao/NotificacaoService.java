@@ -0,0 +1,213 @@
+package com.nucleo.service.notificacao;
+
+import com.nucleo.dto.MetricasNotificacaoDTO;
+import com.nucleo.model.NotificacaoEmail;
+import com.nucleo.model.NotificacaoEmail.StatusNotificacao;
+import com.nucleo.repository.NotificacaoEmailRepository;
+import com.nucleo.service.EmailService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Outbox de e-mails. As notificacoes sao gravadas na mesma transacao que as
+ * gerou e enviadas depois, fora da requisicao, pelo pool "notificacaoExecutor":
+ * repeticoes do mesmo alerta sao fundidas, o envio e feito em lotes por conexao
+ * SMTP e falhas sao reagendadas com backoff exponencial. Cada drenagem reivindica
+ * as linhas com um UPDATE condicional antes de enviar, entao varias instancias nao
+ * mandam o mesmo e-mail, renova a reivindicacao antes de cada lote SMTP e grava o resultado
+ * com UPDATEs dirigidos as linhas do seu lote.
+ */
+@Slf4j
+@Service
+public class NotificacaoService {
+
+    private final NotificacaoEmailRepository notificacaoRepository;
+    private final EmailService emailService;
+    private final MetricasNotificacao metricas;
+    private final Executor notificacaoExecutor;
+    private final AtomicBoolean drenando = new AtomicBoolean(false);
+
+    @Value("${notificacoes.lote.tamanho:50}")
+    private int tamanhoLote = 50;
+
+    @Value("${notificacoes.drenagem.maximo:500}")
+    private int maximoPorDrenagem = 500;
+
+    @Value("${notificacoes.tentativas.maximo:5}")
+    private int maximoTentativas = 5;
+
+    @Value("${notificacoes.tentativas.backoff-segundos:30}")
+    private long backoffSegundos = 30;
+
+    // reivindicacao nao concluida nesse prazo (instancia caiu) volta a ser drenada; e renovada antes de
+    // cada lote SMTP, entao precisa cobrir so o envio de um lote, nao a drenagem inteira
+    @Value("${notificacoes.envio.concessao-segundos:300}")
+    private long concessaoSegundos = 300;
+
+    public NotificacaoService(NotificacaoEmailRepository notificacaoRepository, EmailService emailService,
+                              MetricasNotificacao metricas,
+                              @Qualifier("notificacaoExecutor") Executor notificacaoExecutor) {
+        this.notificacaoRepository = notificacaoRepository;
+        this.emailService = emailService;
+        this.metricas = metricas;
+        this.notificacaoExecutor = notificacaoExecutor;
+    }
+
+    @Transactional
+    public NotificacaoEmail enfileirar(Long usuarioId, Long alertaId, String destinatario, String assunto, String corpo) {
+        return notificacaoRepository.save(NotificacaoEmail.builder()
+                .usuarioId(usuarioId)
+                .alertaId(alertaId)
+                .destinatario(destinatario)
+                .assunto(assunto)
+                .corpo(corpo)
+                .proximaTentativa(LocalDateTime.now())
+                .build());
+    }
+
+    /** Envia o que estiver pronto no outbox. Retorna quantas notificacoes foram processadas. */
+    public int drenar() {
+        if (!drenando.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            LocalDateTime agora = LocalDateTime.now();
+            List<Long> ids = notificacaoRepository.findIdsProntosParaEnvio(agora, PageRequest.of(0, maximoPorDrenagem));
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            String lote = UUID.randomUUID().toString();
+            if (notificacaoRepository.reivindicar(ids, lote, agora, agora.plusSeconds(concessaoSegundos)) == 0) {
+                return 0;
+            }
+            List<NotificacaoEmail> prontas = notificacaoRepository.findReivindicadas(lote);
+
+            List<NotificacaoEmail> unicas = coalescer(prontas, lote);
+            List<CompletableFuture<Void>> envios = new ArrayList<>();
+            for (int i = 0; i < unicas.size(); i += tamanhoLote) {
+                List<NotificacaoEmail> parte = unicas.subList(i, Math.min(i + tamanhoLote, unicas.size()));
+                envios.add(CompletableFuture.runAsync(() -> enviarLote(parte, lote), notificacaoExecutor));
+            }
+            CompletableFuture.allOf(envios.toArray(new CompletableFuture[0])).join();
+            return prontas.size();
+        } finally {
+            drenando.set(false);
+        }
+    }
+
+    public MetricasNotificacaoDTO metricas() {
+        return new MetricasNotificacaoDTO(
+                notificacaoRepository.countByStatusAndAtivoTrue(StatusNotificacao.PENDENTE),
+                metricas.getEnviadas(),
+                metricas.getCoalescidas(),
+                metricas.getFalhas(),
+                metricas.getLotes(),
+                metricas.getLatenciaMediaLoteMs(),
+                metricas.getLatenciaMaximaLoteMs()
+        );
+    }
+
+    // mantem so a ultima notificacao de cada alerta por usuario
+    private List<NotificacaoEmail> coalescer(List<NotificacaoEmail> prontas, String lote) {
+        Map<String, NotificacaoEmail> porChave = new LinkedHashMap<>();
+        List<Long> coalescidas = new ArrayList<>();
+        for (NotificacaoEmail notificacao : prontas) {
+            NotificacaoEmail anterior = porChave.put(notificacao.chaveDeduplicacao(), notificacao);
+            if (anterior != null) {
+                coalescidas.add(anterior.getId());
+            }
+        }
+        if (!coalescidas.isEmpty()) {
+            notificacaoRepository.concluir(coalescidas, lote, StatusNotificacao.COALESCIDA, null, LocalDateTime.now());
+        }
+        metricas.registrarCoalescidas(coalescidas.size());
+        return new ArrayList<>(porChave.values());
+    }
+
+    private void enviarLote(List<NotificacaoEmail> reivindicadas, String lote) {
+        List<NotificacaoEmail> parte = renovar(reivindicadas, lote);
+        if (parte.isEmpty()) {
+            return;
+        }
+        Map<SimpleMailMessage, NotificacaoEmail> mensagens = new IdentityHashMap<>();
+        for (NotificacaoEmail notificacao : parte) {
+            mensagens.put(emailService.criarMensagem(notificacao.getDestinatario(), notificacao.getAssunto(), notificacao.getCorpo()), notificacao);
+        }
+
+        long inicio = System.nanoTime();
+        List<Long> enviadas = new ArrayList<>();
+        int falhas = 0;
+        try {
+            emailService.enviarLote(new ArrayList<>(mensagens.keySet()));
+            parte.forEach(notificacao -> enviadas.add(notificacao.getId()));
+        } catch (MailSendException e) {
+            Set<Object> falharam = e.getFailedMessages().keySet();
+            for (Map.Entry<SimpleMailMessage, NotificacaoEmail> entrada : mensagens.entrySet()) {
+                if (falharam.isEmpty() || falharam.contains(entrada.getKey())) {
+                    reagendar(entrada.getValue(), lote, e);
+                    falhas++;
+                } else {
+                    enviadas.add(entrada.getValue().getId());
+                }
+            }
+        } catch (MailException e) {
+            parte.forEach(notificacao -> reagendar(notificacao, lote, e));
+            falhas = parte.size();
+        } finally {
+            metricas.registrarLote(System.nanoTime() - inicio, parte.size() - falhas, falhas);
+        }
+        if (!enviadas.isEmpty()) {
+            LocalDateTime agora = LocalDateTime.now();
+            notificacaoRepository.concluir(enviadas, lote, StatusNotificacao.ENVIADA, agora, agora);
+        }
+    }
+
+    // so segue o que ainda e deste lote e continua ativo; o resto foi tomado por outra instancia ou descartado
+    private List<NotificacaoEmail> renovar(List<NotificacaoEmail> parte, String lote) {
+        List<Long> ids = parte.stream().map(NotificacaoEmail::getId).toList();
+        LocalDateTime agora = LocalDateTime.now();
+        if (notificacaoRepository.renovar(ids, lote, agora, agora.plusSeconds(concessaoSegundos)) == parte.size()) {
+            return parte;
+        }
+        Set<Long> doLote = new HashSet<>(notificacaoRepository.findIdsDoLote(ids, lote));
+        log.debug("Lote {}: {} de {} notificacoes deixaram de ser deste envio", lote, parte.size() - doLote.size(), parte.size());
+        return parte.stream().filter(notificacao -> doLote.contains(notificacao.getId())).toList();
+    }
+
+    private void reagendar(NotificacaoEmail notificacao, String lote, Exception erro) {
+        int tentativas = notificacao.getTentativas() + 1;
+        String ultimoErro = erro.getMessage() != null && erro.getMessage().length() > 500
+                ? erro.getMessage().substring(0, 500)
+                : erro.getMessage();
+        LocalDateTime agora = LocalDateTime.now();
+
+        StatusNotificacao status = StatusNotificacao.PENDENTE;
+        LocalDateTime proximaTentativa = agora.plusSeconds(backoffSegundos << (tentativas - 1));
+        if (tentativas >= maximoTentativas) {
+            status = StatusNotificacao.FALHA;
+            proximaTentativa = notificacao.getProximaTentativa();
+            log.warn("Notificacao {} descartada apos {} tentativas", notificacao.getId(), tentativas);
+        }
+        notificacaoRepository.reagendar(notificacao.getId(), lote, status, tentativas, ultimoErro, proximaTentativa, agora);
+    }
+}
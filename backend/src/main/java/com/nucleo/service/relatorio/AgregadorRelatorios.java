@@ -0,0 +1,145 @@
+package com.nucleo.service.relatorio;
+
+import com.nucleo.model.ResumoDiario;
+import com.nucleo.model.ResumoMensal;
+import com.nucleo.repository.ResumoDiarioRepository;
+import com.nucleo.repository.ResumoMensalRepository;
+import com.nucleo.repository.TransacaoRepository;
+import com.nucleo.service.listener.LancamentoTransacao;
+import com.nucleo.service.listener.TransacaoListener;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mantem os rollups resumos_diarios e resumos_mensais a cada escrita de transacao.
+ * Cada chave afetada recebe um UPDATE com o delta agregado; se a linha ainda nao
+ * existe ela e semeada a partir do livro, que ja contem a escrita corrente.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AgregadorRelatorios implements TransacaoListener {
+
+    static final long SEM_CATEGORIA = 0L;
+
+    private final ResumoDiarioRepository resumoDiarioRepository;
+    private final ResumoMensalRepository resumoMensalRepository;
+    private final TransacaoRepository transacaoRepository;
+
+    @Value("${relatorios.reconstruir-na-inicializacao:true}")
+    private boolean reconstruirNaInicializacao;
+
+    @Override
+    @Transactional
+    public void aoIncluir(LancamentoTransacao lancamento) {
+        aplicar(List.of(lancamento), List.of());
+    }
+
+    @Override
+    @Transactional
+    public void aoRemover(LancamentoTransacao lancamento) {
+        aplicar(List.of(), List.of(lancamento));
+    }
+
+    // um unico conjunto de deltas: se a chave nao muda, a semeadura nao conta o valor novo duas vezes
+    @Override
+    @Transactional
+    public void aoAtualizar(LancamentoTransacao anterior, LancamentoTransacao atual) {
+        aplicar(List.of(atual), List.of(anterior));
+    }
+
+    @Override
+    @Transactional
+    public void aoIncluirLote(List<LancamentoTransacao> lote) {
+        aplicar(lote, List.of());
+    }
+
+    /** Recalcula os dois rollups a partir do livro, com um INSERT ... SELECT cada. */
+    @Transactional
+    public int reconstruir() {
+        resumoDiarioRepository.apagarTodos();
+        resumoMensalRepository.apagarTodos();
+        int diarios = resumoDiarioRepository.reconstruir();
+        int mensais = resumoMensalRepository.reconstruir();
+        log.info("Rollups de relatorio reconstruidos: {} linhas diarias, {} mensais", diarios, mensais);
+        return diarios;
+    }
+
+    // transacoes gravadas fora do TransacaoService (carga inicial, scripts) nao passam pelos listeners
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void aoIniciar() {
+        if (reconstruirNaInicializacao && resumoDiarioRepository.count() == 0 && transacaoRepository.count() > 0) {
+            reconstruir();
+        }
+    }
+
+    private void aplicar(List<LancamentoTransacao> inclusoes, List<LancamentoTransacao> remocoes) {
+        Map<ResumoDiario.Chave, Delta> diarios = new HashMap<>();
+        Map<ResumoMensal.Chave, Delta> mensais = new HashMap<>();
+        acumular(inclusoes, 1, diarios, mensais);
+        acumular(remocoes, -1, diarios, mensais);
+
+        // sem linha: semeia o livro sem este delta (ou nada, se outra transacao semeou) e acumula de novo
+        diarios.forEach((chave, delta) -> {
+            if (resumoDiarioRepository.acumular(chave.getUsuarioId(), chave.getData(), chave.getCategoriaId(),
+                    chave.getContaId(), chave.getTipo(), delta.total, delta.quantidade) == 0) {
+                resumoDiarioRepository.semear(chave.getUsuarioId(), chave.getData(), chave.getCategoriaId(),
+                        chave.getContaId(), chave.getTipo(), delta.total, delta.quantidade);
+                resumoDiarioRepository.acumular(chave.getUsuarioId(), chave.getData(), chave.getCategoriaId(),
+                        chave.getContaId(), chave.getTipo(), delta.total, delta.quantidade);
+            }
+        });
+        mensais.forEach((chave, delta) -> {
+            if (resumoMensalRepository.acumular(chave.getUsuarioId(), chave.getAno(), chave.getMes(),
+                    chave.getCategoriaId(), chave.getContaId(), chave.getTipo(), delta.total, delta.quantidade) == 0) {
+                YearMonth mes = YearMonth.of(chave.getAno(), chave.getMes());
+                resumoMensalRepository.semear(chave.getUsuarioId(), mes.atDay(1), mes.atEndOfMonth(),
+                        chave.getCategoriaId(), chave.getContaId(), chave.getTipo(), delta.total, delta.quantidade);
+                resumoMensalRepository.acumular(chave.getUsuarioId(), chave.getAno(), chave.getMes(),
+                        chave.getCategoriaId(), chave.getContaId(), chave.getTipo(), delta.total, delta.quantidade);
+            }
+        });
+    }
+
+    private static void acumular(List<LancamentoTransacao> lancamentos, int sinal,
+                                 Map<ResumoDiario.Chave, Delta> diarios, Map<ResumoMensal.Chave, Delta> mensais) {
+        for (LancamentoTransacao lancamento : lancamentos) {
+            if (lancamento.valor() == null || lancamento.data() == null || lancamento.usuarioId() == null
+                    || lancamento.contaId() == null) {
+                continue;
+            }
+            Long categoriaId = lancamento.categoriaId() != null ? lancamento.categoriaId() : SEM_CATEGORIA;
+            LocalDate data = lancamento.data();
+            BigDecimal valor = sinal < 0 ? lancamento.valor().negate() : lancamento.valor();
+
+            diarios.computeIfAbsent(new ResumoDiario.Chave(lancamento.usuarioId(), data, categoriaId,
+                    lancamento.contaId(), lancamento.tipo()), chave -> new Delta()).somar(valor, sinal);
+            mensais.computeIfAbsent(new ResumoMensal.Chave(lancamento.usuarioId(), data.getYear(),
+                    data.getMonthValue(), categoriaId, lancamento.contaId(), lancamento.tipo()),
+                    chave -> new Delta()).somar(valor, sinal);
+        }
+    }
+
+    private static final class Delta {
+        private BigDecimal total = BigDecimal.ZERO;
+        private long quantidade;
+
+        private void somar(BigDecimal valor, int sinal) {
+            total = total.add(valor);
+            quantidade += sinal;
+        }
+    }
+}
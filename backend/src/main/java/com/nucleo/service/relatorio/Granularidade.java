@@ -0,0 +1,20 @@
+package com.nucleo.service.relatorio;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/** Tamanho do balde de tempo dos relatorios; semanas comecam na segunda-feira. */
+public enum Granularidade {
+    DIA,
+    SEMANA,
+    MES;
+
+    public LocalDate inicioDoBalde(LocalDate data) {
+        return switch (this) {
+            case DIA -> data;
+            case SEMANA -> data.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MES -> data.withDayOfMonth(1);
+        };
+    }
+}
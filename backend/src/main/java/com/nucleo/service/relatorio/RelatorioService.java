@@ -0,0 +1,134 @@
+package com.nucleo.service.relatorio;
+
+import com.nucleo.dto.AgregadoRelatorioDTO;
+import com.nucleo.exception.BusinessException;
+import com.nucleo.model.Categoria;
+import com.nucleo.model.ResumoDiario;
+import com.nucleo.model.ResumoMensal;
+import com.nucleo.model.Transacao;
+import com.nucleo.repository.CategoriaRepository;
+import com.nucleo.repository.ResumoDiarioRepository;
+import com.nucleo.repository.ResumoMensalRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Responde relatorios por dia, semana ou mes apenas a partir dos rollups.
+ * Para MES, os meses cheios do intervalo saem de resumos_mensais e as pontas
+ * (no maximo dois meses parciais) saem de resumos_diarios; o livro de
+ * transacoes nunca e varrido na leitura.
+ */
+@Service
+@RequiredArgsConstructor
+public class RelatorioService {
+
+    private final ResumoDiarioRepository resumoDiarioRepository;
+    private final ResumoMensalRepository resumoMensalRepository;
+    private final CategoriaRepository categoriaRepository;
+
+    @Transactional(readOnly = true)
+    public List<AgregadoRelatorioDTO> consultar(Long usuarioId, LocalDate inicio, LocalDate fim,
+                                                Granularidade granularidade, Long categoriaId,
+                                                Long contaId, Transacao.TipoTransacao tipo) {
+        if (inicio == null || fim == null || inicio.isAfter(fim)) {
+            throw new BusinessException("relatorio.periodo-invalido", null);
+        }
+        Granularidade balde = granularidade != null ? granularidade : Granularidade.MES;
+        Map<Chave, Acumulado> baldes = new TreeMap<>();
+
+        if (balde == Granularidade.MES) {
+            YearMonth primeiroCheio = inicio.getDayOfMonth() == 1 ? YearMonth.from(inicio) : YearMonth.from(inicio).plusMonths(1);
+            YearMonth ultimoCheio = fim.equals(YearMonth.from(fim).atEndOfMonth()) ? YearMonth.from(fim) : YearMonth.from(fim).minusMonths(1);
+
+            if (primeiroCheio.isAfter(ultimoCheio)) {
+                somarDiarios(baldes, balde, usuarioId, inicio, fim, categoriaId, contaId, tipo);
+            } else {
+                for (ResumoMensal resumo : resumoMensalRepository.buscarPorPeriodo(usuarioId, indice(primeiroCheio),
+                        indice(ultimoCheio), categoriaId, contaId, tipo)) {
+                    somar(baldes, LocalDate.of(resumo.getAno(), resumo.getMes(), 1), resumo.getCategoriaId(),
+                            resumo.getContaId(), resumo.getTipo(), resumo.getTotal(), resumo.getQuantidade());
+                }
+                if (inicio.isBefore(primeiroCheio.atDay(1))) {
+                    somarDiarios(baldes, balde, usuarioId, inicio, primeiroCheio.atDay(1).minusDays(1), categoriaId, contaId, tipo);
+                }
+                if (fim.isAfter(ultimoCheio.atEndOfMonth())) {
+                    somarDiarios(baldes, balde, usuarioId, ultimoCheio.atEndOfMonth().plusDays(1), fim, categoriaId, contaId, tipo);
+                }
+            }
+        } else {
+            somarDiarios(baldes, balde, usuarioId, inicio, fim, categoriaId, contaId, tipo);
+        }
+
+        Map<Long, String> nomes = nomesCategorias(baldes.keySet());
+        List<AgregadoRelatorioDTO> resultado = new ArrayList<>(baldes.size());
+        baldes.forEach((chave, acumulado) -> {
+            Long categoria = chave.categoriaId() == AgregadorRelatorios.SEM_CATEGORIA ? null : chave.categoriaId();
+            String nome = categoria != null ? nomes.get(categoria) : null;
+            resultado.add(new AgregadoRelatorioDTO(chave.periodo(), categoria, nome, chave.contaId(),
+                    chave.tipo(), acumulado.total, acumulado.quantidade));
+        });
+        return resultado;
+    }
+
+    private void somarDiarios(Map<Chave, Acumulado> baldes, Granularidade balde, Long usuarioId,
+                              LocalDate inicio, LocalDate fim, Long categoriaId, Long contaId,
+                              Transacao.TipoTransacao tipo) {
+        for (ResumoDiario resumo : resumoDiarioRepository.buscarPorPeriodo(usuarioId, inicio, fim, categoriaId, contaId, tipo)) {
+            somar(baldes, balde.inicioDoBalde(resumo.getData()), resumo.getCategoriaId(), resumo.getContaId(),
+                    resumo.getTipo(), resumo.getTotal(), resumo.getQuantidade());
+        }
+    }
+
+    private static void somar(Map<Chave, Acumulado> baldes, LocalDate periodo, Long categoriaId, Long contaId,
+                              Transacao.TipoTransacao tipo, BigDecimal total, Long quantidade) {
+        // linhas zeradas sobram quando todas as transacoes da chave sao removidas
+        if (quantidade == null || quantidade == 0) {
+            return;
+        }
+        Acumulado acumulado = baldes.computeIfAbsent(new Chave(periodo, tipo, categoriaId, contaId), chave -> new Acumulado());
+        acumulado.total = acumulado.total.add(total);
+        acumulado.quantidade += quantidade;
+    }
+
+    private Map<Long, String> nomesCategorias(Set<Chave> chaves) {
+        Set<Long> ids = chaves.stream()
+                .map(Chave::categoriaId)
+                .filter(id -> id != AgregadorRelatorios.SEM_CATEGORIA)
+                .collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return categoriaRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Categoria::getId, Categoria::getNome));
+    }
+
+    private static int indice(YearMonth mes) {
+        return mes.getYear() * 12 + mes.getMonthValue();
+    }
+
+    private record Chave(LocalDate periodo, Transacao.TipoTransacao tipo, Long categoriaId, Long contaId)
+            implements Comparable<Chave> {
+
+        private static final Comparator<Chave> ORDEM = Comparator.comparing(Chave::periodo)
+                .thenComparing(Chave::tipo)
+                .thenComparing(Chave::categoriaId)
+                .thenComparing(Chave::contaId);
+
+        @Override
+        public int compareTo(Chave outra) {
+            return ORDEM.compare(this, outra);
+        }
+    }
+
+    private static final class Acumulado {
+        private BigDecimal total = BigDecimal.ZERO;
+        private long quantidade;
+    }
+}
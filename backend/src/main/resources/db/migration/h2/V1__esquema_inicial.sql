@@ -0,0 +1,225 @@
+-- Esquema inicial, equivalente ao que o Hibernate gerava com ddl-auto=create-only.
+-- A partir daqui o esquema evolui so por migracoes; o Hibernate apenas valida.
+
+create sequence alertas_seq start with 1 increment by 50;
+
+create sequence beneficios_seq start with 1 increment by 50;
+
+create sequence categorias_seq start with 1 increment by 50;
+
+create sequence contas_bancarias_seq start with 1 increment by 50;
+
+create sequence notificacoes_email_seq start with 1 increment by 50;
+
+create sequence transacoes_seq start with 1 increment by 50;
+
+create sequence usuarios_seq start with 1 increment by 50;
+
+create table alertas (
+    ativo boolean not null,
+    janela_dias integer,
+    limite_valor numeric(14,2),
+    notificar_email boolean not null,
+    categoria_id bigint,
+    conta_id bigint,
+    data_atualizacao timestamp(6),
+    data_criacao timestamp(6),
+    id bigint not null,
+    usuario_id bigint not null,
+    nome_regra varchar(120) not null,
+    tipo enum ('GASTO_ATIPICO','LIMITE_CATEGORIA','SALDO_MINIMO') not null,
+    primary key (id)
+);
+
+create table beneficios (
+    ativo boolean not null,
+    valor numeric(10,2),
+    data_atualizacao timestamp(6),
+    data_criacao timestamp(6),
+    id bigint not null,
+    usuario_id bigint not null,
+    nome varchar(100) not null,
+    descricao varchar(255),
+    tipo enum ('AUXILIO_CRECHE','AUXILIO_EDUCACAO','GYMPASS','OUTRO','PLANO_ODONTO','PLANO_SAUDE','SEGURO_VIDA','VA','VR','VT') not null,
+    primary key (id)
+);
+
+create table categorias (
+    ativo boolean not null,
+    is_global boolean not null,
+    data_atualizacao timestamp(6),
+    data_criacao timestamp(6),
+    id bigint not null,
+    usuario_id bigint,
+    descricao varchar(255),
+    nome varchar(255) not null unique,
+    tipo enum ('ENTRADA','SAIDA'),
+    primary key (id)
+);
+
+create table contas_bancarias (
+    ativo boolean not null,
+    moeda varchar(3),
+    saldo_inicial numeric(14,2),
+    data_atualizacao timestamp(6),
+    data_criacao timestamp(6),
+    deletado_em timestamp(6),
+    id bigint not null,
+    usuario_id bigint not null,
+    apelido varchar(80),
+    instituicao varchar(80) not null,
+    tipo enum ('CARTAO','CORRENTE','POUPANCA') not null,
+    primary key (id)
+);
+
+create table metas (
+    data_limite date not null,
+    valor_alvo numeric(14,2) not null,
+    categoria_id bigint,
+    id bigint generated by default as identity,
+    usuario_id bigint not null,
+    titulo varchar(120) not null,
+    status enum ('ativa','cancelada','concluida') not null,
+    primary key (id)
+);
+
+create table notificacoes_email (
+    ativo boolean not null,
+    tentativas integer not null,
+    alerta_id bigint,
+    data_atualizacao timestamp(6),
+    data_criacao timestamp(6),
+    enviada_em timestamp(6),
+    id bigint not null,
+    proxima_tentativa timestamp(6) not null,
+    usuario_id bigint not null,
+    ultimo_erro varchar(500),
+    corpo varchar(2000) not null,
+    assunto varchar(255) not null,
+    destinatario varchar(255) not null,
+    status enum ('COALESCIDA','ENVIADA','FALHA','PENDENTE') not null,
+    primary key (id)
+);
+
+create table resumos_diarios (
+    data date not null,
+    total numeric(16,2) not null,
+    categoria_id bigint not null,
+    conta_id bigint not null,
+    quantidade bigint not null,
+    usuario_id bigint not null,
+    tipo enum ('ENTRADA','SAIDA') not null,
+    primary key (data, categoria_id, conta_id, usuario_id, tipo)
+);
+
+create table resumos_mensais (
+    ano integer not null,
+    mes integer not null,
+    total numeric(16,2) not null,
+    categoria_id bigint not null,
+    conta_id bigint not null,
+    quantidade bigint not null,
+    usuario_id bigint not null,
+    tipo enum ('ENTRADA','SAIDA') not null,
+    primary key (ano, mes, categoria_id, conta_id, usuario_id, tipo)
+);
+
+create table saldos_conta (
+    saldo_inicial numeric(14,2) not null,
+    total_entradas numeric(14,2) not null,
+    total_saidas numeric(14,2) not null,
+    conta_id bigint not null,
+    usuario_id bigint not null,
+    primary key (conta_id)
+);
+
+create table saldos_usuario (
+    total_entradas numeric(14,2) not null,
+    total_saidas numeric(14,2) not null,
+    usuario_id bigint not null,
+    primary key (usuario_id)
+);
+
+create table transacoes (
+    ativo boolean not null,
+    data date not null,
+    valor numeric(10,2) not null,
+    categoria_id bigint,
+    conta_id bigint not null,
+    data_atualizacao timestamp(6),
+    data_criacao timestamp(6),
+    id bigint not null,
+    usuario_id bigint not null,
+    descricao varchar(255) not null,
+    tipo enum ('ENTRADA','SAIDA') not null,
+    primary key (id)
+);
+
+create table usuario_roles (
+    usuario_id bigint not null,
+    roles enum ('ROLE_ADMIN','ROLE_USER')
+);
+
+create table usuarios (
+    ativo boolean not null,
+    data_atualizacao timestamp(6),
+    data_criacao timestamp(6),
+    id bigint not null,
+    email varchar(255) not null unique,
+    nome varchar(255),
+    senha varchar(255) not null,
+    primary key (id)
+);
+
+create index idx_transacoes_usuario_data_id
+   on transacoes (usuario_id, data, id);
+
+alter table if exists alertas
+   add constraint FK65egeb6pqgv3cqys40k400qoc
+   foreign key (categoria_id)
+   references categorias;
+
+alter table if exists alertas
+   add constraint FKr1ebva9yxsi729dyjgr90wvw0
+   foreign key (conta_id)
+   references contas_bancarias;
+
+alter table if exists alertas
+   add constraint FKp8jyskjm9vnd9pn5ghns87sm
+   foreign key (usuario_id)
+   references usuarios;
+
+alter table if exists beneficios
+   add constraint FKpsd7vbtyq70abtrgwa36pw72y
+   foreign key (usuario_id)
+   references usuarios;
+
+alter table if exists categorias
+   add constraint FK7lnxm7e5lqkbw5qe0fy2pntl9
+   foreign key (usuario_id)
+   references usuarios;
+
+alter table if exists contas_bancarias
+   add constraint FKjhojqelvcv8pisv2g0su4qaf9
+   foreign key (usuario_id)
+   references usuarios;
+
+alter table if exists transacoes
+   add constraint FKpo0f1uru9p0eagc24edw76mw8
+   foreign key (categoria_id)
+   references categorias;
+
+alter table if exists transacoes
+   add constraint FK14hat02w0iqhvjduidabsf00g
+   foreign key (conta_id)
+   references contas_bancarias;
+
+alter table if exists transacoes
+   add constraint FKkcpkacordh1eujovjxlgdmhcx
+   foreign key (usuario_id)
+   references usuarios;
+
+alter table if exists usuario_roles
+   add constraint FKuu9tea04xb29m2km5lwe46ua
+   foreign key (usuario_id)
+   references usuarios;
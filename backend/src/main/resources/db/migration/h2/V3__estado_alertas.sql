@@ -0,0 +1,13 @@
+-- Estado de disparo de cada regra: se esta estourada, quando e com que valor notificou pela ultima vez.
+-- Projecao como saldos_conta, sem chave estrangeira; a linha nasce no primeiro disparo.
+create table estados_alerta (
+    alerta_id bigint not null,
+    em_disparo boolean not null,
+    ultimo_disparo timestamp(6) not null,
+    ultimo_valor numeric(16,2),
+    disparos bigint not null,
+    primary key (alerta_id)
+);
+
+-- intervalo minimo entre duas notificacoes da mesma regra enquanto ela segue estourada
+alter table alertas add column cooldown_minutos integer;
@@ -0,0 +1,20 @@
+-- Transacoes desativadas (conta ou usuario removidos) ha mais de arquivamento.transacoes.dias
+-- saem de transacoes para ca, para que a tabela quente e os seus indices so tenham linhas vivas.
+-- Sem FK: o arquivo guarda os ids como estavam e sobrevive a limpeza das tabelas de origem.
+create table transacoes_arquivo (
+    id bigint not null,
+    usuario_id bigint not null,
+    conta_id bigint not null,
+    categoria_id bigint,
+    descricao varchar(255) not null,
+    valor numeric(10,2) not null,
+    data date not null,
+    tipo enum ('ENTRADA','SAIDA') not null,
+    data_criacao timestamp(6),
+    data_atualizacao timestamp(6),
+    arquivada_em timestamp(6) not null,
+    primary key (id)
+);
+
+create index idx_transacoes_arquivo_usuario_data
+    on transacoes_arquivo (usuario_id, data);
@@ -0,0 +1,259 @@
+-- Esquema inicial, equivalente ao que o Hibernate gerava com ddl-auto=create-only.
+-- A partir daqui o esquema evolui so por migracoes; o Hibernate apenas valida.
+
+create table alertas (
+    ativo bit not null,
+    janela_dias integer,
+    limite_valor decimal(14,2),
+    notificar_email bit not null,
+    categoria_id bigint,
+    conta_id bigint,
+    data_atualizacao datetime(6),
+    data_criacao datetime(6),
+    id bigint not null,
+    usuario_id bigint not null,
+    nome_regra varchar(120) not null,
+    tipo enum ('GASTO_ATIPICO','LIMITE_CATEGORIA','SALDO_MINIMO') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table alertas_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into alertas_seq values ( 1 );
+
+create table beneficios (
+    ativo bit not null,
+    valor decimal(10,2),
+    data_atualizacao datetime(6),
+    data_criacao datetime(6),
+    id bigint not null,
+    usuario_id bigint not null,
+    nome varchar(100) not null,
+    descricao varchar(255),
+    tipo enum ('AUXILIO_CRECHE','AUXILIO_EDUCACAO','GYMPASS','OUTRO','PLANO_ODONTO','PLANO_SAUDE','SEGURO_VIDA','VA','VR','VT') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table beneficios_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into beneficios_seq values ( 1 );
+
+create table categorias (
+    ativo bit not null,
+    is_global bit not null,
+    data_atualizacao datetime(6),
+    data_criacao datetime(6),
+    id bigint not null,
+    usuario_id bigint,
+    descricao varchar(255),
+    nome varchar(255) not null,
+    tipo enum ('ENTRADA','SAIDA'),
+    primary key (id)
+) engine=InnoDB;
+
+create table categorias_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into categorias_seq values ( 1 );
+
+create table contas_bancarias (
+    ativo bit not null,
+    moeda varchar(3),
+    saldo_inicial decimal(14,2),
+    data_atualizacao datetime(6),
+    data_criacao datetime(6),
+    deletado_em datetime(6),
+    id bigint not null,
+    usuario_id bigint not null,
+    apelido varchar(80),
+    instituicao varchar(80) not null,
+    tipo enum ('CARTAO','CORRENTE','POUPANCA') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table contas_bancarias_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into contas_bancarias_seq values ( 1 );
+
+create table metas (
+    data_limite date not null,
+    valor_alvo decimal(14,2) not null,
+    categoria_id bigint,
+    id bigint not null auto_increment,
+    usuario_id bigint not null,
+    titulo varchar(120) not null,
+    status enum ('ativa','cancelada','concluida') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table notificacoes_email (
+    ativo bit not null,
+    tentativas integer not null,
+    alerta_id bigint,
+    data_atualizacao datetime(6),
+    data_criacao datetime(6),
+    enviada_em datetime(6),
+    id bigint not null,
+    proxima_tentativa datetime(6) not null,
+    usuario_id bigint not null,
+    ultimo_erro varchar(500),
+    corpo varchar(2000) not null,
+    assunto varchar(255) not null,
+    destinatario varchar(255) not null,
+    status enum ('COALESCIDA','ENVIADA','FALHA','PENDENTE') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table notificacoes_email_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into notificacoes_email_seq values ( 1 );
+
+create table resumos_diarios (
+    data date not null,
+    total decimal(16,2) not null,
+    categoria_id bigint not null,
+    conta_id bigint not null,
+    quantidade bigint not null,
+    usuario_id bigint not null,
+    tipo enum ('ENTRADA','SAIDA') not null,
+    primary key (data, categoria_id, conta_id, usuario_id, tipo)
+) engine=InnoDB;
+
+create table resumos_mensais (
+    ano integer not null,
+    mes integer not null,
+    total decimal(16,2) not null,
+    categoria_id bigint not null,
+    conta_id bigint not null,
+    quantidade bigint not null,
+    usuario_id bigint not null,
+    tipo enum ('ENTRADA','SAIDA') not null,
+    primary key (ano, mes, categoria_id, conta_id, usuario_id, tipo)
+) engine=InnoDB;
+
+create table saldos_conta (
+    saldo_inicial decimal(14,2) not null,
+    total_entradas decimal(14,2) not null,
+    total_saidas decimal(14,2) not null,
+    conta_id bigint not null,
+    usuario_id bigint not null,
+    primary key (conta_id)
+) engine=InnoDB;
+
+create table saldos_usuario (
+    total_entradas decimal(14,2) not null,
+    total_saidas decimal(14,2) not null,
+    usuario_id bigint not null,
+    primary key (usuario_id)
+) engine=InnoDB;
+
+create table transacoes (
+    ativo bit not null,
+    data date not null,
+    valor decimal(10,2) not null,
+    categoria_id bigint,
+    conta_id bigint not null,
+    data_atualizacao datetime(6),
+    data_criacao datetime(6),
+    id bigint not null,
+    usuario_id bigint not null,
+    descricao varchar(255) not null,
+    tipo enum ('ENTRADA','SAIDA') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table transacoes_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into transacoes_seq values ( 1 );
+
+create table usuario_roles (
+    usuario_id bigint not null,
+    roles enum ('ROLE_ADMIN','ROLE_USER')
+) engine=InnoDB;
+
+create table usuarios (
+    ativo bit not null,
+    data_atualizacao datetime(6),
+    data_criacao datetime(6),
+    id bigint not null,
+    email varchar(255) not null,
+    nome varchar(255),
+    senha varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table usuarios_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into usuarios_seq values ( 1 );
+
+alter table categorias
+   add constraint UK9qte5svl2i6n82lpdyyheoi1h unique (nome);
+
+create index idx_transacoes_usuario_data_id
+   on transacoes (usuario_id, data, id);
+
+alter table usuarios
+   add constraint UKkfsp0s1tflm1cwlj8idhqsad0 unique (email);
+
+alter table alertas
+   add constraint FK65egeb6pqgv3cqys40k400qoc
+   foreign key (categoria_id)
+   references categorias (id);
+
+alter table alertas
+   add constraint FKr1ebva9yxsi729dyjgr90wvw0
+   foreign key (conta_id)
+   references contas_bancarias (id);
+
+alter table alertas
+   add constraint FKp8jyskjm9vnd9pn5ghns87sm
+   foreign key (usuario_id)
+   references usuarios (id);
+
+alter table beneficios
+   add constraint FKpsd7vbtyq70abtrgwa36pw72y
+   foreign key (usuario_id)
+   references usuarios (id);
+
+alter table categorias
+   add constraint FK7lnxm7e5lqkbw5qe0fy2pntl9
+   foreign key (usuario_id)
+   references usuarios (id);
+
+alter table contas_bancarias
+   add constraint FKjhojqelvcv8pisv2g0su4qaf9
+   foreign key (usuario_id)
+   references usuarios (id);
+
+alter table transacoes
+   add constraint FKpo0f1uru9p0eagc24edw76mw8
+   foreign key (categoria_id)
+   references categorias (id);
+
+alter table transacoes
+   add constraint FK14hat02w0iqhvjduidabsf00g
+   foreign key (conta_id)
+   references contas_bancarias (id);
+
+alter table transacoes
+   add constraint FKkcpkacordh1eujovjxlgdmhcx
+   foreign key (usuario_id)
+   references usuarios (id);
+
+alter table usuario_roles
+   add constraint FKuu9tea04xb29m2km5lwe46ua
+   foreign key (usuario_id)
+   references usuarios (id);
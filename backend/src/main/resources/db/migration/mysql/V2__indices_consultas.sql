@@ -0,0 +1,42 @@
+-- Indices compostos no formato das consultas dos repositorios: igualdades primeiro
+-- (usuario_id, ativo e tipo/categoria), depois a faixa de data e o id do desempate da paginacao,
+-- ambos decrescentes como o ORDER BY data DESC, id DESC das listagens (o H2 so dispensa a ordenacao
+-- quando a direcao do indice bate com a da consulta).
+-- Nem H2 nem MySQL tem indice parcial (WHERE ativo = true), entao ativo entra como coluna
+-- de igualdade logo apos o dono; o efeito e o mesmo: linhas inativas ficam num trecho
+-- separado do indice e nao sao percorridas.
+
+-- listagens, periodo e keyset sem filtro de tipo (ORDER BY data DESC, id DESC sai do indice)
+create index idx_transacoes_usuario_ativo_data_id
+    on transacoes (usuario_id, ativo, data desc, id desc);
+
+-- listagem/keyset por tipo, soma por usuario e tipo e serie diaria do avaliador de alertas
+create index idx_transacoes_usuario_ativo_tipo_data_id
+    on transacoes (usuario_id, ativo, tipo, data desc, id desc);
+
+-- listagem por categoria
+create index idx_transacoes_usuario_ativo_categoria_data_id
+    on transacoes (usuario_id, ativo, categoria_id, data desc, id desc);
+
+-- soma por conta e tipo (reconciliacao de saldos) coberta pelo indice, sem ler a tabela
+create index idx_transacoes_conta_ativo_tipo_valor
+    on transacoes (conta_id, ativo, tipo, valor);
+
+-- coberto pelo idx_transacoes_usuario_ativo_data_id
+drop index idx_transacoes_usuario_data_id on transacoes;
+
+create index idx_alertas_usuario_ativo_tipo
+    on alertas (usuario_id, ativo, tipo);
+
+create index idx_contas_bancarias_usuario_ativo
+    on contas_bancarias (usuario_id, ativo);
+
+create index idx_contas_bancarias_usuario_apelido
+    on contas_bancarias (usuario_id, apelido);
+
+create index idx_categorias_usuario_ativo_tipo
+    on categorias (usuario_id, ativo, tipo);
+
+-- categorias globais por tipo (OR com as do usuario vira uniao de duas faixas)
+create index idx_categorias_global_ativo_tipo
+    on categorias (is_global, ativo, tipo);
@@ -0,0 +1,16 @@
+-- Progresso de cada meta com categoria: soma das transacoes da categoria desde o inicio da meta.
+-- Projecao como saldos_conta, sem chave estrangeira; a linha nasce na criacao da meta ou na
+-- primeira leitura de uma meta antiga, semeada a partir do livro.
+create table progressos_meta (
+    meta_id bigint not null,
+    usuario_id bigint not null,
+    categoria_id bigint not null,
+    data_inicio date not null,
+    valor_acumulado decimal(14,2) not null,
+    aportes bigint not null,
+    concluida_em date,
+    primary key (meta_id)
+) engine=InnoDB;
+
+-- cada escrita de transacao atualiza as metas do usuario ligadas a categoria
+create index idx_progressos_meta_usuario_categoria on progressos_meta (usuario_id, categoria_id);
@@ -0,0 +1,29 @@
+-- Refresh tokens opacos: guarda-se so o SHA-256 do valor. Cada login abre uma familia; cada
+-- renovacao marca o token usado e emite o proximo da mesma familia. Reapresentar um token ja
+-- usado revoga a familia inteira.
+create table refresh_tokens (
+    hash varchar(64) not null,
+    usuario_id bigint not null,
+    familia varchar(36) not null,
+    criado_em datetime(6) not null,
+    expira_em datetime(6) not null,
+    usado_em datetime(6),
+    revogado_em datetime(6),
+    primary key (hash)
+) engine=InnoDB;
+
+create index idx_refresh_tokens_familia on refresh_tokens (familia);
+create index idx_refresh_tokens_usuario on refresh_tokens (usuario_id);
+
+-- Lista de revogacao dos tokens de acesso, lida por um filtro de Bloom em memoria.
+-- chave 'jti:<id>' revoga um token; 'usuario:<id>' revoga os emitidos ate revogado_em.
+-- Depois de expira_em nenhum token afetado segue valido e a linha pode ser apagada.
+create table revogacoes_token (
+    chave varchar(80) not null,
+    usuario_id bigint,
+    revogado_em datetime(6) not null,
+    expira_em datetime(6) not null,
+    primary key (chave)
+) engine=InnoDB;
+
+create index idx_revogacoes_token_expira on revogacoes_token (expira_em);
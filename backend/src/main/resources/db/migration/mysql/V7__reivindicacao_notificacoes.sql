@@ -0,0 +1,5 @@
+-- A drenagem reivindica as notificacoes antes de enviar: passam a EM_ENVIO com o lote da instancia
+-- e proxima_tentativa no fim da concessao. Se a instancia cair, vencida a concessao elas voltam a sair.
+alter table notificacoes_email modify column status enum ('COALESCIDA','EM_ENVIO','ENVIADA','FALHA','PENDENTE') not null;
+
+alter table notificacoes_email add column lote_envio varchar(36);
@@ -0,0 +1,95 @@
+package com.nucleo.backend.benchmark;
+
+import com.nucleo.model.Usuario;
+import com.nucleo.repository.UsuarioRepository;
+import com.nucleo.security.CachePrincipais;
+import com.nucleo.security.JwtAuthenticationFilter;
+import com.nucleo.security.JwtTokenProvider;
+import com.nucleo.security.UserDetailsImpl;
+import com.nucleo.security.UserDetailsServiceImpl;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Requisicoes por segundo no JwtAuthenticationFilter: caminho antigo (dois parses
+ * do token + findByEmailAndAtivoTrue com os roles) contra o cache de principais.
+ * Roda com: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class AutenticacaoJwtBenchmark {
+
+    private static final int AQUECIMENTO = 2_000;
+    private static final int MEDICAO = 20_000;
+
+    @Autowired private UsuarioRepository usuarioRepository;
+    @Autowired private JwtTokenProvider jwtTokenProvider;
+    @Autowired private UserDetailsServiceImpl userDetailsService;
+    @Autowired private CachePrincipais cachePrincipais;
+    @Autowired private JwtAuthenticationFilter filtro;
+
+    @Test
+    void comparaRequisicoesPorSegundo() throws Exception {
+        Usuario usuario = usuarioRepository.save(Usuario.builder()
+                .nome("Benchmark").email("bench-jwt@nucleo.com").senha("x").build());
+        String token = jwtTokenProvider.generateToken(UserDetailsImpl.build(usuario));
+        FilterChain cadeia = (request, response) -> assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+
+        Requisicao antigo = () -> {
+            // o que o filtro fazia antes do cache
+            String email = jwtTokenProvider.getUsernameFromToken(token);
+            UserDetails detalhes = userDetailsService.loadUserByUsername(email);
+            if (jwtTokenProvider.validateToken(token)) {
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(detalhes, null, detalhes.getAuthorities()));
+            }
+            cadeia.doFilter(null, null);
+        };
+        Requisicao comCache = () -> {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/transacoes/me");
+            request.addHeader("Authorization", "Bearer " + token);
+            filtro.doFilter(request, new MockHttpServletResponse(), cadeia);
+        };
+
+        double porSegundoAntigo = medir(antigo);
+        cachePrincipais.limpar();
+        double porSegundoCache = medir(comCache);
+
+        System.out.printf("[benchmark] filtro JWT: antigo %.0f req/s | cache %.0f req/s | %.1fx%n",
+                porSegundoAntigo, porSegundoCache, porSegundoCache / porSegundoAntigo);
+    }
+
+    private double medir(Requisicao requisicao) throws Exception {
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            executar(requisicao);
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < MEDICAO; i++) {
+            executar(requisicao);
+        }
+        return MEDICAO / ((System.nanoTime() - inicio) / 1e9);
+    }
+
+    private static void executar(Requisicao requisicao) throws Exception {
+        try {
+            requisicao.executar();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Requisicao {
+        void executar() throws Exception;
+    }
+}
@@ -0,0 +1,124 @@
+package com.nucleo.backend.benchmark;
+
+import com.nucleo.model.*;
+import com.nucleo.repository.*;
+import com.nucleo.service.SaldoService;
+import com.nucleo.service.alerta.AvaliadorAlertas;
+import com.nucleo.service.listener.LancamentoTransacao;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compara inserts por segundo do caminho antigo de avaliacao de alertas
+ * (releitura de 30 dias + duas somas por regra SALDO_MINIMO) com o avaliador
+ * incremental, que le o saldo da projecao saldos_conta. Roda com: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest
+class AvaliacaoAlertasBenchmark {
+
+    private static final int HISTORICO = 20_000;
+    private static final int AQUECIMENTO = 200;
+    private static final int MEDICAO = 2_000;
+
+    @Autowired private UsuarioRepository usuarioRepository;
+    @Autowired private CategoriaRepository categoriaRepository;
+    @Autowired private ContasBancariasRepository contasBancariasRepository;
+    @Autowired private TransacaoRepository transacaoRepository;
+    @Autowired private AlertaRepository alertaRepository;
+    @Autowired private AvaliadorAlertas avaliadorAlertas;
+    @Autowired private SaldoService saldoService;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void comparaInsertsPorSegundo() {
+        Usuario usuario = usuarioRepository.save(Usuario.builder()
+                .nome("Benchmark").email("bench-alertas@nucleo.com").senha("x").build());
+        Categoria categoria = categoriaRepository.save(Categoria.builder()
+                .nome("Bench Alertas").tipo(Categoria.TipoCategoria.SAIDA).build());
+        ContasBancarias conta = contasBancariasRepository.save(ContasBancarias.builder()
+                .instituicao("Bench").tipo(TipoConta.CORRENTE).usuario(usuario).build());
+
+        List<Transacao> historico = new ArrayList<>(HISTORICO);
+        for (int i = 0; i < HISTORICO; i++) {
+            historico.add(nova(usuario, categoria, conta, LocalDate.now().minusDays(random.nextInt(365))));
+        }
+        transacaoRepository.saveAll(historico);
+
+        alertaRepository.save(Alerta.builder().usuario(usuario).nomeRegra("limite").tipo(Alerta.TipoAlerta.LIMITE_CATEGORIA)
+                .categoria(categoria).limiteValor(new BigDecimal("1000000")).build());
+        alertaRepository.save(Alerta.builder().usuario(usuario).nomeRegra("saldo 1").tipo(Alerta.TipoAlerta.SALDO_MINIMO)
+                .conta(conta).limiteValor(new BigDecimal("-100000000")).build());
+        alertaRepository.save(Alerta.builder().usuario(usuario).nomeRegra("saldo 2").tipo(Alerta.TipoAlerta.SALDO_MINIMO)
+                .conta(conta).limiteValor(new BigDecimal("-100000000")).build());
+
+        medir(AQUECIMENTO, () -> inserirLegado(usuario, categoria, conta));
+        double legado = medir(MEDICAO, () -> inserirLegado(usuario, categoria, conta));
+
+        medir(AQUECIMENTO, () -> inserirIncremental(usuario, categoria, conta));
+        double incremental = medir(MEDICAO, () -> inserirIncremental(usuario, categoria, conta));
+
+        System.out.printf("[benchmark] alertas: legado %.0f inserts/s | incremental %.0f inserts/s | %.1fx%n",
+                legado, incremental, incremental / legado);
+    }
+
+    private double medir(int quantidade, Runnable insert) {
+        long inicio = System.nanoTime();
+        for (int i = 0; i < quantidade; i++) {
+            transactionTemplate.executeWithoutResult(status -> insert.run());
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        return quantidade / segundos;
+    }
+
+    private void inserirLegado(Usuario usuario, Categoria categoria, ContasBancarias conta) {
+        Transacao nova = nova(usuario, categoria, conta, LocalDate.now());
+        BigDecimal gastos = transacaoRepository.findByUsuarioAndPeriodo(usuario.getId(), LocalDate.now().minusDays(30), LocalDate.now())
+                .stream()
+                .filter(t -> t.getTipo() == Transacao.TipoTransacao.SAIDA)
+                .filter(t -> t.getCategoria().equals(categoria))
+                .map(Transacao::getValor)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        for (Alerta alerta : alertaRepository.findByUsuarioAndAtivoTrue(usuario)) {
+            if (alerta.getTipo() == Alerta.TipoAlerta.LIMITE_CATEGORIA) {
+                gastos.compareTo(alerta.getLimiteValor());
+            } else if (alerta.getTipo() == Alerta.TipoAlerta.SALDO_MINIMO) {
+                transacaoRepository.sumValorByUsuarioIdAndTipo(usuario.getId(), Transacao.TipoTransacao.ENTRADA)
+                        .subtract(transacaoRepository.sumValorByUsuarioIdAndTipo(usuario.getId(), Transacao.TipoTransacao.SAIDA))
+                        .compareTo(alerta.getLimiteValor());
+            }
+        }
+        transacaoRepository.save(nova);
+    }
+
+    private void inserirIncremental(Usuario usuario, Categoria categoria, ContasBancarias conta) {
+        Transacao salva = transacaoRepository.save(nova(usuario, categoria, conta, LocalDate.now()));
+        LancamentoTransacao lancamento = LancamentoTransacao.fromEntity(salva);
+        saldoService.aoIncluir(lancamento);
+        avaliadorAlertas.aoIncluir(lancamento);
+        avaliadorAlertas.avaliar(lancamento);
+    }
+
+    private Transacao nova(Usuario usuario, Categoria categoria, ContasBancarias conta, LocalDate data) {
+        return Transacao.builder()
+                .descricao("bench")
+                .valor(BigDecimal.valueOf(1 + random.nextInt(50_000), 2))
+                .data(data)
+                .tipo(random.nextInt(5) == 0 ? Transacao.TipoTransacao.ENTRADA : Transacao.TipoTransacao.SAIDA)
+                .usuario(usuario)
+                .categoria(categoria)
+                .conta(conta)
+                .build();
+    }
+}
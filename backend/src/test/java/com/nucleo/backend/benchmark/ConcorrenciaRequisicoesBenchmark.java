@@ -0,0 +1,155 @@
+package com.nucleo.backend.benchmark;
+
+import com.nucleo.BackendApplication;
+import com.nucleo.model.Categoria;
+import com.nucleo.model.Usuario;
+import com.nucleo.repository.CategoriaRepository;
+import com.nucleo.repository.ContasBancariasRepository;
+import com.nucleo.repository.UsuarioRepository;
+import com.nucleo.security.JwtTokenProvider;
+import com.nucleo.security.UserDetailsImpl;
+import com.nucleo.service.carga.GeradorCarga;
+import com.nucleo.service.carga.ParametrosCarga;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * p50/p99 de GET /api/transacoes/me e POST /api/transacoes com 2.000 clientes simultaneos
+ * (-Dconcorrencia.clientes), cada um fazendo -Dconcorrencia.rodadas pares GET+POST, contra
+ * a aplicacao em threads de plataforma e, em Java 21+, no perfil "virtual". Os dois modos
+ * usam o mesmo pool do Hikari (20). Roda com: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class ConcorrenciaRequisicoesBenchmark {
+
+    private static final int CLIENTES = Integer.getInteger("concorrencia.clientes", 2_000);
+    private static final int RODADAS = Integer.getInteger("concorrencia.rodadas", 1);
+
+    @Test
+    void comparaLatencias() throws Exception {
+        medir("plataforma");
+        if (Runtime.version().feature() >= 21) {
+            medir("virtual");
+        } else {
+            System.out.printf("[benchmark] concorrencia virtual: requer Java 21 (JVM atual %d); rode com -Pjava21%n",
+                    Runtime.version().feature());
+        }
+    }
+
+    private void medir(String modo) throws Exception {
+        // a fila por conexao passa dos 30s padrao do Hikari em maquinas pequenas; aqui mede-se a espera
+        List<String> argumentos = new ArrayList<>(List.of("--server.port=0", "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN", "--spring.datasource.url=jdbc:h2:mem:concorrencia-" + modo,
+                "--spring.datasource.hikari.maximum-pool-size=20", "--spring.datasource.hikari.connection-timeout=300000",
+                "--app.swagger.auto-open=false"));
+        if (modo.equals("virtual")) {
+            argumentos.add("--spring.profiles.active=virtual");
+        }
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(BackendApplication.class)
+                .run(argumentos.toArray(String[]::new))) {
+            ParametrosCarga parametros = new ParametrosCarga(200, 1, 10, 1, 42L, 1000, null);
+            contexto.getBean(GeradorCarga.class).gerar(parametros);
+
+            JwtTokenProvider jwt = contexto.getBean(JwtTokenProvider.class);
+            UsuarioRepository usuarioRepository = contexto.getBean(UsuarioRepository.class);
+            ContasBancariasRepository contasRepository = contexto.getBean(ContasBancariasRepository.class);
+            Long categoriaId = contexto.getBean(CategoriaRepository.class)
+                    .findByIsGlobalTrueAndTipoAndAtivoTrue(Categoria.TipoCategoria.SAIDA).get(0).getId();
+            List<Cliente> clientes = new ArrayList<>();
+            for (int i = 0; i < parametros.usuarios(); i++) {
+                Usuario usuario = usuarioRepository.findByEmailAndAtivoTrue(GeradorCarga.email(parametros.semente(), i))
+                        .orElseThrow();
+                clientes.add(new Cliente(jwt.generateToken(UserDetailsImpl.build(usuario)),
+                        contasRepository.findByUsuarioIdAndAtivoTrue(usuario.getId()).get(0).getId()));
+            }
+
+            String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+            HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(30)).build();
+            long[][] leituras = new long[CLIENTES][RODADAS];
+            long[][] escritas = new long[CLIENTES][RODADAS];
+            AtomicLong erros = new AtomicLong();
+            CountDownLatch largada = new CountDownLatch(1);
+
+            ExecutorService executor = Executors.newFixedThreadPool(CLIENTES);
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int c = 0; c < CLIENTES; c++) {
+                int indice = c;
+                Cliente cliente = clientes.get(c % clientes.size());
+                tarefas.add(executor.submit(() -> {
+                    largada.await();
+                    for (int r = 0; r < RODADAS; r++) {
+                        leituras[indice][r] = cronometrar(http, erros, HttpRequest.newBuilder(URI.create(base + "/api/transacoes/me"))
+                                .header("Authorization", "Bearer " + cliente.token()).GET().build());
+                        String corpo = """
+                                {"descricao":"carga %d","valor":12.34,"data":"%s","tipo":"SAIDA","categoriaId":%d,"contaId":%d}"""
+                                .formatted(indice, LocalDate.now(), categoriaId, cliente.contaId());
+                        escritas[indice][r] = cronometrar(http, erros, HttpRequest.newBuilder(URI.create(base + "/api/transacoes"))
+                                .header("Authorization", "Bearer " + cliente.token())
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(corpo)).build());
+                    }
+                    return null;
+                }));
+            }
+            long inicio = System.nanoTime();
+            largada.countDown();
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            executor.shutdown();
+
+            imprimir(modo, "GET /api/transacoes/me", leituras);
+            imprimir(modo, "POST /api/transacoes", escritas);
+            System.out.printf("[benchmark] concorrencia %-10s %d clientes x %d rodadas em %.1fs | %d erros%n",
+                    modo, CLIENTES, RODADAS, segundos, erros.get());
+            assertThat(erros.get()).isZero();
+        }
+    }
+
+    private static long cronometrar(HttpClient http, AtomicLong erros, HttpRequest requisicao) {
+        long inicio = System.nanoTime();
+        try {
+            HttpResponse<Void> resposta = http.send(requisicao, HttpResponse.BodyHandlers.discarding());
+            if (resposta.statusCode() >= 300) {
+                erros.incrementAndGet();
+            }
+        } catch (Exception e) {
+            erros.incrementAndGet();
+        }
+        return System.nanoTime() - inicio;
+    }
+
+    private static void imprimir(String modo, String rota, long[][] latencias) {
+        long[] ordenadas = Arrays.stream(latencias).flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("[benchmark] concorrencia %-10s %-24s p50 %7.1f ms | p99 %7.1f ms | max %7.1f ms%n",
+                modo, rota, percentil(ordenadas, 0.50), percentil(ordenadas, 0.99), ordenadas[ordenadas.length - 1] / 1e6);
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        return ordenadas[(int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1)] / 1e6;
+    }
+
+    private record Cliente(String token, Long contaId) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.nucleo.backend.benchmark;
+
+import com.nucleo.model.Alerta;
+import com.nucleo.model.Categoria;
+import com.nucleo.model.Transacao;
+import com.nucleo.repository.EstadoAlertaRepository;
+import com.nucleo.repository.TransacaoRepository;
+import com.nucleo.service.AlertaService;
+import com.nucleo.service.SaldoService;
+import com.nucleo.service.alerta.AvaliadorAlertas;
+import com.nucleo.service.alerta.DisparoAlerta;
+import com.nucleo.service.alerta.EstadoAlertas;
+import com.nucleo.service.listener.LancamentoTransacao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+/**
+ * Notificacoes de LIMITE_CATEGORIA em um dia em que cada usuario (-Ddisparos.usuarios, padrao 2.000)
+ * faz -Ddisparos.transacoes gastos (padrao 50) e passa do limite no meio do caminho. "sem estado"
+ * usa cooldownMinutos = 0 na regra e reproduz o comportamento antigo (uma notificacao por transacao
+ * acima do limite); "com estado" usa o intervalo padrao de 24h do EstadoAlertas. O estado fica so no
+ * cache quente (repositorio simulado); mede tambem o tempo de avaliacao por lancamento.
+ * Roda com: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class DisparosRepetidosBenchmark {
+
+    private static final int USUARIOS = Integer.getInteger("disparos.usuarios", 2_000);
+    private static final int TRANSACOES = Integer.getInteger("disparos.transacoes", 50);
+    private static final BigDecimal LIMITE = new BigDecimal("500.00");
+
+    @Test
+    void comparaDisparosRepetidos() {
+        // aquecimento do JIT, descartado
+        simular(0, 7L);
+        simular(null, 7L);
+
+        Resultado antes = simular(0, 42L);
+        Resultado depois = simular(null, 42L);
+        imprimir("sem estado", antes);
+        imprimir("com estado", depois);
+
+        assertThat(antes.estouradas()).isEqualTo(depois.estouradas());
+        assertThat(depois.notificacoes()).isEqualTo(depois.estouradas());
+        assertThat(antes.notificacoes()).isGreaterThan(depois.notificacoes() * 5L);
+    }
+
+    private Resultado simular(Integer cooldownMinutos, long semente) {
+        Random random = new Random(semente);
+        Categoria categoria = Categoria.builder().id(1L).nome("Mercado").build();
+        List<List<Alerta>> regras = new ArrayList<>();
+        for (long usuario = 1; usuario <= USUARIOS; usuario++) {
+            regras.add(List.of(Alerta.builder().id(usuario).nomeRegra("limite").tipo(Alerta.TipoAlerta.LIMITE_CATEGORIA)
+                    .categoria(categoria).limiteValor(LIMITE).janelaDias(30).cooldownMinutos(cooldownMinutos).build()));
+        }
+        AlertaService alertaService = Mockito.mock(AlertaService.class);
+        Mockito.when(alertaService.listarPorUsuario(anyLong()))
+                .thenAnswer(invocacao -> regras.get((int) (invocacao.<Long>getArgument(0) - 1)));
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        EstadoAlertas estadoAlertas = new EstadoAlertas(Mockito.mock(EstadoAlertaRepository.class), registry, 1440, 100_000);
+        AvaliadorAlertas avaliador = new AvaliadorAlertas(Mockito.mock(TransacaoRepository.class), alertaService,
+                Mockito.mock(SaldoService.class), estadoAlertas, registry, Mockito.mock(PlatformTransactionManager.class));
+
+        long id = 0;
+        long notificacoes = 0;
+        long estouradas = 0;
+        long nanos = 0;
+        for (long usuario = 1; usuario <= USUARIOS; usuario++) {
+            boolean estourou = false;
+            for (int n = 0; n < TRANSACOES; n++) {
+                // ~20 gastos de ~25 ate passar de 500; o resto do dia so repete o estouro
+                BigDecimal valor = BigDecimal.valueOf(Math.round(2500 * Math.exp(0.4 * random.nextGaussian())), 2);
+                LancamentoTransacao lancamento = new LancamentoTransacao(++id, usuario, 1L, 1L,
+                        Transacao.TipoTransacao.SAIDA, valor, LocalDate.now());
+                long t0 = System.nanoTime();
+                avaliador.aoIncluir(lancamento);
+                List<DisparoAlerta> disparos = avaliador.avaliar(lancamento);
+                for (DisparoAlerta disparo : disparos) {
+                    // o que o NotificadorAlertas faz antes de gravar no outbox
+                    if (estadoAlertas.registrar(disparo, LocalDateTime.now())) {
+                        notificacoes++;
+                    }
+                }
+                nanos += System.nanoTime() - t0;
+                estourou |= !disparos.isEmpty();
+            }
+            estouradas += estourou ? 1 : 0;
+        }
+        return new Resultado(id, estouradas, notificacoes, nanos / (double) id / 1e3);
+    }
+
+    private static void imprimir(String modo, Resultado resultado) {
+        System.out.printf("[benchmark] disparos repetidos %-10s %d lancamentos | %d regras estouradas | %d notificacoes "
+                        + "(%.1f por regra) | %.2f us por lancamento%n",
+                modo, resultado.lancamentos(), resultado.estouradas(), resultado.notificacoes(),
+                resultado.notificacoes() / (double) Math.max(1, resultado.estouradas()), resultado.microssegundos());
+    }
+
+    private record Resultado(long lancamentos, long estouradas, long notificacoes, double microssegundos) {
+    }
+}
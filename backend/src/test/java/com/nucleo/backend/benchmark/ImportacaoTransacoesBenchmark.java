@@ -0,0 +1,91 @@
+package com.nucleo.backend.benchmark;
+
+import com.nucleo.dto.ResultadoImportacaoDTO;
+import com.nucleo.dto.TransacaoRequestDTO;
+import com.nucleo.model.*;
+import com.nucleo.repository.*;
+import com.nucleo.security.SecurityUtils;
+import com.nucleo.service.ImportacaoTransacaoService;
+import com.nucleo.service.TransacaoService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Linhas por segundo da importacao em massa (100 mil linhas, inserts em lote)
+ * contra o POST /api/transacoes linha a linha (amostra de 2 mil linhas, que
+ * nesse ritmo ja leva alguns segundos). Roda com: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class ImportacaoTransacoesBenchmark {
+
+    private static final int LINHAS_IMPORTACAO = 100_000;
+    private static final int LINHAS_UNITARIAS = 2_000;
+
+    @Autowired private UsuarioRepository usuarioRepository;
+    @Autowired private CategoriaRepository categoriaRepository;
+    @Autowired private ContasBancariasRepository contasBancariasRepository;
+    @Autowired private AlertaRepository alertaRepository;
+    @Autowired private TransacaoService transacaoService;
+    @Autowired private ImportacaoTransacaoService importacaoService;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void comparaLinhasPorSegundo() {
+        Usuario usuario = usuarioRepository.save(Usuario.builder()
+                .nome("Benchmark").email("bench-importacao@nucleo.com").senha("x").build());
+        Categoria categoria = categoriaRepository.save(Categoria.builder()
+                .nome("Bench Importacao").tipo(Categoria.TipoCategoria.SAIDA).usuario(usuario).build());
+        ContasBancarias conta = contasBancariasRepository.save(ContasBancarias.builder()
+                .instituicao("Bench").tipo(TipoConta.CORRENTE).usuario(usuario).build());
+        alertaRepository.save(Alerta.builder().usuario(usuario).nomeRegra("limite").tipo(Alerta.TipoAlerta.LIMITE_CATEGORIA)
+                .categoria(categoria).limiteValor(new BigDecimal("100000000")).build());
+
+        try (MockedStatic<SecurityUtils> security = Mockito.mockStatic(SecurityUtils.class)) {
+            security.when(SecurityUtils::getCurrentUserId).thenReturn(usuario.getId());
+            security.when(SecurityUtils::isAdmin).thenReturn(false);
+
+            List<TransacaoRequestDTO> unitarias = gerar(LINHAS_UNITARIAS, categoria, conta);
+            long inicio = System.nanoTime();
+            unitarias.forEach(transacaoService::criar);
+            double unitario = LINHAS_UNITARIAS / ((System.nanoTime() - inicio) / 1e9);
+
+            List<TransacaoRequestDTO> linhas = gerar(LINHAS_IMPORTACAO, categoria, conta);
+            inicio = System.nanoTime();
+            ResultadoImportacaoDTO resultado = importacaoService.importar(linhas);
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+
+            assertThat(resultado.importadas()).isEqualTo(LINHAS_IMPORTACAO);
+            System.out.printf("[benchmark] importacao: unitario %.0f linhas/s | lote %.0f linhas/s (%d linhas em %.1fs) | %.1fx%n",
+                    unitario, LINHAS_IMPORTACAO / segundos, LINHAS_IMPORTACAO, segundos,
+                    (LINHAS_IMPORTACAO / segundos) / unitario);
+        }
+    }
+
+    private List<TransacaoRequestDTO> gerar(int quantidade, Categoria categoria, ContasBancarias conta) {
+        List<TransacaoRequestDTO> linhas = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            linhas.add(new TransacaoRequestDTO(
+                    "extrato " + i,
+                    BigDecimal.valueOf(1 + random.nextInt(50_000), 2),
+                    LocalDate.now().minusDays(random.nextInt(365)),
+                    random.nextInt(5) == 0 ? Transacao.TipoTransacao.ENTRADA : Transacao.TipoTransacao.SAIDA,
+                    categoria.getId(),
+                    conta.getId()));
+        }
+        return linhas;
+    }
+}
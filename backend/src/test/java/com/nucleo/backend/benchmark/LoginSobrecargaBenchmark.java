@@ -0,0 +1,163 @@
+package com.nucleo.backend.benchmark;
+
+import com.nucleo.BackendApplication;
+import com.nucleo.model.Usuario;
+import com.nucleo.repository.UsuarioRepository;
+import com.nucleo.security.JwtTokenProvider;
+import com.nucleo.security.UserDetailsImpl;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tempestade de logins (-Dlogin.clientes, padrao 100, BCrypt forca -Dlogin.forca, padrao 10) enquanto 20 clientes leem
+ * GET /api/categorias. Mede p50/p99 da leitura sozinha e durante a tempestade, alem de logins
+ * aceitos e recusados (503); quem recebe 503 espera o Retry-After. Roda duas vezes: com o bulkhead padrao e "sem bulkhead", com um pool de
+ * hash do tamanho do Tomcat e fila sem limite, como era o hash na thread da requisicao.
+ * Roda com: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class LoginSobrecargaBenchmark {
+
+    private static final int CLIENTES_LOGIN = Integer.getInteger("login.clientes", 100);
+    private static final int CLIENTES_LEITURA = 20;
+    private static final int SEGUNDOS = Integer.getInteger("login.segundos", 10);
+    private static final int FORCA = Integer.getInteger("login.forca", 10);
+
+    @Test
+    void comparaLatenciaDasOutrasRotas() throws Exception {
+        medir("sem-bulkhead", false, "--auth.hash.workers=200", "--auth.hash.max-pendentes=100000",
+                "--auth.hash.espera-maxima-ms=600000");
+        medir("bulkhead", true);
+    }
+
+    // sem o bulkhead leituras e logins podem falhar por timeout; o numero so e exigido com ele
+    private void medir(String modo, boolean exigirSemErros, String... extras) throws Exception {
+        List<String> argumentos = new ArrayList<>(List.of("--server.port=0", "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN", "--spring.datasource.url=jdbc:h2:mem:login-" + modo,
+                "--auth.senha.bcrypt.forca=" + FORCA, "--app.swagger.auto-open=false"));
+        argumentos.addAll(List.of(extras));
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(BackendApplication.class)
+                .run(argumentos.toArray(String[]::new))) {
+            Usuario usuario = contexto.getBean(UsuarioRepository.class).save(Usuario.builder()
+                    .nome("Login").email("login@carga.com")
+                    .senha(contexto.getBean(PasswordEncoder.class).encode("segredo1")).build());
+            String token = contexto.getBean(JwtTokenProvider.class).generateToken(UserDetailsImpl.build(usuario));
+
+            String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+            HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(30)).build();
+            HttpRequest leitura = HttpRequest.newBuilder(URI.create(base + "/api/categorias"))
+                    .header("Authorization", "Bearer " + token).GET().build();
+            HttpRequest login = HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"login@carga.com\",\"senha\":\"segredo1\"}"))
+                    .build();
+            AtomicLong errosLeitura = new AtomicLong();
+
+            // leitura sozinha, depois com a tempestade
+            ConcurrentLinkedQueue<Long> sozinha = ler(http, leitura, errosLeitura, SEGUNDOS / 2, null);
+            AtomicLong aceitos = new AtomicLong();
+            AtomicLong recusados = new AtomicLong();
+            AtomicLong outros = new AtomicLong();
+            AtomicBoolean parar = new AtomicBoolean();
+            ExecutorService tempestade = Executors.newFixedThreadPool(CLIENTES_LOGIN);
+            List<Future<?>> logins = new ArrayList<>();
+            for (int c = 0; c < CLIENTES_LOGIN; c++) {
+                logins.add(tempestade.submit(() -> {
+                    while (!parar.get()) {
+                        try {
+                            HttpResponse<Void> resposta = http.send(login, HttpResponse.BodyHandlers.discarding());
+                            int status = resposta.statusCode();
+                            (status == 200 ? aceitos : status == 503 ? recusados : outros).incrementAndGet();
+                            // cliente bem comportado: respeita o Retry-After antes de tentar de novo
+                            if (status == 503) {
+                                Thread.sleep(1000L * resposta.headers().firstValueAsLong("Retry-After").orElse(1));
+                            }
+                        } catch (Exception e) {
+                            outros.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            ConcurrentLinkedQueue<Long> durante = ler(http, leitura, errosLeitura, SEGUNDOS, parar);
+            for (Future<?> tarefa : logins) {
+                tarefa.get();
+            }
+            tempestade.shutdown();
+
+            imprimir(modo, "leitura sozinha", sozinha);
+            imprimir(modo, "leitura c/ logins", durante);
+            System.out.printf("[benchmark] login %-12s %d clientes em %ds | %d aceitos (%.1f/s) | %d recusados (503) | %d outros | %d leituras com erro%n",
+                    modo, CLIENTES_LOGIN, SEGUNDOS, aceitos.get(), aceitos.get() / (double) SEGUNDOS,
+                    recusados.get(), outros.get(), errosLeitura.get());
+            if (exigirSemErros) {
+                assertThat(errosLeitura.get()).isZero();
+                assertThat(outros.get()).isZero();
+            }
+        }
+    }
+
+    // CLIENTES_LEITURA clientes em laco por alguns segundos; ao fim, sinaliza a tempestade para parar
+    private static ConcurrentLinkedQueue<Long> ler(HttpClient http, HttpRequest leitura, AtomicLong erros,
+                                                   int segundos, AtomicBoolean parar) throws Exception {
+        ConcurrentLinkedQueue<Long> latencias = new ConcurrentLinkedQueue<>();
+        long fim = System.nanoTime() + Duration.ofSeconds(Math.max(1, segundos)).toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTES_LEITURA);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int c = 0; c < CLIENTES_LEITURA; c++) {
+            tarefas.add(executor.submit(() -> {
+                while (System.nanoTime() < fim) {
+                    long inicio = System.nanoTime();
+                    try {
+                        if (http.send(leitura, HttpResponse.BodyHandlers.discarding()).statusCode() >= 300) {
+                            erros.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        erros.incrementAndGet();
+                    }
+                    latencias.add(System.nanoTime() - inicio);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        executor.shutdown();
+        if (parar != null) {
+            parar.set(true);
+        }
+        return latencias;
+    }
+
+    private static void imprimir(String modo, String fase, ConcurrentLinkedQueue<Long> latencias) {
+        long[] ordenadas = latencias.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.printf("[benchmark] login %-12s %-18s %6d leituras | p50 %7.1f ms | p99 %7.1f ms | max %7.1f ms%n",
+                modo, fase, ordenadas.length, percentil(ordenadas, 0.50), percentil(ordenadas, 0.99),
+                ordenadas[ordenadas.length - 1] / 1e6);
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        return ordenadas[(int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1)] / 1e6;
+    }
+}
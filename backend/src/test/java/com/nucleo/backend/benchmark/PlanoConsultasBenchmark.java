@@ -0,0 +1,153 @@
+package com.nucleo.backend.benchmark;
+
+import com.nucleo.BackendApplication;
+import com.nucleo.model.ContasBancarias;
+import com.nucleo.repository.CategoriaRepository;
+import com.nucleo.repository.ContasBancariasRepository;
+import com.nucleo.repository.UsuarioRepository;
+import com.nucleo.service.carga.GeradorCarga;
+import com.nucleo.service.carga.ParametrosCarga;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plano e tempo das consultas dos repositorios com os indices do V2__indices_consultas
+ * e sem eles (so PKs, FKs e o antigo indice usuario/data/id), no H2 e no H2 em MODE=MySQL
+ * (que aplica as migracoes de db/migration/mysql com o dialeto do MySQL). Cada execucao
+ * usa outro usuario da carga, porque o H2 devolve o ultimo resultado quando a mesma consulta
+ * se repete sem escrita no meio. Escala com -Dcarga.usuarios e -Dcarga.transacoes-por-mes.
+ * Roda com: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class PlanoConsultasBenchmark {
+
+    private static final int EXECUCOES = 500;
+    private static final Pattern INDICE_USADO = Pattern.compile("/\\* PUBLIC\\.([A-Z0-9_.]+)", Pattern.CASE_INSENSITIVE);
+    private static final String RECENTES = " ORDER BY data DESC, id DESC LIMIT 50";
+
+    private static final List<String> INDICES_V2 = List.of(
+            "idx_transacoes_usuario_ativo_data_id", "idx_transacoes_usuario_ativo_tipo_data_id",
+            "idx_transacoes_usuario_ativo_categoria_data_id", "idx_transacoes_conta_ativo_tipo_valor",
+            "idx_alertas_usuario_ativo_tipo", "idx_contas_bancarias_usuario_ativo",
+            "idx_contas_bancarias_usuario_apelido", "idx_categorias_usuario_ativo_tipo",
+            "idx_categorias_global_ativo_tipo");
+
+    @Test
+    void comparaPlanos() {
+        medir("h2", "jdbc:h2:mem:plano-h2", "org.hibernate.dialect.H2Dialect");
+        medir("mysql", "jdbc:h2:mem:plano-mysql;MODE=MySQL;DATABASE_TO_LOWER=TRUE", "org.hibernate.dialect.MySQLDialect");
+    }
+
+    private void medir(String modo, String url, String dialeto) {
+        // argumentos de linha de comando: precisam vencer o application.properties
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(BackendApplication.class)
+                .run("--server.port=0", "--spring.jpa.show-sql=false", "--logging.level.root=WARN",
+                        "--spring.datasource.url=" + url, "--spring.jpa.database-platform=" + dialeto,
+                        "--spring.jpa.hibernate.ddl-auto=validate")) {
+            ParametrosCarga parametros = new ParametrosCarga(Integer.getInteger("carga.usuarios", 100),
+                    2, Integer.getInteger("carga.transacoes-por-mes", 100), 3, 42L, 1000, null);
+            contexto.getBean(GeradorCarga.class).gerar(parametros);
+
+            UsuarioRepository usuarioRepository = contexto.getBean(UsuarioRepository.class);
+            ContasBancariasRepository contasRepository = contexto.getBean(ContasBancariasRepository.class);
+            long[] usuarios = IntStream.range(0, parametros.usuarios())
+                    .mapToLong(i -> usuarioRepository.findByEmailAndAtivoTrue(GeradorCarga.email(parametros.semente(), i))
+                            .orElseThrow().getId())
+                    .toArray();
+            long[] contas = IntStream.range(0, usuarios.length)
+                    .mapToLong(i -> contasRepository.findByUsuarioIdAndAtivoTrue(usuarios[i]).stream()
+                            .mapToLong(ContasBancarias::getId).min().orElseThrow())
+                    .toArray();
+            Long categoriaId = contexto.getBean(CategoriaRepository.class).findByNome("Alimentação").orElseThrow().getId();
+            Map<String, Consulta> consultas = consultas(usuarios, contas, categoriaId);
+
+            JdbcTemplate jdbc = new JdbcTemplate(contexto.getBean(DataSource.class));
+            executar(jdbc, consultas);
+            Map<String, Resultado> comIndices = executar(jdbc, consultas);
+            INDICES_V2.forEach(indice -> jdbc.execute("DROP INDEX " + indice));
+            jdbc.execute("CREATE INDEX idx_transacoes_usuario_data_id ON transacoes (usuario_id, data, id)");
+            executar(jdbc, consultas);
+            Map<String, Resultado> semIndices = executar(jdbc, consultas);
+
+            comIndices.forEach((nome, com) -> {
+                Resultado sem = semIndices.get(nome);
+                System.out.printf("[benchmark] plano %-5s %-18s | V2 %-48s %7.3f ms | sem V2 %-38s %7.3f ms | %.1fx%n",
+                        modo, nome, com.indice(), com.milissegundos(), sem.indice(), sem.milissegundos(),
+                        sem.milissegundos() / com.milissegundos());
+            });
+            assertThat(comIndices.values()).allSatisfy(resultado ->
+                    assertThat(resultado.indice()).startsWithIgnoringCase("idx_"));
+        }
+    }
+
+    private Map<String, Consulta> consultas(long[] usuarios, long[] contas, Long categoriaId) {
+        Date inicioTrimestre = Date.valueOf(LocalDate.now().minusMonths(3));
+        Date hoje = Date.valueOf(LocalDate.now());
+        IntFunction<Object[]> usuario = i -> new Object[]{usuarios[i % usuarios.length]};
+        Map<String, Consulta> consultas = new LinkedHashMap<>();
+        consultas.put("listar", new Consulta(
+                "SELECT id FROM transacoes WHERE usuario_id = ? AND ativo = TRUE" + RECENTES, usuario));
+        consultas.put("listar periodo", new Consulta(
+                "SELECT id FROM transacoes WHERE usuario_id = ? AND ativo = TRUE AND data BETWEEN ? AND ?" + RECENTES,
+                i -> new Object[]{usuarios[i % usuarios.length], inicioTrimestre, hoje}));
+        consultas.put("listar tipo", new Consulta(
+                "SELECT id FROM transacoes WHERE usuario_id = ? AND ativo = TRUE AND tipo = 'ENTRADA'" + RECENTES, usuario));
+        consultas.put("listar categoria", new Consulta(
+                "SELECT id FROM transacoes WHERE usuario_id = ? AND ativo = TRUE AND categoria_id = ?" + RECENTES,
+                i -> new Object[]{usuarios[i % usuarios.length], categoriaId}));
+        consultas.put("soma usuario/tipo", new Consulta(
+                "SELECT COALESCE(SUM(valor), 0) FROM transacoes WHERE usuario_id = ? AND tipo = 'SAIDA' AND ativo = TRUE",
+                usuario));
+        consultas.put("soma conta/tipo", new Consulta(
+                "SELECT COALESCE(SUM(valor), 0) FROM transacoes WHERE conta_id = ? AND tipo = 'SAIDA' AND ativo = TRUE",
+                i -> new Object[]{contas[i % contas.length]}));
+        consultas.put("serie diaria", new Consulta(
+                "SELECT categoria_id, data, SUM(valor), COUNT(*) FROM transacoes WHERE usuario_id = ? AND tipo = 'SAIDA' " +
+                        "AND data >= ? AND ativo = TRUE GROUP BY categoria_id, data",
+                i -> new Object[]{usuarios[i % usuarios.length], inicioTrimestre}));
+        consultas.put("contas", new Consulta(
+                "SELECT id FROM contas_bancarias WHERE usuario_id = ? AND ativo = TRUE", usuario));
+        consultas.put("categorias", new Consulta(
+                "SELECT id FROM categorias WHERE usuario_id = ? AND tipo = 'SAIDA' AND ativo = TRUE", usuario));
+        consultas.put("alertas", new Consulta(
+                "SELECT id FROM alertas WHERE usuario_id = ? AND tipo = 'GASTO_ATIPICO' AND ativo = TRUE", usuario));
+        return consultas;
+    }
+
+    private Map<String, Resultado> executar(JdbcTemplate jdbc, Map<String, Consulta> consultas) {
+        Map<String, Resultado> resultados = new LinkedHashMap<>();
+        consultas.forEach((nome, consulta) -> {
+            String plano = jdbc.queryForObject("EXPLAIN " + consulta.sql(), String.class, consulta.argumentos().apply(0));
+            Matcher matcher = INDICE_USADO.matcher(plano);
+            String indice = matcher.find() ? matcher.group(1) : plano;
+            long inicio = System.nanoTime();
+            for (int i = 0; i < EXECUCOES; i++) {
+                jdbc.queryForList(consulta.sql(), consulta.argumentos().apply(i));
+            }
+            resultados.put(nome, new Resultado(indice, (System.nanoTime() - inicio) / 1e6 / EXECUCOES));
+        });
+        return resultados;
+    }
+
+    private record Consulta(String sql, IntFunction<Object[]> argumentos) {
+    }
+
+    private record Resultado(String indice, double milissegundos) {
+    }
+}
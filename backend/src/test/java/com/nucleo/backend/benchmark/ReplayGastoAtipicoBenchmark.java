@@ -0,0 +1,142 @@
+package com.nucleo.backend.benchmark;
+
+import com.nucleo.model.Alerta;
+import com.nucleo.model.Transacao;
+import com.nucleo.repository.EstadoAlertaRepository;
+import com.nucleo.repository.TransacaoRepository;
+import com.nucleo.service.AlertaService;
+import com.nucleo.service.SaldoService;
+import com.nucleo.service.alerta.AvaliadorAlertas;
+import com.nucleo.service.alerta.EstadoAlertas;
+import com.nucleo.service.listener.LancamentoTransacao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+/**
+ * Reproduz um ano sintetico de gastos (-Dreplay.usuarios, padrao 300, com 6 categorias cada,
+ * valores lognormais e frequencia propria por categoria) pelo AvaliadorAlertas com uma regra
+ * GASTO_ATIPICO de 30 dias, em ordem cronologica. Cerca de 0,3% dos gastos sao anomalias
+ * injetadas (6x a 12x o valor tipico da categoria). Mede a latencia de deteccao por lancamento
+ * (inclusao + avaliacao, p50/p99/max), a taxa de deteccao das anomalias e os falsos positivos.
+ * Sem banco: a janela parte vazia e so o avaliador entra na medida. Roda com: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class ReplayGastoAtipicoBenchmark {
+
+    private static final int USUARIOS = Integer.getInteger("replay.usuarios", 300);
+    private static final long SEMENTE = Long.getLong("replay.semente", 42L);
+    private static final int CATEGORIAS = 6;
+    private static final int DIAS = 365;
+    private static final double TAXA_ANOMALIA = 0.003;
+
+    @Test
+    void medeLatenciaDeDeteccao() {
+        // aquecimento do JIT com outra semente, descartado
+        replay(Math.max(20, USUARIOS / 10), SEMENTE + 1);
+        Resultado resultado = replay(USUARIOS, SEMENTE);
+
+        long[] ordenadas = resultado.latencias();
+        Arrays.sort(ordenadas);
+        System.out.printf("[benchmark] gasto atipico: %d lancamentos em %d dias | latencia p50 %.1f us | p99 %.1f us | max %.1f us%n",
+                ordenadas.length, DIAS, percentil(ordenadas, 0.50), percentil(ordenadas, 0.99),
+                ordenadas[ordenadas.length - 1] / 1e3);
+        System.out.printf("[benchmark] gasto atipico: %d/%d anomalias detectadas (%.1f%%) | %d falsos positivos (%.2f%% dos gastos normais)%n",
+                resultado.detectadas(), resultado.anomalias(), 100.0 * resultado.detectadas() / resultado.anomalias(),
+                resultado.falsosPositivos(), 100.0 * resultado.falsosPositivos() / (ordenadas.length - resultado.anomalias()));
+
+        assertThat(resultado.detectadas()).isGreaterThanOrEqualTo((long) (resultado.anomalias() * 0.8));
+        assertThat(resultado.falsosPositivos()).isLessThan((ordenadas.length - resultado.anomalias()) / 100);
+    }
+
+    private Resultado replay(int usuarios, long semente) {
+        Random random = new Random(semente);
+        AlertaService alertaService = Mockito.mock(AlertaService.class);
+        Alerta regra = Alerta.builder().id(1L).nomeRegra("atipico").tipo(Alerta.TipoAlerta.GASTO_ATIPICO)
+                .janelaDias(30).notificarEmail(false).build();
+        Mockito.when(alertaService.listarPorUsuario(anyLong())).thenReturn(List.of(regra));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AvaliadorAlertas avaliador = new AvaliadorAlertas(Mockito.mock(TransacaoRepository.class), alertaService,
+                Mockito.mock(SaldoService.class), new EstadoAlertas(Mockito.mock(EstadoAlertaRepository.class), registry, 1440, 100_000),
+                registry, Mockito.mock(PlatformTransactionManager.class));
+
+        // perfil de cada categoria: mediana do valor, dispersao (lognormal) e gastos por dia
+        double[][] perfis = new double[usuarios * CATEGORIAS][];
+        for (int i = 0; i < perfis.length; i++) {
+            perfis[i] = new double[]{20 + random.nextDouble() * 280, 0.2 + random.nextDouble() * 0.3,
+                    0.1 + random.nextDouble() * 1.4};
+        }
+
+        LocalDate inicio = LocalDate.now().minusDays(DIAS - 1L);
+        long[] latencias = new long[1 << 16];
+        int medidas = 0;
+        long id = 0;
+        long anomalias = 0;
+        long detectadas = 0;
+        long falsosPositivos = 0;
+        for (int dia = 0; dia < DIAS; dia++) {
+            LocalDate data = inicio.plusDays(dia);
+            for (int usuario = 0; usuario < usuarios; usuario++) {
+                for (int categoria = 0; categoria < CATEGORIAS; categoria++) {
+                    double[] perfil = perfis[usuario * CATEGORIAS + categoria];
+                    int quantidade = poisson(random, perfil[2]);
+                    for (int n = 0; n < quantidade; n++) {
+                        boolean anomalia = random.nextDouble() < TAXA_ANOMALIA;
+                        double valor = perfil[0] * Math.exp(perfil[1] * random.nextGaussian());
+                        if (anomalia) {
+                            valor = perfil[0] * (6 + random.nextDouble() * 6);
+                        }
+                        LancamentoTransacao lancamento = new LancamentoTransacao(++id, (long) usuario + 1,
+                                1L, (long) categoria + 1, Transacao.TipoTransacao.SAIDA,
+                                BigDecimal.valueOf(Math.round(valor * 100), 2), data);
+
+                        long t0 = System.nanoTime();
+                        avaliador.aoIncluir(lancamento);
+                        boolean disparou = !avaliador.avaliar(lancamento).isEmpty();
+                        if (medidas == latencias.length) {
+                            latencias = Arrays.copyOf(latencias, medidas * 2);
+                        }
+                        latencias[medidas++] = System.nanoTime() - t0;
+
+                        if (anomalia) {
+                            anomalias++;
+                            detectadas += disparou ? 1 : 0;
+                        } else if (disparou) {
+                            falsosPositivos++;
+                        }
+                    }
+                }
+            }
+        }
+        return new Resultado(Arrays.copyOf(latencias, medidas), anomalias, detectadas, falsosPositivos);
+    }
+
+    private static int poisson(Random random, double media) {
+        double limite = Math.exp(-media);
+        int k = 0;
+        double p = random.nextDouble();
+        while (p > limite) {
+            k++;
+            p *= random.nextDouble();
+        }
+        return k;
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        return ordenadas[(int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1)] / 1e3;
+    }
+
+    private record Resultado(long[] latencias, long anomalias, long detectadas, long falsosPositivos) {
+    }
+}
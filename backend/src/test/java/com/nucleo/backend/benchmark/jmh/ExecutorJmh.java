@@ -0,0 +1,47 @@
+package com.nucleo.backend.benchmark.jmh;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Roda uma classe de benchmark JMH a partir do JUnit, grava o resultado em
+ * target/jmh/&lt;classe&gt;.json (para comparar builds) e imprime um resumo.
+ * Propriedades de sistema carga.* sao repassadas ao fork do JMH.
+ */
+final class ExecutorJmh {
+
+    static final String DIRETORIO = "target/jmh";
+
+    private ExecutorJmh() {
+    }
+
+    static Collection<RunResult> rodar(Class<?> benchmark) throws RunnerException {
+        new File(DIRETORIO).mkdirs();
+        List<String> propriedades = System.getProperties().stringPropertyNames().stream()
+                .filter(nome -> nome.startsWith("carga."))
+                .map(nome -> "-D" + nome + "=" + System.getProperty(nome))
+                .toList();
+
+        Collection<RunResult> resultados = new Runner(new OptionsBuilder()
+                .include(benchmark.getName() + "\\.")
+                .jvmArgsAppend(propriedades.toArray(String[]::new))
+                .resultFormat(ResultFormatType.JSON)
+                .result(DIRETORIO + "/" + benchmark.getSimpleName() + ".json")
+                .build()).run();
+
+        for (RunResult resultado : resultados) {
+            System.out.printf("[benchmark] %s: %.1f %s%n",
+                    resultado.getParams().getBenchmark().replaceAll(".*\\.", ""),
+                    resultado.getPrimaryResult().getScore(),
+                    resultado.getPrimaryResult().getScoreUnit());
+        }
+        return resultados;
+    }
+}
@@ -0,0 +1,72 @@
+package com.nucleo.backend.benchmark.jmh;
+
+import com.nucleo.security.ClaimsToken;
+import com.nucleo.security.JwtTokenProvider;
+import com.nucleo.security.UserDetailsImpl;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import javax.crypto.SecretKey;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Validacoes por segundo do JwtTokenProvider (JMH): o caminho antigo, que monta
+ * a chave HMAC e o parser a cada chamada, contra a chave e o parser pre-construidos.
+ * Roda com: mvn test -Pbackend-benchmarks -Dtest=JwtTokenProviderBenchmark
+ */
+@Tag("jmh")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SEGREDO = "mySuperSecretKeyThatIsVeryLongAndSecureForJWTTokenGeneration12345";
+
+    private JwtTokenProvider provider;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        provider = new JwtTokenProvider(SEGREDO, 86_400_000L);
+        token = provider.generateToken(new UserDetailsImpl(1L, "bench@nucleo.com", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    @Benchmark
+    public boolean validarAntigo() {
+        // como o provider fazia antes: chave e parser novos a cada validacao
+        try {
+            SecretKey chave = Keys.hmacShaKeyFor(SEGREDO.getBytes());
+            Jwts.parser().verifyWith(chave).build().parseSignedClaims(token);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public boolean validar() {
+        return provider.validateToken(token);
+    }
+
+    @Benchmark
+    public Optional<ClaimsToken> extrairClaims() {
+        return provider.extrairClaims(token);
+    }
+
+    @Test
+    void comparaValidacoesPorSegundo() throws Exception {
+        assertThat(ExecutorJmh.rodar(JwtTokenProviderBenchmark.class)).hasSize(3);
+    }
+}
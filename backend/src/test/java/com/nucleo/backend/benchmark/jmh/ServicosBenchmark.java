@@ -0,0 +1,148 @@
+package com.nucleo.backend.benchmark.jmh;
+
+import com.nucleo.BackendApplication;
+import com.nucleo.dto.PaginaDTO;
+import com.nucleo.dto.TransacaoRequestDTO;
+import com.nucleo.dto.TransacaoResponseDTO;
+import com.nucleo.model.Categoria;
+import com.nucleo.model.ContasBancarias;
+import com.nucleo.model.Transacao;
+import com.nucleo.model.Usuario;
+import com.nucleo.repository.CategoriaRepository;
+import com.nucleo.repository.ContasBancariasRepository;
+import com.nucleo.repository.UsuarioRepository;
+import com.nucleo.security.CachePrincipais;
+import com.nucleo.security.ClaimsToken;
+import com.nucleo.security.JwtTokenProvider;
+import com.nucleo.security.UserDetailsImpl;
+import com.nucleo.service.CategoriaService;
+import com.nucleo.service.TransacaoService;
+import com.nucleo.service.carga.GeradorCarga;
+import com.nucleo.service.carga.ParametrosCarga;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Caminhos quentes da camada de servico (JMH) contra um H2 populado pelo GeradorCarga.
+ * Escala com -Dcarga.usuarios, -Dcarga.contas-por-usuario, -Dcarga.transacoes-por-mes,
+ * -Dcarga.anos e -Dcarga.semente. Resultado em target/jmh/ServicosBenchmark.json.
+ * Roda com: mvn test -Pbackend-benchmarks
+ */
+@Tag("jmh")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ServicosBenchmark {
+
+    private ConfigurableApplicationContext contexto;
+    private TransacaoService transacaoService;
+    private CategoriaService categoriaService;
+    private JwtTokenProvider jwtTokenProvider;
+    private CachePrincipais cachePrincipais;
+
+    private Long usuarioId;
+    private Long categoriaId;
+    private Long contaId;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(BackendApplication.class)
+                .properties("server.port=0", "spring.jpa.show-sql=false", "logging.level.root=WARN")
+                .run();
+        ParametrosCarga parametros = new ParametrosCarga(
+                Integer.getInteger("carga.usuarios", 50),
+                Integer.getInteger("carga.contas-por-usuario", 2),
+                Integer.getInteger("carga.transacoes-por-mes", 30),
+                Integer.getInteger("carga.anos", 2),
+                Long.getLong("carga.semente", 42L),
+                1000,
+                null);
+        contexto.getBean(GeradorCarga.class).gerar(parametros);
+
+        transacaoService = contexto.getBean(TransacaoService.class);
+        categoriaService = contexto.getBean(CategoriaService.class);
+        jwtTokenProvider = contexto.getBean(JwtTokenProvider.class);
+        cachePrincipais = contexto.getBean(CachePrincipais.class);
+
+        Usuario usuario = contexto.getBean(UsuarioRepository.class)
+                .findByEmailAndAtivoTrue(GeradorCarga.email(parametros.semente(), 0)).orElseThrow();
+        usuarioId = usuario.getId();
+        ContasBancarias conta = contexto.getBean(ContasBancariasRepository.class)
+                .findByUsuarioIdAndAtivoTrue(usuarioId).get(0);
+        contaId = conta.getId();
+        categoriaId = contexto.getBean(CategoriaRepository.class).findAll().stream()
+                .filter(categoria -> categoria.getTipo() == Categoria.TipoCategoria.SAIDA)
+                .findFirst().orElseThrow().getId();
+
+        UserDetailsImpl principal = UserDetailsImpl.build(usuario);
+        token = jwtTokenProvider.generateToken(principal);
+        // as threads do JMH nao sao a que fez o setup
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        SecurityContextHolder.clearContext();
+        contexto.close();
+    }
+
+    @Benchmark
+    public Transacao criarTransacao() throws Exception {
+        return transacaoService.criar(new TransacaoRequestDTO("benchmark", new BigDecimal("12.34"),
+                LocalDate.now(), Transacao.TipoTransacao.SAIDA, categoriaId, contaId));
+    }
+
+    @Benchmark
+    public BigDecimal getSaldo() {
+        return transacaoService.getSaldo(usuarioId);
+    }
+
+    @Benchmark
+    public PaginaDTO<TransacaoResponseDTO> listarPagina() {
+        return transacaoService.listarPagina(usuarioId, null, null, 50);
+    }
+
+    @Benchmark
+    public List<TransacaoResponseDTO> listarTodas() throws Exception {
+        return transacaoService.listarTodas(usuarioId);
+    }
+
+    @Benchmark
+    public List<Categoria> listarCategorias() {
+        return categoriaService.listarPorUsuario();
+    }
+
+    @Benchmark
+    public Optional<ClaimsToken> validarJwt() {
+        return jwtTokenProvider.extrairClaims(token);
+    }
+
+    @Benchmark
+    public UserDetailsImpl resolverPrincipal() {
+        return cachePrincipais.resolver(token);
+    }
+
+    @Test
+    void rodaServicos() throws Exception {
+        assertThat(ExecutorJmh.rodar(ServicosBenchmark.class)).hasSize(7);
+    }
+}
@@ -5,6 +5,7 @@ import com.nucleo.dto.AuthRequestDTO;
 import com.nucleo.dto.AuthResponseDTO;
 import com.nucleo.exception.AuthenticationException;
 import com.nucleo.exception.EntityNotCreatedException;
+import com.nucleo.exception.ServicoSobrecarregadoException;
 import com.nucleo.service.AuthService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,8 +16,12 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -38,13 +43,18 @@ class AuthControllerTest {
     @DisplayName("Deve realizar login com sucesso e retornar token JWT")
     void deveRealizarLoginComSucesso() throws Exception {
         AuthRequestDTO request = new AuthRequestDTO("joao@nucleo.com", "senha123");
-        AuthResponseDTO response = new AuthResponseDTO("Bearer fake-jwt-token", "joao@nucleo.com");
+        AuthResponseDTO response = AuthResponseDTO.builder().token("Bearer fake-jwt-token").email("joao@nucleo.com").build();
 
-        Mockito.when(authService.autenticar(any(AuthRequestDTO.class))).thenReturn(response);
+        Mockito.when(authService.autenticar(any(AuthRequestDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(response));
 
-        mockMvc.perform(post("/api/auth/login")
+        MvcResult resultado = mockMvc.perform(post("/api/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.token").value("Bearer fake-jwt-token"))
                 .andExpect(jsonPath("$.email").value("joao@nucleo.com"));
@@ -65,18 +75,39 @@ class AuthControllerTest {
                 .andExpect(status().is4xxClientError());
     }
 
+    // 🔹 Teste: fila de autenticação cheia
+    @Test
+    @DisplayName("Deve retornar 503 com Retry-After quando a fila de hash estiver cheia")
+    void deveRecusarLoginComFilaCheia() throws Exception {
+        AuthRequestDTO request = new AuthRequestDTO("joao@nucleo.com", "senha123");
+
+        Mockito.when(authService.autenticar(any(AuthRequestDTO.class)))
+                .thenThrow(new ServicoSobrecarregadoException("auth.sobrecarga", 1));
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
     // 🔹 Teste: cadastro de novo usuário
     @Test
     @DisplayName("Deve registrar novo usuário e retornar token JWT")
     void deveRegistrarNovoUsuario() throws Exception {
         AuthRequestDTO request = new AuthRequestDTO("novo@nucleo.com", "senhaNova");
-        AuthResponseDTO response = new AuthResponseDTO("Bearer token-novo", "novo@nucleo.com");
+        AuthResponseDTO response = AuthResponseDTO.builder().token("Bearer token-novo").email("novo@nucleo.com").build();
 
-        Mockito.when(authService.registrar(any(AuthRequestDTO.class))).thenReturn(response);
+        Mockito.when(authService.registrar(any(AuthRequestDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(response));
 
-        mockMvc.perform(post("/api/auth/registrar")
+        MvcResult resultado = mockMvc.perform(post("/api/auth/registrar")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.token").value("Bearer token-novo"))
                 .andExpect(jsonPath("$.email").value("novo@nucleo.com"));
@@ -1,6 +1,7 @@
 package com.nucleo.backend.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nucleo.dto.PaginaDTO;
 import com.nucleo.model.Beneficio;
 import com.nucleo.security.SecurityUtils;
 import com.nucleo.service.BeneficioService;
@@ -114,12 +115,14 @@ class BeneficioControllerTest {
                 .valor(new BigDecimal("350.00"))
                 .build();
 
-        BDDMockito.given(beneficioService.listarTodos()).willReturn(List.of(beneficio));
+        BDDMockito.given(beneficioService.listarPagina(any(), eq(Beneficio.TipoBeneficio.PLANO_SAUDE), any(), any()))
+                .willReturn(new PaginaDTO<>(List.of(beneficio), "Mg"));
 
-        mockMvc.perform(get("/api/beneficios"))
+        mockMvc.perform(get("/api/beneficios").param("tipo", "PLANO_SAUDE").param("limite", "1"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].nome").value("Plano de Saúde"))
-                .andExpect(jsonPath("$[0].descricao").value("Unimed nacional"));
+                .andExpect(jsonPath("$.itens[0].nome").value("Plano de Saúde"))
+                .andExpect(jsonPath("$.itens[0].descricao").value("Unimed nacional"))
+                .andExpect(jsonPath("$.proximoCursor").value("Mg"));
     }
 
     @Test
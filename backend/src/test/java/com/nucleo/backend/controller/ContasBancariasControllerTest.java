@@ -1,6 +1,7 @@
 package com.nucleo.backend.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nucleo.dto.PaginaDTO;
 import com.nucleo.model.ContasBancarias;
 import com.nucleo.model.TipoConta;
 import com.nucleo.security.SecurityUtils;
@@ -119,12 +120,13 @@ class ContasBancariasControllerTest {
                 .saldoInicial(new BigDecimal("2000.00"))
                 .build();
 
-        BDDMockito.given(contasService.listarTodas()).willReturn(List.of(conta));
+        BDDMockito.given(contasService.listarPagina(any(), any(), any(), any(), any()))
+                .willReturn(new PaginaDTO<>(List.of(conta), null));
 
         mockMvc.perform(get("/api/contas"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].instituicao").value("Banco do Brasil"))
-                .andExpect(jsonPath("$[0].apelido").value("Conta Salário"));
+                .andExpect(jsonPath("$.itens[0].instituicao").value("Banco do Brasil"))
+                .andExpect(jsonPath("$.itens[0].apelido").value("Conta Salário"));
     }
 
     @Test
@@ -0,0 +1,130 @@
+package com.nucleo.backend.controller;
+
+import com.nucleo.model.Alerta;
+import com.nucleo.model.Beneficio;
+import com.nucleo.model.Categoria;
+import com.nucleo.model.ContasBancarias;
+import com.nucleo.model.Meta;
+import com.nucleo.model.TipoConta;
+import com.nucleo.model.Usuario;
+import com.nucleo.repository.AlertaRepository;
+import com.nucleo.repository.BeneficioRepository;
+import com.nucleo.repository.CategoriaRepository;
+import com.nucleo.repository.ContasBancariasRepository;
+import com.nucleo.repository.MetaRepository;
+import com.nucleo.repository.UsuarioRepository;
+import com.nucleo.security.SecurityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class DashboardControllerTest {
+
+    private MockedStatic<SecurityUtils> securityUtilsMock;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ContasBancariasRepository contasBancariasRepository;
+
+    @Autowired
+    private MetaRepository metaRepository;
+
+    @Autowired
+    private BeneficioRepository beneficioRepository;
+
+    @Autowired
+    private AlertaRepository alertaRepository;
+
+    private Usuario usuario;
+    private Categoria categoria;
+
+    @BeforeEach
+    void setup() {
+        usuario = usuarioRepository.save(Usuario.builder()
+                .nome("Dashboard").email("dashboard-" + UUID.randomUUID() + "@nucleo.com").senha("x").build());
+        categoria = categoriaRepository.save(Categoria.builder()
+                .nome("Dashboard " + UUID.randomUUID()).tipo(Categoria.TipoCategoria.SAIDA).usuario(usuario).build());
+        contasBancariasRepository.save(ContasBancarias.builder()
+                .instituicao("Banco").apelido("Principal").tipo(TipoConta.CORRENTE).usuario(usuario)
+                .saldoInicial(new BigDecimal("250.00")).build());
+        metaRepository.save(Meta.builder().usuarioId(usuario.getId()).titulo("Viagem")
+                .valorAlvo(new BigDecimal("5000.00")).dataLimite(LocalDate.now().plusMonths(6)).build());
+        beneficioRepository.save(Beneficio.builder().nome("Vale").tipo(Beneficio.TipoBeneficio.VR)
+                .valor(new BigDecimal("600.00")).usuario(usuario).build());
+        alertaRepository.save(Alerta.builder().usuario(usuario).nomeRegra("Mercado").tipo(Alerta.TipoAlerta.LIMITE_CATEGORIA)
+                .categoria(categoria).limiteValor(new BigDecimal("800.00")).build());
+
+        securityUtilsMock = Mockito.mockStatic(SecurityUtils.class);
+        securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(usuario.getId());
+        securityUtilsMock.when(SecurityUtils::isAdmin).thenReturn(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (securityUtilsMock != null) {
+            securityUtilsMock.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve montar o dashboard completo em uma requisição")
+    @WithMockUser(username = "dashboard@nucleo.com", roles = "USER")
+    void deveMontarDashboardCompleto() throws Exception {
+        mockMvc.perform(get("/api/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.usuario.nome").value("Dashboard"))
+                .andExpect(jsonPath("$.contas[0].apelido").value("Principal"))
+                .andExpect(jsonPath("$.saldo").value(0))
+                .andExpect(jsonPath("$.resumo.entradas").value(0))
+                .andExpect(jsonPath("$.metas[0].titulo").value("Viagem"))
+                .andExpect(jsonPath("$.beneficios[0].nome").value("Vale"))
+                .andExpect(jsonPath("$.alertas[0].categoriaNome").value(categoria.getNome()));
+    }
+
+    @Test
+    @DisplayName("Deve devolver só as seções pedidas em campos")
+    @WithMockUser(username = "dashboard@nucleo.com", roles = "USER")
+    void deveFiltrarCampos() throws Exception {
+        mockMvc.perform(get("/api/dashboard").param("campos", "saldo,metas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.saldo").exists())
+                .andExpect(jsonPath("$.metas[0].titulo").value("Viagem"))
+                .andExpect(jsonPath("$.usuario").doesNotExist())
+                .andExpect(jsonPath("$.resumo").doesNotExist())
+                .andExpect(jsonPath("$.alertas").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar campo desconhecido")
+    @WithMockUser(username = "dashboard@nucleo.com", roles = "USER")
+    void deveRejeitarCampoDesconhecido() throws Exception {
+        mockMvc.perform(get("/api/dashboard").param("campos", "saldo,extrato"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+}
@@ -0,0 +1,78 @@
+package com.nucleo.backend.controller;
+
+import com.nucleo.model.Usuario;
+import com.nucleo.repository.UsuarioRepository;
+import com.nucleo.security.SecurityUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * O scrape do Prometheus responde sem token e traz os medidores proprios
+ * (servicos, statements por requisicao, alertas, e-mails) ao lado dos do Actuator.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricasPrometheusTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Test
+    @DisplayName("Deve exportar timers dos serviços, statements por rota e medidores do pool, de alertas e de e-mails")
+    @WithMockUser(username = "metricas@nucleo.com", roles = "USER")
+    void deveExportarMetricas() throws Exception {
+        Usuario usuario = usuarioRepository.save(Usuario.builder()
+                .nome("Métricas").email("metricas-" + UUID.randomUUID() + "@nucleo.com").senha("x").build());
+        try (MockedStatic<SecurityUtils> security = Mockito.mockStatic(SecurityUtils.class)) {
+            security.when(SecurityUtils::getCurrentUserId).thenReturn(usuario.getId());
+            security.when(SecurityUtils::isAdmin).thenReturn(false);
+            mockMvc.perform(get("/api/transacoes/me")).andExpect(status().isOk());
+        }
+
+        String corpo = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(corpo)
+                .contains("nucleo_servico_seconds_count{application=\"nucleo-backend\",classe=\"TransacaoService\"")
+                .contains("nucleo_http_jdbc_statements_count{application=\"nucleo-backend\",method=\"GET\",uri=\"/api/transacoes/me\"}")
+                .contains("hikaricp_connections_active")
+                .contains("nucleo_alertas_janelas")
+                .contains("nucleo_notificacoes_pendentes")
+                .contains("nucleo_notificacoes_enviadas_total")
+                .contains("hibernate_second_level_cache_requests_total");
+    }
+
+    @Test
+    @DisplayName("Deve liberar o scrape e o health sem token")
+    void deveLiberarScrapeSemToken() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("Deve exigir ADMIN nos demais endpoints do Actuator")
+    @WithMockUser(username = "usuario@nucleo.com", roles = "USER")
+    void deveProtegerActuator() throws Exception {
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,99 @@
+package com.nucleo.backend.controller;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.nucleo.config.RegistroRequisicaoFilter;
+import com.nucleo.model.Usuario;
+import com.nucleo.repository.UsuarioRepository;
+import com.nucleo.security.SecurityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Cada requisicao sai com um id de correlacao no cabecalho e no MDC, e deixa uma
+ * linha de resumo com rota, status, duracao e statements.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class RegistroRequisicaoTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    private final ListAppender<ILoggingEvent> eventos = new ListAppender<>();
+    private Logger logger;
+
+    @BeforeEach
+    void setup() {
+        logger = (Logger) LoggerFactory.getLogger(RegistroRequisicaoFilter.class);
+        eventos.start();
+        logger.addAppender(eventos);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(eventos);
+    }
+
+    @Test
+    @DisplayName("Deve devolver o id de correlação recebido e registrá-lo no resumo da requisição")
+    @WithMockUser(username = "registro@nucleo.com", roles = "USER")
+    void deveRegistrarResumoComCorrelacao() throws Exception {
+        Usuario usuario = usuarioRepository.save(Usuario.builder()
+                .nome("Registro").email("registro-" + UUID.randomUUID() + "@nucleo.com").senha("x").build());
+        try (MockedStatic<SecurityUtils> security = Mockito.mockStatic(SecurityUtils.class)) {
+            security.when(SecurityUtils::getCurrentUserId).thenReturn(usuario.getId());
+            security.when(SecurityUtils::isAdmin).thenReturn(false);
+            mockMvc.perform(get("/api/transacoes/me").header(RegistroRequisicaoFilter.CABECALHO, "pedido-42"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(RegistroRequisicaoFilter.CABECALHO, "pedido-42"));
+        }
+
+        assertThat(eventos.list).hasSize(1);
+        ILoggingEvent resumo = eventos.list.get(0);
+        assertThat(resumo.getMDCPropertyMap()).containsEntry(RegistroRequisicaoFilter.MDC_CORRELACAO, "pedido-42");
+        Map<String, Object> campos = resumo.getKeyValuePairs().stream()
+                .collect(Collectors.toMap(par -> par.key, par -> par.value));
+        assertThat(campos)
+                .containsEntry("rota", "/api/transacoes/me")
+                .containsEntry("status", "200")
+                .containsKeys("duracaoMs", "statements");
+        assertThat((Integer) campos.get("statements")).isPositive();
+    }
+
+    @Test
+    @DisplayName("Deve gerar um id novo quando o recebido falta ou tem caracteres inválidos")
+    void deveGerarIdDeCorrelacao() throws Exception {
+        String gerado = mockMvc.perform(get("/actuator/health"))
+                .andReturn().getResponse().getHeader(RegistroRequisicaoFilter.CABECALHO);
+        assertThat(gerado).matches("[0-9a-f]{32}");
+
+        String substituido = mockMvc.perform(get("/actuator/health")
+                        .header(RegistroRequisicaoFilter.CABECALHO, "linha\"quebrada"))
+                .andReturn().getResponse().getHeader(RegistroRequisicaoFilter.CABECALHO);
+        assertThat(substituido).matches("[0-9a-f]{32}");
+    }
+}
@@ -0,0 +1,137 @@
+package com.nucleo.backend.controller;
+
+import com.nucleo.model.Categoria;
+import com.nucleo.model.ContasBancarias;
+import com.nucleo.model.TipoConta;
+import com.nucleo.model.Transacao;
+import com.nucleo.model.Usuario;
+import com.nucleo.repository.CategoriaRepository;
+import com.nucleo.repository.ContasBancariasRepository;
+import com.nucleo.repository.TransacaoRepository;
+import com.nucleo.repository.UsuarioRepository;
+import com.nucleo.security.SecurityUtils;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garante que as listagens de transacao saem de um unico SELECT com joins,
+ * contando os statements preparados pelo Hibernate em cada requisicao.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class TransacaoConsultasTest {
+
+    private static final int QUANTIDADE = 20;
+
+    private MockedStatic<SecurityUtils> securityUtilsMock;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ContasBancariasRepository contasBancariasRepository;
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    private Statistics estatisticas;
+    private Categoria categoria;
+
+    @BeforeEach
+    void setup() {
+        Usuario usuario = usuarioRepository.save(Usuario.builder()
+                .nome("Consultas").email("consultas-" + UUID.randomUUID() + "@nucleo.com").senha("x").build());
+        categoria = categoriaRepository.save(Categoria.builder()
+                .nome("Consultas " + UUID.randomUUID()).tipo(Categoria.TipoCategoria.SAIDA).usuario(usuario).build());
+        ContasBancarias conta = contasBancariasRepository.save(ContasBancarias.builder()
+                .instituicao("Banco").tipo(TipoConta.CORRENTE).usuario(usuario).build());
+
+        List<Transacao> transacoes = new ArrayList<>();
+        for (int i = 0; i < QUANTIDADE; i++) {
+            transacoes.add(Transacao.builder()
+                    .descricao("Compra " + i)
+                    .valor(new BigDecimal("10.00"))
+                    .data(LocalDate.of(2024, 1, 1).plusDays(i))
+                    .tipo(Transacao.TipoTransacao.SAIDA)
+                    .usuario(usuario)
+                    .categoria(categoria)
+                    .conta(conta)
+                    .build());
+        }
+        transacaoRepository.saveAll(transacoes);
+
+        securityUtilsMock = Mockito.mockStatic(SecurityUtils.class);
+        securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(usuario.getId());
+        securityUtilsMock.when(SecurityUtils::isAdmin).thenReturn(false);
+
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (securityUtilsMock != null) {
+            securityUtilsMock.close();
+        }
+    }
+
+    private long statements(RequestBuilder requisicao, String caminhoPrimeiroItem) throws Exception {
+        estatisticas.clear();
+        mockMvc.perform(requisicao)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(caminhoPrimeiroItem + ".categoriaNome").value(categoria.getNome()))
+                .andExpect(jsonPath(caminhoPrimeiroItem + ".usuarioNome").value("Consultas"));
+        return estatisticas.getPrepareStatementCount();
+    }
+
+    @Test
+    @DisplayName("Deve listar transações com um único statement, independente da quantidade")
+    @WithMockUser(username = "consultas@nucleo.com", roles = "USER")
+    void deveListarComUmStatement() throws Exception {
+        assertThat(statements(get("/api/transacoes/me"), "$[0]")).isEqualTo(1);
+        assertThat(statements(get("/api/transacoes/user"), "$[0]")).isEqualTo(1);
+        assertThat(statements(get("/api/transacoes/me/tipo/SAIDA"), "$[0]")).isEqualTo(1);
+        assertThat(statements(get("/api/transacoes/me/periodo")
+                .param("dataInicio", "2024-01-01").param("dataFim", "2024-12-31"), "$[0]")).isEqualTo(1);
+        assertThat(statements(get("/api/transacoes/me").param("limite", "5"), "$.itens[0]")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve listar por categoria com a validação da categoria vinda do cache e um único statement")
+    @WithMockUser(username = "consultas@nucleo.com", roles = "USER")
+    void deveListarPorCategoria() throws Exception {
+        assertThat(statements(get("/api/transacoes/me/categoria/" + categoria.getId()), "$[0]")).isEqualTo(1);
+    }
+}
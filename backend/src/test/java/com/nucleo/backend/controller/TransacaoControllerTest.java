@@ -1,13 +1,19 @@
 package com.nucleo.backend.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nucleo.dto.ErroImportacaoDTO;
+import com.nucleo.dto.ResultadoImportacaoDTO;
+import com.nucleo.dto.PaginaDTO;
+import com.nucleo.dto.SaldoDTO;
 import com.nucleo.dto.TransacaoRequestDTO;
 import com.nucleo.dto.TransacaoResponseDTO;
 import com.nucleo.model.Categoria;
 import com.nucleo.model.Transacao;
 import com.nucleo.model.Usuario;
 import com.nucleo.security.SecurityUtils;
+import com.nucleo.service.ImportacaoTransacaoService;
 import com.nucleo.service.TransacaoService;
+import com.nucleo.service.importacao.LeitorCsv;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -22,11 +28,14 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -45,6 +54,9 @@ class TransacaoControllerTest {
     @MockBean
     private TransacaoService transacaoService;
 
+    @MockBean
+    private ImportacaoTransacaoService importacaoService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -123,7 +135,8 @@ class TransacaoControllerTest {
                 .usuario(Usuario.builder().id(1L).build())
                 .build();
 
-        BDDMockito.given(transacaoService.listarTodas()).willReturn(List.of(t1, t2));
+        BDDMockito.given(transacaoService.listarTodas()).willReturn(List.of(
+                TransacaoResponseDTO.fromEntity(t1), TransacaoResponseDTO.fromEntity(t2)));
 
         mockMvc.perform(get("/api/transacoes/user"))
                 .andExpect(status().isOk())
@@ -210,7 +223,8 @@ class TransacaoControllerTest {
                 .usuario(Usuario.builder().id(1L).build())
                 .build();
 
-        BDDMockito.given(transacaoService.encontraPorTipo(Transacao.TipoTransacao.ENTRADA)).willReturn(List.of(t));
+        BDDMockito.given(transacaoService.encontraPorTipo(Transacao.TipoTransacao.ENTRADA))
+                .willReturn(List.of(TransacaoResponseDTO.fromEntity(t)));
 
         mockMvc.perform(get("/api/transacoes/me/tipo/ENTRADA"))
                 .andExpect(status().isOk())
@@ -222,9 +236,8 @@ class TransacaoControllerTest {
     @DisplayName("Deve retornar resumo financeiro do usuário")
     @WithMockUser(username = "joao@nucleo.com", roles = "USER")
     void deveRetornarResumoFinanceiro() throws Exception {
-        BDDMockito.given(transacaoService.getTotalEntradas(1L)).willReturn(new BigDecimal("5000.00"));
-        BDDMockito.given(transacaoService.getTotalSaidas(1L)).willReturn(new BigDecimal("3000.00"));
-        BDDMockito.given(transacaoService.getSaldo(1L)).willReturn(new BigDecimal("2000.00"));
+        BDDMockito.given(transacaoService.getResumo(1L)).willReturn(new SaldoDTO(
+                new BigDecimal("5000.00"), new BigDecimal("3000.00"), new BigDecimal("2000.00")));
 
         mockMvc.perform(get("/api/transacoes/me/resumo"))
                 .andExpect(status().isOk())
@@ -232,4 +245,61 @@ class TransacaoControllerTest {
                 .andExpect(content().string(org.hamcrest.Matchers.containsString("Saídas")))
                 .andExpect(content().string(org.hamcrest.Matchers.containsString("Saldo")));
     }
+
+    @Test
+    @DisplayName("Deve importar extrato CSV enviado no corpo da requisição")
+    @WithMockUser(username = "joao@nucleo.com", roles = "USER")
+    void deveImportarCsv() throws Exception {
+        BDDMockito.given(importacaoService.importar(any(LeitorCsv.class))).willReturn(new ResultadoImportacaoDTO(
+                2, 1, 1, List.of(new ErroImportacaoDTO(3, "Valor ausente ou invalido"))));
+
+        mockMvc.perform(post("/api/transacoes/importacao")
+                        .param("contaId", "1")
+                        .contentType("text/csv")
+                        .content("data,descricao,valor\n2024-01-05,Mercado,-10.00\n2024-01-06,Padaria,\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importadas").value(1))
+                .andExpect(jsonPath("$.erros[0].linha").value(3));
+    }
+
+    @Test
+    @DisplayName("Deve retornar página com cursor quando o limite é informado")
+    @WithMockUser(username = "joao@nucleo.com", roles = "USER")
+    void deveRetornarPaginaComCursor() throws Exception {
+        TransacaoResponseDTO dto = new TransacaoResponseDTO();
+        dto.setId(5L);
+        dto.setDescricao("Mercado");
+        BDDMockito.given(transacaoService.listarPagina(1L, null, null, 1))
+                .willReturn(new PaginaDTO<>(List.of(dto), "MjAyNC0wMS0wMTo1"));
+
+        mockMvc.perform(get("/api/transacoes/me").param("limite", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens[0].id").value(5))
+                .andExpect(jsonPath("$.proximoCursor").value("MjAyNC0wMS0wMTo1"));
+    }
+
+    @Test
+    @DisplayName("Deve exportar as transações em NDJSON, uma por linha")
+    @WithMockUser(username = "joao@nucleo.com", roles = "USER")
+    void deveExportarNdjson() throws Exception {
+        BDDMockito.willAnswer(invocation -> {
+            Consumer<TransacaoResponseDTO> consumidor = invocation.getArgument(2);
+            for (long id = 1; id <= 2; id++) {
+                TransacaoResponseDTO dto = new TransacaoResponseDTO();
+                dto.setId(id);
+                consumidor.accept(dto);
+            }
+            return null;
+        }).given(transacaoService).percorrer(eq(1L), eq(null), any());
+
+        MvcResult resultado = mockMvc.perform(get("/api/transacoes/me/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String corpo = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(corpo.lines()).hasSize(2).allMatch(linha -> linha.startsWith("{\"id\":"));
+    }
 }
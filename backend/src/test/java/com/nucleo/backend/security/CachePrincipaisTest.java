@@ -0,0 +1,88 @@
+package com.nucleo.backend.security;
+
+import com.nucleo.model.Usuario;
+import com.nucleo.repository.UsuarioRepository;
+import com.nucleo.security.CachePrincipais;
+import com.nucleo.security.JwtTokenProvider;
+import com.nucleo.security.UserDetailsImpl;
+import com.nucleo.security.UserDetailsServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class CachePrincipaisTest {
+
+    @Autowired
+    private CachePrincipais cachePrincipais;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @MockitoSpyBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockitoSpyBean
+    private UserDetailsServiceImpl userDetailsService;
+
+    private Usuario usuario;
+    private String token;
+
+    @BeforeEach
+    void setup() {
+        cachePrincipais.limpar();
+        usuario = usuarioRepository.save(Usuario.builder()
+                .nome("Cache").email("cache-" + UUID.randomUUID() + "@nucleo.com").senha("x").build());
+        token = jwtTokenProvider.generateToken(UserDetailsImpl.build(usuario));
+        Mockito.clearInvocations(jwtTokenProvider, userDetailsService);
+    }
+
+    @Test
+    @DisplayName("Deve montar o principal das claims e servir as requisições seguintes do cache")
+    void deveResolverSemBanco() {
+        UserDetailsImpl primeiro = cachePrincipais.resolver(token);
+        UserDetailsImpl segundo = cachePrincipais.resolver(token);
+
+        assertThat(primeiro.getId()).isEqualTo(usuario.getId());
+        assertThat(primeiro.getUsername()).isEqualTo(usuario.getEmail());
+        assertThat(primeiro.getPassword()).isNull();
+        assertThat(primeiro.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+        assertThat(segundo).isSameAs(primeiro);
+        verify(jwtTokenProvider, times(1)).extrairClaims(any());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    @DisplayName("Deve recusar tokens de usuário desativado depois da invalidação")
+    void deveRecusarUsuarioDesativado() {
+        assertThat(cachePrincipais.resolver(token)).isNotNull();
+
+        usuarioRepository.softDelete(usuario.getId());
+        cachePrincipais.invalidarUsuario(usuario.getId());
+
+        assertThat(cachePrincipais.resolver(token)).isNull();
+        verify(userDetailsService).loadUserByUsername(usuario.getEmail());
+    }
+
+    @Test
+    @DisplayName("Deve recusar token com assinatura inválida")
+    void deveRecusarTokenInvalido() {
+        String adulterado = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThat(cachePrincipais.resolver(adulterado)).isNull();
+        assertThat(cachePrincipais.resolver("nao-e-um-jwt")).isNull();
+    }
+}
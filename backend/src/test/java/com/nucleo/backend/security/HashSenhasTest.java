@@ -0,0 +1,106 @@
+package com.nucleo.backend.security;
+
+import com.nucleo.dto.AuthRequestDTO;
+import com.nucleo.exception.ServicoSobrecarregadoException;
+import com.nucleo.model.Usuario;
+import com.nucleo.repository.UsuarioRepository;
+import com.nucleo.security.HashSenhas;
+import com.nucleo.service.AuthService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class HashSenhasTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Deve regravar no login o hash legado, sem prefixo e com força menor")
+    void deveRefazerHashLegadoNoLogin() {
+        String email = "rehash-" + UUID.randomUUID() + "@nucleo.com";
+        String legado = new BCryptPasswordEncoder(4).encode("segredo1");
+        usuarioRepository.save(Usuario.builder().nome("Rehash").email(email).senha(legado).build());
+
+        authService.autenticar(new AuthRequestDTO(email, "segredo1")).join();
+
+        String atual = usuarioRepository.findByEmailAndAtivoTrue(email).orElseThrow().getSenha();
+        assertThat(atual).startsWith("{bcrypt}$2a$10$");
+        assertThat(passwordEncoder.upgradeEncoding(atual)).isFalse();
+        assertThat(authService.autenticar(new AuthRequestDTO(email, "segredo1")).join().getEmail()).isEqualTo(email);
+    }
+
+    @Test
+    @DisplayName("Deve recusar na entrada quando não houver vaga e voltar a aceitar depois")
+    void deveRecusarSemVaga() throws Exception {
+        HashSenhas hashSenhas = new HashSenhas(executor, new SimpleMeterRegistry(), 1, 60_000);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<String> ocupada = hashSenhas.executar(() -> {
+            aguardar(liberar);
+            return "primeira";
+        });
+
+        assertThatThrownBy(() -> hashSenhas.executar(() -> "segunda"))
+                .isInstanceOf(ServicoSobrecarregadoException.class);
+
+        liberar.countDown();
+        assertThat(ocupada.join()).isEqualTo("primeira");
+        assertThat(hashSenhas.executar(() -> "terceira").join()).isEqualTo("terceira");
+    }
+
+    @Test
+    @DisplayName("Deve descartar sem executar a tarefa que passou da espera máxima na fila")
+    void deveDescartarTarefaVencida() throws Exception {
+        HashSenhas hashSenhas = new HashSenhas(executor, new SimpleMeterRegistry(), 2, 10);
+        CountDownLatch liberar = new CountDownLatch(1);
+        hashSenhas.executar(() -> {
+            aguardar(liberar);
+            return null;
+        });
+        AtomicBoolean executou = new AtomicBoolean();
+        CompletableFuture<Boolean> vencida = hashSenhas.executar(() -> executou.getAndSet(true));
+
+        Thread.sleep(50);
+        liberar.countDown();
+
+        assertThatThrownBy(vencida::join).hasCauseInstanceOf(ServicoSobrecarregadoException.class);
+        assertThat(executou).isFalse();
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
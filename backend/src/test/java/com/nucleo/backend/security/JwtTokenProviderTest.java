@@ -0,0 +1,47 @@
+package com.nucleo.backend.security;
+
+import com.nucleo.security.ClaimsToken;
+import com.nucleo.security.JwtTokenProvider;
+import com.nucleo.security.UserDetailsImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenProviderTest {
+
+    private static final String SEGREDO = "segredoDeTesteComTamanhoSuficienteParaHmacSha256!!";
+
+    private final UserDetailsImpl usuario = new UserDetailsImpl(7L, "claims@nucleo.com", null,
+            List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+    @Test
+    @DisplayName("Deve extrair subject, id, roles e expiração de um único parse")
+    void deveExtrairClaims() {
+        JwtTokenProvider provider = new JwtTokenProvider(SEGREDO, 60_000L);
+
+        ClaimsToken claims = provider.extrairClaims(provider.generateToken(usuario)).orElseThrow();
+
+        assertThat(claims.subject()).isEqualTo("claims@nucleo.com");
+        assertThat(claims.id()).isNotBlank();
+        assertThat(claims.usuarioId()).isEqualTo(7L);
+        assertThat(claims.roles()).containsExactly("ROLE_USER", "ROLE_ADMIN");
+        assertThat(claims.expiraEm()).isAfter(Instant.now());
+    }
+
+    @Test
+    @DisplayName("Deve recusar token expirado ou assinado com outra chave")
+    void deveRecusarTokenInvalido() {
+        JwtTokenProvider provider = new JwtTokenProvider(SEGREDO, 60_000L);
+        JwtTokenProvider expirado = new JwtTokenProvider(SEGREDO, -1_000L);
+        JwtTokenProvider outraChave = new JwtTokenProvider(SEGREDO.replace('s', 'S'), 60_000L);
+
+        assertThat(provider.extrairClaims(expirado.generateToken(usuario))).isEmpty();
+        assertThat(provider.validateToken(outraChave.generateToken(usuario))).isFalse();
+        assertThat(provider.validateToken(provider.generateToken(usuario))).isTrue();
+    }
+}
@@ -0,0 +1,174 @@
+package com.nucleo.backend.security;
+
+import com.nucleo.dto.AuthRequestDTO;
+import com.nucleo.dto.AuthResponseDTO;
+import com.nucleo.dto.RefreshTokenRequestDTO;
+import com.nucleo.exception.AuthenticationException;
+import com.nucleo.model.RevogacaoToken;
+import com.nucleo.model.Usuario;
+import com.nucleo.repository.RevogacaoTokenRepository;
+import com.nucleo.repository.UsuarioRepository;
+import com.nucleo.security.CachePrincipais;
+import com.nucleo.security.FiltroBloom;
+import com.nucleo.security.RevogacaoTokens;
+import com.nucleo.service.AuthService;
+import com.nucleo.service.UsuarioService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class RevogacaoTokensTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private CachePrincipais cachePrincipais;
+
+    @Autowired
+    private RevogacaoTokens revogacaoTokens;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setup() {
+        cachePrincipais.limpar();
+    }
+
+    private AuthResponseDTO entrar(String nome) {
+        String email = nome + "-" + UUID.randomUUID() + "@nucleo.com";
+        usuarioRepository.save(Usuario.builder().nome(nome).email(email).senha(passwordEncoder.encode("segredo1")).build());
+        return authService.autenticar(new AuthRequestDTO(email, "segredo1")).join();
+    }
+
+    private static String acesso(AuthResponseDTO resposta) {
+        return resposta.getToken().substring("Bearer ".length());
+    }
+
+    private AuthResponseDTO renovar(String refreshToken) {
+        return authService.renovar(new RefreshTokenRequestDTO(refreshToken));
+    }
+
+    @Test
+    @DisplayName("Deve girar o refresh token e revogar a família quando um token usado reaparece")
+    void deveGirarEDetectarReuso() {
+        AuthResponseDTO login = entrar("Refresh");
+        assertThat(login.getRefreshToken()).isNotBlank();
+        assertThat(login.getExpiresIn()).isPositive();
+
+        AuthResponseDTO renovado = renovar(login.getRefreshToken());
+        assertThat(renovado.getRefreshToken()).isNotEqualTo(login.getRefreshToken());
+        assertThat(cachePrincipais.resolver(acesso(renovado))).isNotNull();
+
+        assertThatThrownBy(() -> renovar(login.getRefreshToken())).isInstanceOf(AuthenticationException.class);
+        // o reuso derruba tambem o token que ainda nao tinha sido usado
+        assertThatThrownBy(() -> renovar(renovado.getRefreshToken())).isInstanceOf(AuthenticationException.class);
+    }
+
+    @Test
+    @DisplayName("Deve recusar na hora os tokens de um usuário desativado, sem afetar os demais")
+    void deveRecusarTokensDeUsuarioDesativado() {
+        AuthResponseDTO desativado = entrar("Desativado");
+        AuthResponseDTO outro = entrar("Outro");
+        Long usuarioId = cachePrincipais.resolver(acesso(desativado)).getId();
+
+        usuarioService.deletaUsuario(usuarioId);
+
+        assertThat(cachePrincipais.resolver(acesso(desativado))).isNull();
+        assertThat(cachePrincipais.resolver(acesso(outro))).isNotNull();
+        assertThatThrownBy(() -> renovar(desativado.getRefreshToken())).isInstanceOf(AuthenticationException.class);
+
+        // a revogacao esta gravada: sobrevive a reconstrucao do filtro
+        revogacaoTokens.sincronizar();
+        assertThat(cachePrincipais.resolver(acesso(desativado))).isNull();
+        assertThat(cachePrincipais.resolver(acesso(outro))).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Deve revogar no logout o token de acesso e o refresh token")
+    void deveRevogarNoLogout() {
+        AuthResponseDTO sessao = entrar("Logout");
+        AuthResponseDTO outraSessao = authService.renovar(new RefreshTokenRequestDTO(entrar("Outro").getRefreshToken()));
+
+        authService.sair(new RefreshTokenRequestDTO(sessao.getRefreshToken()), sessao.getToken());
+
+        assertThat(cachePrincipais.resolver(acesso(sessao))).isNull();
+        assertThatThrownBy(() -> renovar(sessao.getRefreshToken())).isInstanceOf(AuthenticationException.class);
+        assertThat(cachePrincipais.resolver(acesso(outraSessao))).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Filtro de Bloom não deve ter falsos negativos e deve errar perto da taxa escolhida")
+    void filtroBloomDeveRespeitarATaxa() {
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar("jti:" + i);
+        }
+        int falsosPositivos = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filtro.talvezContenha("jti:" + i)).isTrue();
+            falsosPositivos += filtro.talvezContenha("usuario:" + i) ? 1 : 0;
+        }
+        assertThat(falsosPositivos).isLessThan(200);
+    }
+
+    @Test
+    @DisplayName("Revogação desfeita por rollback não deve ficar no filtro em memória")
+    void naoDeveGuardarRevogacaoDesfeita() {
+        String jti = UUID.randomUUID().toString();
+        transactionTemplate.executeWithoutResult(status -> {
+            revogacaoTokens.revogarToken(jti, 1L, Instant.now().plusSeconds(60));
+            status.setRollbackOnly();
+        });
+
+        assertThat(revogacaoTokens.revogado(1L, jti, Instant.now())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Revogação gravada enquanto a sincronização lê a tabela deve sobreviver à troca do filtro")
+    void deveManterRevogacaoFeitaDuranteSincronizacao() {
+        RevogacaoTokenRepository repositorio = Mockito.mock(RevogacaoTokenRepository.class);
+        RevogacaoTokens revogacao = new RevogacaoTokens(repositorio, new SimpleMeterRegistry(), 900000, 1000, 100);
+        String jti = UUID.randomUUID().toString();
+        LocalDateTime agora = LocalDateTime.now();
+        BDDMockito.given(repositorio.chavesVigentes(ArgumentMatchers.any())).willAnswer(invocacao -> {
+            // outra requisicao revoga depois da leitura da tabela e antes da troca do filtro
+            revogacao.revogarToken(jti, 1L, null);
+            return List.of();
+        });
+        BDDMockito.given(repositorio.findById("jti:" + jti))
+                .willReturn(Optional.of(new RevogacaoToken("jti:" + jti, 1L, agora, agora.plusMinutes(15))));
+
+        revogacao.sincronizar();
+
+        assertThat(revogacao.revogado(1L, jti, Instant.now())).isTrue();
+    }
+}
@@ -25,7 +25,7 @@ import java.util.Optional;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
 
 @SpringBootTest
@@ -75,7 +75,7 @@ class AuthServiceTest {
         BDDMockito.given(jwtTokenProvider.generateToken(any(UserDetailsImpl.class)))
                 .willReturn("token123");
 
-        AuthResponseDTO response = authService.autenticar(request);
+        AuthResponseDTO response = authService.autenticar(request).join();
 
         assertThat(response).isNotNull();
         assertThat(response.getToken()).contains("Bearer");
@@ -91,7 +91,8 @@ class AuthServiceTest {
                 .given(authenticationManager)
                 .authenticate(any(UsernamePasswordAuthenticationToken.class));
 
-        assertThrows(ResourceNotFoundException.class, () -> authService.autenticar(request));
+        assertThatThrownBy(() -> authService.autenticar(request).join())
+                .hasCauseInstanceOf(ResourceNotFoundException.class);
     }
 
     @Test
@@ -115,7 +116,7 @@ class AuthServiceTest {
         BDDMockito.given(jwtTokenProvider.generateToken(any(UserDetailsImpl.class)))
                 .willReturn("tokenNovoUsuario");
 
-        AuthResponseDTO response = authService.registrar(request);
+        AuthResponseDTO response = authService.registrar(request).join();
 
         assertThat(response.getToken()).contains("Bearer tokenNovoUsuario");
         assertThat(response.getEmail()).isEqualTo("novo@nucleo.com");
@@ -129,7 +130,8 @@ class AuthServiceTest {
         BDDMockito.given(usuarioRepository.findByEmailAndAtivoTrue("isa@nucleo.com"))
                 .willReturn(Optional.of(usuarioExistente));
 
-        assertThrows(EntityNotCreatedException.class, () -> authService.registrar(request));
+        assertThatThrownBy(() -> authService.registrar(request).join())
+                .hasCauseInstanceOf(EntityNotCreatedException.class);
     }
 
     @Test
@@ -143,6 +145,7 @@ class AuthServiceTest {
         BDDMockito.willThrow(new RuntimeException("Erro inesperado"))
                 .given(usuarioRepository).save(any(Usuario.class));
 
-        assertThrows(EntityNotCreatedException.class, () -> authService.registrar(request));
+        assertThatThrownBy(() -> authService.registrar(request).join())
+                .hasCauseInstanceOf(EntityNotCreatedException.class);
     }
 }
@@ -0,0 +1,254 @@
+package com.nucleo.backend.service;
+
+import com.nucleo.dto.SaldoDTO;
+import com.nucleo.model.Alerta;
+import com.nucleo.model.Categoria;
+import com.nucleo.model.ContasBancarias;
+import com.nucleo.model.Transacao;
+import com.nucleo.repository.TransacaoRepository;
+import com.nucleo.service.AlertaService;
+import com.nucleo.service.SaldoService;
+import com.nucleo.service.alerta.AvaliadorAlertas;
+import com.nucleo.service.alerta.DisparoAlerta;
+import com.nucleo.service.listener.LancamentoTransacao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.times;
+
+@SpringBootTest
+class AvaliadorAlertasTest {
+
+    private static final Long USUARIO_ID = 42L;
+
+    @Autowired
+    private AvaliadorAlertas avaliadorAlertas;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private TransacaoRepository transacaoRepository;
+
+    @MockitoBean
+    private AlertaService alertaService;
+
+    @MockitoBean
+    private SaldoService saldoService;
+
+    private Categoria alimentacao;
+
+    @BeforeEach
+    void setup() {
+        avaliadorAlertas.invalidar(USUARIO_ID);
+        alimentacao = Categoria.builder().id(1L).nome("Alimentação").build();
+
+        BDDMockito.given(transacaoRepository.somarPorCategoriaEDia(eq(USUARIO_ID), eq(Transacao.TipoTransacao.SAIDA), any()))
+                .willReturn(List.<Object[]>of(new Object[]{1L, LocalDate.now().minusDays(2), new BigDecimal("80.00"), 1L}));
+    }
+
+    private LancamentoTransacao saida(long id, String valor) {
+        return new LancamentoTransacao(id, USUARIO_ID, 1L, 1L, Transacao.TipoTransacao.SAIDA,
+                new BigDecimal(valor), LocalDate.now());
+    }
+
+    private Alerta alerta(Alerta.TipoAlerta tipo, String limite) {
+        return Alerta.builder()
+                .id(7L)
+                .tipo(tipo)
+                .categoria(alimentacao)
+                .limiteValor(limite != null ? new BigDecimal(limite) : null)
+                .conta(ContasBancarias.builder().id(1L).build())
+                .janelaDias(30)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Deve disparar limite de categoria somando a janela de forma incremental")
+    void deveDispararLimiteCategoria() {
+        BDDMockito.given(alertaService.listarPorUsuario(USUARIO_ID))
+                .willReturn(List.of(alerta(Alerta.TipoAlerta.LIMITE_CATEGORIA, "90.00")));
+
+        // a primeira escrita carrega a janela do banco, que ja inclui a transacao
+        LancamentoTransacao primeira = saida(1L, "10.00");
+        avaliadorAlertas.aoIncluir(primeira);
+        assertThat(avaliadorAlertas.avaliar(primeira)).isEmpty();
+
+        LancamentoTransacao segunda = saida(2L, "15.00");
+        avaliadorAlertas.aoIncluir(segunda);
+        List<DisparoAlerta> disparos = avaliadorAlertas.avaliar(segunda);
+
+        assertThat(disparos).hasSize(1);
+        assertThat(disparos.get(0).valorApurado()).isEqualByComparingTo("95.00");
+        BDDMockito.then(transacaoRepository).should(times(1))
+                .somarPorCategoriaEDia(eq(USUARIO_ID), eq(Transacao.TipoTransacao.SAIDA), any());
+    }
+
+    @Test
+    @DisplayName("Deve desfazer o valor na janela ao remover a transação")
+    void deveDesfazerAoRemover() {
+        BDDMockito.given(alertaService.listarPorUsuario(USUARIO_ID))
+                .willReturn(List.of(alerta(Alerta.TipoAlerta.LIMITE_CATEGORIA, "100.00")));
+
+        LancamentoTransacao grande = saida(1L, "50.00");
+        avaliadorAlertas.aoIncluir(grande);
+        avaliadorAlertas.aoIncluir(grande);
+        avaliadorAlertas.aoRemover(grande);
+
+        assertThat(avaliadorAlertas.avaliar(saida(2L, "0.00"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve disparar saldo mínimo a partir da projeção de saldo da conta")
+    void deveDispararSaldoMinimo() {
+        BDDMockito.given(alertaService.listarPorUsuario(USUARIO_ID))
+                .willReturn(List.of(alerta(Alerta.TipoAlerta.SALDO_MINIMO, "500.00")));
+        BDDMockito.given(saldoService.getSaldoConta(1L)).willReturn(new SaldoDTO(
+                new BigDecimal("1000.00"), new BigDecimal("500.00"), new BigDecimal("500.00")));
+
+        LancamentoTransacao aluguel = saida(2L, "420.00");
+        avaliadorAlertas.aoIncluir(aluguel);
+
+        List<DisparoAlerta> disparos = avaliadorAlertas.avaliar(aluguel);
+        assertThat(disparos).hasSize(1);
+        assertThat(disparos.get(0).valorApurado()).isEqualByComparingTo("500.00");
+    }
+
+    @Test
+    @DisplayName("Deve identificar gasto atípico em relação à média da janela")
+    void deveIdentificarGastoAtipico() {
+        BDDMockito.given(alertaService.listarPorUsuario(USUARIO_ID))
+                .willReturn(List.of(alerta(Alerta.TipoAlerta.GASTO_ATIPICO, null)));
+
+        avaliadorAlertas.aoIncluir(saida(1L, "70.00"));
+        avaliadorAlertas.aoIncluir(saida(2L, "90.00"));
+        LancamentoTransacao normal = saida(3L, "100.00");
+        avaliadorAlertas.aoIncluir(normal);
+        assertThat(avaliadorAlertas.avaliar(normal)).isEmpty();
+
+        LancamentoTransacao atipico = saida(4L, "900.00");
+        avaliadorAlertas.aoIncluir(atipico);
+        assertThat(avaliadorAlertas.avaliar(atipico)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Deve tolerar pequenas variações em gasto recorrente e desfazer o gasto removido da média")
+    void deveToleraVariacaoEmGastoRecorrente() {
+        BDDMockito.given(alertaService.listarPorUsuario(USUARIO_ID))
+                .willReturn(List.of(alerta(Alerta.TipoAlerta.GASTO_ATIPICO, null)));
+
+        for (long id = 1; id <= 4; id++) {
+            LancamentoTransacao fixo = saida(id, "80.00");
+            avaliadorAlertas.aoIncluir(fixo);
+            assertThat(avaliadorAlertas.avaliar(fixo)).isEmpty();
+        }
+        LancamentoTransacao reajuste = saida(5L, "95.00");
+        avaliadorAlertas.aoIncluir(reajuste);
+        assertThat(avaliadorAlertas.avaliar(reajuste)).isEmpty();
+
+        // removido, o gasto alto nao entra na media e o seguinte continua atipico
+        LancamentoTransacao estornado = saida(6L, "700.00");
+        avaliadorAlertas.aoIncluir(estornado);
+        assertThat(avaliadorAlertas.avaliar(estornado)).hasSize(1);
+        avaliadorAlertas.aoRemover(estornado);
+
+        LancamentoTransacao atipico = saida(7L, "600.00");
+        avaliadorAlertas.aoIncluir(atipico);
+        assertThat(avaliadorAlertas.avaliar(atipico)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Deve carregar a janela uma vez só e manter as escritas concorrentes que chegam durante a carga")
+    void deveCarregarJanelaUmaVezSobConcorrencia() throws Exception {
+        BDDMockito.given(alertaService.listarPorUsuario(USUARIO_ID))
+                .willReturn(List.of(alerta(Alerta.TipoAlerta.LIMITE_CATEGORIA, "85.00")));
+        CountDownLatch consultando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        willAnswer(invocacao -> {
+            consultando.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return List.<Object[]>of(new Object[]{1L, LocalDate.now().minusDays(2), new BigDecimal("80.00"), 1L});
+        }).given(transacaoRepository).somarPorCategoriaEDia(eq(USUARIO_ID), eq(Transacao.TipoTransacao.SAIDA), any());
+
+        // a carga do primeiro nao enxerga a escrita do segundo, que precisa ser somada por cima
+        CompletableFuture<Void> primeira = CompletableFuture.runAsync(() -> avaliadorAlertas.aoIncluir(saida(1L, "10.00")));
+        assertThat(consultando.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread segunda = new Thread(() -> avaliadorAlertas.aoIncluir(saida(2L, "10.00")));
+        segunda.start();
+        while (segunda.isAlive() && segunda.getState() != Thread.State.WAITING) {
+            Thread.sleep(5);
+        }
+        liberar.countDown();
+        primeira.get(5, TimeUnit.SECONDS);
+        segunda.join(5000);
+
+        List<DisparoAlerta> disparos = avaliadorAlertas.avaliar(saida(3L, "0.00"));
+        assertThat(disparos).singleElement()
+                .satisfies(disparo -> assertThat(disparo.valorApurado()).isEqualByComparingTo("90.00"));
+        BDDMockito.then(transacaoRepository).should(times(1))
+                .somarPorCategoriaEDia(eq(USUARIO_ID), eq(Transacao.TipoTransacao.SAIDA), any());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar lançamento com data futura sem apagar o gasto de hoje na janela")
+    void deveIgnorarLancamentoComDataFutura() {
+        BDDMockito.given(alertaService.listarPorUsuario(USUARIO_ID))
+                .willReturn(List.of(alerta(Alerta.TipoAlerta.LIMITE_CATEGORIA, "85.00")));
+        assertThat(avaliadorAlertas.avaliar(saida(1L, "0.00"))).isEmpty();
+
+        avaliadorAlertas.aoIncluir(saida(1L, "10.00"));
+        // um ano e um dia a frente cairia no mesmo slot do buffer que hoje
+        avaliadorAlertas.aoIncluir(new LancamentoTransacao(2L, USUARIO_ID, 1L, 1L, Transacao.TipoTransacao.SAIDA,
+                new BigDecimal("50.00"), LocalDate.now().plusDays(366)));
+
+        assertThat(avaliadorAlertas.avaliar(saida(3L, "0.00"))).singleElement()
+                .satisfies(disparo -> assertThat(disparo.valorApurado()).isEqualByComparingTo("90.00"));
+    }
+
+    @Test
+    @DisplayName("Deve levar as escritas de uma transação à janela só no commit e nada no rollback")
+    void deveAplicarEscritasDaTransacaoSoNoCommit() {
+        BDDMockito.given(alertaService.listarPorUsuario(USUARIO_ID))
+                .willReturn(List.of(alerta(Alerta.TipoAlerta.LIMITE_CATEGORIA, "50.00")));
+        avaliadorAlertas.avaliar(saida(1L, "0.00"));
+        avaliadorAlertas.aoIncluir(saida(1L, "10.00"));
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+
+        transacao.executeWithoutResult(status -> {
+            LancamentoTransacao pendente = saida(2L, "20.00");
+            avaliadorAlertas.aoIncluir(pendente);
+            assertThat(avaliadorAlertas.avaliar(pendente)).singleElement()
+                    .satisfies(disparo -> assertThat(disparo.valorApurado()).isEqualByComparingTo("110.00"));
+            // outra thread so ve o que ja foi commitado
+            assertThat(CompletableFuture.supplyAsync(() -> avaliadorAlertas.avaliar(saida(3L, "0.00"))).join())
+                    .singleElement().satisfies(disparo -> assertThat(disparo.valorApurado()).isEqualByComparingTo("90.00"));
+            status.setRollbackOnly();
+        });
+        assertThat(avaliadorAlertas.avaliar(saida(3L, "0.00"))).singleElement()
+                .satisfies(disparo -> assertThat(disparo.valorApurado()).isEqualByComparingTo("90.00"));
+
+        transacao.executeWithoutResult(status -> avaliadorAlertas.aoIncluir(saida(4L, "5.00")));
+        assertThat(avaliadorAlertas.avaliar(saida(3L, "0.00"))).singleElement()
+                .satisfies(disparo -> assertThat(disparo.valorApurado()).isEqualByComparingTo("95.00"));
+        BDDMockito.then(transacaoRepository).should(times(1))
+                .somarPorCategoriaEDia(eq(USUARIO_ID), eq(Transacao.TipoTransacao.SAIDA), any());
+    }
+}
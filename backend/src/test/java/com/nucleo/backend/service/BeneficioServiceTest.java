@@ -1,5 +1,6 @@
 package com.nucleo.backend.service;
 
+import com.nucleo.dto.PaginaDTO;
 import com.nucleo.exception.EntityNotCreatedException;
 import com.nucleo.exception.EntityNotDeletedException;
 import com.nucleo.exception.EntityNotFoundException;
@@ -10,6 +11,7 @@ import com.nucleo.repository.BeneficioRepository;
 import com.nucleo.security.SecurityUtils;
 import com.nucleo.service.BeneficioService;
 import com.nucleo.service.UsuarioService;
+import com.nucleo.service.listagem.ParametrosPagina;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -20,6 +22,7 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -112,15 +115,16 @@ class BeneficioServiceTest {
     // ---------------------------
 
     @Test
-    @DisplayName("Deve listar todos os benefícios ativos")
-    void deveListarTodos() {
-        BDDMockito.given(beneficioRepository.findAllByAtivoTrue())
+    @DisplayName("Deve listar uma página de benefícios ativos")
+    void deveListarPagina() {
+        BDDMockito.given(beneficioRepository.findBy(any(Specification.class), any()))
                 .willReturn(List.of(beneficio));
 
-        List<Beneficio> lista = beneficioService.listarTodos();
+        PaginaDTO<Beneficio> pagina = beneficioService.listarPagina(null, null, null, ParametrosPagina.primeira());
 
-        assertThat(lista).isNotEmpty();
-        assertThat(lista.get(0).getNome()).isEqualTo("Vale Refeição");
+        assertThat(pagina.itens()).isNotEmpty();
+        assertThat(pagina.itens().get(0).getNome()).isEqualTo("Vale Refeição");
+        assertThat(pagina.proximoCursor()).isNull();
     }
 
     @Test
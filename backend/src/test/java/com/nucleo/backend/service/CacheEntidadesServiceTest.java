@@ -0,0 +1,139 @@
+package com.nucleo.backend.service;
+
+import com.nucleo.dto.CategoriaRequestDTO;
+import com.nucleo.dto.MetricasCacheDTO;
+import com.nucleo.model.Categoria;
+import com.nucleo.model.ContasBancarias;
+import com.nucleo.model.TipoConta;
+import com.nucleo.model.Usuario;
+import com.nucleo.repository.CategoriaRepository;
+import com.nucleo.repository.ContasBancariasRepository;
+import com.nucleo.repository.UsuarioRepository;
+import com.nucleo.service.CacheEntidadesService;
+import com.nucleo.service.CategoriaService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cache de segundo nivel de Usuario, Categoria e ContasBancarias: leituras repetidas
+ * pela chave nao vao ao banco, e atualizacoes e soft deletes nao deixam entradas velhas.
+ * Sem @Transactional: cada chamada abre a propria sessao, como numa requisicao.
+ */
+@SpringBootTest
+class CacheEntidadesServiceTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ContasBancariasRepository contasBancariasRepository;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private CacheEntidadesService cacheEntidadesService;
+
+    private Statistics estatisticas;
+    private Usuario usuario;
+    private Categoria categoria;
+    private ContasBancarias conta;
+
+    @BeforeEach
+    void setup() {
+        usuario = usuarioRepository.save(Usuario.builder()
+                .nome("Cache").email("cache-" + UUID.randomUUID() + "@nucleo.com").senha("x").build());
+        categoria = categoriaRepository.save(Categoria.builder()
+                .nome("Cache " + UUID.randomUUID()).tipo(Categoria.TipoCategoria.SAIDA).usuario(usuario).build());
+        conta = contasBancariasRepository.save(ContasBancarias.builder()
+                .instituicao("Banco").tipo(TipoConta.CORRENTE).usuario(usuario).build());
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private long statements(Supplier<?> leitura) {
+        estatisticas.clear();
+        leitura.get();
+        return estatisticas.getPrepareStatementCount();
+    }
+
+    @Test
+    @DisplayName("Deve ler usuário, categoria e conta pela chave sem ir ao banco depois da primeira vez")
+    void deveLerDoCache() {
+        usuarioRepository.findByIdAndAtivoTrue(usuario.getId());
+        categoriaRepository.findByIdAndAtivoTrue(categoria.getId());
+        contasBancariasRepository.findByIdAndUsuarioIdAndAtivoTrue(conta.getId(), usuario.getId());
+
+        assertThat(statements(() -> usuarioRepository.findByIdAndAtivoTrue(usuario.getId()).orElseThrow()
+                .getRoles().size())).isZero();
+        assertThat(statements(() -> categoriaRepository.findByIdAndAtivoTrue(categoria.getId()).orElseThrow())).isZero();
+        assertThat(statements(() -> contasBancariasRepository
+                .findByIdAndUsuarioIdAndAtivoTrue(conta.getId(), usuario.getId()).orElseThrow())).isZero();
+        assertThat(contasBancariasRepository.findByIdAndUsuarioIdAndAtivoTrue(conta.getId(), usuario.getId() + 1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve refletir atualização e soft delete nas leituras seguintes")
+    void deveInvalidarEmAtualizacaoESoftDelete() {
+        categoriaRepository.findByIdAndAtivoTrue(categoria.getId());
+        String novoNome = "Renomeada " + UUID.randomUUID();
+        categoriaService.atualizar(categoria.getId(), new CategoriaRequestDTO(novoNome, null, null));
+        assertThat(categoriaRepository.findByIdAndAtivoTrue(categoria.getId()).orElseThrow().getNome()).isEqualTo(novoNome);
+
+        categoriaService.deletar(categoria.getId());
+        assertThat(categoriaRepository.findByIdAndAtivoTrue(categoria.getId())).isEmpty();
+
+        usuarioRepository.findByIdAndAtivoTrue(usuario.getId());
+        usuarioRepository.softDelete(usuario.getId());
+        assertThat(usuarioRepository.findByIdAndAtivoTrue(usuario.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve servir as categorias globais do cache de consultas até a próxima escrita em categorias")
+    void deveCachearCategoriasGlobais() {
+        categoriaRepository.findByIsGlobalTrueAndAtivoTrue();
+        assertThat(statements(categoriaRepository::findByIsGlobalTrueAndAtivoTrue)).isZero();
+
+        Categoria global = categoriaRepository.save(Categoria.builder()
+                .nome("Global " + UUID.randomUUID()).tipo(Categoria.TipoCategoria.ENTRADA).isGlobal(true).build());
+        assertThat(categoriaRepository.findByIsGlobalTrueAndAtivoTrue())
+                .extracting(Categoria::getId).contains(global.getId());
+
+        categoriaRepository.softDelete(global.getId());
+        assertThat(categoriaRepository.findByIsGlobalTrueAndAtivoTrue())
+                .extracting(Categoria::getId).doesNotContain(global.getId());
+    }
+
+    @Test
+    @DisplayName("Deve expor acertos e taxa de acerto por região")
+    void deveExporMetricas() {
+        categoriaRepository.findByIdAndAtivoTrue(categoria.getId());
+        categoriaRepository.findByIdAndAtivoTrue(categoria.getId());
+
+        assertThat(cacheEntidadesService.metricas())
+                .filteredOn(metricas -> metricas.regiao().equals("categorias"))
+                .singleElement()
+                .satisfies(metricas -> {
+                    assertThat(metricas.acertos()).isPositive();
+                    assertThat(metricas.taxaAcerto()).isBetween(0.0, 1.0);
+                });
+        assertThat(cacheEntidadesService.metricas()).extracting(MetricasCacheDTO::regiao)
+                .contains("usuarios", "usuarios_roles", "contas_bancarias", "default-query-results-region");
+    }
+}
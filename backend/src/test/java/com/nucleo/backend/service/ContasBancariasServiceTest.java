@@ -1,5 +1,6 @@
 package com.nucleo.backend.service;
 
+import com.nucleo.dto.PaginaDTO;
 import com.nucleo.exception.EntityNotFoundException;
 import com.nucleo.model.ContasBancarias;
 import com.nucleo.model.TipoConta;
@@ -8,6 +9,7 @@ import com.nucleo.repository.ContasBancariasRepository;
 import com.nucleo.security.SecurityUtils;
 import com.nucleo.service.ContasBancariasService;
 import com.nucleo.service.UsuarioService;
+import com.nucleo.service.listagem.ParametrosPagina;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -18,6 +20,7 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -42,6 +45,9 @@ class ContasBancariasServiceTest {
     @MockBean
     private UsuarioService usuarioService;
 
+    @MockBean
+    private com.nucleo.service.SaldoService saldoService;
+
     private Usuario usuario;
     private ContasBancarias conta;
 
@@ -115,12 +121,12 @@ class ContasBancariasServiceTest {
     @Test
     @DisplayName("Deve listar todas as contas (admin)")
     void deveListarTodasContas() {
-        BDDMockito.given(contasRepository.findAll()).willReturn(List.of(conta));
+        BDDMockito.given(contasRepository.findBy(any(Specification.class), any())).willReturn(List.of(conta));
 
-        List<ContasBancarias> resultado = contasService.listarTodas();
+        PaginaDTO<ContasBancarias> resultado = contasService.listarPagina(null, null, null, null, ParametrosPagina.primeira());
 
-        assertThat(resultado).hasSize(1);
-        assertThat(resultado.get(0).getApelido()).isEqualTo("Conta Principal");
+        assertThat(resultado.itens()).hasSize(1);
+        assertThat(resultado.itens().get(0).getApelido()).isEqualTo("Conta Principal");
     }
 
     // ---------------------------
@@ -214,24 +220,20 @@ class ContasBancariasServiceTest {
         BDDMockito.given(contasRepository.findByIdAndUsuarioId(1L, 1L))
                 .willReturn(Optional.of(conta));
 
-        BDDMockito.given(contasRepository.save(any(ContasBancarias.class)))
-                .willReturn(conta);
 
         contasService.deletar(1L, 1L, false);
 
-        assertThat(conta.getAtivo()).isFalse();
-        assertThat(conta.getDeletadoEm()).isNotNull();
+        BDDMockito.then(contasRepository).should().desativar(eq(conta.getId()), any(LocalDateTime.class));
     }
 
     @Test
     @DisplayName("Deve deletar conta como admin")
     void deveDeletarContaAdmin() {
         BDDMockito.given(contasRepository.findById(1L)).willReturn(Optional.of(conta));
-        BDDMockito.given(contasRepository.save(any(ContasBancarias.class))).willReturn(conta);
 
         contasService.deletar(1L, 1L, true);
 
-        assertThat(conta.getAtivo()).isFalse();
+        BDDMockito.then(contasRepository).should().desativar(eq(conta.getId()), any(LocalDateTime.class));
     }
 
     @Test
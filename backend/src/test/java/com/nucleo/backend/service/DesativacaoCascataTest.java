@@ -0,0 +1,251 @@
+package com.nucleo.backend.service;
+
+import com.nucleo.model.Alerta;
+import com.nucleo.model.Beneficio;
+import com.nucleo.model.Categoria;
+import com.nucleo.model.ContasBancarias;
+import com.nucleo.model.Meta;
+import com.nucleo.model.StatusMeta;
+import com.nucleo.model.TipoConta;
+import com.nucleo.model.Transacao;
+import com.nucleo.model.Usuario;
+import com.nucleo.repository.AlertaRepository;
+import com.nucleo.repository.BeneficioRepository;
+import com.nucleo.repository.CategoriaRepository;
+import com.nucleo.repository.ContasBancariasRepository;
+import com.nucleo.repository.MetaRepository;
+import com.nucleo.repository.ProgressoMetaRepository;
+import com.nucleo.repository.ResumoDiarioRepository;
+import com.nucleo.repository.SaldoUsuarioRepository;
+import com.nucleo.repository.TransacaoArquivadaRepository;
+import com.nucleo.repository.TransacaoRepository;
+import com.nucleo.repository.UsuarioRepository;
+import com.nucleo.service.SaldoService;
+import com.nucleo.service.desativacao.ArquivamentoTransacoes;
+import com.nucleo.service.desativacao.DesativacaoCascata;
+import com.nucleo.service.desativacao.ResultadoDesativacao;
+import com.nucleo.service.listener.LancamentoTransacao;
+import com.nucleo.service.meta.ProgressoMetas;
+import com.nucleo.service.relatorio.AgregadorRelatorios;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "saldos.reconciliacao.habilitada=false", "arquivamento.transacoes.habilitado=false"})
+@Transactional
+class DesativacaoCascataTest {
+
+    @Autowired
+    private DesativacaoCascata desativacaoCascata;
+
+    @Autowired
+    private ArquivamentoTransacoes arquivamentoTransacoes;
+
+    @Autowired
+    private SaldoService saldoService;
+
+    @Autowired
+    private AgregadorRelatorios agregadorRelatorios;
+
+    @Autowired
+    private ProgressoMetas progressoMetas;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ContasBancariasRepository contasRepository;
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    @Autowired
+    private TransacaoArquivadaRepository transacaoArquivadaRepository;
+
+    @Autowired
+    private AlertaRepository alertaRepository;
+
+    @Autowired
+    private BeneficioRepository beneficioRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private MetaRepository metaRepository;
+
+    @Autowired
+    private ProgressoMetaRepository progressoMetaRepository;
+
+    @Autowired
+    private SaldoUsuarioRepository saldoUsuarioRepository;
+
+    @Autowired
+    private ResumoDiarioRepository resumoDiarioRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Usuario usuario;
+    private Usuario outro;
+    private Categoria categoria;
+    private ContasBancarias corrente;
+    private ContasBancarias poupanca;
+    private ContasBancarias contaOutro;
+    private final List<Long> transacoes = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        usuario = usuario("Cascata");
+        outro = usuario("Vizinho");
+        categoria = categoriaRepository.save(Categoria.builder().nome("Cascata " + UUID.randomUUID())
+                .tipo(Categoria.TipoCategoria.SAIDA).usuario(usuario).isGlobal(false).build());
+        corrente = conta(usuario);
+        poupanca = conta(usuario);
+        contaOutro = conta(outro);
+
+        lancar(corrente, Transacao.TipoTransacao.ENTRADA, "1000.00");
+        lancar(corrente, Transacao.TipoTransacao.SAIDA, "150.00");
+        lancar(poupanca, Transacao.TipoTransacao.SAIDA, "50.00");
+        lancar(contaOutro, Transacao.TipoTransacao.ENTRADA, "70.00");
+
+        alertaRepository.save(Alerta.builder().usuario(usuario).conta(corrente).nomeRegra("Saldo baixo")
+                .tipo(Alerta.TipoAlerta.SALDO_MINIMO).limiteValor(new BigDecimal("10.00")).build());
+        beneficioRepository.save(Beneficio.builder().usuario(usuario).nome("VR")
+                .tipo(Beneficio.TipoBeneficio.VR).valor(new BigDecimal("600.00")).build());
+        Meta meta = metaRepository.save(Meta.builder().usuarioId(usuario.getId()).titulo("Gastar menos")
+                .valorAlvo(new BigDecimal("5000.00")).dataLimite(LocalDate.now().plusMonths(6))
+                .categoriaId(categoria.getId()).build());
+        progressoMetas.iniciar(meta);
+        saldoService.getSaldoUsuario(usuario.getId());
+        saldoService.getSaldoUsuario(outro.getId());
+    }
+
+    private Usuario usuario(String nome) {
+        return usuarioRepository.save(Usuario.builder()
+                .nome(nome).email(nome + "-" + UUID.randomUUID() + "@nucleo.com").senha("x").build());
+    }
+
+    private ContasBancarias conta(Usuario dono) {
+        ContasBancarias conta = contasRepository.save(ContasBancarias.builder()
+                .instituicao("Banco").tipo(TipoConta.CORRENTE).usuario(dono).build());
+        saldoService.inicializarConta(conta);
+        return conta;
+    }
+
+    private void lancar(ContasBancarias conta, Transacao.TipoTransacao tipo, String valor) {
+        Transacao salva = transacaoRepository.save(Transacao.builder()
+                .descricao("cascata").valor(new BigDecimal(valor)).data(LocalDate.now()).tipo(tipo)
+                .usuario(conta.getUsuario()).conta(conta).categoria(conta == contaOutro ? null : categoria).build());
+        transacoes.add(salva.getId());
+        LancamentoTransacao lancamento = LancamentoTransacao.fromEntity(salva);
+        saldoService.aoIncluir(lancamento);
+        agregadorRelatorios.aoIncluir(lancamento);
+    }
+
+    private Statistics estatisticasLimpas() {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+        return estatisticas;
+    }
+
+    @Test
+    @DisplayName("Deve desativar o grafo do usuário com um número fixo de instruções, sem tocar nos outros usuários")
+    void deveDesativarUsuarioEmConjunto() {
+        Statistics estatisticas = estatisticasLimpas();
+
+        ResultadoDesativacao resultado = desativacaoCascata.desativarUsuario(usuario.getId());
+        entityManager.flush();
+
+        // usuario, sete UPDATEs, quatro DELETEs de projecao e tres da revogacao das sessoes (UPDATE dos
+        // refresh tokens, SELECT e INSERT da chave), independente de quantas linhas o usuario tem
+        assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(15);
+        assertThat(estatisticas.getEntityLoadCount()).isZero();
+        assertThat(resultado).isEqualTo(new ResultadoDesativacao(2, 3, 1, 1, 1, 1, 0));
+
+        entityManager.clear();
+        assertThat(usuarioRepository.findByIdAndAtivoTrue(usuario.getId())).isEmpty();
+        assertThat(contasRepository.findByUsuarioIdAndAtivoTrue(usuario.getId())).isEmpty();
+        assertThat(beneficioRepository.findByUsuarioIdAndAtivoTrue(usuario.getId())).isEmpty();
+        assertThat(categoriaRepository.findByUsuarioIdAndAtivoTrue(usuario.getId())).isEmpty();
+        assertThat(alertaRepository.findByUsuarioAndAtivoTrue(usuario)).isEmpty();
+        assertThat(transacaoRepository.sumValorByUsuarioIdAndTipo(usuario.getId(), Transacao.TipoTransacao.ENTRADA))
+                .isEqualByComparingTo("0");
+        assertThat(metaRepository.findByUsuarioId(usuario.getId())).extracting(Meta::getStatus)
+                .containsExactly(StatusMeta.cancelada);
+        assertThat(saldoUsuarioRepository.findById(usuario.getId())).isEmpty();
+        assertThat(resumoDiarioRepository.findAll()).noneMatch(resumo -> resumo.getUsuarioId().equals(usuario.getId()));
+
+        assertThat(contasRepository.findByUsuarioIdAndAtivoTrue(outro.getId())).hasSize(1);
+        assertThat(saldoService.getSaldoUsuario(outro.getId()).saldo()).isEqualByComparingTo("70.00");
+    }
+
+    @Test
+    @DisplayName("Deve desativar só a conta, refazendo saldo do usuário e progresso das metas a partir do livro")
+    void deveDesativarContaEAcertarProjecoes() {
+        // a entrada de 1000 na categoria de saida nao conta para a meta
+        assertThat(progressoMetaRepository.findByUsuarioId(usuario.getId()))
+                .singleElement().satisfies(progresso -> assertThat(progresso.getAportes()).isEqualTo(2));
+        estatisticasLimpas();
+
+        ResultadoDesativacao resultado = desativacaoCascata.desativarConta(corrente.getId(), usuario.getId());
+
+        assertThat(resultado.contas()).isEqualTo(1);
+        assertThat(resultado.transacoes()).isEqualTo(2);
+        assertThat(resultado.alertas()).isEqualTo(1);
+        entityManager.clear();
+        assertThat(contasRepository.findByUsuarioIdAndAtivoTrue(usuario.getId()))
+                .extracting(ContasBancarias::getId).containsExactly(poupanca.getId());
+        assertThat(contasRepository.findById(corrente.getId()).orElseThrow().getDeletadoEm()).isNotNull();
+        assertThat(saldoService.getSaldoUsuario(usuario.getId()).saldo()).isEqualByComparingTo("-50.00");
+        assertThat(resumoDiarioRepository.findAll()).noneMatch(resumo -> resumo.getContaId().equals(corrente.getId()))
+                .anyMatch(resumo -> resumo.getContaId().equals(poupanca.getId()));
+        assertThat(progressoMetaRepository.findByUsuarioId(usuario.getId())).singleElement().satisfies(progresso -> {
+            assertThat(progresso.getAportes()).isEqualTo(1);
+            assertThat(progresso.getValorAcumulado()).isEqualByComparingTo("50.00");
+        });
+    }
+
+    @Test
+    @DisplayName("Deve mover para o arquivo só as transações desativadas antes do limite")
+    void deveArquivarTransacoesDesativadas() {
+        desativacaoCascata.desativarConta(poupanca.getId(), usuario.getId());
+        estatisticasLimpas();
+
+        assertThat(arquivamentoTransacoes.arquivar(LocalDateTime.now().minusDays(1))).isZero();
+        int movidas = arquivamentoTransacoes.arquivar(LocalDateTime.now().plusMinutes(1));
+
+        Long arquivada = transacoes.get(2);
+        assertThat(movidas).isGreaterThanOrEqualTo(1);
+        assertThat(transacaoRepository.findById(arquivada)).isEmpty();
+        assertThat(transacaoArquivadaRepository.findById(arquivada)).hasValueSatisfying(transacao -> {
+            assertThat(transacao.getContaId()).isEqualTo(poupanca.getId());
+            assertThat(transacao.getCategoriaId()).isEqualTo(categoria.getId());
+            assertThat(transacao.getValor()).isEqualByComparingTo("50.00");
+        });
+        assertThat(transacoes.subList(0, 2)).allMatch(id -> transacaoRepository.findById(id).isPresent());
+        assertThat(transacaoArquivadaRepository.findById(transacoes.get(3))).isEmpty();
+    }
+}
@@ -0,0 +1,68 @@
+package com.nucleo.backend.service;
+
+import com.nucleo.dto.AgregadoRelatorioDTO;
+import com.nucleo.model.Transacao;
+import com.nucleo.model.Usuario;
+import com.nucleo.repository.TransacaoRepository;
+import com.nucleo.repository.UsuarioRepository;
+import com.nucleo.security.UserDetailsServiceImpl;
+import com.nucleo.service.carga.GeradorCarga;
+import com.nucleo.service.carga.ParametrosCarga;
+import com.nucleo.service.carga.ResultadoCarga;
+import com.nucleo.service.relatorio.Granularidade;
+import com.nucleo.service.relatorio.RelatorioService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class GeradorCargaTest {
+
+    @Autowired
+    private GeradorCarga geradorCarga;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Test
+    @DisplayName("Deve gerar a massa prevista, com rollups de relatório, e não repetir a mesma semente")
+    void deveGerarCarga() {
+        ParametrosCarga parametros = new ParametrosCarga(3, 2, 5, 1, 777L, 50, null);
+
+        ResultadoCarga resultado = geradorCarga.gerar(parametros);
+
+        assertThat(resultado.usuarios()).isEqualTo(3);
+        assertThat(resultado.contas()).isEqualTo(6);
+        assertThat(resultado.transacoes()).isEqualTo(parametros.transacoesPrevistas()).isEqualTo(180);
+
+        Usuario primeiro = usuarioRepository.findByEmailAndAtivoTrue(GeradorCarga.email(777L, 0)).orElseThrow();
+        List<Transacao> transacoes = transacaoRepository.findByUsuarioId(primeiro.getId());
+        assertThat(transacoes).hasSize(60);
+        assertThat(transacoes).filteredOn(t -> t.getTipo() == Transacao.TipoTransacao.ENTRADA).hasSizeGreaterThanOrEqualTo(12);
+        BigDecimal totalLivro = transacoes.stream().map(Transacao::getValor).reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalRollups = relatorioService.consultar(primeiro.getId(), LocalDate.now().minusYears(2), LocalDate.now(),
+                        Granularidade.MES, null, null, null).stream()
+                .map(AgregadoRelatorioDTO::total).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertThat(totalRollups).isEqualByComparingTo(totalLivro);
+        assertThat(userDetailsService.loadUserByUsername(primeiro.getEmail()).getAuthorities())
+                .extracting("authority").containsExactly("ROLE_USER");
+
+        assertThat(geradorCarga.gerar(parametros).transacoes()).isZero();
+    }
+}
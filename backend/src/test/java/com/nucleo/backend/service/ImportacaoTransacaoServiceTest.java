@@ -0,0 +1,193 @@
+package com.nucleo.backend.service;
+
+import com.nucleo.dto.ResultadoImportacaoDTO;
+import com.nucleo.dto.TransacaoRequestDTO;
+import com.nucleo.model.Categoria;
+import com.nucleo.model.ContasBancarias;
+import com.nucleo.model.TipoConta;
+import com.nucleo.model.Transacao;
+import com.nucleo.model.Usuario;
+import com.nucleo.repository.CategoriaRepository;
+import com.nucleo.repository.ContasBancariasRepository;
+import com.nucleo.repository.TransacaoRepository;
+import com.nucleo.repository.UsuarioRepository;
+import com.nucleo.security.SecurityUtils;
+import com.nucleo.service.ImportacaoTransacaoService;
+import com.nucleo.service.SaldoService;
+import com.nucleo.service.importacao.LeitorCsv;
+import com.nucleo.service.importacao.LeitorOfx;
+import com.nucleo.service.importacao.LinhaImportacao;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "importacao.lote.tamanho=2")
+class ImportacaoTransacaoServiceTest {
+
+    private MockedStatic<SecurityUtils> securityUtilsMock;
+
+    @Autowired
+    private ImportacaoTransacaoService importacaoService;
+
+    @Autowired
+    private SaldoService saldoService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ContasBancariasRepository contasBancariasRepository;
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    private Usuario usuario;
+    private Categoria categoria;
+    private ContasBancarias conta;
+
+    @BeforeEach
+    void setup() {
+        usuario = usuarioRepository.save(Usuario.builder()
+                .nome("Importação").email("importacao-" + UUID.randomUUID() + "@nucleo.com").senha("x").build());
+        categoria = categoriaRepository.save(Categoria.builder()
+                .nome("Mercado " + UUID.randomUUID()).tipo(Categoria.TipoCategoria.SAIDA).usuario(usuario).isGlobal(false).build());
+        conta = contasBancariasRepository.save(ContasBancarias.builder()
+                .instituicao("Banco").tipo(TipoConta.CORRENTE).usuario(usuario).build());
+
+        securityUtilsMock = Mockito.mockStatic(SecurityUtils.class);
+        securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(usuario.getId());
+        securityUtilsMock.when(SecurityUtils::isAdmin).thenReturn(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (securityUtilsMock != null) {
+            securityUtilsMock.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve importar CSV em lotes e reportar as linhas inválidas")
+    void deveImportarCsv() {
+        String csv = """
+                data;descricao;valor;categoriaId
+                2024-01-05;Salário;3.500,00;
+                05/01/2024;Mercado;-120,50;%d
+                2024-01-06;Padaria;-15,00;%d
+                2024-13-40;Data ruim;-10,00;
+                2024-01-07;Categoria alheia;-10,00;999999
+                2024-01-08;;-10,00;
+                """.formatted(categoria.getId(), categoria.getId());
+
+        ResultadoImportacaoDTO resultado = importacaoService.importar(
+                new LeitorCsv(new BufferedReader(new StringReader(csv)), null, conta.getId()));
+
+        assertThat(resultado.linhasLidas()).isEqualTo(6);
+        assertThat(resultado.importadas()).isEqualTo(3);
+        assertThat(resultado.rejeitadas()).isEqualTo(3);
+        assertThat(resultado.erros()).extracting("linha").containsExactly(5L, 6L, 7L);
+        assertThat(transacaoRepository.findByUsuarioId(usuario.getId())).hasSize(3);
+        assertThat(saldoService.getSaldoConta(conta.getId()).saldo()).isEqualByComparingTo("3364.50");
+    }
+
+    private List<LinhaImportacao> ler(String csv) {
+        List<LinhaImportacao> linhas = new ArrayList<>();
+        new LeitorCsv(new BufferedReader(new StringReader(csv)), categoria.getId(), conta.getId())
+                .forEachRemaining(linhas::add);
+        return linhas;
+    }
+
+    @Test
+    @DisplayName("Deve ler ponto decimal com separador ';' e rejeitar valor ambíguo")
+    void deveLerPontoDecimalComPontoEVirgula() {
+        List<LinhaImportacao> linhas = ler("""
+                data;descricao;valor
+                2024-01-05;Café;12.50
+                2024-01-05;Aluguel;-1.234,56
+                2024-01-05;Carro;1.234.567
+                2024-01-05;Ambíguo;1.234
+                """);
+
+        assertThat(linhas).extracting(linha -> linha.transacao() != null ? linha.transacao().valor() : null)
+                .usingComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .containsExactly(new BigDecimal("12.50"), new BigDecimal("1234.56"), new BigDecimal("1234567"), null);
+        assertThat(linhas.get(3).erro()).isEqualTo("importacao.valor-invalido");
+    }
+
+    @Test
+    @DisplayName("Deve manter o separador dentro de campo entre aspas sem deslocar as colunas")
+    void deveLerCampoEntreAspasComSeparador() {
+        List<LinhaImportacao> linhas = ler("""
+                data,descricao,valor
+                2024-01-05,"Compra, loja ""Centro""\",-42.90
+                2024-01-06,"Pix",10
+                """);
+
+        assertThat(linhas).allMatch(linha -> linha.erro() == null);
+        assertThat(linhas.get(0).transacao().descricao()).isEqualTo("Compra, loja \"Centro\"");
+        assertThat(linhas.get(0).transacao().valor()).isEqualByComparingTo("42.90");
+        assertThat(linhas.get(0).transacao().tipo()).isEqualTo(Transacao.TipoTransacao.SAIDA);
+        assertThat(linhas.get(1).transacao().descricao()).isEqualTo("Pix");
+    }
+
+    @Test
+    @DisplayName("Deve importar extrato OFX usando o sinal do valor como tipo")
+    void deveImportarOfx() {
+        String ofx = """
+                OFXHEADER:100
+                DATA:OFXSGML
+                <OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>
+                <STMTTRN><TRNTYPE>DEBIT<DTPOSTED>20240110120000[-3:BRT]<TRNAMT>-45.90<FITID>1<MEMO>Farmácia</STMTTRN>
+                <STMTTRN>
+                <TRNTYPE>CREDIT
+                <DTPOSTED>20240111
+                <TRNAMT>200.00
+                <FITID>2
+                <NAME>Pix recebido
+                </STMTTRN>
+                </BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>
+                """;
+
+        ResultadoImportacaoDTO resultado = importacaoService.importar(
+                new LeitorOfx(new StringReader(ofx), categoria.getId(), conta.getId()));
+
+        assertThat(resultado.importadas()).isEqualTo(2);
+        List<Transacao> transacoes = transacaoRepository.findByUsuarioId(usuario.getId());
+        assertThat(transacoes).extracting(Transacao::getTipo)
+                .containsExactlyInAnyOrder(Transacao.TipoTransacao.SAIDA, Transacao.TipoTransacao.ENTRADA);
+        assertThat(transacoes).extracting(Transacao::getData)
+                .contains(LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 11));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar linhas JSON de conta que não pertence ao usuário")
+    void deveRejeitarContaAlheia() {
+        ResultadoImportacaoDTO resultado = importacaoService.importar(List.of(
+                new TransacaoRequestDTO("Aluguel", new BigDecimal("900.00"), LocalDate.now(),
+                        Transacao.TipoTransacao.SAIDA, categoria.getId(), conta.getId()),
+                new TransacaoRequestDTO("Aluguel", new BigDecimal("900.00"), LocalDate.now(),
+                        Transacao.TipoTransacao.SAIDA, categoria.getId(), 999999L)));
+
+        assertThat(resultado.importadas()).isEqualTo(1);
+        assertThat(resultado.erros()).singleElement()
+                .satisfies(erro -> assertThat(erro.linha()).isEqualTo(2));
+    }
+}
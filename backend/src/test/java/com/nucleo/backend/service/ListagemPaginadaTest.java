@@ -0,0 +1,184 @@
+package com.nucleo.backend.service;
+
+import com.nucleo.dto.PaginaDTO;
+import com.nucleo.exception.BusinessException;
+import com.nucleo.model.Beneficio;
+import com.nucleo.model.Categoria;
+import com.nucleo.model.Usuario;
+import com.nucleo.repository.BeneficioRepository;
+import com.nucleo.repository.CategoriaRepository;
+import com.nucleo.repository.UsuarioRepository;
+import com.nucleo.security.SecurityUtils;
+import com.nucleo.service.BeneficioService;
+import com.nucleo.service.CategoriaService;
+import com.nucleo.service.listagem.ParametrosPagina;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class ListagemPaginadaTest {
+
+    private MockedStatic<SecurityUtils> securityUtilsMock;
+
+    @Autowired
+    private BeneficioService beneficioService;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private BeneficioRepository beneficioRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Usuario usuario;
+    private final List<Long> beneficios = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        usuario = usuario("Listagem");
+        String[] nomes = {"Vale Refeição", "Vale Alimentação", "Refeição Extra", "Academia", "Plano"};
+        Beneficio.TipoBeneficio[] tipos = {Beneficio.TipoBeneficio.VR, Beneficio.TipoBeneficio.VA,
+                Beneficio.TipoBeneficio.VR, Beneficio.TipoBeneficio.GYMPASS, Beneficio.TipoBeneficio.PLANO_SAUDE};
+        for (int i = 0; i < nomes.length; i++) {
+            beneficios.add(beneficioRepository.save(Beneficio.builder().nome(nomes[i]).tipo(tipos[i])
+                    .valor(new BigDecimal("10.00")).usuario(usuario).build()).getId());
+        }
+
+        securityUtilsMock = Mockito.mockStatic(SecurityUtils.class);
+        securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(usuario.getId());
+        securityUtilsMock.when(SecurityUtils::isAdmin).thenReturn(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (securityUtilsMock != null) {
+            securityUtilsMock.close();
+        }
+    }
+
+    private Usuario usuario(String nome) {
+        return usuarioRepository.save(Usuario.builder()
+                .nome(nome).email("listagem-" + UUID.randomUUID() + "@nucleo.com").senha("x").build());
+    }
+
+    private List<Long> percorrer(Sort.Direction ordem) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            PaginaDTO<Beneficio> pagina = beneficioService.listarPagina(usuario.getId(), null, null,
+                    new ParametrosPagina(cursor, 2, ordem));
+            assertThat(pagina.itens()).hasSizeLessThanOrEqualTo(2);
+            pagina.itens().forEach(beneficio -> ids.add(beneficio.getId()));
+            cursor = pagina.proximoCursor();
+            paginas++;
+        } while (cursor != null);
+        assertThat(paginas).isEqualTo(3);
+        return ids;
+    }
+
+    @Test
+    @DisplayName("Deve percorrer as páginas pelo cursor, nas duas direções, sem repetir registros")
+    void devePercorrerPorCursor() {
+        assertThat(percorrer(Sort.Direction.ASC)).containsExactlyElementsOf(beneficios);
+        List<Long> decrescentes = new ArrayList<>(beneficios);
+        Collections.reverse(decrescentes);
+        assertThat(percorrer(Sort.Direction.DESC)).containsExactlyElementsOf(decrescentes);
+    }
+
+    @Test
+    @DisplayName("Deve combinar filtros e ignorar os que não foram informados")
+    void deveFiltrar() {
+        PaginaDTO<Beneficio> pagina = beneficioService.listarPagina(usuario.getId(), Beneficio.TipoBeneficio.VR,
+                "REFEI", ParametrosPagina.primeira());
+
+        assertThat(pagina.itens()).extracting(Beneficio::getNome).containsExactly("Vale Refeição", "Refeição Extra");
+        assertThat(pagina.proximoCursor()).isNull();
+
+        beneficioRepository.softDelete(beneficios.get(0));
+        entityManager.clear();
+        assertThat(beneficioService.listarPagina(usuario.getId(), null, null, ParametrosPagina.primeira()).itens())
+                .hasSize(4);
+    }
+
+    @Test
+    @DisplayName("Deve tratar % e _ da busca como texto, não como curinga")
+    void deveBuscarCuringasComoTexto() {
+        beneficioRepository.save(Beneficio.builder().nome("Desconto 100%").tipo(Beneficio.TipoBeneficio.OUTRO)
+                .valor(new BigDecimal("10.00")).usuario(usuario).build());
+        beneficioRepository.save(Beneficio.builder().nome("Vale_Transporte").tipo(Beneficio.TipoBeneficio.OUTRO)
+                .valor(new BigDecimal("10.00")).usuario(usuario).build());
+
+        assertThat(beneficioService.listarPagina(usuario.getId(), null, "%", ParametrosPagina.primeira()).itens())
+                .extracting(Beneficio::getNome).containsExactly("Desconto 100%");
+        assertThat(beneficioService.listarPagina(usuario.getId(), null, "_", ParametrosPagina.primeira()).itens())
+                .extracting(Beneficio::getNome).containsExactly("Vale_Transporte");
+    }
+
+    @Test
+    @DisplayName("Deve listar categorias globais e do usuário, com o dono na mesma consulta")
+    void deveListarCategoriasComUmaConsulta() {
+        Usuario outro = usuario("Outro");
+        Categoria minha = categoriaRepository.save(Categoria.builder().nome("Minha " + UUID.randomUUID())
+                .tipo(Categoria.TipoCategoria.SAIDA).usuario(usuario).isGlobal(false).build());
+        Categoria alheia = categoriaRepository.save(Categoria.builder().nome("Alheia " + UUID.randomUUID())
+                .tipo(Categoria.TipoCategoria.SAIDA).usuario(outro).isGlobal(false).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+        PaginaDTO<Categoria> pagina = categoriaService.listarPagina(null, null, new ParametrosPagina(null, 500, null));
+        pagina.itens().stream().filter(categoria -> categoria.getUsuario() != null)
+                .forEach(categoria -> categoria.getUsuario().getNome());
+
+        // uma consulta e nenhum carregamento avulso de usuario (os papeis do dono seguem a regra da entidade)
+        assertThat(estatisticas.getQueryExecutionCount()).isEqualTo(1);
+        assertThat(estatisticas.getEntityFetchCount()).isZero();
+        assertThat(pagina.itens()).extracting(Categoria::getId).contains(minha.getId()).doesNotContain(alheia.getId());
+        assertThat(pagina.itens()).filteredOn(categoria -> !categoria.getId().equals(minha.getId()))
+                .allMatch(Categoria::getIsGlobal);
+    }
+
+    @Test
+    @DisplayName("Deve recusar cursor inválido")
+    void deveRecusarCursorInvalido() {
+        assertThatThrownBy(() -> beneficioService.listarPagina(null, null, null,
+                new ParametrosPagina("nao-e-um-id", null, null)))
+                .isInstanceOf(BusinessException.class);
+    }
+}
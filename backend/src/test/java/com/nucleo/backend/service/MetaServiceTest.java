@@ -1,6 +1,7 @@
 package com.nucleo.backend.service;
 
 
+import com.nucleo.dto.PaginaDTO;
 import com.nucleo.exception.EntityNotCreatedException;
 import com.nucleo.exception.EntityNotDeletedException;
 import com.nucleo.exception.EntityNotFoundException;
@@ -10,6 +11,8 @@ import com.nucleo.model.StatusMeta;
 import com.nucleo.repository.MetaRepository;
 import com.nucleo.security.SecurityUtils;
 import com.nucleo.service.MetaService;
+import com.nucleo.service.listagem.ParametrosPagina;
+import com.nucleo.service.meta.ProgressoMetas;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -20,6 +23,7 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -44,6 +48,9 @@ class MetaServiceTest {
     @MockBean
     private SecurityUtils securityUtils;
 
+    @MockBean
+    private ProgressoMetas progressoMetas;
+
     private Meta meta;
 
     @BeforeEach
@@ -113,12 +120,12 @@ class MetaServiceTest {
     @Test
     @DisplayName("Deve listar todas as metas (admin)")
     void deveListarTodasMetas() {
-        BDDMockito.given(metaRepository.findAll()).willReturn(List.of(meta));
+        BDDMockito.given(metaRepository.findBy(any(Specification.class), any())).willReturn(List.of(meta));
 
-        List<Meta> lista = metaService.listarTodas();
+        PaginaDTO<Meta> pagina = metaService.listarPagina(null, null, null, null, ParametrosPagina.primeira());
 
-        assertThat(lista).isNotEmpty();
-        assertThat(lista.get(0).getValorAlvo()).isEqualByComparingTo("15000.00");
+        assertThat(pagina.itens()).isNotEmpty();
+        assertThat(pagina.itens().get(0).getValorAlvo()).isEqualByComparingTo("15000.00");
     }
 
     // ---------------------------
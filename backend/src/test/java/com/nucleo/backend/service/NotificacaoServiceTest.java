@@ -0,0 +1,166 @@
+package com.nucleo.backend.service;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.nucleo.model.NotificacaoEmail;
+import com.nucleo.repository.NotificacaoEmailRepository;
+import com.nucleo.service.notificacao.NotificacaoService;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+// banco proprio: os contextos de outros testes drenam o outbox do banco compartilhado a cada 5 s
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:notificacoes",
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.username=nucleo",
+        "spring.mail.password=nucleo",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "notificacoes.drenagem.habilitada=false",
+        "alertas.varredura.habilitada=false"
+})
+class NotificacaoServiceTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withUser("nucleo", "nucleo"));
+
+    @Autowired
+    private NotificacaoService notificacaoService;
+
+    @MockitoSpyBean
+    private NotificacaoEmailRepository notificacaoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setup() {
+        notificacaoRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Deve fundir alertas repetidos do mesmo usuário e enviar o restante em lote")
+    void deveCoalescerEEnviar() {
+        notificacaoService.enfileirar(1L, 10L, "isa@nucleo.com", "Alerta", "limite 1");
+        notificacaoService.enfileirar(1L, 10L, "isa@nucleo.com", "Alerta", "limite 2");
+        notificacaoService.enfileirar(1L, 11L, "isa@nucleo.com", "Alerta", "saldo");
+        notificacaoService.enfileirar(2L, 10L, "joao@nucleo.com", "Alerta", "limite");
+
+        assertThat(notificacaoService.metricas().pendentes()).isEqualTo(4);
+
+        int processadas = notificacaoService.drenar();
+
+        MimeMessage[] recebidas = greenMail.getReceivedMessages();
+        assertThat(processadas).isEqualTo(4);
+        assertThat(recebidas).hasSize(3);
+        assertThat(notificacaoService.metricas().pendentes()).isZero();
+        assertThat(notificacaoRepository.findAll())
+                .extracting(NotificacaoEmail::getStatus)
+                .containsExactlyInAnyOrder(
+                        NotificacaoEmail.StatusNotificacao.COALESCIDA,
+                        NotificacaoEmail.StatusNotificacao.ENVIADA,
+                        NotificacaoEmail.StatusNotificacao.ENVIADA,
+                        NotificacaoEmail.StatusNotificacao.ENVIADA);
+    }
+
+    @Test
+    @DisplayName("Deve reagendar com backoff quando o servidor SMTP estiver fora")
+    void deveReagendarQuandoSmtpFalhar() {
+        greenMail.stop();
+        NotificacaoEmail notificacao = notificacaoService.enfileirar(1L, 10L, "isa@nucleo.com", "Alerta", "limite");
+
+        notificacaoService.drenar();
+
+        NotificacaoEmail reagendada = notificacaoRepository.findById(notificacao.getId()).orElseThrow();
+        assertThat(reagendada.getStatus()).isEqualTo(NotificacaoEmail.StatusNotificacao.PENDENTE);
+        assertThat(reagendada.getTentativas()).isEqualTo(1);
+        assertThat(reagendada.getProximaTentativa()).isAfter(LocalDateTime.now());
+        assertThat(notificacaoService.drenar()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve pular notificações reivindicadas por outra instância até a concessão vencer")
+    void deveRespeitarReivindicacaoDeOutraInstancia() {
+        NotificacaoEmail notificacao = notificacaoService.enfileirar(1L, 10L, "isa@nucleo.com", "Alerta", "limite");
+        LocalDateTime agora = LocalDateTime.now();
+        assertThat(notificacaoRepository.reivindicar(List.of(notificacao.getId()), "outra", agora, agora.plusMinutes(5)))
+                .isEqualTo(1);
+
+        assertThat(notificacaoService.drenar()).isZero();
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+
+        // a outra instancia caiu: com a concessao vencida a linha volta a sair, e a outra nao grava mais nada
+        NotificacaoEmail reivindicada = notificacaoRepository.findById(notificacao.getId()).orElseThrow();
+        reivindicada.setProximaTentativa(LocalDateTime.now().minusSeconds(1));
+        notificacaoRepository.save(reivindicada);
+        assertThat(notificacaoService.drenar()).isEqualTo(1);
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+        assertThat(notificacaoRepository.concluir(List.of(notificacao.getId()), "outra",
+                NotificacaoEmail.StatusNotificacao.FALHA, null, LocalDateTime.now())).isZero();
+        assertThat(notificacaoRepository.findById(notificacao.getId()).orElseThrow().getStatus())
+                .isEqualTo(NotificacaoEmail.StatusNotificacao.ENVIADA);
+    }
+
+    @Test
+    @DisplayName("Não deve reativar notificação descartada enquanto estava em envio")
+    void naoDeveReativarNotificacaoDescartadaDuranteEnvio() {
+        greenMail.stop();
+        NotificacaoEmail notificacao = notificacaoService.enfileirar(3L, 10L, "ana@nucleo.com", "Alerta", "limite");
+        LocalDateTime agora = LocalDateTime.now();
+        notificacaoRepository.reivindicar(List.of(notificacao.getId()), "lote", agora, agora.plusMinutes(5));
+        transactionTemplate.executeWithoutResult(status -> notificacaoRepository.descartarPendentes(3L, LocalDateTime.now()));
+
+        notificacaoRepository.reagendar(notificacao.getId(), "lote", NotificacaoEmail.StatusNotificacao.PENDENTE, 1,
+                "smtp fora", LocalDateTime.now().minusSeconds(1), LocalDateTime.now());
+
+        NotificacaoEmail descartada = notificacaoRepository.findById(notificacao.getId()).orElseThrow();
+        assertThat(descartada.getAtivo()).isFalse();
+        assertThat(descartada.getTentativas()).isEqualTo(1);
+        assertThat(notificacaoService.drenar()).isZero();
+    }
+
+    @Test
+    @DisplayName("Não deve enviar o que outra instância tomou depois que a concessão venceu")
+    void naoDeveEnviarNotificacaoTomadaAntesDoLote() {
+        NotificacaoEmail tomada = notificacaoService.enfileirar(4L, 10L, "lia@nucleo.com", "Alerta", "limite");
+        notificacaoService.enfileirar(4L, 11L, "lia@nucleo.com", "Alerta", "saldo");
+
+        // entre a reivindicacao e o lote SMTP a concessao vence e outra instancia reivindica uma das linhas
+        doAnswer(invocacao -> {
+            String lote = invocacao.getArgument(0);
+            List<NotificacaoEmail> reivindicadas = notificacaoRepository.findAll().stream()
+                    .filter(notificacao -> lote.equals(notificacao.getLoteEnvio()))
+                    .sorted(Comparator.comparing(NotificacaoEmail::getId)).toList();
+            NotificacaoEmail vencida = notificacaoRepository.findById(tomada.getId()).orElseThrow();
+            vencida.setProximaTentativa(LocalDateTime.now().minusSeconds(1));
+            notificacaoRepository.save(vencida);
+            LocalDateTime agora = LocalDateTime.now();
+            notificacaoRepository.reivindicar(List.of(tomada.getId()), "outra", agora, agora.plusMinutes(5));
+            return reivindicadas;
+        }).when(notificacaoRepository).findReivindicadas(anyString());
+
+        assertThat(notificacaoService.drenar()).isEqualTo(2);
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+        NotificacaoEmail daOutra = notificacaoRepository.findById(tomada.getId()).orElseThrow();
+        assertThat(daOutra.getStatus()).isEqualTo(NotificacaoEmail.StatusNotificacao.EM_ENVIO);
+        assertThat(daOutra.getLoteEnvio()).isEqualTo("outra");
+    }
+}
@@ -0,0 +1,214 @@
+package com.nucleo.backend.service;
+
+import com.nucleo.dto.ProgressoMetaDTO;
+import com.nucleo.model.Categoria;
+import com.nucleo.model.ContasBancarias;
+import com.nucleo.model.Meta;
+import com.nucleo.model.StatusMeta;
+import com.nucleo.model.TipoConta;
+import com.nucleo.model.Transacao;
+import com.nucleo.model.Usuario;
+import com.nucleo.repository.CategoriaRepository;
+import com.nucleo.repository.ContasBancariasRepository;
+import com.nucleo.repository.MetaRepository;
+import com.nucleo.repository.ProgressoMetaRepository;
+import com.nucleo.repository.TransacaoRepository;
+import com.nucleo.repository.UsuarioRepository;
+import com.nucleo.service.MetaService;
+import com.nucleo.service.listener.LancamentoTransacao;
+import com.nucleo.service.meta.ProgressoMetas;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class ProgressoMetasTest {
+
+    @Autowired
+    private MetaService metaService;
+
+    @Autowired
+    private ProgressoMetas progressoMetas;
+
+    @Autowired
+    private MetaRepository metaRepository;
+
+    @Autowired
+    private ProgressoMetaRepository progressoMetaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ContasBancariasRepository contasBancariasRepository;
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Usuario usuario;
+    private Categoria poupanca;
+    private Categoria outra;
+    private ContasBancarias conta;
+    private final LocalDate hoje = LocalDate.now();
+
+    @BeforeEach
+    void setup() {
+        usuario = usuarioRepository.save(Usuario.builder()
+                .nome("Metas").email("metas-" + UUID.randomUUID() + "@nucleo.com").senha("x").build());
+        poupanca = categoriaRepository.save(Categoria.builder()
+                .nome("Reserva " + UUID.randomUUID()).tipo(Categoria.TipoCategoria.SAIDA).usuario(usuario).build());
+        outra = categoriaRepository.save(Categoria.builder()
+                .nome("Lazer " + UUID.randomUUID()).tipo(Categoria.TipoCategoria.SAIDA).usuario(usuario).build());
+        conta = contasBancariasRepository.save(ContasBancarias.builder()
+                .instituicao("Banco").tipo(TipoConta.CORRENTE).usuario(usuario).build());
+    }
+
+    private LancamentoTransacao lancar(LocalDate data, String valor, Categoria categoria) {
+        return lancar(data, valor, categoria, Transacao.TipoTransacao.SAIDA);
+    }
+
+    private LancamentoTransacao lancar(LocalDate data, String valor, Categoria categoria, Transacao.TipoTransacao tipo) {
+        Transacao salva = transacaoRepository.save(Transacao.builder()
+                .descricao("aporte").valor(new BigDecimal(valor)).data(data)
+                .tipo(tipo).usuario(usuario).categoria(categoria).conta(conta).build());
+        LancamentoTransacao lancamento = LancamentoTransacao.fromEntity(salva);
+        progressoMetas.aoIncluir(lancamento);
+        return lancamento;
+    }
+
+    private Meta meta(String alvo) {
+        return Meta.builder().usuarioId(usuario.getId()).titulo("Reserva").valorAlvo(new BigDecimal(alvo))
+                .dataLimite(hoje.plusDays(29)).categoriaId(poupanca.getId()).build();
+    }
+
+    // o UPDATE em lote nao passa pelas entidades carregadas no teste
+    private ProgressoMetaDTO progresso(Meta meta) {
+        entityManager.flush();
+        entityManager.clear();
+        return metaService.progresso(meta.getId(), usuario.getId());
+    }
+
+    @Test
+    @DisplayName("Deve acumular só aportes da categoria a partir do início e concluir ao atingir o alvo")
+    void deveAcumularEConcluir() {
+        lancar(hoje.minusDays(1), "500.00", poupanca);
+        Meta meta = metaService.criar(meta("100.00"));
+
+        lancar(hoje, "40.00", poupanca);
+        lancar(hoje, "999.00", outra);
+
+        ProgressoMetaDTO parcial = progresso(meta);
+        assertThat(parcial.status()).isEqualTo(StatusMeta.ativa);
+        assertThat(parcial.valorAcumulado()).isEqualByComparingTo("40.00");
+        assertThat(parcial.percentual()).isEqualByComparingTo("40.00");
+        assertThat(parcial.aportes()).isEqualTo(1);
+        // ritmo de 40/dia desde hoje: faltam 60, dois dias
+        assertThat(parcial.ritmoDiario()).isEqualByComparingTo("40.00");
+        assertThat(parcial.dataPrevista()).isEqualTo(hoje.plusDays(2));
+        assertThat(parcial.ritmoNecessario()).isEqualByComparingTo("2.00");
+        assertThat(parcial.noPrazo()).isTrue();
+
+        lancar(hoje, "70.00", poupanca);
+
+        ProgressoMetaDTO concluida = progresso(meta);
+        assertThat(concluida.status()).isEqualTo(StatusMeta.concluida);
+        assertThat(concluida.concluidaEm()).isEqualTo(hoje);
+        assertThat(concluida.valorRestante()).isEqualByComparingTo("0");
+        assertThat(metaRepository.findById(meta.getId()).orElseThrow().getStatus()).isEqualTo(StatusMeta.concluida);
+
+        // concluida, a meta nao acumula mais
+        lancar(hoje, "10.00", poupanca);
+        assertThat(progresso(meta).valorAcumulado()).isEqualByComparingTo("110.00");
+    }
+
+    @Test
+    @DisplayName("Deve refletir remoções e atualizações no acumulado")
+    void deveAplicarRemocaoEAtualizacao() {
+        Meta meta = metaService.criar(meta("1000.00"));
+        LancamentoTransacao removida = lancar(hoje, "70.00", poupanca);
+        LancamentoTransacao alterada = lancar(hoje, "30.00", poupanca);
+
+        transacaoRepository.deleteById(removida.transacaoId());
+        progressoMetas.aoRemover(removida);
+
+        Transacao transacao = transacaoRepository.findById(alterada.transacaoId()).orElseThrow();
+        transacao.setCategoria(outra);
+        transacaoRepository.save(transacao);
+        progressoMetas.aoAtualizar(alterada, LancamentoTransacao.fromEntity(transacao));
+
+        ProgressoMetaDTO progresso = progresso(meta);
+        assertThat(progresso.valorAcumulado()).isEqualByComparingTo("0");
+        assertThat(progresso.aportes()).isZero();
+        assertThat(progresso.dataPrevista()).isNull();
+        assertThat(progresso.noPrazo()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve semear metas antigas a partir do livro na primeira leitura")
+    void deveSemearMetasAntigas() {
+        lancar(hoje.minusDays(9), "50.00", poupanca);
+        lancar(hoje.minusDays(4), "50.00", poupanca);
+        Meta antiga = metaRepository.save(meta("400.00"));
+        Meta semCategoria = metaRepository.save(Meta.builder().usuarioId(usuario.getId()).titulo("Livre")
+                .valorAlvo(new BigDecimal("10.00")).dataLimite(hoje.plusDays(5)).build());
+
+        entityManager.flush();
+        entityManager.clear();
+        List<ProgressoMetaDTO> progressos = metaService.listarProgresso(usuario.getId());
+
+        ProgressoMetaDTO progresso = progressos.stream()
+                .filter(p -> p.metaId().equals(antiga.getId())).findFirst().orElseThrow();
+        assertThat(progresso.dataInicio()).isEqualTo(hoje.minusDays(9));
+        assertThat(progresso.valorAcumulado()).isEqualByComparingTo("100.00");
+        // 100 em 10 dias: 10/dia, faltam 300
+        assertThat(progresso.ritmoDiario()).isEqualByComparingTo("10.00");
+        assertThat(progresso.dataPrevista()).isEqualTo(hoje.plusDays(30));
+        assertThat(progresso.noPrazo()).isFalse();
+
+        ProgressoMetaDTO livre = progressos.stream()
+                .filter(p -> p.metaId().equals(semCategoria.getId())).findFirst().orElseThrow();
+        assertThat(livre.valorAcumulado()).isNull();
+
+        lancar(hoje, "300.00", poupanca);
+        assertThat(progresso(antiga).status()).isEqualTo(StatusMeta.concluida);
+    }
+
+    @Test
+    @DisplayName("Deve contar só o tipo da categoria e semear a meta antiga uma vez")
+    void deveSemearMetaAntigaSoComTipoDaCategoria() {
+        lancar(hoje.minusDays(2), "80.00", poupanca);
+        lancar(hoje.minusDays(1), "500.00", poupanca, Transacao.TipoTransacao.ENTRADA);
+        Meta antiga = metaRepository.save(meta("1000.00"));
+        entityManager.flush();
+
+        // a segunda leitura concorrente chega com a linha ja semeada e nao faz nada
+        assertThat(progressoMetaRepository.semearAntiga(antiga.getId(), hoje)).isEqualTo(1);
+        assertThat(progressoMetaRepository.semearAntiga(antiga.getId(), hoje)).isZero();
+
+        lancar(hoje, "20.00", poupanca);
+        lancar(hoje, "300.00", poupanca, Transacao.TipoTransacao.ENTRADA);
+
+        ProgressoMetaDTO progresso = progresso(antiga);
+        assertThat(progresso.valorAcumulado()).isEqualByComparingTo("100.00");
+        assertThat(progresso.aportes()).isEqualTo(2);
+    }
+}
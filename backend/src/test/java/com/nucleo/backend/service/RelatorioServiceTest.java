@@ -0,0 +1,187 @@
+package com.nucleo.backend.service;
+
+import com.nucleo.dto.AgregadoRelatorioDTO;
+import com.nucleo.exception.BusinessException;
+import com.nucleo.model.Categoria;
+import com.nucleo.model.ContasBancarias;
+import com.nucleo.model.TipoConta;
+import com.nucleo.model.Transacao;
+import com.nucleo.model.Usuario;
+import com.nucleo.repository.CategoriaRepository;
+import com.nucleo.repository.ContasBancariasRepository;
+import com.nucleo.repository.ResumoMensalRepository;
+import com.nucleo.repository.TransacaoRepository;
+import com.nucleo.repository.UsuarioRepository;
+import com.nucleo.service.listener.LancamentoTransacao;
+import com.nucleo.service.relatorio.AgregadorRelatorios;
+import com.nucleo.service.relatorio.Granularidade;
+import com.nucleo.service.relatorio.RelatorioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class RelatorioServiceTest {
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private AgregadorRelatorios agregadorRelatorios;
+
+    @Autowired
+    private ResumoMensalRepository resumoMensalRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ContasBancariasRepository contasBancariasRepository;
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    private Usuario usuario;
+    private Categoria categoria;
+    private ContasBancarias conta;
+
+    @BeforeEach
+    void setup() {
+        usuario = usuarioRepository.save(Usuario.builder()
+                .nome("Relatório").email("relatorio-" + UUID.randomUUID() + "@nucleo.com").senha("x").build());
+        categoria = categoriaRepository.save(Categoria.builder()
+                .nome("Mercado " + UUID.randomUUID()).tipo(Categoria.TipoCategoria.SAIDA).usuario(usuario).build());
+        conta = contasBancariasRepository.save(ContasBancarias.builder()
+                .instituicao("Banco").tipo(TipoConta.CORRENTE).usuario(usuario).build());
+    }
+
+    private LancamentoTransacao lancar(LocalDate data, Transacao.TipoTransacao tipo, String valor, Categoria categoria) {
+        Transacao salva = transacaoRepository.save(Transacao.builder()
+                .descricao("relatorio").valor(new BigDecimal(valor)).data(data)
+                .tipo(tipo).usuario(usuario).categoria(categoria).conta(conta).build());
+        LancamentoTransacao lancamento = LancamentoTransacao.fromEntity(salva);
+        agregadorRelatorios.aoIncluir(lancamento);
+        return lancamento;
+    }
+
+    private List<AgregadoRelatorioDTO> consultar(String inicio, String fim, Granularidade granularidade) {
+        return relatorioService.consultar(usuario.getId(), LocalDate.parse(inicio), LocalDate.parse(fim),
+                granularidade, null, null, null);
+    }
+
+    @Test
+    @DisplayName("Deve somar meses cheios do rollup mensal e pontas parciais do diário")
+    void deveAgregarPorMes() {
+        lancar(LocalDate.of(2024, 1, 10), Transacao.TipoTransacao.SAIDA, "999.00", categoria);
+        lancar(LocalDate.of(2024, 1, 20), Transacao.TipoTransacao.SAIDA, "10.00", categoria);
+        lancar(LocalDate.of(2024, 2, 5), Transacao.TipoTransacao.SAIDA, "20.00", categoria);
+        lancar(LocalDate.of(2024, 2, 25), Transacao.TipoTransacao.SAIDA, "30.00", categoria);
+        lancar(LocalDate.of(2024, 3, 3), Transacao.TipoTransacao.SAIDA, "40.00", categoria);
+        lancar(LocalDate.of(2024, 3, 20), Transacao.TipoTransacao.SAIDA, "999.00", categoria);
+
+        List<AgregadoRelatorioDTO> relatorio = consultar("2024-01-15", "2024-03-10", Granularidade.MES);
+
+        assertThat(relatorio).extracting(AgregadoRelatorioDTO::periodo)
+                .containsExactly(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1), LocalDate.of(2024, 3, 1));
+        assertThat(relatorio).extracting(AgregadoRelatorioDTO::total)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("10.00"), new BigDecimal("50.00"), new BigDecimal("40.00"));
+        assertThat(relatorio.get(1).quantidade()).isEqualTo(2);
+        assertThat(relatorio.get(1).categoriaNome()).isEqualTo(categoria.getNome());
+        assertThat(relatorio.get(1).contaId()).isEqualTo(conta.getId());
+    }
+
+    @Test
+    @DisplayName("Deve agrupar por semana começando na segunda-feira e separar transações sem categoria")
+    void deveAgregarPorSemana() {
+        lancar(LocalDate.of(2024, 4, 1), Transacao.TipoTransacao.SAIDA, "10.00", categoria);
+        lancar(LocalDate.of(2024, 4, 7), Transacao.TipoTransacao.SAIDA, "15.00", categoria);
+        lancar(LocalDate.of(2024, 4, 8), Transacao.TipoTransacao.ENTRADA, "500.00", null);
+
+        List<AgregadoRelatorioDTO> relatorio = consultar("2024-04-01", "2024-04-14", Granularidade.SEMANA);
+
+        assertThat(relatorio).hasSize(2);
+        assertThat(relatorio.get(0).periodo()).isEqualTo(LocalDate.of(2024, 4, 1));
+        assertThat(relatorio.get(0).total()).isEqualByComparingTo("25.00");
+        assertThat(relatorio.get(1).periodo()).isEqualTo(LocalDate.of(2024, 4, 8));
+        assertThat(relatorio.get(1).categoriaId()).isNull();
+        assertThat(relatorio.get(1).tipo()).isEqualTo(Transacao.TipoTransacao.ENTRADA);
+    }
+
+    @Test
+    @DisplayName("Deve agregar período em que nenhuma transação tem categoria")
+    void deveAgregarSomenteSemCategoria() {
+        lancar(LocalDate.of(2024, 7, 2), Transacao.TipoTransacao.ENTRADA, "300.00", null);
+        lancar(LocalDate.of(2024, 7, 3), Transacao.TipoTransacao.SAIDA, "45.00", null);
+
+        List<AgregadoRelatorioDTO> relatorio = consultar("2024-07-01", "2024-07-31", Granularidade.MES);
+
+        assertThat(relatorio).hasSize(2).allSatisfy(agregado -> {
+            assertThat(agregado.categoriaId()).isNull();
+            assertThat(agregado.categoriaNome()).isNull();
+        });
+        assertThat(relatorio).extracting(AgregadoRelatorioDTO::total)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactlyInAnyOrder(new BigDecimal("300.00"), new BigDecimal("45.00"));
+    }
+
+    @Test
+    @DisplayName("Deve refletir remoções e atualizações nos rollups")
+    void deveAplicarRemocaoEAtualizacao() {
+        LancamentoTransacao removida = lancar(LocalDate.of(2024, 5, 2), Transacao.TipoTransacao.SAIDA, "70.00", categoria);
+        LancamentoTransacao alterada = lancar(LocalDate.of(2024, 5, 3), Transacao.TipoTransacao.SAIDA, "30.00", categoria);
+
+        transacaoRepository.deleteById(removida.transacaoId());
+        agregadorRelatorios.aoRemover(removida);
+
+        Transacao transacao = transacaoRepository.findById(alterada.transacaoId()).orElseThrow();
+        transacao.setValor(new BigDecimal("45.00"));
+        transacaoRepository.save(transacao);
+        agregadorRelatorios.aoAtualizar(alterada, LancamentoTransacao.fromEntity(transacao));
+
+        assertThat(consultar("2024-05-01", "2024-05-31", Granularidade.MES))
+                .singleElement()
+                .satisfies(linha -> {
+                    assertThat(linha.total()).isEqualByComparingTo("45.00");
+                    assertThat(linha.quantidade()).isEqualTo(1);
+                });
+        assertThat(consultar("2024-05-01", "2024-05-31", Granularidade.DIA))
+                .extracting(AgregadoRelatorioDTO::periodo)
+                .containsExactly(LocalDate.of(2024, 5, 3));
+    }
+
+    @Test
+    @DisplayName("Deve reconstruir os rollups a partir do livro")
+    void deveReconstruir() {
+        lancar(LocalDate.of(2024, 6, 10), Transacao.TipoTransacao.SAIDA, "12.00", categoria);
+        resumoMensalRepository.deleteAllInBatch();
+
+        agregadorRelatorios.reconstruir();
+
+        assertThat(consultar("2024-06-01", "2024-06-30", Granularidade.MES))
+                .singleElement()
+                .satisfies(linha -> assertThat(linha.total()).isEqualByComparingTo("12.00"));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar período com início depois do fim")
+    void deveRejeitarPeriodoInvalido() {
+        assertThatThrownBy(() -> consultar("2024-02-01", "2024-01-01", Granularidade.DIA))
+                .isInstanceOf(BusinessException.class);
+    }
+}
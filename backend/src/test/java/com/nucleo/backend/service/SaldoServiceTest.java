@@ -0,0 +1,138 @@
+package com.nucleo.backend.service;
+
+import com.nucleo.dto.ReconciliacaoSaldosDTO;
+import com.nucleo.dto.SaldoDTO;
+import com.nucleo.model.ContasBancarias;
+import com.nucleo.model.TipoConta;
+import com.nucleo.model.Transacao;
+import com.nucleo.model.Usuario;
+import com.nucleo.repository.ContasBancariasRepository;
+import com.nucleo.repository.SaldoContaRepository;
+import com.nucleo.repository.SaldoUsuarioRepository;
+import com.nucleo.repository.TransacaoRepository;
+import com.nucleo.repository.UsuarioRepository;
+import com.nucleo.service.SaldoService;
+import com.nucleo.service.listener.LancamentoTransacao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"saldos.reconciliacao.habilitada=false", "saldos.reconciliacao.lote=2"})
+@Transactional
+class SaldoServiceTest {
+
+    @Autowired
+    private SaldoService saldoService;
+
+    @Autowired
+    private SaldoContaRepository saldoContaRepository;
+
+    @Autowired
+    private SaldoUsuarioRepository saldoUsuarioRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ContasBancariasRepository contasBancariasRepository;
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    private Usuario usuario;
+    private ContasBancarias conta;
+
+    @BeforeEach
+    void setup() {
+        usuario = usuarioRepository.save(Usuario.builder()
+                .nome("Saldo").email("saldo-" + UUID.randomUUID() + "@nucleo.com").senha("x").build());
+        conta = contasBancariasRepository.save(ContasBancarias.builder()
+                .instituicao("Banco").tipo(TipoConta.CORRENTE).usuario(usuario)
+                .saldoInicial(new BigDecimal("100.00")).build());
+        saldoService.inicializarConta(conta);
+    }
+
+    private LancamentoTransacao lancar(Transacao.TipoTransacao tipo, String valor) {
+        Transacao salva = transacaoRepository.save(Transacao.builder()
+                .descricao("saldo").valor(new BigDecimal(valor)).data(LocalDate.now())
+                .tipo(tipo).usuario(usuario).conta(conta).build());
+        LancamentoTransacao lancamento = LancamentoTransacao.fromEntity(salva);
+        saldoService.aoIncluir(lancamento);
+        return lancamento;
+    }
+
+    @Test
+    @DisplayName("Deve acumular entradas e saídas na projeção da conta e do usuário")
+    void deveAcumularSaldo() {
+        lancar(Transacao.TipoTransacao.ENTRADA, "500.00");
+        LancamentoTransacao mercado = lancar(Transacao.TipoTransacao.SAIDA, "120.00");
+        saldoService.aoRemover(mercado);
+        lancar(Transacao.TipoTransacao.SAIDA, "80.00");
+
+        SaldoDTO saldoConta = saldoService.getSaldoConta(conta.getId());
+        assertThat(saldoConta.entradas()).isEqualByComparingTo("500.00");
+        assertThat(saldoConta.saidas()).isEqualByComparingTo("80.00");
+        assertThat(saldoConta.saldo()).isEqualByComparingTo("520.00");
+
+        assertThat(saldoService.getSaldoUsuario(usuario.getId()).saldo()).isEqualByComparingTo("420.00");
+    }
+
+    @Test
+    @DisplayName("Deve corrigir projeção divergente do livro na reconciliação")
+    void deveReconciliarDivergencia() {
+        lancar(Transacao.TipoTransacao.ENTRADA, "300.00");
+        saldoContaRepository.corrigir(conta.getId(), new BigDecimal("999.00"), BigDecimal.ZERO);
+
+        ReconciliacaoSaldosDTO resultado = saldoService.reconciliar();
+
+        assertThat(resultado.contasCorrigidas()).isEqualTo(1);
+        assertThat(saldoService.getSaldoConta(conta.getId()).saldo()).isEqualByComparingTo("400.00");
+    }
+
+    @Test
+    @DisplayName("Deve reconciliar página a página pela chave até a última linha")
+    void deveReconciliarEmPaginas() {
+        lancar(Transacao.TipoTransacao.SAIDA, "40.00");
+        ContasBancarias poupanca = contasBancariasRepository.save(ContasBancarias.builder()
+                .instituicao("Banco").tipo(TipoConta.POUPANCA).usuario(usuario).build());
+        saldoService.inicializarConta(poupanca);
+        ContasBancarias reserva = contasBancariasRepository.save(ContasBancarias.builder()
+                .instituicao("Banco").tipo(TipoConta.POUPANCA).usuario(usuario).build());
+        saldoService.inicializarConta(reserva);
+        saldoContaRepository.corrigir(conta.getId(), BigDecimal.ZERO, BigDecimal.ZERO);
+        saldoContaRepository.corrigir(reserva.getId(), new BigDecimal("10.00"), BigDecimal.ZERO);
+
+        // com paginas de 2 linhas, a conta criada por ultimo cai numa pagina depois da primeira
+        ReconciliacaoSaldosDTO resultado = saldoService.reconciliar();
+
+        assertThat(resultado.contasCorrigidas()).isEqualTo(2);
+        assertThat(resultado.contasVerificadas()).isEqualTo((int) saldoContaRepository.count());
+        assertThat(saldoService.getSaldoConta(conta.getId()).saidas()).isEqualByComparingTo("40.00");
+        assertThat(saldoService.getSaldoConta(reserva.getId()).saldo()).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    @DisplayName("Deve ignorar a semente quando outra transação já criou a linha")
+    void deveSemearSemDuplicar() {
+        transacaoRepository.save(Transacao.builder()
+                .descricao("saldo").valor(new BigDecimal("200.00")).data(LocalDate.now())
+                .tipo(Transacao.TipoTransacao.ENTRADA).usuario(usuario).conta(conta).build());
+
+        // a primeira escrita semeia; a segunda chega como a do concorrente que perdeu a corrida
+        assertThat(saldoUsuarioRepository.semear(usuario.getId(), BigDecimal.ZERO, BigDecimal.ZERO)).isEqualTo(1);
+        assertThat(saldoUsuarioRepository.semear(usuario.getId(), new BigDecimal("200.00"), BigDecimal.ZERO)).isZero();
+        assertThat(saldoContaRepository.semear(conta.getId(), new BigDecimal("200.00"), BigDecimal.ZERO)).isZero();
+
+        assertThat(saldoService.getSaldoUsuario(usuario.getId()).saldo()).isEqualByComparingTo("200.00");
+        assertThat(saldoService.getSaldoConta(conta.getId()).saldo()).isEqualByComparingTo("100.00");
+    }
+}
@@ -1,5 +1,6 @@
 package com.nucleo.backend.service;
 
+import com.nucleo.dto.PaginaDTO;
 import com.nucleo.dto.TransacaoRequestDTO;
 import com.nucleo.dto.TransacaoResponseDTO;
 import com.nucleo.exception.EntityNotCreatedException;
@@ -24,6 +25,7 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -61,6 +63,15 @@ class TransacaoServiceTest {
     @MockBean
     private com.nucleo.service.EmailService emailService;
 
+    @MockBean
+    private com.nucleo.service.notificacao.NotificacaoService notificacaoService;
+
+    @MockBean
+    private com.nucleo.service.SaldoService saldoService;
+
+    @MockBean
+    private com.nucleo.service.relatorio.AgregadorRelatorios agregadorRelatorios;
+
     private Usuario usuario;
     private Categoria categoria;
     private Transacao transacao;
@@ -166,10 +177,10 @@ class TransacaoServiceTest {
     @Test
     @DisplayName("Deve listar todas as transações do usuário")
     void deveListarTransacoesUsuario() {
-        BDDMockito.given(transacaoRepository.findByUsuarioId(1L))
-                .willReturn(List.of(transacao));
+        BDDMockito.given(transacaoRepository.listarPorUsuario(1L))
+                .willReturn(List.of(TransacaoResponseDTO.fromEntity(transacao)));
 
-        List<Transacao> resultado = transacaoService.listarTodas();
+        List<TransacaoResponseDTO> resultado = transacaoService.listarTodas();
 
         assertThat(resultado).hasSize(1);
         assertThat(resultado.get(0).getDescricao()).isEqualTo("Supermercado");
@@ -180,15 +191,40 @@ class TransacaoServiceTest {
     void deveListarTodasPorUsuarioId() {
         BDDMockito.given(usuarioService.buscarPorId(1L))
                 .willReturn(new com.nucleo.dto.UsuarioResponseDTO(1L, "Isabel", "isa@nucleo.com", java.util.Set.of(com.nucleo.model.Usuario.Role.ROLE_USER), true));
-        BDDMockito.given(transacaoRepository.findByUsuarioId(1L))
-                .willReturn(List.of(transacao));
+        BDDMockito.given(transacaoRepository.listarPorUsuario(1L))
+                .willReturn(List.of(TransacaoResponseDTO.fromEntity(transacao)));
 
-        List<Transacao> resultado = transacaoService.listarTodas(1L);
+        List<TransacaoResponseDTO> resultado = transacaoService.listarTodas(1L);
 
         assertThat(resultado).hasSize(1);
         assertThat(resultado.get(0).getValor()).isEqualByComparingTo("120.00");
     }
 
+    @Test
+    @DisplayName("Deve paginar por cursor e continuar a partir da última transação entregue")
+    void devePaginarPorCursor() {
+        Transacao anterior = Transacao.builder().id(7L).descricao("Padaria").valor(new BigDecimal("10.00"))
+                .data(LocalDate.of(2024, 1, 3)).tipo(Transacao.TipoTransacao.SAIDA).usuario(usuario).build();
+        Transacao maisAntiga = Transacao.builder().id(3L).descricao("Feira").valor(new BigDecimal("30.00"))
+                .data(LocalDate.of(2024, 1, 1)).tipo(Transacao.TipoTransacao.SAIDA).usuario(usuario).build();
+        BDDMockito.given(transacaoRepository.buscarPrimeiraPagina(1L, null, Limit.of(3)))
+                .willReturn(List.of(TransacaoResponseDTO.fromEntity(transacao), TransacaoResponseDTO.fromEntity(anterior),
+                        TransacaoResponseDTO.fromEntity(maisAntiga)));
+
+        PaginaDTO<TransacaoResponseDTO> primeira = transacaoService.listarPagina(1L, null, null, 2);
+
+        assertThat(primeira.itens()).extracting(TransacaoResponseDTO::getId).containsExactly(1L, 7L);
+        assertThat(primeira.proximoCursor()).isNotNull();
+
+        BDDMockito.given(transacaoRepository.buscarPaginaApos(1L, null, LocalDate.of(2024, 1, 3), 7L, Limit.of(3)))
+                .willReturn(List.of(TransacaoResponseDTO.fromEntity(maisAntiga)));
+
+        PaginaDTO<TransacaoResponseDTO> segunda = transacaoService.listarPagina(1L, null, primeira.proximoCursor(), 2);
+
+        assertThat(segunda.itens()).extracting(TransacaoResponseDTO::getId).containsExactly(3L);
+        assertThat(segunda.proximoCursor()).isNull();
+    }
+
     // ---------------------------
     // 🔹 BUSCA
     // ---------------------------
@@ -0,0 +1,168 @@
+package com.nucleo.backend.service;
+
+import com.nucleo.dto.ResultadoVarreduraDTO;
+import com.nucleo.model.Alerta;
+import com.nucleo.model.Categoria;
+import com.nucleo.model.ContasBancarias;
+import com.nucleo.model.NotificacaoEmail;
+import com.nucleo.model.ResumoDiario;
+import com.nucleo.model.TipoConta;
+import com.nucleo.model.Transacao;
+import com.nucleo.model.Usuario;
+import com.nucleo.repository.AlertaRepository;
+import com.nucleo.repository.CategoriaRepository;
+import com.nucleo.repository.ContasBancariasRepository;
+import com.nucleo.repository.EstadoAlertaRepository;
+import com.nucleo.repository.NotificacaoEmailRepository;
+import com.nucleo.repository.ResumoDiarioRepository;
+import com.nucleo.repository.SaldoContaRepository;
+import com.nucleo.repository.TransacaoRepository;
+import com.nucleo.repository.UsuarioRepository;
+import com.nucleo.service.alerta.VarreduraAlertas;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// sem @Transactional: as faixas rodam em outras threads e so enxergam dados confirmados
+@SpringBootTest(properties = {
+        "alertas.varredura.habilitada=false",
+        "alertas.varredura.tamanho-faixa=3",
+        "notificacoes.drenagem.habilitada=false"
+})
+class VarreduraAlertasTest {
+
+    @Autowired
+    private VarreduraAlertas varreduraAlertas;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ContasBancariasRepository contasBancariasRepository;
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    @Autowired
+    private AlertaRepository alertaRepository;
+
+    @Autowired
+    private ResumoDiarioRepository resumoDiarioRepository;
+
+    @Autowired
+    private SaldoContaRepository saldoContaRepository;
+
+    @Autowired
+    private NotificacaoEmailRepository notificacaoRepository;
+
+    @Autowired
+    private EstadoAlertaRepository estadoAlertaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Usuario usuario;
+    private Categoria categoria;
+    private ContasBancarias conta;
+    private Alerta saldoMinimo;
+    private Alerta limiteCategoria;
+
+    @BeforeEach
+    void setup() {
+        usuario = usuarioRepository.save(Usuario.builder()
+                .nome("Varredura").email("varredura-" + UUID.randomUUID() + "@nucleo.com").senha("x").build());
+        categoria = categoriaRepository.save(Categoria.builder()
+                .nome("Varredura " + UUID.randomUUID()).tipo(Categoria.TipoCategoria.SAIDA).usuario(usuario).build());
+        // sem linha em saldos_conta: a varredura semeia a partir do livro
+        conta = contasBancariasRepository.save(ContasBancarias.builder()
+                .instituicao("Banco").tipo(TipoConta.CORRENTE).usuario(usuario)
+                .saldoInicial(new BigDecimal("100.00")).build());
+        transacaoRepository.save(Transacao.builder().descricao("Mercado").valor(new BigDecimal("30.00"))
+                .data(LocalDate.now()).tipo(Transacao.TipoTransacao.SAIDA)
+                .usuario(usuario).categoria(categoria).conta(conta).build());
+
+        saldoMinimo = alertaRepository.save(Alerta.builder().usuario(usuario).nomeRegra("saldo")
+                .tipo(Alerta.TipoAlerta.SALDO_MINIMO).conta(conta).limiteValor(new BigDecimal("50.00")).build());
+        limiteCategoria = alertaRepository.save(Alerta.builder().usuario(usuario).nomeRegra("limite")
+                .tipo(Alerta.TipoAlerta.LIMITE_CATEGORIA).categoria(categoria).janelaDias(7)
+                .limiteValor(new BigDecimal("100.00")).build());
+
+        resumir(LocalDate.now(), "30.00");
+        resumir(LocalDate.now().minusDays(10), "500.00");
+    }
+
+    private void resumir(LocalDate data, String total) {
+        resumoDiarioRepository.save(ResumoDiario.builder().usuarioId(usuario.getId()).data(data)
+                .categoriaId(categoria.getId()).contaId(conta.getId()).tipo(Transacao.TipoTransacao.SAIDA)
+                .total(new BigDecimal(total)).quantidade(1L).build());
+    }
+
+    private List<NotificacaoEmail> notificacoes() {
+        return notificacaoRepository.findAll().stream()
+                .filter(notificacao -> usuario.getId().equals(notificacao.getUsuarioId()))
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Deve disparar saldo mínimo e limite por categoria uma vez enquanto seguem estourados")
+    void deveDispararSoNovosEstouros() {
+        ResultadoVarreduraDTO primeira = varreduraAlertas.varrer();
+
+        assertThat(primeira.faixasComErro()).isZero();
+        assertThat(primeira.alertasAvaliados()).isGreaterThanOrEqualTo(2);
+        assertThat(saldoContaRepository.buscarSaldo(conta.getId()).orElseThrow().saldo())
+                .isEqualByComparingTo("70.00");
+        // o gasto de 10 dias atras fica fora da janela de 7
+        assertThat(notificacoes()).isEmpty();
+
+        // saldo caindo fora da avaliacao por lancamento (edicao ou exclusao) e gasto novo na janela
+        transactionTemplate.executeWithoutResult(status ->
+                saldoContaRepository.acumular(conta.getId(), BigDecimal.ZERO, new BigDecimal("40.00")));
+        resumir(LocalDate.now().minusDays(3), "80.00");
+
+        varreduraAlertas.varrer();
+
+        assertThat(notificacoes()).extracting(NotificacaoEmail::getAlertaId)
+                .containsExactlyInAnyOrder(saldoMinimo.getId(), limiteCategoria.getId());
+
+        // continuam estourados: nada novo
+        varreduraAlertas.varrer();
+        assertThat(notificacoes()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Deve rearmar a regra que voltou ao limite e notificar o próximo estouro sem esperar o intervalo")
+    void deveRearmarAoNormalizar() {
+        varreduraAlertas.varrer();
+        transactionTemplate.executeWithoutResult(status ->
+                saldoContaRepository.acumular(conta.getId(), BigDecimal.ZERO, new BigDecimal("60.00")));
+        varreduraAlertas.varrer();
+        assertThat(notificacoes()).extracting(NotificacaoEmail::getAlertaId).containsExactly(saldoMinimo.getId());
+
+        // deposito devolve o saldo acima do minimo e um novo saque derruba de novo
+        transactionTemplate.executeWithoutResult(status ->
+                saldoContaRepository.acumular(conta.getId(), new BigDecimal("100.00"), BigDecimal.ZERO));
+        varreduraAlertas.varrer();
+        assertThat(estadoAlertaRepository.findById(saldoMinimo.getId()).orElseThrow().getEmDisparo()).isFalse();
+
+        transactionTemplate.executeWithoutResult(status ->
+                saldoContaRepository.acumular(conta.getId(), BigDecimal.ZERO, new BigDecimal("100.00")));
+        varreduraAlertas.varrer();
+
+        assertThat(notificacoes()).hasSize(2);
+        assertThat(estadoAlertaRepository.findById(saldoMinimo.getId()).orElseThrow().getDisparos()).isEqualTo(2L);
+    }
+}